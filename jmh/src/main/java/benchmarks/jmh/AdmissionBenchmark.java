@@ -0,0 +1,65 @@
+package benchmarks.jmh;
+
+import enums.Payment;
+import models.Ticket;
+import models.Vehicle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vehicles entering and leaving through the lot's gates
+ *
+ * Every operation leaves the lot as it found it, so occupancy stays at the @Param value
+ * for the whole run: parking is measured together with the matching exit.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AdmissionBenchmark {
+
+    @Benchmark
+    public Ticket parkAndExit(LotState lot, Driver driver) {
+        Vehicle vehicle = driver.next();
+        Ticket ticket = lot.parkingLot.parkVehicle(vehicle, LotState.ENTRY_GATE);
+        lot.parkingLot.exitVehicle(vehicle.getVehicleNo(), LotState.EXIT_GATE, Payment.CARD);
+        return ticket;
+    }
+
+    /**
+     * batchSize vehicles admitted one at a time
+     */
+    @Benchmark
+    public void parkLoopAndExit(LotState lot, Driver driver, Blackhole blackhole) {
+        for (Vehicle vehicle : driver.batch) {
+            blackhole.consume(lot.parkingLot.parkVehicle(vehicle, LotState.ENTRY_GATE));
+        }
+        exitAll(lot, driver.batch);
+    }
+
+    /**
+     * batchSize vehicles admitted through parkVehicles in one call
+     */
+    @Benchmark
+    public List<Ticket> parkBatchAndExit(LotState lot, Driver driver) {
+        List<Ticket> tickets = lot.parkingLot.parkVehicles(driver.batch, LotState.ENTRY_GATE);
+        exitAll(lot, driver.batch);
+        return tickets;
+    }
+
+    private static void exitAll(LotState lot, List<Vehicle> vehicles) {
+        for (Vehicle vehicle : vehicles) {
+            lot.parkingLot.exitVehicle(vehicle.getVehicleNo(), LotState.EXIT_GATE, Payment.CARD);
+        }
+    }
+}
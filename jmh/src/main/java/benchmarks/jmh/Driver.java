@@ -0,0 +1,53 @@
+package benchmarks.jmh;
+
+import enums.FuelType;
+import models.Vehicle;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Vehicles owned by one benchmark thread, so threads never park the same plate
+ */
+@State(Scope.Thread)
+public class Driver {
+    private static final AtomicInteger THREADS = new AtomicInteger();
+
+    /** Vehicles per parkBatch or parkLoop operation */
+    @Param({"100"})
+    public int batchSize;
+
+    Vehicle[] vehicles;
+    List<Vehicle> batch;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int thread = THREADS.getAndIncrement();
+        vehicles = new Vehicle[LotState.MIXED_TRAFFIC.length];
+        for (int k = 0; k < vehicles.length; k++) {
+            vehicles[k] = new Vehicle("B" + thread + "X" + k, LotState.MIXED_TRAFFIC[k],
+                    k == 0 ? FuelType.ELECTRIC : FuelType.PETROL);
+        }
+        batch = new ArrayList<>(batchSize);
+        for (int k = 0; k < batchSize; k++) {
+            batch.add(new Vehicle("A" + thread + "X" + k, LotState.MIXED_TRAFFIC[k % LotState.MIXED_TRAFFIC.length],
+                    FuelType.PETROL));
+        }
+    }
+
+    /**
+     * The thread's vehicles in turn: an electric car, then a bike, car, auto-rickshaw and bus
+     */
+    Vehicle next() {
+        Vehicle vehicle = vehicles[cursor];
+        cursor = cursor + 1 == vehicles.length ? 0 : cursor + 1;
+        return vehicle;
+    }
+}
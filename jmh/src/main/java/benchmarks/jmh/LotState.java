@@ -0,0 +1,96 @@
+package benchmarks.jmh;
+
+import enums.FuelType;
+import enums.VehicleType;
+import interfaces.SlotAllocationStrategy;
+import models.EntryGate;
+import models.ParkingFloor;
+import models.ParkingLot;
+import models.Vehicle;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import simulation.LoadGenerator;
+import strategies.BestFitSlotStrategy;
+import strategies.FloorFirstSlotStrategy;
+import strategies.NearestSlotStrategy;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+
+/**
+ * A lot shared by all benchmark threads, pre-filled to the requested occupancy
+ *
+ * Floors are split 40% small, 40% medium and 20% large, with one entry and one exit gate,
+ * as in the simulation. Residents arrive in the same mixed traffic the benchmarks use.
+ */
+@State(Scope.Benchmark)
+public class LotState {
+    static final String ENTRY_GATE = "ENTRY_01";
+    static final String EXIT_GATE = "EXIT_01";
+    static final VehicleType[] MIXED_TRAFFIC = {
+            VehicleType.CAR, VehicleType.BIKE, VehicleType.CAR, VehicleType.AUTO, VehicleType.BUS
+    };
+
+    @Param({"4"})
+    public int floors;
+
+    @Param({"1000", "10000"})
+    public int slotsPerFloor;
+
+    @Param({"0.5", "0.95"})
+    public double occupancy;
+
+    /** nearest, bestFit or floorFirst */
+    @Param({"nearest", "bestFit"})
+    public String strategy;
+
+    ParkingLot parkingLot;
+    List<ParkingFloor> floorList;
+    EntryGate entryGate;
+    SlotAllocationStrategy allocationStrategy;
+
+    private PrintStream console;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Engine logging would dominate the measurement
+        console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        allocationStrategy = strategyNamed(strategy);
+        parkingLot = LoadGenerator.buildLot(floors, slotsPerFloor, 1, 1, allocationStrategy);
+        floorList = parkingLot.getFloors();
+        entryGate = parkingLot.getGateRegistry().getEntryGate(ENTRY_GATE);
+
+        int target = (int) (floors * (long) slotsPerFloor * occupancy);
+        for (int i = 0; i < target; i++) {
+            Vehicle resident = new Vehicle("R" + i, MIXED_TRAFFIC[i % MIXED_TRAFFIC.length], FuelType.PETROL);
+            if (parkingLot.parkVehicle(resident, ENTRY_GATE) == null) {
+                break;
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setOut(console);
+    }
+
+    private static SlotAllocationStrategy strategyNamed(String name) {
+        switch (name) {
+            case "nearest":
+                return new NearestSlotStrategy();
+            case "bestFit":
+                return new BestFitSlotStrategy();
+            case "floorFirst":
+                return new FloorFirstSlotStrategy();
+            default:
+                throw new IllegalArgumentException("Unknown strategy: " + name);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package benchmarks.jmh;
+
+import models.OccupancySnapshot;
+import models.ParkingFloor;
+import models.ParkingSlot;
+import models.Ticket;
+import models.Vehicle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import strategies.DynamicPricing;
+import strategies.SurgePricing;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read-only work a gate or status board does against a lot: slot searches, capacity
+ * checks, occupancy reads and pricing. Nothing is parked, so the lot never changes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryBenchmark {
+
+    /**
+     * Pricing over the shared lot, with a ticket of the thread's own to price
+     */
+    @State(Scope.Thread)
+    public static class Pricing {
+        DynamicPricing dynamic;
+        SurgePricing surge;
+        Ticket ticket;
+
+        @Setup(Level.Trial)
+        public void setUp(LotState lot, Driver driver) {
+            dynamic = new DynamicPricing();
+            surge = new SurgePricing(dynamic, lot.parkingLot);
+            surge.refresh();
+            ticket = new Ticket(driver.next(), lot.floorList.get(0).getParkingSlots().get(0), LotState.ENTRY_GATE);
+        }
+    }
+
+    /**
+     * Nearest slot by entry floor, without claiming it
+     */
+    @Benchmark
+    public ParkingSlot allocate(LotState lot, Driver driver) {
+        return lot.allocationStrategy.allocateParkingSlot(driver.next(), lot.floorList, 0);
+    }
+
+    /**
+     * Nearest slot by walking distance from the entry gate, without claiming it
+     */
+    @Benchmark
+    public ParkingSlot allocateGate(LotState lot, Driver driver) {
+        return lot.allocationStrategy.allocateParkingSlot(driver.next(), lot.floorList, lot.entryGate);
+    }
+
+    @Benchmark
+    public boolean hasCapacity(LotState lot, Driver driver) {
+        return lot.entryGate.hasCapacity(driver.next(), lot.floorList);
+    }
+
+    /**
+     * Count the free slots that fit a vehicle on every floor from the floors' SlotColumns
+     */
+    @Benchmark
+    public int scanFree(LotState lot, Driver driver) {
+        Vehicle vehicle = driver.next();
+        int free = 0;
+        for (ParkingFloor floor : lot.floorList) {
+            free += floor.getSlotColumns().countFree(vehicle);
+        }
+        return free;
+    }
+
+    @Benchmark
+    public OccupancySnapshot snapshot(LotState lot) {
+        return lot.parkingLot.getOccupancySnapshot();
+    }
+
+    @Benchmark
+    public String capacityReport(LotState lot) {
+        return lot.parkingLot.getCapacityInfo();
+    }
+
+    @Benchmark
+    public long price(Pricing pricing) {
+        return pricing.dynamic.calculatePriceCents(pricing.ticket);
+    }
+
+    @Benchmark
+    public long priceSurge(Pricing pricing) {
+        return pricing.surge.calculatePriceCents(pricing.ticket);
+    }
+}
@@ -1,13 +1,23 @@
 import models.*;
 import strategies.*;
 import enums.*;
+import events.*;
+import simulation.LoadGenerator;
+import java.util.Arrays;
 import java.util.Scanner;
 
 public class Main {
     private static ParkingLot parkingLot;
+    private static RingBufferEventSink eventSink;
     private static Scanner scanner = new Scanner(System.in);
     
-    public static void main(String[] args) {
+    public static void main(String[] args) throws Exception {
+        // Headless load-generator mode: java Main --simulate [options]
+        if (args.length > 0 && args[0].equals("--simulate")) {
+            LoadGenerator.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        
         System.out.println("🚗 Welcome to Smart Parking System 🚗");
         System.out.println("=====================================");
         
@@ -38,10 +48,14 @@ public class Main {
         }
         
         scanner.close();
+        eventSink.close();
     }
     
     private static void setupParkingLot() {
         parkingLot = new ParkingLot(new NearestSlotStrategy(), new DynamicPricing());
+        eventSink = new RingBufferEventSink(1024);
+        eventSink.subscribe(new ConsoleEventSubscriber());
+        parkingLot.setEventSink(eventSink);
         parkingLot.initializeDefault();
         
         System.out.println("✅ Parking system ready!");
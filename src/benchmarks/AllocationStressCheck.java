@@ -0,0 +1,201 @@
+package benchmarks;
+
+import enums.FuelType;
+import enums.Payment;
+import enums.SlotStatus;
+import enums.VehicleType;
+import interfaces.SlotAllocationStrategy;
+import models.EntryGate;
+import models.ExitGate;
+import models.ParkingFloor;
+import models.ParkingLot;
+import models.ParkingSlot;
+import models.Ticket;
+import models.Vehicle;
+import strategies.DynamicPricing;
+import strategies.FloorFirstSlotStrategy;
+import strategies.NearestSlotStrategy;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Multi-threaded stress check: hammers the lot from gates on every floor and proves that
+ * no slot is ever handed to two vehicles at once.
+ *
+ * Usage:
+ *   java benchmarks.AllocationStressCheck --floors=4 --slots=500 --threads=16 --seconds=5
+ *                                         --strategy=floorFirst,nearest
+ *
+ * Every thread owns one entry gate (gates are spread over the floors) and keeps parking new
+ * vehicles and exiting its own. Each successful park registers its slot in an ownership map;
+ * a second owner for the same slot is a double allocation. At the end the slots, the floor
+ * counters and the active tickets must all agree. Exits with status 1 on any violation.
+ */
+public class AllocationStressCheck {
+    private static final VehicleType[] VEHICLE_TYPES = VehicleType.values();
+    private static final FuelType[] FUEL_TYPES = FuelType.values();
+    private static final String EXIT_GATE = "EXIT_01";
+
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            int split = arg.indexOf('=');
+            if (!arg.startsWith("--") || split < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            options.put(arg.substring(2, split), arg.substring(split + 1));
+        }
+        int floors = Integer.parseInt(options.getOrDefault("floors", "4"));
+        int slots = Integer.parseInt(options.getOrDefault("slots", "500"));
+        int threads = Integer.parseInt(options.getOrDefault("threads", "16"));
+        long seconds = Long.parseLong(options.getOrDefault("seconds", "5"));
+
+        boolean passed = true;
+        for (String strategy : options.getOrDefault("strategy", "floorFirst,nearest").split(",")) {
+            passed &= run(strategy.trim(), floors, slots, threads, seconds);
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    private static boolean run(String strategyName, int floorCount, int slotsPerFloor, int threads, long seconds)
+            throws InterruptedException {
+        SlotAllocationStrategy strategy;
+        if (strategyName.equals("floorFirst")) {
+            strategy = new FloorFirstSlotStrategy();
+        } else if (strategyName.equals("nearest")) {
+            strategy = new NearestSlotStrategy();
+        } else {
+            throw new IllegalArgumentException("Unknown strategy: " + strategyName);
+        }
+
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        ParkingLot parkingLot = new ParkingLot(strategy, new DynamicPricing());
+        List<String> gateIds = new ArrayList<>();
+        for (int i = 0; i < floorCount; i++) {
+            ParkingFloor floor = new ParkingFloor(i);
+            floor.initializeSlots(slotsPerFloor * 2 / 5, slotsPerFloor * 2 / 5,
+                    slotsPerFloor - slotsPerFloor * 4 / 5, 25.0);
+            parkingLot.addFloor(floor);
+        }
+        for (int t = 0; t < threads; t++) {
+            String gateId = "ENTRY_" + t;
+            parkingLot.addEntryGate(new EntryGate(gateId, t % floorCount, strategy));
+            gateIds.add(gateId);
+        }
+        parkingLot.addExitGate(new ExitGate(EXIT_GATE, 0, new DynamicPricing()));
+
+        Map<ParkingSlot, String> owners = new ConcurrentHashMap<>();
+        AtomicLong parks = new AtomicLong();
+        AtomicLong exits = new AtomicLong();
+        AtomicLong rejections = new AtomicLong();
+        List<String> violations = new CopyOnWriteArrayList<>();
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch done = new CountDownLatch(threads);
+
+        try {
+            for (int t = 0; t < threads; t++) {
+                final int thread = t;
+                Thread worker = new Thread(() -> {
+                    List<String> parked = new ArrayList<>();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    long sequence = 0;
+                    try {
+                        while (running.get()) {
+                            // Lean towards parking so the lot spends most of the run nearly full
+                            if (parked.isEmpty() || random.nextInt(100) < 55) {
+                                String plate = "S" + thread + "X" + sequence++;
+                                Vehicle vehicle = new Vehicle(plate, VEHICLE_TYPES[random.nextInt(VEHICLE_TYPES.length)],
+                                        FUEL_TYPES[random.nextInt(FUEL_TYPES.length)]);
+                                Ticket ticket = parkingLot.parkVehicle(vehicle, gateIds.get(thread));
+                                if (ticket == null) {
+                                    rejections.incrementAndGet();
+                                    continue;
+                                }
+                                ParkingSlot slot = ticket.getParkingSlot();
+                                String previous = owners.putIfAbsent(slot, plate);
+                                if (previous != null) {
+                                    violations.add(slot.getSlotId() + " given to " + plate + " while held by " + previous);
+                                }
+                                if (slot.getCurrentVehicle() != vehicle && owners.get(slot) == plate) {
+                                    violations.add(slot.getSlotId() + " does not hold " + plate + " right after parking");
+                                }
+                                parked.add(plate);
+                                parks.incrementAndGet();
+                            } else {
+                                String plate = parked.remove(random.nextInt(parked.size()));
+                                ParkingSlot slot = parkingLot.getTicket(plate).getParkingSlot();
+                                // Release ownership first: the slot may be re-allocated as soon as it is freed
+                                owners.remove(slot, plate);
+                                if (parkingLot.exitVehicle(plate, EXIT_GATE, Payment.CARD)) {
+                                    exits.incrementAndGet();
+                                } else {
+                                    violations.add(plate + " could not exit");
+                                }
+                            }
+                        }
+                    } catch (RuntimeException e) {
+                        violations.add("Thread " + thread + " failed: " + e);
+                    } finally {
+                        done.countDown();
+                    }
+                }, "stress-" + t);
+                worker.start();
+            }
+
+            Thread.sleep(seconds * 1000);
+            running.set(false);
+            done.await();
+        } finally {
+            System.setOut(console);
+        }
+
+        // Slots, counters, tickets and ownership must agree once everything has settled
+        int filled = 0;
+        for (ParkingFloor floor : parkingLot.getFloors()) {
+            int floorFilled = 0;
+            for (ParkingSlot slot : floor.getParkingSlots()) {
+                if (slot.getSlotStatus() == SlotStatus.FILLED) {
+                    floorFilled++;
+                    Vehicle occupant = slot.getCurrentVehicle();
+                    String owner = owners.get(slot);
+                    if (occupant == null || !occupant.getVehicleNo().equals(owner)) {
+                        violations.add(slot.getSlotId() + " holds " + occupant + " but is owned by " + owner);
+                    }
+                }
+            }
+            if (floorFilled != floor.getTotalOccupiedSlots()) {
+                violations.add("Floor " + floor.getFloorId() + " counts " + floor.getTotalOccupiedSlots()
+                        + " occupied slots but " + floorFilled + " are filled");
+            }
+            if (floor.getTotalSlots() - floorFilled != floor.getTotalAvailableSlots()) {
+                violations.add("Floor " + floor.getFloorId() + " counts " + floor.getTotalAvailableSlots()
+                        + " available slots but " + (floor.getTotalSlots() - floorFilled) + " are empty");
+            }
+            filled += floorFilled;
+        }
+        if (filled != owners.size() || parkingLot.getActiveTickets().size() != owners.size()) {
+            violations.add(filled + " filled slots, " + owners.size() + " owned slots, "
+                    + parkingLot.getActiveTickets().size() + " active tickets");
+        }
+
+        System.out.printf("%-12s threads=%d floors=%d slots/floor=%d parks=%d exits=%d rejected=%d -> %s%n",
+                strategyName, threads, floorCount, slotsPerFloor, parks.get(), exits.get(), rejections.get(),
+                violations.isEmpty() ? "OK" : violations.size() + " VIOLATIONS");
+        for (int i = 0; i < Math.min(violations.size(), 20); i++) {
+            System.out.println("  " + violations.get(i));
+        }
+        return violations.isEmpty();
+    }
+}
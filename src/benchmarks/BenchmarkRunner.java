@@ -0,0 +1,188 @@
+package benchmarks;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Small JMH-style harness: warmup and measurement iterations of a fixed duration,
+ * run on a configurable number of threads.
+ * Reports throughput, average latency and allocation per operation (GC profiler equivalent).
+ */
+public class BenchmarkRunner {
+    private final int warmupIterations;
+    private final int measurementIterations;
+    private final long iterationMillis;
+
+    /**
+     * One benchmarked operation. Only run() is measured; setUp/tearDown
+     * restore state around it (e.g. exit the vehicle a park benchmark just parked).
+     */
+    public interface Workload {
+        default void setUp(int thread) {
+        }
+
+        void run(int thread);
+
+        default void tearDown(int thread) {
+        }
+    }
+
+    /**
+     * Aggregated result of one benchmark run
+     */
+    public static class Result {
+        private final String name;
+        private final long operations;
+        private final double opsPerSecond;
+        private final double nanosPerOp;
+        private final double bytesPerOp;
+        private final long gcCount;
+        private final long gcMillis;
+
+        Result(String name, long operations, double opsPerSecond, double nanosPerOp,
+               double bytesPerOp, long gcCount, long gcMillis) {
+            this.name = name;
+            this.operations = operations;
+            this.opsPerSecond = opsPerSecond;
+            this.nanosPerOp = nanosPerOp;
+            this.bytesPerOp = bytesPerOp;
+            this.gcCount = gcCount;
+            this.gcMillis = gcMillis;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public double getOpsPerSecond() {
+            return opsPerSecond;
+        }
+
+        public double getBytesPerOp() {
+            return bytesPerOp;
+        }
+
+        @Override
+        public String toString() {
+            double allocMbPerSecond = opsPerSecond * bytesPerOp / (1024.0 * 1024.0);
+            return String.format("%-28s %14.0f ops/s %10.1f ns/op %10.1f B/op %9.1f MB/s alloc  gc=%d (%d ms)  n=%d",
+                    name, opsPerSecond, nanosPerOp, bytesPerOp, allocMbPerSecond, gcCount, gcMillis, operations);
+        }
+    }
+
+    public BenchmarkRunner(int warmupIterations, int measurementIterations, long iterationMillis) {
+        this.warmupIterations = warmupIterations;
+        this.measurementIterations = measurementIterations;
+        this.iterationMillis = iterationMillis;
+    }
+
+    /**
+     * Run a workload on the given number of threads
+     * @param name Label used in the report
+     * @param threads Number of concurrent threads
+     * @param workload The operation to measure
+     * @return Aggregated measurement result
+     */
+    public Result run(String name, int threads, Workload workload) throws InterruptedException {
+        for (int i = 0; i < warmupIterations; i++) {
+            runIteration(threads, workload);
+        }
+
+        long gcCountBefore = totalGcCount();
+        long gcMillisBefore = totalGcMillis();
+
+        long operations = 0;
+        long bytes = 0;
+        double opsPerSecond = 0;
+        long busyNanos = 0;
+
+        for (int i = 0; i < measurementIterations; i++) {
+            long[][] perThread = runIteration(threads, workload);
+            for (long[] stats : perThread) {
+                operations += stats[0];
+                busyNanos += stats[1];
+                bytes += stats[2];
+                if (stats[1] > 0) {
+                    opsPerSecond += stats[0] * 1_000_000_000.0 / stats[1] / measurementIterations;
+                }
+            }
+        }
+
+        return new Result(name, operations, opsPerSecond,
+                operations == 0 ? 0 : (double) busyNanos / operations,
+                operations == 0 ? 0 : (double) bytes / operations,
+                totalGcCount() - gcCountBefore, totalGcMillis() - gcMillisBefore);
+    }
+
+    /**
+     * @return per thread: {operations, measured nanos, allocated bytes}
+     */
+    private long[][] runIteration(int threads, Workload workload) throws InterruptedException {
+        long[][] stats = new long[threads][3];
+        AtomicBoolean running = new AtomicBoolean(true);
+        CyclicBarrier start = new CyclicBarrier(threads + 1);
+        Thread[] workers = new Thread[threads];
+
+        for (int t = 0; t < threads; t++) {
+            final int thread = t;
+            workers[t] = new Thread(() -> {
+                com.sun.management.ThreadMXBean threadBean =
+                        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+                long operations = 0;
+                long nanos = 0;
+                long bytes = 0;
+
+                await(start);
+                while (running.get()) {
+                    workload.setUp(thread);
+                    long allocatedBefore = threadBean.getCurrentThreadAllocatedBytes();
+                    long startNanos = System.nanoTime();
+                    workload.run(thread);
+                    nanos += System.nanoTime() - startNanos;
+                    bytes += threadBean.getCurrentThreadAllocatedBytes() - allocatedBefore;
+                    workload.tearDown(thread);
+                    operations++;
+                }
+
+                stats[thread][0] = operations;
+                stats[thread][1] = nanos;
+                stats[thread][2] = bytes;
+            }, "bench-" + t);
+            workers[t].start();
+        }
+
+        await(start);
+        Thread.sleep(iterationMillis);
+        running.set(false);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return stats;
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await();
+        } catch (Exception e) {
+            throw new IllegalStateException("Benchmark threads failed to start together", e);
+        }
+    }
+
+    private static long totalGcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+
+    private static long totalGcMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            millis += Math.max(0, gc.getCollectionTime());
+        }
+        return millis;
+    }
+}
@@ -0,0 +1,171 @@
+package benchmarks;
+
+import cluster.LocalShard;
+import cluster.ParkingLotCluster;
+import cluster.Placement;
+import cluster.RemoteShard;
+import cluster.ShardCapacity;
+import cluster.ShardServer;
+import enums.FuelType;
+import enums.Payment;
+import enums.VehicleType;
+import models.ParkingLot;
+import models.Vehicle;
+import simulation.LoadGenerator;
+import strategies.NearestSlotStrategy;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sharded cluster check: fills a ParkingLotCluster past capacity, then empties it again
+ *
+ * Usage:
+ *   java benchmarks.ClusterCheck --shards=4 --floors=2 --slots=500 --load=1.1
+ *                                --transport=local|socket --threadsPerShard=2 --inFlight=256
+ *
+ * Vehicles arrive with up to inFlight requests outstanding. Afterwards every parked vehicle
+ * must be found on the shard that took it, the shards' ticket counts must add up, and after
+ * all exits every slot must be free again. Reports park/exit throughput and how many vehicles
+ * overflowed to a neighbouring shard. Exits with status 1 on any violation.
+ */
+public class ClusterCheck {
+    private static final VehicleType[] MIXED_TRAFFIC = {
+            VehicleType.CAR, VehicleType.BIKE, VehicleType.CAR, VehicleType.AUTO, VehicleType.CAR
+    };
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            int split = arg.indexOf('=');
+            if (!arg.startsWith("--") || split < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            options.put(arg.substring(2, split), arg.substring(split + 1));
+        }
+        int shards = Integer.parseInt(options.getOrDefault("shards", "4"));
+        int floors = Integer.parseInt(options.getOrDefault("floors", "2"));
+        int slots = Integer.parseInt(options.getOrDefault("slots", "500"));
+        double load = Double.parseDouble(options.getOrDefault("load", "1.1"));
+        String transport = options.getOrDefault("transport", "local");
+        int threadsPerShard = Integer.parseInt(options.getOrDefault("threadsPerShard", "2"));
+        int inFlight = Integer.parseInt(options.getOrDefault("inFlight", "256"));
+
+        // Setup chatter would drown the report
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        ParkingLotCluster cluster = new ParkingLotCluster();
+        List<AutoCloseable> resources = new ArrayList<>();
+        try {
+            for (int s = 0; s < shards; s++) {
+                ParkingLot lot = LoadGenerator.buildLot(floors, slots, 1, 1, new NearestSlotStrategy());
+                LocalShard local = new LocalShard("S" + s, lot, threadsPerShard);
+                resources.add(local);
+                if (transport.equals("socket")) {
+                    ShardServer server = new ShardServer(local, 0);
+                    RemoteShard remote = new RemoteShard("S" + s, server.getPort());
+                    resources.add(server);
+                    resources.add(remote);
+                    cluster.addShard(remote);
+                } else if (transport.equals("local")) {
+                    cluster.addShard(local);
+                } else {
+                    throw new IllegalArgumentException("Unknown transport: " + transport);
+                }
+            }
+        } finally {
+            System.setOut(console);
+        }
+
+        int totalSlots = cluster.getTotalCapacity().join().getTotalSlots();
+        int vehicles = (int) (totalSlots * load);
+        System.out.printf("%d shards over %s, %d slots, %d vehicles%n", shards, transport, totalSlots, vehicles);
+
+        Semaphore window = new Semaphore(inFlight);
+        Map<String, Placement> placements = new ConcurrentHashMap<>();
+        AtomicLong rejected = new AtomicLong();
+        AtomicLong failures = new AtomicLong();
+        List<CompletableFuture<?>> pending = new ArrayList<>();
+
+        long started = System.nanoTime();
+        for (int i = 0; i < vehicles; i++) {
+            Vehicle vehicle = new Vehicle("C" + i, MIXED_TRAFFIC[i % MIXED_TRAFFIC.length],
+                    i % 7 == 0 ? FuelType.ELECTRIC : FuelType.PETROL);
+            window.acquire();
+            pending.add(cluster.parkVehicle(vehicle).whenComplete((placement, failure) -> {
+                window.release();
+                if (failure != null) {
+                    failures.incrementAndGet();
+                } else if (placement == null) {
+                    rejected.incrementAndGet();
+                } else {
+                    placements.put(placement.getVehicleNo(), placement);
+                }
+            }));
+        }
+        CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0])).join();
+        double parkSeconds = (System.nanoTime() - started) / 1e9;
+        long overflowed = placements.values().stream().filter(Placement::isOverflow).count();
+        System.out.printf("Parked %d, rejected %d, overflowed %d (%.1f%%) in %.2f s: %.0f parks/s%n",
+                placements.size(), rejected.get(), overflowed, overflowed * 100.0 / Math.max(1, placements.size()),
+                parkSeconds, vehicles / parkSeconds);
+        System.out.print(cluster.getCapacityInfo());
+
+        boolean passed = failures.get() == 0;
+        int tickets = cluster.getTotalCapacity().join().getActiveTickets();
+        if (tickets != placements.size()) {
+            System.out.println("VIOLATION: shards hold " + tickets + " tickets for " + placements.size() + " parked vehicles");
+            passed = false;
+        }
+        for (Placement placement : placements.values()) {
+            Placement found = cluster.locateVehicle(placement.getVehicleNo()).join();
+            if (found == null || !found.getShardId().equals(placement.getShardId())
+                    || !found.getSlotId().equals(placement.getSlotId())) {
+                System.out.println("VIOLATION: " + placement + " located as " + found);
+                passed = false;
+            }
+        }
+
+        pending.clear();
+        AtomicLong failedExits = new AtomicLong();
+        started = System.nanoTime();
+        for (String vehicleNo : placements.keySet()) {
+            window.acquire();
+            pending.add(cluster.exitVehicle(vehicleNo, Payment.CARD).whenComplete((success, failure) -> {
+                window.release();
+                if (failure != null || !success) {
+                    failedExits.incrementAndGet();
+                }
+            }));
+        }
+        CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0])).join();
+        double exitSeconds = (System.nanoTime() - started) / 1e9;
+        System.out.printf("Exited %d in %.2f s: %.0f exits/s%n", placements.size() - failedExits.get(),
+                exitSeconds, placements.size() / exitSeconds);
+
+        ShardCapacity after = cluster.getTotalCapacity().join();
+        if (failedExits.get() != 0 || after.getAvailableSlots() != after.getTotalSlots() || after.getActiveTickets() != 0) {
+            System.out.println("VIOLATION: after all exits " + after + ", failed exits " + failedExits.get());
+            passed = false;
+        }
+
+        for (AutoCloseable resource : resources) {
+            try {
+                resource.close();
+            } catch (Exception e) {
+                // Shutting down anyway
+            }
+        }
+        System.out.println(passed ? "OK" : "FAILED");
+        System.exit(passed ? 0 : 1);
+    }
+}
@@ -0,0 +1,153 @@
+package benchmarks;
+
+import enums.Payment;
+import enums.VehicleType;
+import interfaces.SlotAllocationStrategy;
+import models.EntryGate;
+import models.ParkingLot;
+import models.Ticket;
+import simulation.Arrival;
+import simulation.DwellTime;
+import simulation.LoadGenerator;
+import simulation.PoissonArrivals;
+import strategies.BestFitSlotStrategy;
+import strategies.NearestSlotStrategy;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Slot fragmentation check: how many vehicles per hour each allocation strategy admits
+ *
+ * Usage:
+ *   java benchmarks.FragmentationCheck --floors=4 --slots=200 --entryGates=4 --hours=24
+ *                                      --rate=0.085,0.095,0.12 --dwell=lognormal:7200:0.6 --ev=0.1 --seed=42 --spill=1.0
+ *                                      --mix=BIKE,BIKE,CAR,AUTO,BUS (repeat a type to weight it)
+ *
+ * Replays the same Poisson arrivals of mixed traffic against a
+ * fresh lot per strategy on a simulated clock; departures are processed in time order
+ * between arrivals. The seed fixes both the arrivals and which slots have charging, so a
+ * run is reproducible. Each comma-separated rate (arrivals per simulated second) is run
+ * in turn. The defaults put the lot just below and just past its capacity, where a bike or
+ * car in a bay it does not need turns a later bus away, and then far past it, where every
+ * bay is always taken and no strategy can admit more. Reports vehicles admitted per
+ * simulated hour, the change against the first strategy, and rejections by vehicle type.
+ */
+public class FragmentationCheck {
+    private static final VehicleType[] VEHICLE_TYPES = VehicleType.values();
+    // Demand in the same proportions as LoadGenerator.buildLot's slots: 40% small, 40% medium, 20% large
+    private static final String DEFAULT_MIX = "BIKE,BIKE,CAR,AUTO,BUS";
+
+    public static void main(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            int split = arg.indexOf('=');
+            if (!arg.startsWith("--") || split < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            options.put(arg.substring(2, split), arg.substring(split + 1));
+        }
+        int floors = Integer.parseInt(options.getOrDefault("floors", "4"));
+        int slots = Integer.parseInt(options.getOrDefault("slots", "200"));
+        int entryGates = Integer.parseInt(options.getOrDefault("entryGates", "4"));
+        double hours = Double.parseDouble(options.getOrDefault("hours", "24"));
+        String[] rates = options.getOrDefault("rate", "0.085,0.095,0.12").split(",");
+        DwellTime dwell = DwellTime.parse(options.getOrDefault("dwell", "lognormal:7200:0.6"));
+        double ev = Double.parseDouble(options.getOrDefault("ev", "0.1"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        double spill = Double.parseDouble(options.getOrDefault("spill",
+                String.valueOf(BestFitSlotStrategy.DEFAULT_SPILL_OCCUPANCY)));
+        String[] mixNames = options.getOrDefault("mix", DEFAULT_MIX).split(",");
+        VehicleType[] mix = new VehicleType[mixNames.length];
+        for (int i = 0; i < mix.length; i++) {
+            mix[i] = VehicleType.valueOf(mixNames[i].trim());
+        }
+
+        Map<String, SlotAllocationStrategy> strategies = new LinkedHashMap<>();
+        strategies.put("nearest", new NearestSlotStrategy());
+        strategies.put("bestFit(" + spill + ")", new BestFitSlotStrategy(spill));
+        for (String rateOption : rates) {
+            double rate = Double.parseDouble(rateOption.trim());
+            long count = (long) (rate * hours * 3600);
+            System.out.printf("%n# floors=%d slotsPerFloor=%d entryGates=%d hours=%.1f rate=%.3f/s arrivals=%d%n",
+                    floors, slots, entryGates, hours, rate, count);
+            long baseline = -1;
+            for (Map.Entry<String, SlotAllocationStrategy> strategy : strategies.entrySet()) {
+                PoissonArrivals arrivals = new PoissonArrivals(rate, count, dwell, ev, mix, seed);
+                long admitted = run(strategy.getKey(), strategy.getValue(), arrivals, floors, slots, entryGates,
+                        hours, seed, baseline);
+                if (baseline < 0) {
+                    baseline = admitted;
+                }
+            }
+        }
+    }
+
+    /**
+     * @param baseline Vehicles the first strategy admitted, or -1 when this is the first
+     * @return Vehicles admitted
+     */
+    private static long run(String name, SlotAllocationStrategy strategy, PoissonArrivals arrivals,
+                            int floorCount, int slotsPerFloor, int entryGateCount, double hours, long seed,
+                            long baseline) {
+        // Setup and gate chatter would drown the report
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        long[] admitted = new long[VEHICLE_TYPES.length];
+        long[] rejected = new long[VEHICLE_TYPES.length];
+        try {
+            ParkingLot lot = LoadGenerator.buildLot(floorCount, slotsPerFloor, entryGateCount, 1, strategy, seed);
+            List<EntryGate> gates = lot.getEntryGates();
+            String exitGate = lot.getExitGates().get(0).getExitGateId();
+            PriorityQueue<Departure> departures = new PriorityQueue<>();
+            int next = 0;
+            for (Arrival arrival = arrivals.next(); arrival != null; arrival = arrivals.next()) {
+                while (!departures.isEmpty() && departures.peek().atMillis <= arrival.getArrivalMillis()) {
+                    lot.exitVehicle(departures.poll().vehicleNo, exitGate, Payment.CARD);
+                }
+                String entryGate = gates.get(next++ % gates.size()).getEntryGateId();
+                Ticket ticket = lot.parkVehicle(arrival.getVehicle(), entryGate);
+                int type = arrival.getVehicle().getVehicleType().ordinal();
+                if (ticket == null) {
+                    rejected[type]++;
+                } else {
+                    admitted[type]++;
+                    departures.add(new Departure(arrival.getArrivalMillis() + arrival.getDwellMillis(),
+                            arrival.getVehicle().getVehicleNo()));
+                }
+            }
+        } finally {
+            System.setOut(console);
+        }
+
+        long totalAdmitted = 0;
+        StringBuilder rejections = new StringBuilder();
+        for (VehicleType type : VEHICLE_TYPES) {
+            totalAdmitted += admitted[type.ordinal()];
+            rejections.append(' ').append(type).append('=').append(rejected[type.ordinal()]);
+        }
+        String change = baseline < 0 ? "" : String.format(" %+5.1f%%", 100.0 * (totalAdmitted - baseline) / baseline);
+        System.out.printf("%-16s admitted %6d (%7.1f/h%s)  rejected:%s%n",
+                name, totalAdmitted, totalAdmitted / hours, change, rejections);
+        return totalAdmitted;
+    }
+
+    private static final class Departure implements Comparable<Departure> {
+        final long atMillis;
+        final String vehicleNo;
+
+        Departure(long atMillis, String vehicleNo) {
+            this.atMillis = atMillis;
+            this.vehicleNo = vehicleNo;
+        }
+
+        @Override
+        public int compareTo(Departure other) {
+            return Long.compare(atMillis, other.atMillis);
+        }
+    }
+}
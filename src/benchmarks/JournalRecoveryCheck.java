@@ -0,0 +1,270 @@
+package benchmarks;
+
+import enums.FuelType;
+import enums.Payment;
+import enums.VehicleType;
+import models.ParkingLot;
+import models.Ticket;
+import models.Vehicle;
+import persistence.TicketJournal;
+import simulation.LoadGenerator;
+import strategies.NearestSlotStrategy;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Journal recovery check: replays a million journaled events and holds recovery to a time budget
+ *
+ * Usage:
+ *   java benchmarks.JournalRecoveryCheck --events=1000000 --floors=4 --slots=10000 --occupancy=0.9
+ *                                        --target=1000 --runs=3 --seed=42 --dir=/tmp/journal
+ *
+ * Parks and exits vehicles through a journaled lot until it has written the given number of
+ * events, keeping the lot about occupancy full, with no snapshot so recovery has to replay
+ * every record. A new JVM then recovers the journal into a fresh lot with the same layout, as
+ * a restarted server would, so the timing includes cold code and JIT compilation; this is
+ * repeated runs times and the median is held to the target. Every ticket active at the end
+ * must come back in the same slot. Exits with status 1 if any does not or the median recovery
+ * takes longer than target milliseconds.
+ */
+public class JournalRecoveryCheck {
+    // Demand in the same proportions as LoadGenerator.buildLot's slots, so the lot fills evenly
+    private static final VehicleType[] MIXED_TRAFFIC = {
+            VehicleType.BIKE, VehicleType.BIKE, VehicleType.CAR, VehicleType.AUTO, VehicleType.BUS
+    };
+    private static final FuelType[] FUEL_TYPES = FuelType.values();
+    private static final String RESULT = "RESULT";
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            int split = arg.indexOf('=');
+            if (!arg.startsWith("--") || split < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            options.put(arg.substring(2, split), arg.substring(split + 1));
+        }
+        long events = Long.parseLong(options.getOrDefault("events", "1000000"));
+        int floors = Integer.parseInt(options.getOrDefault("floors", "4"));
+        int slots = Integer.parseInt(options.getOrDefault("slots", "10000"));
+        double occupancy = Double.parseDouble(options.getOrDefault("occupancy", "0.9"));
+        long targetMillis = Long.parseLong(options.getOrDefault("target", "1000"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        int runs = Integer.parseInt(options.getOrDefault("runs", "3"));
+        String dir = options.get("dir");
+        if (runs < 1) {
+            throw new IllegalArgumentException("Need at least one recovery run");
+        }
+        if (options.containsKey("recoverOnly")) {
+            recoverAndReport(Paths.get(dir), floors, slots, seed);
+            return;
+        }
+
+        Path directory = dir != null ? Paths.get(dir) : Files.createTempDirectory("journal-check");
+        if (Files.isDirectory(directory)) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+                if (files.iterator().hasNext()) {
+                    throw new IllegalArgumentException("Journal directory is not empty: " + directory);
+                }
+            }
+        }
+
+        List<String> violations = new ArrayList<>();
+        try {
+            // Setup and exit chatter would drown the report
+            PrintStream console = System.out;
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            ParkingLot parkingLot;
+            long writeStarted;
+            try {
+                parkingLot = LoadGenerator.buildLot(floors, slots, 4, 1, new NearestSlotStrategy(), seed);
+                writeStarted = System.nanoTime();
+                try (TicketJournal journal = new TicketJournal(directory, 0, 10, false)) {
+                    parkingLot.setJournal(journal);
+                    writeEvents(parkingLot, events, (int) (floors * slots * occupancy), seed);
+                    parkingLot.setJournal(null);
+                }
+            } finally {
+                System.setOut(console);
+            }
+            long writeMillis = (System.nanoTime() - writeStarted) / 1_000_000;
+            long journalBytes = 0;
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+                for (Path file : files) {
+                    journalBytes += Files.size(file);
+                }
+            }
+
+            long[] recoveryMillis = new long[runs];
+            for (int run = 0; run < runs; run++) {
+                recoveryMillis[run] = recoverInNewJvm(directory, floors, slots, seed, events, parkingLot, violations);
+            }
+            long[] sorted = recoveryMillis.clone();
+            Arrays.sort(sorted);
+            long medianMillis = sorted[runs / 2];
+            if (medianMillis > targetMillis) {
+                violations.add("recovery took " + medianMillis + " ms, target is " + targetMillis + " ms");
+            }
+
+            System.out.printf("events=%d journal=%.1f MB written in %d ms, restored=%d recovered in %d ms median"
+                            + " of %s (target %d ms) -> %s%n",
+                    events, journalBytes / 1e6, writeMillis, parkingLot.getActiveTickets().size(), medianMillis,
+                    Arrays.toString(recoveryMillis), targetMillis,
+                    violations.isEmpty() ? "OK" : violations.size() + " VIOLATIONS");
+            for (int i = 0; i < Math.min(violations.size(), 20); i++) {
+                System.out.println("  " + violations.get(i));
+            }
+        } finally {
+            if (dir == null) {
+                deleteJournal(directory);
+            }
+        }
+        System.exit(violations.isEmpty() ? 0 : 1);
+    }
+
+    /**
+     * Recover the journal in a new JVM and check every ticket it restored against the lot that wrote it
+     * @return Recovery time reported by that JVM
+     */
+    private static long recoverInNewJvm(Path directory, int floors, int slots, long seed, long events,
+                                        ParkingLot parkingLot, List<String> violations)
+            throws IOException, InterruptedException {
+        Process recovery = new ProcessBuilder(Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path"), JournalRecoveryCheck.class.getName(),
+                "--recoverOnly=true", "--dir=" + directory.toAbsolutePath(), "--floors=" + floors,
+                "--slots=" + slots, "--seed=" + seed)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        // The recovering JVM reports its result, then one "plate slotId ticketId" line per restored ticket
+        String[] result = null;
+        Map<String, String> restored = new HashMap<>();
+        try (BufferedReader lines = new BufferedReader(
+                new InputStreamReader(recovery.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = lines.readLine()) != null) {
+                if (line.startsWith(RESULT + " ")) {
+                    result = line.split(" ");
+                } else {
+                    int split = line.indexOf(' ');
+                    restored.put(line.substring(0, split), line.substring(split + 1));
+                }
+            }
+        }
+        if (recovery.waitFor() != 0 || result == null) {
+            throw new IllegalStateException("Recovery JVM failed with exit status " + recovery.exitValue());
+        }
+        long replayed = Long.parseLong(result[1]);
+        int unrestorable = Integer.parseInt(result[2]);
+
+        if (replayed != events) {
+            violations.add("replayed " + replayed + " of " + events + " records");
+        }
+        if (unrestorable != 0) {
+            violations.add(unrestorable + " tickets could not be restored");
+        }
+        if (restored.size() != parkingLot.getActiveTickets().size()) {
+            violations.add("restored " + restored.size() + " tickets but "
+                    + parkingLot.getActiveTickets().size() + " were active");
+        }
+        for (Ticket ticket : parkingLot.getActiveTickets()) {
+            String expected = ticket.getParkingSlot().getSlotId() + " " + ticket.getTicketId();
+            String actual = restored.get(ticket.getVehicle().getVehicleNo());
+            if (!expected.equals(actual)) {
+                violations.add(ticket.getVehicle().getVehicleNo() + " was parked as " + expected
+                        + " but restored as " + actual);
+            }
+            if (violations.size() > 20) {
+                break;
+            }
+        }
+        return Long.parseLong(result[3]);
+    }
+
+    /**
+     * Recover the journal as a freshly started server would and report what came back
+     */
+    private static void recoverAndReport(Path directory, int floors, int slots, long seed) throws IOException {
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        ParkingLot parkingLot;
+        long started;
+        TicketJournal.RecoveryResult result;
+        try {
+            parkingLot = LoadGenerator.buildLot(floors, slots, 4, 1, new NearestSlotStrategy(), seed);
+            started = System.nanoTime();
+            result = TicketJournal.recover(directory, parkingLot);
+        } finally {
+            System.setOut(console);
+        }
+        long recoveryMillis = (System.nanoTime() - started) / 1_000_000;
+
+        PrintStream out = new PrintStream(new BufferedOutputStream(console), false, StandardCharsets.UTF_8);
+        out.println(RESULT + " " + result.getReplayedRecords() + " " + result.getUnrestorableTickets()
+                + " " + recoveryMillis);
+        for (Ticket ticket : parkingLot.getActiveTickets()) {
+            out.println(ticket.getVehicle().getVehicleNo() + " " + ticket.getParkingSlot().getSlotId()
+                    + " " + ticket.getTicketId());
+        }
+        out.flush();
+    }
+
+    /**
+     * Park until the lot holds about activeTarget vehicles, then mix exits in to stay there
+     */
+    private static void writeEvents(ParkingLot parkingLot, long events, int activeTarget, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<String> parked = new ArrayList<>();
+        List<String> entryGates = new ArrayList<>();
+        parkingLot.getEntryGates().forEach(gate -> entryGates.add(gate.getEntryGateId()));
+        String exitGate = parkingLot.getExitGates().get(0).getExitGateId();
+        long written = 0;
+        long sequence = 0;
+        while (written < events) {
+            if (parked.isEmpty() || (parked.size() < activeTarget && random.nextInt(100) < 90)) {
+                String plate = "KA" + sequence++;
+                Vehicle vehicle = new Vehicle(plate, MIXED_TRAFFIC[random.nextInt(MIXED_TRAFFIC.length)],
+                        FUEL_TYPES[random.nextInt(FUEL_TYPES.length)]);
+                if (parkingLot.parkVehicle(vehicle, entryGates.get(random.nextInt(entryGates.size()))) != null) {
+                    parked.add(plate);
+                    written++;
+                }
+            } else {
+                // Swap-remove keeps the exit pick O(1)
+                int pick = random.nextInt(parked.size());
+                String plate = parked.get(pick);
+                parked.set(pick, parked.get(parked.size() - 1));
+                parked.remove(parked.size() - 1);
+                if (!parkingLot.exitVehicle(plate, exitGate, Payment.CARD)) {
+                    throw new IllegalStateException(plate + " could not exit");
+                }
+                written++;
+            }
+        }
+    }
+
+    private static void deleteJournal(Path directory) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+}
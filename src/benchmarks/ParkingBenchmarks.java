@@ -0,0 +1,334 @@
+package benchmarks;
+
+import enums.FuelType;
+import enums.Payment;
+import enums.SlotType;
+import enums.VehicleType;
+import interfaces.SlotAllocationStrategy;
+import metrics.MetricsRegistry;
+import models.EntryGate;
+import models.ExitGate;
+import models.ParkingFloor;
+import models.ParkingLot;
+import models.Ticket;
+import models.Vehicle;
+import reservations.ReservationBook;
+import timers.HierarchicalTimingWheel;
+import timers.TicketTimers;
+import strategies.BestFitSlotStrategy;
+import strategies.DynamicPricing;
+import strategies.NearestSlotStrategy;
+import strategies.SurgePricing;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Throughput and allocation benchmarks for the parking engine.
+ *
+ * Usage (after compiling as described in the README):
+ *   java benchmarks.ParkingBenchmarks --floors=4 --slots=1000,10000 --occupancy=0.5,0.95 --threads=1,4
+ *
+ * Every comma-separated parameter is swept, like JMH @Param values.
+ * Other options: --bench=park,exit,allocate,allocateGate,allocateBestFit,scanFree,hasCapacity,price,priceSurge,
+ *                        snapshot,capacity,parkLoop,parkBatch
+ *                --batch=100
+ *                --warmup=2 --iterations=3 --time=1000 --metrics=false --reservations=0 --timers=false --gates=1
+ * parkLoop and parkBatch admit --batch vehicles per operation, one at a time vs. through parkVehicles.
+ * allocate searches by entry floor; allocateGate by walking distance from the entry gate;
+ * allocateBestFit by entry floor within the tightest slot type (see FragmentationCheck for its effect).
+ * scanFree counts the free slots that fit a vehicle on every floor from the floors' SlotColumns;
+ * hasCapacity asks the entry gate whether any of them is free.
+ * snapshot reads the lot's occupancy snapshot; capacity renders the capacity report from it.
+ * --metrics=true records gate metrics during the run, to measure their overhead.
+ * --reservations=N books N one-hour windows over the coming week first, to show admission
+ * does not slow down with the size of the reservation book.
+ * --timers=true arms overstay and payment timers on every park, to measure their overhead.
+ * --gates=N gives the lot N entry and N exit gates; the benchmarks use the last ones added,
+ * to show gate lookup does not depend on the number of gates.
+ */
+public class ParkingBenchmarks {
+    private static final String ENTRY_GATE = "ENTRY_01";
+    private static final String EXIT_GATE = "EXIT_01";
+    private static final VehicleType[] MIXED_TRAFFIC = {
+            VehicleType.CAR, VehicleType.BIKE, VehicleType.CAR, VehicleType.AUTO, VehicleType.BUS
+    };
+
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> options = parseOptions(args);
+        int[] floorCounts = intList(options.getOrDefault("floors", "4"));
+        int[] slotCounts = intList(options.getOrDefault("slots", "1000"));
+        double[] occupancies = doubleList(options.getOrDefault("occupancy", "0.5"));
+        int[] threadCounts = intList(options.getOrDefault("threads", "1"));
+        int batchSize = Integer.parseInt(options.getOrDefault("batch", "100"));
+        boolean metrics = Boolean.parseBoolean(options.getOrDefault("metrics", "false"));
+        int reservations = Integer.parseInt(options.getOrDefault("reservations", "0"));
+        boolean timers = Boolean.parseBoolean(options.getOrDefault("timers", "false"));
+        int gates = Integer.parseInt(options.getOrDefault("gates", "1"));
+        String[] benchmarks = options.getOrDefault("bench", "park,exit,allocate,price,capacity").split(",");
+
+        BenchmarkRunner runner = new BenchmarkRunner(
+                Integer.parseInt(options.getOrDefault("warmup", "2")),
+                Integer.parseInt(options.getOrDefault("iterations", "3")),
+                Long.parseLong(options.getOrDefault("time", "1000")));
+
+        PrintStream console = System.out;
+        for (int floors : floorCounts) {
+            for (int slots : slotCounts) {
+                for (double occupancy : occupancies) {
+                    for (int threads : threadCounts) {
+                        console.printf("%n# floors=%d slotsPerFloor=%d occupancy=%.2f threads=%d%n",
+                                floors, slots, occupancy, threads);
+                        for (String benchmark : benchmarks) {
+                            // Engine logging would dominate the measurement
+                            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+                            BenchmarkRunner.Result result;
+                            try {
+                                Fixture fixture = new Fixture(floors, slots, occupancy, threads, batchSize, gates);
+                                if (metrics) {
+                                    fixture.parkingLot.setMetricsRegistry(new MetricsRegistry());
+                                }
+                                if (reservations > 0) {
+                                    fixture.bookReservations(reservations);
+                                }
+                                if (timers) {
+                                    fixture.parkingLot.setTicketTimers(new TicketTimers(
+                                            new HierarchicalTimingWheel(1000, System.currentTimeMillis()),
+                                            2 * 3_600_000L, 24 * 3_600_000L, 15 * 60_000L));
+                                }
+                                result = runner.run(benchmark.trim(), threads, fixture.workload(benchmark.trim()));
+                            } finally {
+                                System.setOut(console);
+                            }
+                            console.println(result);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * A parking lot pre-filled to the requested occupancy, plus per-thread vehicles
+     */
+    static class Fixture {
+        private final ParkingLot parkingLot;
+        private final List<ParkingFloor> floors;
+        private final SlotAllocationStrategy allocationStrategy;
+        private final DynamicPricing pricing;
+        private final Vehicle[][] vehicles;
+        private final List<List<Vehicle>> batches;
+        private final Ticket[] pricedTickets;
+        private final EntryGate entryGate;
+        private final int[] cursor;
+
+        Fixture(int floorCount, int slotsPerFloor, double occupancy, int threads, int batchSize, int gateCount) {
+            this.allocationStrategy = new NearestSlotStrategy();
+            this.pricing = new DynamicPricing();
+            this.parkingLot = buildLot(floorCount, slotsPerFloor, gateCount, allocationStrategy, pricing);
+            this.floors = parkingLot.getFloors();
+            this.entryGate = parkingLot.getGateRegistry().getEntryGate(ENTRY_GATE);
+
+            int target = (int) (floorCount * (long) slotsPerFloor * occupancy);
+            for (int i = 0; i < target; i++) {
+                Vehicle resident = new Vehicle("R" + i, MIXED_TRAFFIC[i % MIXED_TRAFFIC.length], FuelType.PETROL);
+                if (parkingLot.parkVehicle(resident, ENTRY_GATE) == null) {
+                    break;
+                }
+            }
+
+            this.vehicles = new Vehicle[threads][MIXED_TRAFFIC.length];
+            this.pricedTickets = new Ticket[threads];
+            this.batches = new ArrayList<>();
+            this.cursor = new int[threads * 16]; // padded to keep threads off each other's cache lines
+            for (int t = 0; t < threads; t++) {
+                for (int k = 0; k < MIXED_TRAFFIC.length; k++) {
+                    vehicles[t][k] = new Vehicle("B" + t + "X" + k, MIXED_TRAFFIC[k],
+                            k == 0 ? FuelType.ELECTRIC : FuelType.PETROL);
+                }
+                pricedTickets[t] = new Ticket(vehicles[t][0], floors.get(0).getParkingSlots().get(0), ENTRY_GATE);
+                List<Vehicle> batch = new ArrayList<>(batchSize);
+                for (int k = 0; k < batchSize; k++) {
+                    batch.add(new Vehicle("A" + t + "X" + k, MIXED_TRAFFIC[k % MIXED_TRAFFIC.length], FuelType.PETROL));
+                }
+                batches.add(batch);
+            }
+        }
+
+        /**
+         * Attach a reservation book holding count future bookings of medium slots
+         */
+        void bookReservations(int count) {
+            ReservationBook book = new ReservationBook(parkingLot);
+            long from = System.currentTimeMillis() + 3_600_000L;
+            for (int i = 0; i < count; i++) {
+                long start = from + (i * 7_919L % 604_800L) * 1000L; // scattered over a week
+                book.book("P" + i, SlotType.MEDIUM, false, start, start + 3_600_000L);
+            }
+            parkingLot.setReservationBook(book);
+        }
+
+        private Vehicle next(int thread) {
+            int index = cursor[thread * 16]++;
+            return vehicles[thread][index % MIXED_TRAFFIC.length];
+        }
+
+        private Vehicle current(int thread) {
+            return vehicles[thread][(cursor[thread * 16] - 1) % MIXED_TRAFFIC.length];
+        }
+
+        private int countFree(Vehicle vehicle) {
+            int free = 0;
+            for (ParkingFloor floor : floors) {
+                free += floor.getSlotColumns().countFree(vehicle);
+            }
+            return free;
+        }
+
+        private void exitBatch(int thread) {
+            for (Vehicle vehicle : batches.get(thread)) {
+                parkingLot.exitVehicle(vehicle.getVehicleNo(), EXIT_GATE, Payment.CARD);
+            }
+        }
+
+        BenchmarkRunner.Workload workload(String name) {
+            switch (name) {
+                case "park":
+                    return new BenchmarkRunner.Workload() {
+                        @Override
+                        public void run(int thread) {
+                            parkingLot.parkVehicle(next(thread), ENTRY_GATE);
+                        }
+
+                        @Override
+                        public void tearDown(int thread) {
+                            parkingLot.exitVehicle(current(thread).getVehicleNo(), EXIT_GATE, Payment.CARD);
+                        }
+                    };
+                case "exit":
+                    return new BenchmarkRunner.Workload() {
+                        @Override
+                        public void setUp(int thread) {
+                            parkingLot.parkVehicle(next(thread), ENTRY_GATE);
+                        }
+
+                        @Override
+                        public void run(int thread) {
+                            parkingLot.exitVehicle(current(thread).getVehicleNo(), EXIT_GATE, Payment.CARD);
+                        }
+                    };
+                case "parkLoop":
+                    return new BenchmarkRunner.Workload() {
+                        @Override
+                        public void run(int thread) {
+                            for (Vehicle vehicle : batches.get(thread)) {
+                                parkingLot.parkVehicle(vehicle, ENTRY_GATE);
+                            }
+                        }
+
+                        @Override
+                        public void tearDown(int thread) {
+                            exitBatch(thread);
+                        }
+                    };
+                case "parkBatch":
+                    return new BenchmarkRunner.Workload() {
+                        @Override
+                        public void run(int thread) {
+                            parkingLot.parkVehicles(batches.get(thread), ENTRY_GATE);
+                        }
+
+                        @Override
+                        public void tearDown(int thread) {
+                            exitBatch(thread);
+                        }
+                    };
+                case "allocate":
+                    return thread -> allocationStrategy.allocateParkingSlot(next(thread), floors, 0);
+                case "allocateGate":
+                    return thread -> allocationStrategy.allocateParkingSlot(next(thread), floors, entryGate);
+                case "allocateBestFit":
+                    BestFitSlotStrategy bestFit = new BestFitSlotStrategy();
+                    return thread -> bestFit.allocateParkingSlot(next(thread), floors, 0);
+                case "scanFree":
+                    return thread -> countFree(next(thread));
+                case "hasCapacity":
+                    return thread -> entryGate.hasCapacity(next(thread), floors);
+                case "price":
+                    return thread -> pricing.calculatePrice(pricedTickets[thread]);
+                case "priceSurge":
+                    SurgePricing surge = new SurgePricing(pricing, parkingLot);
+                    surge.refresh();
+                    return thread -> surge.calculatePrice(pricedTickets[thread]);
+                case "snapshot":
+                    return thread -> parkingLot.getOccupancySnapshot();
+                case "capacity":
+                    return thread -> parkingLot.getCapacityInfo();
+                default:
+                    throw new IllegalArgumentException("Unknown benchmark: " + name);
+            }
+        }
+    }
+
+    /**
+     * Build a lot of floorCount floors, each with slotsPerFloor slots (40% small, 40% medium, 20% large)
+     * ENTRY_GATE and EXIT_GATE are added after gateCount - 1 other gates of each kind.
+     */
+    static ParkingLot buildLot(int floorCount, int slotsPerFloor, int gateCount,
+                               SlotAllocationStrategy allocationStrategy, DynamicPricing pricing) {
+        ParkingLot parkingLot = new ParkingLot(allocationStrategy, pricing);
+        int small = slotsPerFloor * 2 / 5;
+        int medium = slotsPerFloor * 2 / 5;
+        int large = slotsPerFloor - small - medium;
+
+        for (int i = 0; i < floorCount; i++) {
+            ParkingFloor floor = new ParkingFloor(i);
+            floor.initializeSlots(small, medium, large, 25.0);
+            parkingLot.addFloor(floor);
+        }
+        for (int i = 1; i < gateCount; i++) {
+            parkingLot.addEntryGate(new EntryGate(String.format("ENTRY_X%04d", i), i % floorCount, allocationStrategy));
+            parkingLot.addExitGate(new ExitGate(String.format("EXIT_X%04d", i), i % floorCount, pricing));
+        }
+        parkingLot.addEntryGate(new EntryGate(ENTRY_GATE, 0, allocationStrategy));
+        parkingLot.addExitGate(new ExitGate(EXIT_GATE, 0, pricing));
+        return parkingLot;
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            int split = arg.indexOf('=');
+            options.put(arg.substring(2, split), arg.substring(split + 1));
+        }
+        return options;
+    }
+
+    private static int[] intList(String value) {
+        String[] parts = value.split(",");
+        int[] result = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            result[i] = Integer.parseInt(parts[i].trim());
+        }
+        return result;
+    }
+
+    private static double[] doubleList(String value) {
+        List<Double> parsed = new ArrayList<>();
+        for (String part : value.split(",")) {
+            parsed.add(Double.parseDouble(part.trim()));
+        }
+        double[] result = new double[parsed.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = parsed.get(i);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,160 @@
+package cluster;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Consistent-hash ring mapping keys (vehicle numbers) to nodes
+ *
+ * Each node is placed at virtualNodes points on a 64-bit ring; a key belongs to the first
+ * point clockwise from its hash. Adding or removing a node only moves the keys next to its
+ * points. The ring is an immutable pair of sorted arrays swapped on every change, so lookups
+ * are a lock-free binary search.
+ */
+public class ConsistentHashRing<T> {
+    private final int virtualNodes;
+    private final Map<String, T> nodes = new LinkedHashMap<>();
+    private volatile Ring ring = new Ring(new long[0], new Object[0]);
+
+    /**
+     * @param virtualNodes Points per node; more points spread keys more evenly
+     */
+    public ConsistentHashRing(int virtualNodes) {
+        if (virtualNodes <= 0) {
+            throw new IllegalArgumentException("Virtual nodes must be positive");
+        }
+        this.virtualNodes = virtualNodes;
+    }
+
+    public synchronized void add(String nodeId, T node) {
+        if (nodes.containsKey(nodeId)) {
+            throw new IllegalArgumentException("Node already on the ring: " + nodeId);
+        }
+        nodes.put(nodeId, node);
+        rebuild();
+    }
+
+    public synchronized T remove(String nodeId) {
+        T removed = nodes.remove(nodeId);
+        if (removed != null) {
+            rebuild();
+        }
+        return removed;
+    }
+
+    public synchronized List<T> getNodes() {
+        return new ArrayList<>(nodes.values());
+    }
+
+    public int size() {
+        return ring.distinctNodes;
+    }
+
+    /**
+     * @return The node owning a key, or null if the ring is empty
+     */
+    @SuppressWarnings("unchecked")
+    public T nodeFor(String key) {
+        Ring current = ring;
+        if (current.points.length == 0) {
+            return null;
+        }
+        return (T) current.owners[current.indexOf(hash(key))];
+    }
+
+    /**
+     * Every node once, in ring order starting with the key's owner
+     * The owner's ring neighbours come first, which makes this the overflow order for the key.
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> nodesFor(String key) {
+        Ring current = ring;
+        List<T> ordered = new ArrayList<>(current.distinctNodes);
+        if (current.points.length == 0) {
+            return ordered;
+        }
+        int start = current.indexOf(hash(key));
+        for (int i = 0; i < current.points.length && ordered.size() < current.distinctNodes; i++) {
+            T node = (T) current.owners[(start + i) % current.points.length];
+            if (!ordered.contains(node)) {
+                ordered.add(node);
+            }
+        }
+        return ordered;
+    }
+
+    private void rebuild() {
+        int count = nodes.size() * virtualNodes;
+        long[] hashes = new long[count];
+        Object[] owners = new Object[count];
+        Integer[] order = new Integer[count];
+        int i = 0;
+        for (Map.Entry<String, T> node : nodes.entrySet()) {
+            for (int v = 0; v < virtualNodes; v++) {
+                hashes[i] = hash(node.getKey() + "#" + v);
+                owners[i] = node.getValue();
+                order[i] = i;
+                i++;
+            }
+        }
+        Arrays.sort(order, (a, b) -> Long.compareUnsigned(hashes[a], hashes[b]));
+
+        long[] points = new long[count];
+        Object[] sortedOwners = new Object[count];
+        for (int k = 0; k < count; k++) {
+            int from = order[k];
+            points[k] = hashes[from];
+            sortedOwners[k] = owners[from];
+        }
+        ring = new Ring(points, sortedOwners);
+    }
+
+    /**
+     * FNV-1a over the key's characters, finished with MurmurHash3's 64-bit mixer
+     */
+    static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static class Ring {
+        final long[] points; // sorted as unsigned values
+        final Object[] owners;
+        final int distinctNodes;
+
+        Ring(long[] points, Object[] owners) {
+            this.points = points;
+            this.owners = owners;
+            this.distinctNodes = (int) Arrays.stream(owners).distinct().count();
+        }
+
+        /**
+         * Index of the first point at or after the hash, wrapping past the end
+         */
+        int indexOf(long hash) {
+            int low = 0;
+            int high = points.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (Long.compareUnsigned(points[mid], hash) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low == points.length ? 0 : low;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package cluster;
+
+import enums.Payment;
+import interfaces.LotShard;
+import models.ParkingFloor;
+import models.ParkingLot;
+import models.Ticket;
+import models.Vehicle;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * A ParkingLot running in this process on its own executor
+ * Vehicles enter through the lot's first entry gate and leave through its first exit gate.
+ */
+public class LocalShard implements LotShard, AutoCloseable {
+    private final String shardId;
+    private final ParkingLot parkingLot;
+    private final ExecutorService executor;
+    private final String entryGateId;
+    private final String exitGateId;
+
+    /**
+     * @param shardId Name of the shard on the ring
+     * @param parkingLot Lot with floors and at least one entry and one exit gate
+     * @param threads Worker threads of this shard's executor
+     */
+    public LocalShard(String shardId, ParkingLot parkingLot, int threads) {
+        if (parkingLot.getEntryGates().isEmpty() || parkingLot.getExitGates().isEmpty()) {
+            throw new IllegalArgumentException("Shard " + shardId + " needs an entry and an exit gate");
+        }
+        this.shardId = shardId;
+        this.parkingLot = parkingLot;
+        this.entryGateId = parkingLot.getEntryGates().get(0).getEntryGateId();
+        this.exitGateId = parkingLot.getExitGates().get(0).getExitGateId();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "shard-" + shardId + "-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public String getShardId() {
+        return shardId;
+    }
+
+    public ParkingLot getParkingLot() {
+        return parkingLot;
+    }
+
+    @Override
+    public CompletableFuture<String> park(Vehicle vehicle) {
+        return CompletableFuture.supplyAsync(() -> {
+            if (parkingLot.getTicket(vehicle.getVehicleNo()) != null) {
+                throw new IllegalStateException("Vehicle " + vehicle.getVehicleNo() + " is already parked in " + shardId);
+            }
+            Ticket ticket = parkingLot.parkVehicle(vehicle, entryGateId);
+            return ticket == null ? null : ticket.getParkingSlot().getSlotId();
+        }, executor);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> exit(String vehicleNo, Payment paymentMethod) {
+        return CompletableFuture.supplyAsync(
+                () -> parkingLot.exitVehicleAsync(vehicleNo, exitGateId, paymentMethod), executor)
+                .thenCompose(Function.identity());
+    }
+
+    @Override
+    public CompletableFuture<String> locate(String vehicleNo) {
+        return CompletableFuture.supplyAsync(() -> {
+            Ticket ticket = parkingLot.getTicket(vehicleNo);
+            return ticket == null ? null : ticket.getParkingSlot().getSlotId();
+        }, executor);
+    }
+
+    @Override
+    public CompletableFuture<ShardCapacity> capacity() {
+        return CompletableFuture.supplyAsync(() -> {
+            int total = 0;
+            int available = 0;
+            for (ParkingFloor floor : parkingLot.getFloors()) {
+                total += floor.getTotalSlots();
+                available += floor.getTotalAvailableSlots();
+            }
+            return new ShardCapacity(shardId, total, available, parkingLot.getActiveTickets().size());
+        }, executor);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    @Override
+    public String toString() {
+        return "LocalShard{" + shardId + "}";
+    }
+}
@@ -0,0 +1,240 @@
+package cluster;
+
+import enums.Payment;
+import interfaces.LotShard;
+import interfaces.PricingStrategy;
+import interfaces.SlotAllocationStrategy;
+import models.EntryGate;
+import models.ExitGate;
+import models.ParkingFloor;
+import models.ParkingLot;
+import models.Vehicle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Facade over many independent parking engines (sites, or slices of one huge lot)
+ *
+ * Vehicles are routed by consistent hashing on their vehicle number, so every node agrees
+ * on a vehicle's home shard without asking anyone. When the home shard is full the vehicle
+ * overflows to the next shard clockwise on the ring; the few vehicles parked away from home
+ * are remembered in a small directory so exits and lookups still go straight to the right
+ * shard. Shards do their work on their own executors and every call here is asynchronous.
+ */
+public class ParkingLotCluster {
+    private static final int VIRTUAL_NODES_PER_SHARD = 128;
+
+    private final ConsistentHashRing<LotShard> ring = new ConsistentHashRing<>(VIRTUAL_NODES_PER_SHARD);
+    private final Map<String, LotShard> displaced = new ConcurrentHashMap<>(); // vehicleNo -> shard away from home
+    private boolean overflowEnabled = true;
+
+    public void addShard(LotShard shard) {
+        ring.add(shard.getShardId(), shard);
+    }
+
+    /**
+     * Take a shard off the ring; vehicles still parked there can no longer be found
+     */
+    public LotShard removeShard(String shardId) {
+        LotShard removed = ring.remove(shardId);
+        displaced.values().removeIf(shard -> shard == removed);
+        return removed;
+    }
+
+    public List<LotShard> getShards() {
+        return ring.getNodes();
+    }
+
+    public boolean isOverflowEnabled() {
+        return overflowEnabled;
+    }
+
+    /**
+     * @param overflowEnabled Whether a full home shard hands vehicles to its ring neighbours
+     */
+    public void setOverflowEnabled(boolean overflowEnabled) {
+        this.overflowEnabled = overflowEnabled;
+    }
+
+    /**
+     * The shard a vehicle is routed to when it arrives
+     */
+    public LotShard getHomeShard(String vehicleNo) {
+        return ring.nodeFor(vehicleNo);
+    }
+
+    /**
+     * Park a vehicle in its home shard, or in the nearest shard on the ring with room
+     * @param vehicle The arriving vehicle
+     * @return Completes with where it parked, or null if no shard had room
+     */
+    public CompletableFuture<Placement> parkVehicle(Vehicle vehicle) {
+        String vehicleNo = vehicle.getVehicleNo();
+        if (displaced.containsKey(vehicleNo)) {
+            return CompletableFuture.failedFuture(
+                    new IllegalStateException("Vehicle " + vehicleNo + " is already parked"));
+        }
+        List<LotShard> candidates = overflowEnabled ? ring.nodesFor(vehicleNo) : homeOnly(vehicleNo);
+        return tryPark(vehicle, candidates, 0);
+    }
+
+    private CompletableFuture<Placement> tryPark(Vehicle vehicle, List<LotShard> candidates, int index) {
+        if (index >= candidates.size()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        LotShard shard = candidates.get(index);
+        return shard.park(vehicle).thenCompose(slotId -> {
+            if (slotId == null) {
+                return tryPark(vehicle, candidates, index + 1);
+            }
+            if (index > 0) {
+                displaced.put(vehicle.getVehicleNo(), shard);
+            }
+            return CompletableFuture.completedFuture(
+                    new Placement(vehicle.getVehicleNo(), shard.getShardId(), slotId, index > 0));
+        });
+    }
+
+    /**
+     * Check a vehicle out of whichever shard holds it
+     * @return Completes with true once the vehicle has exited
+     */
+    public CompletableFuture<Boolean> exitVehicle(String vehicleNo, Payment paymentMethod) {
+        LotShard shard = shardOf(vehicleNo);
+        if (shard == null) {
+            return CompletableFuture.completedFuture(false);
+        }
+        return shard.exit(vehicleNo, paymentMethod).thenApply(success -> {
+            if (success) {
+                displaced.remove(vehicleNo, shard);
+            }
+            return success;
+        });
+    }
+
+    /**
+     * Find a parked vehicle
+     * @return Completes with its placement, or null if it is not parked in the cluster
+     */
+    public CompletableFuture<Placement> locateVehicle(String vehicleNo) {
+        LotShard shard = shardOf(vehicleNo);
+        if (shard == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        boolean overflow = displaced.get(vehicleNo) == shard;
+        return shard.locate(vehicleNo).thenApply(slotId -> slotId == null ? null
+                : new Placement(vehicleNo, shard.getShardId(), slotId, overflow));
+    }
+
+    /**
+     * Ask every shard for its capacity in parallel
+     * @return Completes with one entry per shard
+     */
+    public CompletableFuture<List<ShardCapacity>> getShardCapacities() {
+        List<LotShard> shards = ring.getNodes();
+        List<CompletableFuture<ShardCapacity>> replies = new ArrayList<>(shards.size());
+        for (LotShard shard : shards) {
+            replies.add(shard.capacity());
+        }
+        return CompletableFuture.allOf(replies.toArray(new CompletableFuture<?>[0])).thenApply(done -> {
+            List<ShardCapacity> capacities = new ArrayList<>(replies.size());
+            for (CompletableFuture<ShardCapacity> reply : replies) {
+                capacities.add(reply.join());
+            }
+            return capacities;
+        });
+    }
+
+    /**
+     * @return Completes with the summed capacity of all shards
+     */
+    public CompletableFuture<ShardCapacity> getTotalCapacity() {
+        return getShardCapacities().thenApply(capacities -> {
+            int total = 0;
+            int available = 0;
+            int tickets = 0;
+            for (ShardCapacity capacity : capacities) {
+                total += capacity.getTotalSlots();
+                available += capacity.getAvailableSlots();
+                tickets += capacity.getActiveTickets();
+            }
+            return new ShardCapacity("cluster", total, available, tickets);
+        });
+    }
+
+    /**
+     * Cluster-wide capacity statistics, waiting for every shard
+     * @return Capacity information as string
+     */
+    public String getCapacityInfo() {
+        List<ShardCapacity> capacities;
+        try {
+            capacities = getShardCapacities().join();
+        } catch (CompletionException e) {
+            return "=== Cluster Capacity ===\nUnavailable: " + e.getCause().getMessage() + "\n";
+        }
+        int total = 0;
+        int available = 0;
+        StringBuilder shards = new StringBuilder();
+        for (ShardCapacity capacity : capacities) {
+            total += capacity.getTotalSlots();
+            available += capacity.getAvailableSlots();
+            shards.append(capacity).append("\n");
+        }
+
+        StringBuilder info = new StringBuilder();
+        info.append("=== Cluster Capacity ===\n");
+        info.append("Shards: ").append(capacities.size()).append("\n");
+        info.append("Total Slots: ").append(total).append("\n");
+        info.append("Available Slots: ").append(available).append("\n");
+        info.append("Parked Away From Home Shard: ").append(displaced.size()).append("\n");
+        info.append("\nShard-wise Details:\n").append(shards);
+        return info.toString();
+    }
+
+    private LotShard shardOf(String vehicleNo) {
+        LotShard shard = displaced.get(vehicleNo);
+        return shard != null ? shard : ring.nodeFor(vehicleNo);
+    }
+
+    private List<LotShard> homeOnly(String vehicleNo) {
+        List<LotShard> home = new ArrayList<>(1);
+        LotShard shard = ring.nodeFor(vehicleNo);
+        if (shard != null) {
+            home.add(shard);
+        }
+        return home;
+    }
+
+    /**
+     * Split the floors of one huge lot into shardCount independent lots, each running as a
+     * LocalShard with its own executor and an entry and exit gate on its lowest floor
+     * Floors are dealt out in contiguous runs so each shard's floors stay adjacent.
+     */
+    public static ParkingLotCluster ofFloors(List<ParkingFloor> floors, int shardCount, int threadsPerShard,
+                                             SlotAllocationStrategy allocationStrategy,
+                                             PricingStrategy pricingStrategy) {
+        if (shardCount <= 0 || shardCount > floors.size()) {
+            throw new IllegalArgumentException("Need between 1 and " + floors.size() + " shards");
+        }
+        ParkingLotCluster cluster = new ParkingLotCluster();
+        for (int s = 0; s < shardCount; s++) {
+            int from = s * floors.size() / shardCount;
+            int to = (s + 1) * floors.size() / shardCount;
+            ParkingLot lot = new ParkingLot(allocationStrategy, pricingStrategy);
+            for (ParkingFloor floor : floors.subList(from, to)) {
+                lot.addFloor(floor);
+            }
+            int gateFloor = floors.get(from).getFloorId();
+            String shardId = "S" + s;
+            lot.addEntryGate(new EntryGate(shardId + "_ENTRY", gateFloor, allocationStrategy));
+            lot.addExitGate(new ExitGate(shardId + "_EXIT", gateFloor, pricingStrategy));
+            cluster.addShard(new LocalShard(shardId, lot, threadsPerShard));
+        }
+        return cluster;
+    }
+}
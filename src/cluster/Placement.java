@@ -0,0 +1,47 @@
+package cluster;
+
+/**
+ * Where the cluster parked a vehicle
+ */
+public final class Placement {
+    private final String vehicleNo;
+    private final String shardId;
+    private final String slotId;
+    private final boolean overflow;
+
+    Placement(String vehicleNo, String shardId, String slotId, boolean overflow) {
+        this.vehicleNo = vehicleNo;
+        this.shardId = shardId;
+        this.slotId = slotId;
+        this.overflow = overflow;
+    }
+
+    public String getVehicleNo() {
+        return vehicleNo;
+    }
+
+    public String getShardId() {
+        return shardId;
+    }
+
+    public String getSlotId() {
+        return slotId;
+    }
+
+    /**
+     * @return true if the vehicle's home shard was full and a neighbouring shard took it
+     */
+    public boolean isOverflow() {
+        return overflow;
+    }
+
+    @Override
+    public String toString() {
+        return "Placement{" +
+                "vehicleNo='" + vehicleNo + '\'' +
+                ", shardId='" + shardId + '\'' +
+                ", slotId='" + slotId + '\'' +
+                ", overflow=" + overflow +
+                '}';
+    }
+}
@@ -0,0 +1,121 @@
+package cluster;
+
+import enums.Payment;
+import interfaces.LotShard;
+import models.Vehicle;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Client side of a ShardServer on this machine
+ * Requests to one shard go out one at a time over a single connection, on the shard's own
+ * executor thread, so callers never block on the socket.
+ */
+public class RemoteShard implements LotShard, AutoCloseable {
+    private final String shardId;
+    private final Socket socket;
+    private final BufferedReader in;
+    private final Writer out;
+    private final ExecutorService executor;
+
+    /**
+     * @param shardId Name of the shard on the ring
+     * @param port Port of the ShardServer on the loopback interface
+     */
+    public RemoteShard(String shardId, int port) throws IOException {
+        this.shardId = shardId;
+        this.socket = new Socket(InetAddress.getLoopbackAddress(), port);
+        this.socket.setTcpNoDelay(true);
+        this.in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        this.out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "remote-shard-" + shardId);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public String getShardId() {
+        return shardId;
+    }
+
+    @Override
+    public CompletableFuture<String> park(Vehicle vehicle) {
+        String request = "PARK " + token(vehicle.getVehicleNo()) + " " + vehicle.getVehicleType() + " " + vehicle.getFuelType();
+        return call(request).thenApply(RemoteShard::dashToNull);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> exit(String vehicleNo, Payment paymentMethod) {
+        return call("EXIT " + token(vehicleNo) + " " + paymentMethod).thenApply(Boolean::parseBoolean);
+    }
+
+    @Override
+    public CompletableFuture<String> locate(String vehicleNo) {
+        return call("LOCATE " + token(vehicleNo)).thenApply(RemoteShard::dashToNull);
+    }
+
+    @Override
+    public CompletableFuture<ShardCapacity> capacity() {
+        return call("CAPACITY").thenApply(response -> {
+            String[] counts = response.split(" ");
+            return new ShardCapacity(shardId, Integer.parseInt(counts[0]), Integer.parseInt(counts[1]),
+                    Integer.parseInt(counts[2]));
+        });
+    }
+
+    private CompletableFuture<String> call(String request) {
+        return CompletableFuture.supplyAsync(() -> {
+            String response;
+            try {
+                out.write(request);
+                out.write('\n');
+                out.flush();
+                response = in.readLine();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Shard " + shardId + " unreachable", e);
+            }
+            if (response == null) {
+                throw new IllegalStateException("Shard " + shardId + " closed the connection");
+            }
+            if (response.startsWith("ERR ")) {
+                throw new IllegalStateException(response.substring(4));
+            }
+            return response.substring(3);
+        }, executor);
+    }
+
+    private static String token(String value) {
+        if (value.isEmpty() || value.chars().anyMatch(Character::isWhitespace)) {
+            throw new IllegalArgumentException("Cannot send '" + value + "' to a remote shard");
+        }
+        return value;
+    }
+
+    private static String dashToNull(String value) {
+        return value.equals("-") ? null : value;
+    }
+
+    @Override
+    public void close() throws IOException {
+        executor.shutdown();
+        socket.close();
+    }
+
+    @Override
+    public String toString() {
+        return "RemoteShard{" + shardId + " @ " + socket.getPort() + "}";
+    }
+}
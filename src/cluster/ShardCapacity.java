@@ -0,0 +1,48 @@
+package cluster;
+
+/**
+ * Slot counts of one shard, or of the whole cluster when aggregated
+ */
+public final class ShardCapacity {
+    private final String shardId;
+    private final int totalSlots;
+    private final int availableSlots;
+    private final int activeTickets;
+
+    public ShardCapacity(String shardId, int totalSlots, int availableSlots, int activeTickets) {
+        this.shardId = shardId;
+        this.totalSlots = totalSlots;
+        this.availableSlots = availableSlots;
+        this.activeTickets = activeTickets;
+    }
+
+    public String getShardId() {
+        return shardId;
+    }
+
+    public int getTotalSlots() {
+        return totalSlots;
+    }
+
+    public int getAvailableSlots() {
+        return availableSlots;
+    }
+
+    public int getOccupiedSlots() {
+        return totalSlots - availableSlots;
+    }
+
+    public int getActiveTickets() {
+        return activeTickets;
+    }
+
+    public double getOccupancyRate() {
+        return totalSlots == 0 ? 0 : (double) getOccupiedSlots() / totalSlots;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d/%d available (%.1f%% occupied, %d tickets)",
+                shardId, availableSlots, totalSlots, getOccupancyRate() * 100, activeTickets);
+    }
+}
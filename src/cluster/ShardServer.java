@@ -0,0 +1,114 @@
+package cluster;
+
+import enums.FuelType;
+import enums.Payment;
+import enums.VehicleType;
+import interfaces.LotShard;
+import models.Vehicle;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Serves a shard over a loopback socket so a cluster can reach it as a RemoteShard
+ *
+ * One request per line, one response per line:
+ *   PARK plate vehicleType fuelType  -> OK slotId | OK -        (- means no room)
+ *   EXIT plate payment               -> OK true | OK false
+ *   LOCATE plate                     -> OK slotId | OK -
+ *   CAPACITY                         -> OK total available activeTickets
+ * Any failure is answered with ERR and a message.
+ */
+public class ShardServer implements AutoCloseable {
+    private final LotShard shard;
+    private final ServerSocket serverSocket;
+    private final Thread acceptor;
+
+    /**
+     * Start serving on the loopback interface
+     * @param shard Shard to expose
+     * @param port TCP port, or 0 to pick a free one
+     */
+    public ShardServer(LotShard shard, int port) throws IOException {
+        this.shard = shard;
+        this.serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        this.acceptor = new Thread(this::acceptLoop, "shard-server-" + shard.getShardId());
+        this.acceptor.setDaemon(true);
+        this.acceptor.start();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                Thread connection = new Thread(() -> serve(socket), "shard-connection-" + shard.getShardId());
+                connection.setDaemon(true);
+                connection.start();
+            } catch (IOException e) {
+                // Closed while waiting for a connection
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (Socket client = socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8));
+             Writer out = new BufferedWriter(new OutputStreamWriter(client.getOutputStream(), StandardCharsets.UTF_8))) {
+            String request;
+            while ((request = in.readLine()) != null) {
+                String response;
+                try {
+                    response = "OK " + handle(request.trim().split(" "));
+                } catch (CompletionException e) {
+                    response = "ERR " + (e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+                } catch (RuntimeException e) {
+                    response = "ERR " + e.getMessage();
+                }
+                out.write(response.replace('\n', ' '));
+                out.write('\n');
+                out.flush();
+            }
+        } catch (IOException e) {
+            // Client went away
+        }
+    }
+
+    private String handle(String[] request) {
+        switch (request[0]) {
+            case "PARK":
+                Vehicle vehicle = new Vehicle(request[1], VehicleType.valueOf(request[2]), FuelType.valueOf(request[3]));
+                return orDash(shard.park(vehicle).join());
+            case "EXIT":
+                return String.valueOf(shard.exit(request[1], Payment.valueOf(request[2])).join());
+            case "LOCATE":
+                return orDash(shard.locate(request[1]).join());
+            case "CAPACITY":
+                ShardCapacity capacity = shard.capacity().join();
+                return capacity.getTotalSlots() + " " + capacity.getAvailableSlots() + " " + capacity.getActiveTickets();
+            default:
+                throw new IllegalArgumentException("Unknown request: " + request[0]);
+        }
+    }
+
+    private static String orDash(String value) {
+        return value == null ? "-" : value;
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+    }
+}
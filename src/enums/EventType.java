@@ -0,0 +1,17 @@
+package enums;
+
+/**
+ * Enum representing the kinds of events the parking engine publishes
+ */
+public enum EventType {
+    VEHICLE_PARKED,
+    PARKING_REJECTED,
+    BILL_GENERATED,
+    PAYMENT_FAILED,
+    SLOT_FREED,
+    VEHICLE_EXITED,
+    EXIT_REJECTED,
+    OVERSTAY_WARNING,
+    MAX_STAY_EXCEEDED,
+    PAYMENT_OVERDUE
+}
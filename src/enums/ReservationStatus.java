@@ -0,0 +1,12 @@
+package enums;
+
+/**
+ * Enum representing the lifecycle of a slot reservation
+ */
+public enum ReservationStatus {
+    BOOKED,    // slot promised for the window, still open to walk-ins
+    HELD,      // slot set aside (RESERVED) ahead of the arrival window
+    FULFILLED, // the vehicle arrived
+    CANCELLED,
+    EXPIRED    // the vehicle did not arrive within the grace period
+}
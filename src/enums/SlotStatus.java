@@ -6,5 +6,6 @@ package enums;
 public enum SlotStatus {
     FILLED,
     EMPTY,
-    MAINTENANCE
+    MAINTENANCE,
+    RESERVED // held for a reservation starting soon; only its holder may park here
 }
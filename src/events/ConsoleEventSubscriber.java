@@ -0,0 +1,14 @@
+package events;
+
+import interfaces.EventSubscriber;
+
+/**
+ * Prints each event to the console, off the gate threads
+ */
+public class ConsoleEventSubscriber implements EventSubscriber {
+    
+    @Override
+    public void onEvent(ParkingEvent event) {
+        System.out.println(event.describe());
+    }
+}
@@ -0,0 +1,23 @@
+package events;
+
+import interfaces.EventSink;
+
+/**
+ * Sink that discards everything. Publishers skip building events entirely.
+ */
+public final class NoOpEventSink implements EventSink {
+    public static final NoOpEventSink INSTANCE = new NoOpEventSink();
+    
+    private NoOpEventSink() {
+    }
+    
+    @Override
+    public boolean isEnabled() {
+        return false;
+    }
+    
+    @Override
+    public void publish(ParkingEvent event) {
+        // Intentionally empty
+    }
+}
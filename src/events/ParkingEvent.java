@@ -0,0 +1,155 @@
+package events;
+
+import enums.EventType;
+import models.Bill;
+import models.ParkingSlot;
+import models.Ticket;
+
+/**
+ * Immutable record of something that happened at a gate or in the lot
+ * Carries references only - formatting is left to subscribers
+ */
+public class ParkingEvent {
+    private final EventType type;
+    private final long timestampMillis;
+    private final String vehicleNo;
+    private final String gateId;
+    private final String slotId;
+    private final int floorNumber;
+    private final double amount;
+    private final String reason;
+
+    private ParkingEvent(EventType type, String vehicleNo, String gateId, String slotId,
+                         int floorNumber, double amount, String reason) {
+        this.type = type;
+        this.timestampMillis = System.currentTimeMillis();
+        this.vehicleNo = vehicleNo;
+        this.gateId = gateId;
+        this.slotId = slotId;
+        this.floorNumber = floorNumber;
+        this.amount = amount;
+        this.reason = reason;
+    }
+
+    public static ParkingEvent vehicleParked(Ticket ticket) {
+        ParkingSlot slot = ticket.getParkingSlot();
+        return new ParkingEvent(EventType.VEHICLE_PARKED, ticket.getVehicle().getVehicleNo(),
+                ticket.getEntryGateId(), slot.getSlotId(), slot.getFloorNumber(), 0.0, null);
+    }
+
+    public static ParkingEvent parkingRejected(String vehicleNo, String gateId, String reason) {
+        return new ParkingEvent(EventType.PARKING_REJECTED, vehicleNo, gateId, null, -1, 0.0, reason);
+    }
+
+    public static ParkingEvent billGenerated(Bill bill) {
+        ParkingSlot slot = bill.getTicket().getParkingSlot();
+        return new ParkingEvent(EventType.BILL_GENERATED, bill.getTicket().getVehicle().getVehicleNo(),
+                bill.getExitGateId(), slot.getSlotId(), slot.getFloorNumber(), bill.getTotalAmount(), null);
+    }
+
+    public static ParkingEvent paymentFailed(Bill bill, String reason) {
+        return new ParkingEvent(EventType.PAYMENT_FAILED, bill.getTicket().getVehicle().getVehicleNo(),
+                bill.getExitGateId(), null, -1, bill.getTotalAmount(), reason);
+    }
+
+    public static ParkingEvent slotFreed(ParkingSlot slot, String vehicleNo, String gateId) {
+        return new ParkingEvent(EventType.SLOT_FREED, vehicleNo, gateId, slot.getSlotId(),
+                slot.getFloorNumber(), 0.0, null);
+    }
+
+    public static ParkingEvent vehicleExited(String vehicleNo, String gateId) {
+        return new ParkingEvent(EventType.VEHICLE_EXITED, vehicleNo, gateId, null, -1, 0.0, null);
+    }
+
+    public static ParkingEvent exitRejected(String vehicleNo, String gateId, String reason) {
+        return new ParkingEvent(EventType.EXIT_REJECTED, vehicleNo, gateId, null, -1, 0.0, reason);
+    }
+
+    /**
+     * A ticket timer went off: overstay warning, maximum stay exceeded or payment overdue
+     */
+    public static ParkingEvent ticketTimer(EventType type, Ticket ticket) {
+        ParkingSlot slot = ticket.getParkingSlot();
+        return new ParkingEvent(type, ticket.getVehicle().getVehicleNo(), ticket.getEntryGateId(),
+                slot.getSlotId(), slot.getFloorNumber(), 0.0, null);
+    }
+
+    // Getters
+    public EventType getType() {
+        return type;
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    public String getVehicleNo() {
+        return vehicleNo;
+    }
+
+    public String getGateId() {
+        return gateId;
+    }
+
+    public String getSlotId() {
+        return slotId;
+    }
+
+    public int getFloorNumber() {
+        return floorNumber;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    /**
+     * Human readable description, matching the messages the gates used to print
+     * @return Description of the event
+     */
+    public String describe() {
+        switch (type) {
+            case VEHICLE_PARKED:
+                return "Vehicle " + vehicleNo + " parked in slot " + slotId + " on floor " + floorNumber;
+            case PARKING_REJECTED:
+                return "Parking rejected for vehicle " + vehicleNo + " at " + gateId + ": " + reason;
+            case BILL_GENERATED:
+                return "Bill generated for vehicle " + vehicleNo + " - Amount: $" + String.format("%.2f", amount);
+            case PAYMENT_FAILED:
+                return "Payment failed for vehicle " + vehicleNo + " - Amount: $" + String.format("%.2f", amount)
+                        + (reason != null ? " (" + reason + ")" : "");
+            case SLOT_FREED:
+                return "Vehicle " + vehicleNo + " successfully exited from slot " + slotId;
+            case VEHICLE_EXITED:
+                return "Vehicle " + vehicleNo + " successfully exited";
+            case EXIT_REJECTED:
+                return "Exit rejected for vehicle " + vehicleNo + " at " + gateId + ": " + reason;
+            case OVERSTAY_WARNING:
+                return "Vehicle " + vehicleNo + " in slot " + slotId + " is nearing its maximum stay";
+            case MAX_STAY_EXCEEDED:
+                return "Vehicle " + vehicleNo + " in slot " + slotId + " has exceeded its maximum stay";
+            case PAYMENT_OVERDUE:
+                return "Vehicle " + vehicleNo + " in slot " + slotId + " has an overdue unpaid bill";
+            default:
+                return toString();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ParkingEvent{" +
+                "type=" + type +
+                ", timestampMillis=" + timestampMillis +
+                ", vehicleNo='" + vehicleNo + '\'' +
+                ", gateId='" + gateId + '\'' +
+                ", slotId='" + slotId + '\'' +
+                ", floorNumber=" + floorNumber +
+                ", amount=" + String.format("%.2f", amount) +
+                ", reason='" + reason + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,135 @@
+package events;
+
+import interfaces.EventSink;
+import interfaces.EventSubscriber;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded multi-producer / single-consumer ring buffer of events
+ * Gate threads claim a sequence with a CAS and never block: when the buffer is full
+ * the event is dropped and counted. A background thread delivers events to subscribers.
+ */
+public class RingBufferEventSink implements EventSink, AutoCloseable {
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final ParkingEvent[] buffer;
+    private final AtomicLongArray publishedSequence; // sequence + 1 once the slot is readable
+    private final int mask;
+    private final AtomicLong claimSequence = new AtomicLong();
+    private final LongAdder droppedEvents = new LongAdder();
+    private final List<EventSubscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final Thread consumer;
+    private volatile long consumedSequence;
+    private volatile boolean consumerWaiting;
+    private volatile boolean running = true;
+
+    /**
+     * @param capacity Buffer size, rounded up to a power of two
+     */
+    public RingBufferEventSink(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        size = Math.max(size, 2);
+        this.buffer = new ParkingEvent[size];
+        this.publishedSequence = new AtomicLongArray(size);
+        this.mask = size - 1;
+        this.consumer = new Thread(this::consumeLoop, "parking-event-sink");
+        this.consumer.setDaemon(true);
+        this.consumer.start();
+    }
+
+    public void subscribe(EventSubscriber subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    public void unsubscribe(EventSubscriber subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    public long getDroppedCount() {
+        return droppedEvents.sum();
+    }
+
+    public int getCapacity() {
+        return buffer.length;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return running && !subscribers.isEmpty();
+    }
+
+    @Override
+    public void publish(ParkingEvent event) {
+        long sequence;
+        do {
+            sequence = claimSequence.get();
+            if (sequence - consumedSequence >= buffer.length) {
+                droppedEvents.increment();
+                return;
+            }
+        } while (!claimSequence.compareAndSet(sequence, sequence + 1));
+
+        int index = (int) (sequence & mask);
+        buffer[index] = event;
+        publishedSequence.lazySet(index, sequence + 1);
+
+        if (consumerWaiting) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    private void consumeLoop() {
+        long next = 0;
+        while (true) {
+            int index = (int) (next & mask);
+            if (publishedSequence.get(index) == next + 1) {
+                ParkingEvent event = buffer[index];
+                buffer[index] = null;
+                consumedSequence = next + 1;
+                next++;
+                deliver(event);
+            } else if (!running && next >= claimSequence.get()) {
+                return;
+            } else {
+                consumerWaiting = true;
+                if (publishedSequence.get(index) != next + 1) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                consumerWaiting = false;
+            }
+        }
+    }
+
+    private void deliver(ParkingEvent event) {
+        for (EventSubscriber subscriber : subscribers) {
+            try {
+                subscriber.onEvent(event);
+            } catch (RuntimeException e) {
+                System.err.println("Event subscriber failed: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Stop accepting events, deliver what is already buffered and stop the consumer thread
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(consumer);
+        try {
+            consumer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
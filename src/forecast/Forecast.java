@@ -0,0 +1,101 @@
+package forecast;
+
+/**
+ * Immutable state of one occupancy series' forecaster at one instant
+ * Readers get it with a single volatile read and evaluate forecasts in constant time.
+ * Occupancy is the share of slots taken, from 0 to 1.
+ */
+public final class Forecast {
+    static final Forecast EMPTY = new Forecast(Double.NaN, 0.0, null, 0, Double.NaN, Double.NaN, 0, 0);
+
+    private final double level;
+    private final double trend;
+    private final double[] seasonal; // null until a full day has been observed
+    private final int lastHourOfDay;
+    private final double latest;
+    private final double smoothed;
+    private final long hoursObserved;
+    private final long takenAtMillis;
+
+    Forecast(double level, double trend, double[] seasonal, int lastHourOfDay, double latest, double smoothed,
+             long hoursObserved, long takenAtMillis) {
+        this.level = level;
+        this.trend = trend;
+        this.seasonal = seasonal;
+        this.lastHourOfDay = lastHourOfDay;
+        this.latest = latest;
+        this.smoothed = smoothed;
+        this.hoursObserved = hoursObserved;
+        this.takenAtMillis = takenAtMillis;
+    }
+
+    /**
+     * @return The most recent sample, or NaN before the first one
+     */
+    public double getLatest() {
+        return latest;
+    }
+
+    /**
+     * @return Exponentially weighted moving average of recent samples, or NaN before the first one
+     */
+    public double getSmoothed() {
+        return smoothed;
+    }
+
+    /**
+     * @return Number of whole hours the model has learned from
+     */
+    public long getHoursObserved() {
+        return hoursObserved;
+    }
+
+    public long getTakenAtMillis() {
+        return takenAtMillis;
+    }
+
+    /**
+     * @return true once a full day has been observed and forecasts follow the daily pattern
+     */
+    public boolean isSeasonal() {
+        return seasonal != null;
+    }
+
+    /**
+     * Expected occupancy some hours from now
+     * Until a full day has been observed this is the smoothed current occupancy.
+     *
+     * @param hoursAhead 0 for the current hour, 1 for the next, ...
+     * @return Occupancy between 0 and 1, or NaN if nothing has been sampled yet
+     */
+    public double occupancyIn(int hoursAhead) {
+        if (hoursAhead < 0) {
+            throw new IllegalArgumentException("Cannot forecast the past");
+        }
+        if (seasonal == null) {
+            return smoothed;
+        }
+        int steps = hoursAhead + 1; // the current hour is one step past the last closed one
+        int hourOfDay = (lastHourOfDay + steps) % HoltWinters.SEASON_LENGTH;
+        return clamp(level + steps * trend + seasonal[hourOfDay]);
+    }
+
+    /**
+     * Typical occupancy at an hour of day, ignoring the trend
+     * @param hourOfDay Hour (0-23)
+     * @return Occupancy between 0 and 1, or NaN until a full day has been observed
+     */
+    public double typicalOccupancy(int hourOfDay) {
+        return seasonal == null ? Double.NaN : clamp(level + seasonal[hourOfDay]);
+    }
+
+    private static double clamp(double occupancy) {
+        return Math.max(0.0, Math.min(1.0, occupancy));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Forecast{latest=%.3f, smoothed=%.3f, next=%.3f, +3h=%.3f, hoursObserved=%d}",
+                latest, smoothed, occupancyIn(0), occupancyIn(3), hoursObserved);
+    }
+}
@@ -0,0 +1,83 @@
+package forecast;
+
+/**
+ * Additive Holt-Winters smoothing of hourly occupancy with a daily season
+ *
+ * Keeps a level, a trend and one seasonal offset per hour of day, each updated in O(1) per
+ * observation. The seasonal index is the observation's hour of day, so hours missed while
+ * nothing was sampled do not shift the season. The model starts once every hour of the day
+ * has been seen: the level is the mean of those first observations and each hour's offset
+ * its distance from that mean.
+ */
+class HoltWinters {
+    static final int SEASON_LENGTH = 24;
+
+    private final double alpha; // level smoothing
+    private final double beta;  // trend smoothing
+    private final double gamma; // seasonal smoothing
+    private final double[] seasonal = new double[SEASON_LENGTH];
+    private final double[] firstDay = new double[SEASON_LENGTH]; // observations until every hour has one
+    private final boolean[] seen = new boolean[SEASON_LENGTH];
+    private int hoursSeen;
+    private double level;
+    private double trend;
+    private long observations;
+
+    HoltWinters(double alpha, double beta, double gamma) {
+        if (alpha <= 0 || alpha > 1 || beta < 0 || beta > 1 || gamma < 0 || gamma > 1) {
+            throw new IllegalArgumentException("Smoothing factors must be between 0 and 1");
+        }
+        this.alpha = alpha;
+        this.beta = beta;
+        this.gamma = gamma;
+    }
+
+    /**
+     * @param hourOfDay Hour (0-23) the observation covers
+     * @param value Mean occupancy over that hour
+     */
+    void update(int hourOfDay, double value) {
+        observations++;
+        if (!isSeasonal()) {
+            if (!seen[hourOfDay]) {
+                seen[hourOfDay] = true;
+                hoursSeen++;
+            }
+            firstDay[hourOfDay] = value;
+            if (isSeasonal()) {
+                double mean = 0.0;
+                for (double first : firstDay) {
+                    mean += first;
+                }
+                level = mean / SEASON_LENGTH;
+                for (int hour = 0; hour < SEASON_LENGTH; hour++) {
+                    seasonal[hour] = firstDay[hour] - level;
+                }
+            }
+            return;
+        }
+        double previousLevel = level;
+        level = alpha * (value - seasonal[hourOfDay]) + (1 - alpha) * (level + trend);
+        trend = beta * (level - previousLevel) + (1 - beta) * trend;
+        seasonal[hourOfDay] = gamma * (value - level) + (1 - gamma) * seasonal[hourOfDay];
+    }
+
+    /**
+     * @return true once every hour of the day has been observed and forecasts are seasonal
+     */
+    boolean isSeasonal() {
+        return hoursSeen == SEASON_LENGTH;
+    }
+
+    long getObservations() {
+        return observations;
+    }
+
+    /**
+     * Freeze the model's current state for lock-free readers
+     */
+    Forecast snapshot(int lastHourOfDay, double latest, double smoothed, long takenAtMillis) {
+        return new Forecast(level, trend, isSeasonal() ? seasonal.clone() : null, lastHourOfDay, latest, smoothed,
+                observations, takenAtMillis);
+    }
+}
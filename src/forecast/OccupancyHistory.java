@@ -0,0 +1,211 @@
+package forecast;
+
+import enums.SlotType;
+import models.ParkingFloor;
+import models.ParkingLot;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streaming occupancy history and forecasts for a lot
+ *
+ * Each sample reads the floors' occupancy counters (no slot scan) and records the share of
+ * slots taken per floor and slot type, per slot type across the lot, and for the lot as a
+ * whole. Every series keeps a ring of recent samples and a ring of hourly means, so memory
+ * stays fixed however long the lot runs. Closed hours feed a Holt-Winters model with a
+ * daily season; pricing and allocation read its published Forecast in constant time.
+ */
+public class OccupancyHistory implements AutoCloseable {
+    public static final int DEFAULT_RECENT_SAMPLES = 1440;  // a day of one-minute samples
+    public static final int DEFAULT_HOURLY_SAMPLES = 24 * 28; // four weeks of hourly means
+    private static final double SAMPLE_SMOOTHING = 0.2;
+    private static final double LEVEL_SMOOTHING = 0.2;
+    private static final double TREND_SMOOTHING = 0.01;
+    private static final double SEASONAL_SMOOTHING = 0.3;
+    private static final SlotType[] SLOT_TYPES = SlotType.values();
+
+    private final ParkingLot parkingLot;
+    private final int recentCapacity;
+    private final int hourlyCapacity;
+    private final ZoneId zone;
+    private final Map<Integer, OccupancySeries[]> floorSeries = new ConcurrentHashMap<>();
+    private final OccupancySeries[] typeSeries = new OccupancySeries[SLOT_TYPES.length];
+    private final OccupancySeries lotSeries;
+    private ScheduledExecutorService sampler;
+
+    public OccupancyHistory(ParkingLot parkingLot) {
+        this(parkingLot, DEFAULT_RECENT_SAMPLES, DEFAULT_HOURLY_SAMPLES, ZoneId.systemDefault());
+    }
+
+    /**
+     * @param parkingLot Lot to sample
+     * @param recentCapacity Raw samples kept per series
+     * @param hourlyCapacity Hourly means kept per series
+     * @param zone Time zone whose hours of day make up the daily season
+     */
+    public OccupancyHistory(ParkingLot parkingLot, int recentCapacity, int hourlyCapacity, ZoneId zone) {
+        this.parkingLot = parkingLot;
+        this.recentCapacity = recentCapacity;
+        this.hourlyCapacity = hourlyCapacity;
+        this.zone = zone;
+        for (SlotType slotType : SLOT_TYPES) {
+            typeSeries[slotType.ordinal()] = newSeries();
+        }
+        this.lotSeries = newSeries();
+    }
+
+    private OccupancySeries newSeries() {
+        return new OccupancySeries(recentCapacity, hourlyCapacity, SAMPLE_SMOOTHING,
+                new HoltWinters(LEVEL_SMOOTHING, TREND_SMOOTHING, SEASONAL_SMOOTHING), zone);
+    }
+
+    /**
+     * Record the lot's occupancy as of nowMillis
+     * Runs on the sampler thread; call it directly to feed the history with a simulated clock.
+     * Samples must arrive in time order.
+     */
+    public synchronized void sample(long nowMillis) {
+        int[] lotOccupied = new int[SLOT_TYPES.length];
+        int[] lotTotal = new int[SLOT_TYPES.length];
+        for (ParkingFloor floor : parkingLot.getFloors()) {
+            OccupancySeries[] series = floorSeries.computeIfAbsent(floor.getFloorId(), id -> {
+                OccupancySeries[] created = new OccupancySeries[SLOT_TYPES.length];
+                for (SlotType slotType : SLOT_TYPES) {
+                    created[slotType.ordinal()] = newSeries();
+                }
+                return created;
+            });
+            for (SlotType slotType : SLOT_TYPES) {
+                int total = floor.getTotalSlots(slotType);
+                if (total == 0) {
+                    continue;
+                }
+                int occupied = floor.getOccupiedSlotsCount(slotType);
+                series[slotType.ordinal()].record(nowMillis, (double) occupied / total);
+                lotOccupied[slotType.ordinal()] += occupied;
+                lotTotal[slotType.ordinal()] += total;
+            }
+        }
+
+        int occupied = 0;
+        int total = 0;
+        for (SlotType slotType : SLOT_TYPES) {
+            int type = slotType.ordinal();
+            if (lotTotal[type] > 0) {
+                typeSeries[type].record(nowMillis, (double) lotOccupied[type] / lotTotal[type]);
+            }
+            occupied += lotOccupied[type];
+            total += lotTotal[type];
+        }
+        if (total > 0) {
+            lotSeries.record(nowMillis, (double) occupied / total);
+        }
+    }
+
+    /**
+     * Sample the lot every intervalMillis on a background thread
+     */
+    public synchronized void start(long intervalMillis) {
+        if (sampler != null) {
+            throw new IllegalStateException("Occupancy sampler already running");
+        }
+        sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "occupancy-sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sampler.scheduleAtFixedRate(() -> sample(System.currentTimeMillis()),
+                0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (sampler != null) {
+            sampler.shutdownNow();
+            sampler = null;
+        }
+    }
+
+    /**
+     * @return Forecast for the whole lot
+     */
+    public Forecast getForecast() {
+        return lotSeries.getForecast();
+    }
+
+    /**
+     * @return Forecast for one slot type across all floors
+     */
+    public Forecast getForecast(SlotType slotType) {
+        return typeSeries[slotType.ordinal()].getForecast();
+    }
+
+    /**
+     * @return Forecast for one slot type on one floor, or an empty forecast for a floor never sampled
+     */
+    public Forecast getForecast(int floorId, SlotType slotType) {
+        OccupancySeries[] series = floorSeries.get(floorId);
+        return series == null ? Forecast.EMPTY : series[slotType.ordinal()].getForecast();
+    }
+
+    /**
+     * Expected occupancy of a slot type across the lot some hours from now
+     * @return Occupancy between 0 and 1, or NaN before the first sample
+     */
+    public double forecastOccupancy(SlotType slotType, int hoursAhead) {
+        return getForecast(slotType).occupancyIn(hoursAhead);
+    }
+
+    /**
+     * Hours of day whose typical lot-wide occupancy reaches a threshold
+     * No hour is peak until the model has seen a full day.
+     *
+     * @param threshold Occupancy (0-1) from which an hour counts as peak
+     * @return Peak flag per hour of day, indexed 0-23
+     */
+    public boolean[] peakHours(double threshold) {
+        Forecast forecast = lotSeries.getForecast();
+        boolean[] peak = new boolean[HoltWinters.SEASON_LENGTH];
+        if (!forecast.isSeasonal()) {
+            return peak;
+        }
+        for (int hour = 0; hour < peak.length; hour++) {
+            peak[hour] = forecast.typicalOccupancy(hour) >= threshold;
+        }
+        return peak;
+    }
+
+    /**
+     * @return Recent raw samples of one slot type across the lot, oldest first
+     */
+    public double[] getRecentSamples(SlotType slotType) {
+        return typeSeries[slotType.ordinal()].getRecent();
+    }
+
+    /**
+     * @return Hourly mean occupancy of one slot type across the lot, oldest first
+     */
+    public double[] getHourlySamples(SlotType slotType) {
+        return typeSeries[slotType.ordinal()].getHourly();
+    }
+
+    /**
+     * Bytes reserved for samples across all series; fixed once every floor has been seen
+     */
+    public long getRetainedBytes() {
+        long bytes = lotSeries.getRetainedBytes();
+        for (OccupancySeries series : typeSeries) {
+            bytes += series.getRetainedBytes();
+        }
+        for (OccupancySeries[] floor : floorSeries.values()) {
+            for (OccupancySeries series : floor) {
+                bytes += series.getRetainedBytes();
+            }
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,80 @@
+package forecast;
+
+import java.time.Instant;
+import java.time.ZoneId;
+
+/**
+ * Occupancy history of one floor/slot type (or the whole lot) in bounded memory
+ *
+ * Keeps the latest raw samples in one ring and hourly means in another. Each closed hour
+ * also feeds the Holt-Winters model, and every sample republishes an immutable Forecast.
+ * Written by the sampling thread only; readers use the published forecast or a copy.
+ */
+class OccupancySeries {
+    private static final long MILLIS_PER_HOUR = 3_600_000L;
+
+    private final SampleRing recent;
+    private final SampleRing hourly;
+    private final HoltWinters model;
+    private final double smoothing;
+    private final ZoneId zone;
+    private long currentHour = Long.MIN_VALUE; // epoch hour being accumulated
+    private double hourSum;
+    private int hourSamples;
+    private int lastHourOfDay;
+    private double smoothed = Double.NaN;
+    private volatile Forecast forecast = Forecast.EMPTY;
+
+    OccupancySeries(int recentCapacity, int hourlyCapacity, double smoothing, HoltWinters model, ZoneId zone) {
+        this.recent = new SampleRing(recentCapacity);
+        this.hourly = new SampleRing(hourlyCapacity);
+        this.smoothing = smoothing;
+        this.model = model;
+        this.zone = zone;
+    }
+
+    synchronized void record(long nowMillis, double occupancy) {
+        long hour = Math.floorDiv(nowMillis, MILLIS_PER_HOUR);
+        if (hour != currentHour) {
+            if (hourSamples > 0) {
+                double mean = hourSum / hourSamples;
+                hourly.add(mean);
+                lastHourOfDay = hourOfDay(currentHour);
+                model.update(lastHourOfDay, mean);
+            } else {
+                lastHourOfDay = hourOfDay(hour - 1);
+            }
+            currentHour = hour;
+            hourSum = 0.0;
+            hourSamples = 0;
+        }
+        hourSum += occupancy;
+        hourSamples++;
+        recent.add(occupancy);
+        smoothed = Double.isNaN(smoothed) ? occupancy : smoothed + smoothing * (occupancy - smoothed);
+        forecast = model.snapshot(lastHourOfDay, occupancy, smoothed, nowMillis);
+    }
+
+    Forecast getForecast() {
+        return forecast;
+    }
+
+    synchronized double[] getRecent() {
+        return recent.toArray();
+    }
+
+    synchronized double[] getHourly() {
+        return hourly.toArray();
+    }
+
+    /**
+     * Bytes held by the sample rings, the part of the footprint that grows with history
+     */
+    long getRetainedBytes() {
+        return 8L * (recent.capacity() + hourly.capacity());
+    }
+
+    private int hourOfDay(long epochHour) {
+        return Instant.ofEpochMilli(epochHour * MILLIS_PER_HOUR).atZone(zone).getHour();
+    }
+}
@@ -0,0 +1,43 @@
+package forecast;
+
+/**
+ * Fixed-capacity ring of samples; the oldest sample is overwritten once it is full
+ * Not thread-safe - the owning series guards it.
+ */
+class SampleRing {
+    private final double[] samples;
+    private long written;
+
+    SampleRing(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Ring capacity must be positive");
+        }
+        this.samples = new double[capacity];
+    }
+
+    void add(double sample) {
+        samples[(int) (written % samples.length)] = sample;
+        written++;
+    }
+
+    int size() {
+        return (int) Math.min(written, samples.length);
+    }
+
+    int capacity() {
+        return samples.length;
+    }
+
+    /**
+     * @return The retained samples, oldest first
+     */
+    double[] toArray() {
+        int size = size();
+        double[] copy = new double[size];
+        long first = written - size;
+        for (int i = 0; i < size; i++) {
+            copy[i] = samples[(int) ((first + i) % samples.length)];
+        }
+        return copy;
+    }
+}
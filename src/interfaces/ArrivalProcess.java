@@ -0,0 +1,16 @@
+package interfaces;
+
+import simulation.Arrival;
+
+/**
+ * Source of simulated vehicle arrivals, in increasing order of arrival time
+ * Used by the load generator; implementations need not be thread-safe.
+ */
+public interface ArrivalProcess {
+    /**
+     * Produce the next arrival
+     * 
+     * @return The next arrival, or null when the process is exhausted
+     */
+    Arrival next();
+}
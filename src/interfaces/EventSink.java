@@ -0,0 +1,24 @@
+package interfaces;
+
+import events.ParkingEvent;
+
+/**
+ * Destination for events published by gates and the parking lot
+ * Publishing must never block the admission or exit path
+ */
+public interface EventSink {
+    /**
+     * Whether anyone consumes events. Publishers check this before building
+     * an event, so a disabled sink costs no allocation on the hot path.
+     * 
+     * @return true if published events are delivered somewhere
+     */
+    boolean isEnabled();
+    
+    /**
+     * Publish an event without blocking the caller
+     * 
+     * @param event The event to publish
+     */
+    void publish(ParkingEvent event);
+}
@@ -0,0 +1,15 @@
+package interfaces;
+
+import events.ParkingEvent;
+
+/**
+ * Consumer of parking events, called from the sink's background thread
+ */
+public interface EventSubscriber {
+    /**
+     * Handle a single event
+     * 
+     * @param event The delivered event
+     */
+    void onEvent(ParkingEvent event);
+}
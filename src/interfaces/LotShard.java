@@ -0,0 +1,34 @@
+package interfaces;
+
+import cluster.ShardCapacity;
+import enums.Payment;
+import models.Vehicle;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * One independent parking engine in a ParkingLotCluster, in this process or behind a socket
+ * Every call returns at once; the shard does the work on its own executor.
+ */
+public interface LotShard {
+    String getShardId();
+    
+    /**
+     * Park a vehicle in this shard
+     * @return Completes with the slot ID, with null if the shard has no suitable slot, or
+     *         exceptionally if the vehicle is already parked here
+     */
+    CompletableFuture<String> park(Vehicle vehicle);
+    
+    /**
+     * Check a vehicle out of this shard
+     * @return Completes with true once the vehicle has exited
+     */
+    CompletableFuture<Boolean> exit(String vehicleNo, Payment paymentMethod);
+    
+    /**
+     * @return Completes with the vehicle's slot ID, or null if it has no ticket here
+     */
+    CompletableFuture<String> locate(String vehicleNo);
+    
+    CompletableFuture<ShardCapacity> capacity();
+}
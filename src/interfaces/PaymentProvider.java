@@ -0,0 +1,23 @@
+package interfaces;
+
+import enums.Payment;
+import models.Bill;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Charges a bill without blocking the exit gate
+ * Exit gates call authorize and carry on with other checkouts until the future completes.
+ */
+public interface PaymentProvider {
+    /**
+     * Start charging a bill
+     * The gate may retry after a timeout or an exceptional completion, so providers must
+     * treat the bill ID as an idempotency key and never charge the same bill twice.
+     * 
+     * @param bill The bill to charge
+     * @param paymentMethod The payment method chosen by the driver
+     * @return Completes with true if approved, false if declined, or exceptionally on a
+     *         transient failure worth retrying
+     */
+    CompletableFuture<Boolean> authorize(Bill bill, Payment paymentMethod);
+}
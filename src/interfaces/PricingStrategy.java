@@ -14,4 +14,15 @@ public interface PricingStrategy {
      * @return The calculated price for parking
      */
     double calculatePrice(Ticket ticket);
+    
+    /**
+     * Calculate the price in fixed-point cents
+     * Table-driven strategies override this to skip floating point entirely
+     * 
+     * @param ticket The parking ticket
+     * @return The price in cents
+     */
+    default long calculatePriceCents(Ticket ticket) {
+        return Math.round(calculatePrice(ticket) * 100.0);
+    }
 }
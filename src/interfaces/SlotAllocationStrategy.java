@@ -1,8 +1,10 @@
 package interfaces;
 
+import models.EntryGate;
 import models.ParkingFloor;
 import models.ParkingSlot;
 import models.Vehicle;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -19,4 +21,64 @@ public interface SlotAllocationStrategy {
      * @return The allocated parking slot, or null if no suitable slot is available
      */
     ParkingSlot allocateParkingSlot(Vehicle vehicle, List<ParkingFloor> floors, int entryFloor);
+    
+    /**
+     * Allocate a parking slot for a vehicle arriving at a specific gate
+     * Strategies that care about where the gate is (not just its floor) override this;
+     * by default only the gate's floor is used.
+     * 
+     * @param vehicle The vehicle that needs parking
+     * @param floors List of parking floors to search for available slots
+     * @param entryGate The gate the vehicle is entering through
+     * @return The allocated parking slot, or null if no suitable slot is available
+     */
+    default ParkingSlot allocateParkingSlot(Vehicle vehicle, List<ParkingFloor> floors, EntryGate entryGate) {
+        return allocateParkingSlot(vehicle, floors, entryGate.getFloor());
+    }
+    
+    /**
+     * Allocate and occupy slots for a batch of arriving vehicles
+     * Unlike allocateParkingSlot, the returned slots are already claimed: each
+     * vehicle has been parked in the slot at the same position of the result.
+     * Implementations should override this to serve the whole batch in one pass.
+     * 
+     * @param vehicles Vehicles in arrival order
+     * @param floors List of parking floors to search for available slots
+     * @param entryFloor The floor where the entry gate is located
+     * @return Slot each vehicle was parked in, or null where no slot was available
+     */
+    default List<ParkingSlot> allocateParkingSlots(List<Vehicle> vehicles, List<ParkingFloor> floors,
+                                                  int entryFloor) {
+        List<ParkingSlot> allocated = new ArrayList<>(vehicles.size());
+        for (Vehicle vehicle : vehicles) {
+            // As in EntryGate.generateTicket, a vehicle that keeps losing its slot is turned away
+            ParkingSlot parked = null;
+            for (int attempt = 0; attempt < EntryGate.MAX_ALLOCATION_ATTEMPTS && parked == null; attempt++) {
+                ParkingSlot slot = allocateParkingSlot(vehicle, floors, entryFloor);
+                if (slot == null) {
+                    break;
+                }
+                if (slot.parkVehicle(vehicle)) {
+                    parked = slot;
+                }
+            }
+            allocated.add(parked);
+        }
+        return allocated;
+    }
+    
+    /**
+     * Allocate and occupy slots for a batch of vehicles arriving at a specific gate
+     * Strategies that care about where the gate is override this, as with
+     * allocateParkingSlot; by default only the gate's floor is used.
+     * 
+     * @param vehicles Vehicles in arrival order
+     * @param floors List of parking floors to search for available slots
+     * @param entryGate The gate the vehicles are entering through
+     * @return Slot each vehicle was parked in, or null where no slot was available
+     */
+    default List<ParkingSlot> allocateParkingSlots(List<Vehicle> vehicles, List<ParkingFloor> floors,
+                                                  EntryGate entryGate) {
+        return allocateParkingSlots(vehicles, floors, entryGate.getFloor());
+    }
 }
@@ -0,0 +1,26 @@
+package interfaces;
+
+import models.ParkingSlot;
+
+/**
+ * Observer of slots entering or leaving a floor's free-slot index
+ * Called on the thread that changed the slot, so implementations must be cheap and thread-safe.
+ * A slot changed concurrently by several gates may be reported more than once; the last
+ * report for a slot always matches its settled state.
+ */
+public interface SlotStateListener {
+    /**
+     * @param slot The slot whose state changed
+     * @param previousCharging Charging flag the slot had when this thread last reported it
+     * @param charging Charging flag the slot has now
+     * @param free Whether the slot is now EMPTY
+     */
+    void onSlotStateChanged(ParkingSlot slot, boolean previousCharging, boolean charging, boolean free);
+    
+    /**
+     * A slot was added to the floor; called under the floor's layout lock
+     * @param slot The new slot
+     */
+    default void onSlotAdded(ParkingSlot slot) {
+    }
+}
@@ -0,0 +1,46 @@
+package interfaces;
+
+import models.ParkingSlot;
+
+/**
+ * Storage that mirrors the state of every slot outside the Java heap objects
+ * A ParkingFloor built over a store rebuilds its slots from it and writes every
+ * state change back, so the floor's layout survives restarts. Occupants are not
+ * restored; the ticket journal puts them back.
+ */
+public interface SlotStateStore {
+    /**
+     * Reserve a record for a slot that is not in the store yet
+     * 
+     * @param slot The new slot
+     * @return Index of the record now holding the slot
+     */
+    int allocate(ParkingSlot slot);
+    
+    /**
+     * Write the slot's current type, charging flag and status to its record
+     * 
+     * @param index Record index returned by allocate
+     * @param slot The slot to save
+     */
+    void save(int index, ParkingSlot slot);
+    
+    /**
+     * @return Number of records in the store
+     */
+    int size();
+    
+    /**
+     * @param index Record index
+     * @return Floor number of the slot in that record
+     */
+    int floorOf(int index);
+    
+    /**
+     * Rebuild the slot held in a record, without an occupant
+     * 
+     * @param index Record index
+     * @return A detached, unoccupied slot with the stored layout
+     */
+    ParkingSlot restore(int index);
+}
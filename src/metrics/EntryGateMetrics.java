@@ -0,0 +1,52 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Instruments of one entry gate, resolved from the registry once when the gate is wired up
+ */
+public final class EntryGateMetrics {
+    private final LongAdder ticketsIssued;
+    private final LongAdder rejections;
+    private final LongAdder allocationConflicts;
+    private final LatencyHistogram allocationLatency;
+    private final LatencyHistogram batchAllocationLatency;
+
+    /**
+     * @param registry Registry to record into
+     * @param gateId Entry gate ID, used as the gate label
+     * @param strategyName Allocation strategy, used as the strategy label of the latency histograms
+     */
+    public EntryGateMetrics(MetricsRegistry registry, String gateId, String strategyName) {
+        this.ticketsIssued = registry.counter("parking_entry_tickets_total", "gate", gateId);
+        this.rejections = registry.counter("parking_entry_rejections_total", "gate", gateId);
+        this.allocationConflicts = registry.counter("parking_entry_allocation_conflicts_total", "gate", gateId);
+        this.allocationLatency = registry.histogram("parking_allocation_seconds",
+                "gate", gateId, "strategy", strategyName);
+        this.batchAllocationLatency = registry.histogram("parking_batch_allocation_seconds",
+                "gate", gateId, "strategy", strategyName);
+    }
+
+    public void ticketIssued() {
+        ticketsIssued.increment();
+    }
+
+    public void rejected() {
+        rejections.increment();
+    }
+
+    /**
+     * The allocated slot was claimed by another gate first
+     */
+    public void allocationConflict() {
+        allocationConflicts.increment();
+    }
+
+    public void recordAllocation(long nanos) {
+        allocationLatency.record(nanos);
+    }
+
+    public void recordBatchAllocation(long nanos) {
+        batchAllocationLatency.record(nanos);
+    }
+}
@@ -0,0 +1,59 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Instruments of one exit gate, resolved from the registry once when the gate is wired up
+ */
+public final class ExitGateMetrics {
+    private final LongAdder exits;
+    private final LongAdder rejections;
+    private final LongAdder paymentFailures;
+    private final LongAdder paymentRetries;
+    private final LongAdder paymentTimeouts;
+    private final LatencyHistogram billingLatency;
+    private final LatencyHistogram paymentLatency;
+
+    /**
+     * @param registry Registry to record into
+     * @param gateId Exit gate ID, used as the gate label
+     * @param strategyName Pricing strategy, used as the strategy label of the billing histogram
+     */
+    public ExitGateMetrics(MetricsRegistry registry, String gateId, String strategyName) {
+        this.exits = registry.counter("parking_exit_vehicles_total", "gate", gateId);
+        this.rejections = registry.counter("parking_exit_rejections_total", "gate", gateId);
+        this.paymentFailures = registry.counter("parking_payment_failures_total", "gate", gateId);
+        this.paymentRetries = registry.counter("parking_payment_retries_total", "gate", gateId);
+        this.paymentTimeouts = registry.counter("parking_payment_timeouts_total", "gate", gateId);
+        this.billingLatency = registry.histogram("parking_billing_seconds", "gate", gateId, "strategy", strategyName);
+        this.paymentLatency = registry.histogram("parking_payment_seconds", "gate", gateId);
+    }
+
+    public void vehicleExited() {
+        exits.increment();
+    }
+
+    public void rejected() {
+        rejections.increment();
+    }
+
+    public void paymentFailed() {
+        paymentFailures.increment();
+    }
+
+    public void paymentRetried() {
+        paymentRetries.increment();
+    }
+
+    public void paymentTimedOut() {
+        paymentTimeouts.increment();
+    }
+
+    public void recordBilling(long nanos) {
+        billingLatency.record(nanos);
+    }
+
+    public void recordPayment(long nanos) {
+        paymentLatency.record(nanos);
+    }
+}
@@ -0,0 +1,88 @@
+package metrics;
+
+import java.util.Arrays;
+
+/**
+ * Immutable copy of a LatencyHistogram's buckets at one instant
+ */
+public final class HistogramSnapshot {
+    static final HistogramSnapshot EMPTY = new HistogramSnapshot(new long[0], 0, 0, 0);
+
+    private final long[] counts; // trimmed after the highest non-empty bucket
+    private final long count;
+    private final long sum;
+    private final long max;
+
+    HistogramSnapshot(long[] counts, int used, long sum, long max) {
+        this.counts = used == counts.length ? counts : Arrays.copyOf(counts, used);
+        long total = 0;
+        for (long value : this.counts) {
+            total += value;
+        }
+        this.count = total;
+        this.sum = sum;
+        this.max = max;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return Sum of all recorded values, in nanoseconds
+     */
+    public long getSum() {
+        return sum;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * @param percentile 0-100, e.g. 99.9
+     * @return Upper bound of the bucket holding that percentile, in nanoseconds
+     */
+    public long getPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(LatencyHistogram.upperBoundOf(i), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Latencies recorded between an earlier snapshot of the same histogram and this one
+     * The interval's max is only known to bucket precision.
+     *
+     * @param earlier Snapshot taken before this one
+     * @return Interval snapshot
+     */
+    public HistogramSnapshot minus(HistogramSnapshot earlier) {
+        long[] delta = Arrays.copyOf(counts, counts.length);
+        int highest = -1;
+        for (int i = 0; i < delta.length; i++) {
+            if (i < earlier.counts.length) {
+                delta[i] -= earlier.counts[i];
+            }
+            if (delta[i] > 0) {
+                highest = i;
+            } else {
+                delta[i] = 0;
+            }
+        }
+        long intervalMax = highest < 0 ? 0 : Math.min(LatencyHistogram.upperBoundOf(highest), max);
+        return new HistogramSnapshot(delta, highest + 1, Math.max(0, sum - earlier.sum), intervalMax);
+    }
+}
@@ -0,0 +1,85 @@
+package metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with log-linear buckets (about 0.8% relative error), in the
+ * spirit of HdrHistogram
+ * Values below 128 ns get a bucket each; above that every power of two is split into
+ * 128 sub-buckets. Recording is a couple of atomic adds, so any number of gate threads
+ * can record concurrently. Readers work on a snapshot; subtracting two snapshots gives
+ * the latencies recorded in between.
+ */
+public class LatencyHistogram {
+    static final int SUB_BUCKET_BITS = 7;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final int BUCKETS = SUB_BUCKETS + (63 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucketOf(value));
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Copy the current counts; recording carries on while the copy is taken
+     * @return Everything recorded so far
+     */
+    public HistogramSnapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        int highest = -1;
+        for (int i = 0; i < BUCKETS; i++) {
+            long value = counts.get(i);
+            if (value != 0) {
+                copy[i] = value;
+                highest = i;
+            }
+        }
+        return new HistogramSnapshot(copy, highest + 1, sum.sum(), max.get());
+    }
+
+    public long getCount() {
+        return snapshot().getCount();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public double getMean() {
+        return snapshot().getMean();
+    }
+
+    /**
+     * @param percentile 0-100, e.g. 99.9
+     * @return Upper bound of the bucket holding that percentile, in nanoseconds
+     */
+    public long getPercentile(double percentile) {
+        return snapshot().getPercentile(percentile);
+    }
+
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        return SUB_BUCKETS + shift * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+        long subBucket = (bucket - SUB_BUCKETS) % SUB_BUCKETS;
+        return ((SUB_BUCKETS + subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,140 @@
+package metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Named counters, latency histograms and gauges, each identified by a name and label pairs
+ * Instruments are looked up once (when a gate is wired up) and then recorded into directly,
+ * so the hot path never touches the registry. Gauges are read only when a snapshot is taken.
+ *
+ * Labels are given as alternating name/value strings, e.g. counter("parking_entry_tickets_total", "gate", "ENTRY_01").
+ */
+public class MetricsRegistry {
+    private final Map<String, Metric> metrics = new ConcurrentHashMap<>();
+
+    /**
+     * Get or create a monotonically increasing counter
+     */
+    public LongAdder counter(String name, String... labels) {
+        return (LongAdder) register(name, labels, MetricType.COUNTER, LongAdder::new);
+    }
+
+    /**
+     * Get or create a latency histogram; record values in nanoseconds
+     */
+    public LatencyHistogram histogram(String name, String... labels) {
+        return (LatencyHistogram) register(name, labels, MetricType.HISTOGRAM, LatencyHistogram::new);
+    }
+
+    /**
+     * Register (or replace) a gauge read on every snapshot
+     */
+    public void gauge(String name, DoubleSupplier value, String... labels) {
+        String labelText = labelText(labels);
+        metrics.put(keyOf(name, labelText), new Metric(name, labelText, MetricType.GAUGE, value));
+    }
+
+    public void remove(String name, String... labels) {
+        metrics.remove(keyOf(name, labelText(labels)));
+    }
+
+    /**
+     * Read every metric once
+     * @return Cumulative values since each metric was registered
+     */
+    public MetricsSnapshot snapshot() {
+        MetricsSnapshot.Builder snapshot = new MetricsSnapshot.Builder(System.currentTimeMillis());
+        for (Map.Entry<String, Metric> entry : metrics.entrySet()) {
+            Metric metric = entry.getValue();
+            switch (metric.type) {
+                case COUNTER:
+                    snapshot.add(entry.getKey(), metric.name, metric.labels, metric.type,
+                            ((LongAdder) metric.instrument).sum(), null);
+                    break;
+                case GAUGE:
+                    snapshot.add(entry.getKey(), metric.name, metric.labels, metric.type,
+                            ((DoubleSupplier) metric.instrument).getAsDouble(), null);
+                    break;
+                case HISTOGRAM:
+                    snapshot.add(entry.getKey(), metric.name, metric.labels, metric.type, 0,
+                            ((LatencyHistogram) metric.instrument).snapshot());
+                    break;
+            }
+        }
+        return snapshot.build();
+    }
+
+    private Object register(String name, String[] labels, MetricType type, Supplier<Object> instrument) {
+        String labelText = labelText(labels);
+        Metric metric = metrics.computeIfAbsent(keyOf(name, labelText),
+                key -> new Metric(name, labelText, type, instrument.get()));
+        if (metric.type != type) {
+            throw new IllegalArgumentException(name + " is already registered as a " + metric.type);
+        }
+        return metric.instrument;
+    }
+
+    /**
+     * Name and labels joined so that samples sort grouped by name
+     */
+    static String keyOf(String name, String labelText) {
+        return name + '\u0000' + labelText;
+    }
+
+    /**
+     * Render label pairs in Prometheus form: gate="ENTRY_01",strategy="NearestSlotStrategy"
+     */
+    static String labelText(String... labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels must be name/value pairs");
+        }
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) {
+                text.append(',');
+            }
+            text.append(labels[i]).append("=\"");
+            String value = String.valueOf(labels[i + 1]);
+            for (int c = 0; c < value.length(); c++) {
+                char ch = value.charAt(c);
+                if (ch == '\\' || ch == '"') {
+                    text.append('\\').append(ch);
+                } else if (ch == '\n') {
+                    text.append("\\n");
+                } else {
+                    text.append(ch);
+                }
+            }
+            text.append('"');
+        }
+        return text.toString();
+    }
+
+    enum MetricType {
+        COUNTER("counter"), GAUGE("gauge"), HISTOGRAM("summary");
+
+        final String prometheusType;
+
+        MetricType(String prometheusType) {
+            this.prometheusType = prometheusType;
+        }
+    }
+
+    private static class Metric {
+        final String name;
+        final String labels;
+        final MetricType type;
+        final Object instrument;
+
+        Metric(String name, String labels, MetricType type, Object instrument) {
+            this.name = name;
+            this.labels = labels;
+            this.type = type;
+            this.instrument = instrument;
+        }
+    }
+}
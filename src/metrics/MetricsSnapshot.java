@@ -0,0 +1,157 @@
+package metrics;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable reading of every metric in a registry, sorted by name then labels
+ * A snapshot taken with MetricsRegistry.snapshot() is cumulative; since(earlier) turns two
+ * of them into the counts and latencies of the interval in between.
+ */
+public final class MetricsSnapshot {
+    private final long timestampMillis;
+    private final Map<String, Sample> samples;
+
+    private MetricsSnapshot(long timestampMillis, Map<String, Sample> samples) {
+        this.timestampMillis = timestampMillis;
+        this.samples = Collections.unmodifiableMap(samples);
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    public Collection<Sample> getSamples() {
+        return samples.values();
+    }
+
+    /**
+     * Samples whose name starts with a prefix, in sorted order
+     */
+    public List<Sample> getSamples(String namePrefix) {
+        List<Sample> matching = new ArrayList<>();
+        for (Sample sample : samples.values()) {
+            if (sample.name.startsWith(namePrefix)) {
+                matching.add(sample);
+            }
+        }
+        return matching;
+    }
+
+    /**
+     * @return Counter or gauge value, or 0 if there is no such metric
+     */
+    public double getValue(String name, String... labels) {
+        Sample sample = samples.get(MetricsRegistry.keyOf(name, MetricsRegistry.labelText(labels)));
+        return sample == null ? 0 : sample.value;
+    }
+
+    /**
+     * @return Histogram snapshot, or an empty one if there is no such metric
+     */
+    public HistogramSnapshot getHistogram(String name, String... labels) {
+        return histogramOf(name, MetricsRegistry.labelText(labels));
+    }
+
+    HistogramSnapshot histogramOf(String name, String labelText) {
+        Sample sample = samples.get(MetricsRegistry.keyOf(name, labelText));
+        return sample == null || sample.histogram == null ? HistogramSnapshot.EMPTY : sample.histogram;
+    }
+
+    /**
+     * What happened between an earlier snapshot of the same registry and this one
+     * Counters and histograms become deltas; gauges keep their current value.
+     *
+     * @param earlier Snapshot taken before this one
+     * @return Interval snapshot stamped with this snapshot's time
+     */
+    public MetricsSnapshot since(MetricsSnapshot earlier) {
+        Map<String, Sample> interval = new TreeMap<>();
+        for (Map.Entry<String, Sample> entry : samples.entrySet()) {
+            Sample current = entry.getValue();
+            Sample previous = earlier.samples.get(entry.getKey());
+            if (previous == null || current.type == MetricsRegistry.MetricType.GAUGE) {
+                interval.put(entry.getKey(), current);
+            } else if (current.type == MetricsRegistry.MetricType.COUNTER) {
+                interval.put(entry.getKey(), new Sample(current.name, current.labels, current.type,
+                        current.value - previous.value, null));
+            } else {
+                interval.put(entry.getKey(), new Sample(current.name, current.labels, current.type, 0,
+                        current.histogram.minus(previous.histogram)));
+            }
+        }
+        return new MetricsSnapshot(timestampMillis, interval);
+    }
+
+    /**
+     * One metric's reading
+     */
+    public static final class Sample {
+        private final String name;
+        private final String labels;
+        private final MetricsRegistry.MetricType type;
+        private final double value;
+        private final HistogramSnapshot histogram;
+
+        Sample(String name, String labels, MetricsRegistry.MetricType type, double value,
+               HistogramSnapshot histogram) {
+            this.name = name;
+            this.labels = labels;
+            this.type = type;
+            this.value = value;
+            this.histogram = histogram;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return Labels in Prometheus form, e.g. gate="ENTRY_01"; empty if unlabelled
+         */
+        public String getLabels() {
+            return labels;
+        }
+
+        /**
+         * @return "counter", "gauge" or "summary" (latency histograms)
+         */
+        public String getType() {
+            return type.prometheusType;
+        }
+
+        public boolean isHistogram() {
+            return histogram != null;
+        }
+
+        public double getValue() {
+            return value;
+        }
+
+        public HistogramSnapshot getHistogram() {
+            return histogram;
+        }
+    }
+
+    static class Builder {
+        private final long timestampMillis;
+        private final Map<String, Sample> samples = new TreeMap<>();
+
+        Builder(long timestampMillis) {
+            this.timestampMillis = timestampMillis;
+        }
+
+        void add(String key, String name, String labels, MetricsRegistry.MetricType type, double value,
+                 HistogramSnapshot histogram) {
+            samples.put(key, new Sample(name, labels, type, value, histogram));
+        }
+
+        MetricsSnapshot build() {
+            return new MetricsSnapshot(timestampMillis, samples);
+        }
+    }
+}
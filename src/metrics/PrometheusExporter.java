@@ -0,0 +1,170 @@
+package metrics;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exposes a MetricsRegistry in the Prometheus text format
+ *
+ * Either serve it over HTTP on localhost (GET /metrics) or rewrite a file periodically,
+ * e.g. for node_exporter's textfile collector. Latency histograms are exported as summaries:
+ * _count and _sum (in seconds) are cumulative, while the quantiles cover only the interval
+ * since the previous export, so a slow gate shows up right away instead of being averaged
+ * into everything since start-up.
+ */
+public class PrometheusExporter implements AutoCloseable {
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private final MetricsRegistry registry;
+    private MetricsSnapshot lastExport;
+    private HttpServer server;
+    private ScheduledExecutorService fileWriter;
+    private Path file;
+
+    public PrometheusExporter(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Take a snapshot and render it; quantiles cover the time since the previous call
+     * @return Prometheus text exposition
+     */
+    public synchronized String scrape() {
+        MetricsSnapshot current = registry.snapshot();
+        MetricsSnapshot interval = lastExport == null ? current : current.since(lastExport);
+        lastExport = current;
+        return render(current, interval);
+    }
+
+    /**
+     * Render a cumulative snapshot, taking summary quantiles from an interval snapshot
+     * @param cumulative Snapshot from MetricsRegistry.snapshot()
+     * @param interval The same snapshot minus an earlier one (or cumulative itself)
+     * @return Prometheus text exposition
+     */
+    public static String render(MetricsSnapshot cumulative, MetricsSnapshot interval) {
+        StringBuilder text = new StringBuilder();
+        String currentName = null;
+        for (MetricsSnapshot.Sample sample : cumulative.getSamples()) {
+            if (!sample.getName().equals(currentName)) {
+                currentName = sample.getName();
+                text.append("# TYPE ").append(currentName).append(' ').append(sample.getType()).append('\n');
+            }
+            String labels = sample.getLabels();
+            if (!sample.isHistogram()) {
+                appendLine(text, currentName, labels, null, sample.getValue());
+                continue;
+            }
+
+            HistogramSnapshot recent = interval.histogramOf(currentName, labels);
+            for (double quantile : QUANTILES) {
+                // NaN, as Prometheus clients do, when nothing was recorded in the interval
+                appendLine(text, currentName, labels, "quantile=\"" + quantile + "\"",
+                        recent.getCount() == 0 ? Double.NaN : recent.getPercentile(quantile * 100) / NANOS_PER_SECOND);
+            }
+            HistogramSnapshot total = sample.getHistogram();
+            appendLine(text, currentName + "_sum", labels, null, total.getSum() / NANOS_PER_SECOND);
+            appendLine(text, currentName + "_count", labels, null, total.getCount());
+        }
+        return text.toString();
+    }
+
+    private static void appendLine(StringBuilder text, String name, String labels, String extraLabel,
+                                   double value) {
+        text.append(name);
+        if (!labels.isEmpty() || extraLabel != null) {
+            text.append('{').append(labels);
+            if (extraLabel != null) {
+                text.append(labels.isEmpty() ? "" : ",").append(extraLabel);
+            }
+            text.append('}');
+        }
+        text.append(' ');
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            text.append((long) value);
+        } else {
+            text.append(value);
+        }
+        text.append('\n');
+    }
+
+    /**
+     * Serve GET /metrics on the loopback interface
+     * @param port TCP port, or 0 to pick a free one
+     * @return The port actually bound
+     */
+    public synchronized int serve(int port) throws IOException {
+        if (server != null) {
+            throw new IllegalStateException("Already serving on port " + server.getAddress().getPort());
+        }
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/metrics", exchange -> {
+            byte[] body = scrape().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Rewrite a file with the current metrics every intervalMillis, and once more on close
+     * The file is replaced atomically, so readers never see a half-written export.
+     */
+    public synchronized void writePeriodically(Path file, long intervalMillis) {
+        if (fileWriter != null) {
+            throw new IllegalStateException("Already writing to " + this.file);
+        }
+        this.file = file;
+        fileWriter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-file-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        fileWriter.scheduleAtFixedRate(() -> {
+            try {
+                writeTo(file);
+            } catch (IOException e) {
+                System.err.println("Could not write metrics to " + file + ": " + e.getMessage());
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Write the current metrics to a file once
+     */
+    public void writeTo(Path file) throws IOException {
+        Path absolute = file.toAbsolutePath();
+        Path temporary = absolute.resolveSibling(absolute.getFileName() + ".tmp");
+        Files.write(temporary, scrape().getBytes(StandardCharsets.UTF_8));
+        Files.move(temporary, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+        if (fileWriter != null) {
+            fileWriter.shutdownNow();
+            fileWriter = null;
+            writeTo(file);
+        }
+    }
+}
@@ -1,15 +1,15 @@
 package models;
 
 import enums.Payment;
+import registry.TicketIdGenerator;
 import java.time.LocalDateTime;
-import java.util.UUID;
 
 /**
  * Represents a bill generated at exit
  * Follows Single Responsibility Principle - manages billing information only
  */
 public class Bill {
-    private UUID billId;
+    private long billId;
     private LocalDateTime exitTime;
     private double totalAmount;
     private Ticket ticket;
@@ -18,7 +18,7 @@ public class Bill {
     private String exitGateId;
     
     public Bill(Ticket ticket, double totalAmount, String exitGateId) {
-        this.billId = UUID.randomUUID();
+        this.billId = TicketIdGenerator.getDefault().nextId();
         this.ticket = ticket;
         this.totalAmount = totalAmount;
         this.exitTime = LocalDateTime.now();
@@ -27,7 +27,7 @@ public class Bill {
     }
     
     // Getters
-    public UUID getBillId() {
+    public long getBillId() {
         return billId;
     }
     
@@ -77,14 +77,15 @@ public class Bill {
     }
     
     /**
-     * Process payment for this bill
+     * Mark this bill as paid
+     * Exit gates call this once their PaymentProvider has approved the charge.
      * @param paymentMethod The payment method used
      * @return true if payment is successful
      */
     public boolean processPayment(Payment paymentMethod) {
         this.paymentMethod = paymentMethod;
         this.isPaid = true;
-        return true; // In real system, this would integrate with payment gateway
+        return true;
     }
     
     /**
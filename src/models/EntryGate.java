@@ -1,6 +1,12 @@
 package models;
 
+import events.NoOpEventSink;
+import events.ParkingEvent;
+import interfaces.EventSink;
 import interfaces.SlotAllocationStrategy;
+import metrics.EntryGateMetrics;
+import metrics.MetricsRegistry;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -8,9 +14,18 @@ import java.util.List;
  * Follows Single Responsibility Principle - handles vehicle entry operations only
  */
 public class EntryGate {
+    /** Slots lost to a concurrent gate are re-allocated up to this many times per vehicle */
+    public static final int MAX_ALLOCATION_ATTEMPTS = 32;
+    
     private String entryGateId;
     private int floor;
     private SlotAllocationStrategy slotAllocationStrategy;
+    private EventSink eventSink = NoOpEventSink.INSTANCE;
+    private double x; // position on the gate's floor in metres
+    private double y;
+    private volatile GateDistanceIndex distanceIndex; // built on first gate-aware allocation
+    private MetricsRegistry metricsRegistry;
+    private EntryGateMetrics metrics; // null unless a metrics registry is attached
     
     public EntryGate(String entryGateId, int floor, SlotAllocationStrategy slotAllocationStrategy) {
         this.entryGateId = entryGateId;
@@ -31,17 +46,89 @@ public class EntryGate {
         return slotAllocationStrategy;
     }
     
+    public double getX() {
+        return x;
+    }
+    
+    public double getY() {
+        return y;
+    }
+    
+    /**
+     * Get this gate's walking-distance order of the given floors' slots
+     * Built on first use and rebuilt only when floors are added or their layout changes.
+     * 
+     * @param floors All floors of the lot
+     * @return Distance index for this gate
+     */
+    public GateDistanceIndex getDistanceIndex(List<ParkingFloor> floors) {
+        GateDistanceIndex index = distanceIndex;
+        if (index != null && index.covers(floors)) {
+            return index;
+        }
+        synchronized (this) {
+            index = distanceIndex;
+            if (index == null || !index.covers(floors)) {
+                if (index != null) {
+                    index.close();
+                }
+                index = new GateDistanceIndex(this, floors);
+                distanceIndex = index;
+            }
+            return index;
+        }
+    }
+    
     // Setters
     public void setEntryGateId(String entryGateId) {
         this.entryGateId = entryGateId;
+        resolveMetrics();
     }
     
-    public void setFloor(int floor) {
+    public synchronized void setFloor(int floor) {
         this.floor = floor;
+        invalidateDistanceIndex();
+    }
+    
+    /**
+     * Place the gate on its floor plan
+     * @param x X coordinate in metres
+     * @param y Y coordinate in metres
+     */
+    public synchronized void setPosition(double x, double y) {
+        this.x = x;
+        this.y = y;
+        invalidateDistanceIndex();
+    }
+    
+    private void invalidateDistanceIndex() {
+        if (distanceIndex != null) {
+            distanceIndex.close();
+            distanceIndex = null;
+        }
     }
     
     public void setSlotAllocationStrategy(SlotAllocationStrategy slotAllocationStrategy) {
         this.slotAllocationStrategy = slotAllocationStrategy;
+        resolveMetrics();
+    }
+    
+    public void setEventSink(EventSink eventSink) {
+        this.eventSink = eventSink;
+    }
+    
+    /**
+     * Record ticket counts and allocation latency into a registry
+     * @param metricsRegistry The registry, or null to stop recording
+     */
+    public void setMetricsRegistry(MetricsRegistry metricsRegistry) {
+        this.metricsRegistry = metricsRegistry;
+        resolveMetrics();
+    }
+    
+    private void resolveMetrics() {
+        metrics = metricsRegistry == null ? null : new EntryGateMetrics(metricsRegistry, entryGateId,
+                slotAllocationStrategy.getClass().getSimpleName());
     }
     
     /**
@@ -53,35 +140,135 @@ public class EntryGate {
      * @return Generated ticket if parking is successful, null otherwise
      */
     public Ticket generateTicket(Vehicle vehicle, List<ParkingFloor> floors) {
-        // Use strategy pattern to find and allocate a suitable parking slot
-        ParkingSlot allocatedSlot = slotAllocationStrategy.allocateParkingSlot(vehicle, floors, this.floor);
+        EntryGateMetrics metrics = this.metrics;
+        for (int attempt = 0; attempt < MAX_ALLOCATION_ATTEMPTS; attempt++) {
+            // Use strategy pattern to find and allocate a suitable parking slot
+            long started = metrics != null ? System.nanoTime() : 0;
+            ParkingSlot allocatedSlot = slotAllocationStrategy.allocateParkingSlot(vehicle, floors, this);
+            if (metrics != null) {
+                metrics.recordAllocation(System.nanoTime() - started);
+            }
+            
+            if (allocatedSlot == null) {
+                if (metrics != null) {
+                    metrics.rejected();
+                }
+                if (eventSink.isEnabled()) {
+                    eventSink.publish(ParkingEvent.parkingRejected(vehicle.getVehicleNo(), entryGateId,
+                            "no suitable parking slot available"));
+                }
+                return null;
+            }
+            
+            // Park the vehicle in the allocated slot; another gate may have claimed it first
+            if (allocatedSlot.parkVehicle(vehicle)) {
+                // Generate and return the ticket
+                Ticket ticket = new Ticket(vehicle, allocatedSlot, this.entryGateId);
+                if (metrics != null) {
+                    metrics.ticketIssued();
+                }
+                if (eventSink.isEnabled()) {
+                    eventSink.publish(ParkingEvent.vehicleParked(ticket));
+                }
+                return ticket;
+            }
+            if (metrics != null) {
+                metrics.allocationConflict();
+            }
+        }
         
-        if (allocatedSlot == null) {
-            System.out.println("No suitable parking slot available for vehicle: " + vehicle.getVehicleNo());
-            return null;
+        if (metrics != null) {
+            metrics.rejected();
+        }
+        if (eventSink.isEnabled()) {
+            eventSink.publish(ParkingEvent.parkingRejected(vehicle.getVehicleNo(), entryGateId,
+                    "slot allocation kept losing to other gates"));
+        }
+        return null;
+    }
+    
+    /**
+     * Issue a ticket for a vehicle already parked in a slot held for it
+     * @param vehicle The arriving vehicle
+     * @param reservedSlot The slot its reservation put it in
+     * @return The ticket
+     */
+    public Ticket issueReservedTicket(Vehicle vehicle, ParkingSlot reservedSlot) {
+        Ticket ticket = new Ticket(vehicle, reservedSlot, this.entryGateId);
+        EntryGateMetrics metrics = this.metrics;
+        if (metrics != null) {
+            metrics.ticketIssued();
         }
+        if (eventSink.isEnabled()) {
+            eventSink.publish(ParkingEvent.vehicleParked(ticket));
+        }
+        return ticket;
+    }
+    
+    /**
+     * Generate tickets for a burst of arriving vehicles
+     * The allocation strategy serves the whole batch at once instead of searching
+     * the floors again for every vehicle.
+     * 
+     * @param vehicles Vehicles in arrival order
+     * @param floors List of available parking floors
+     * @return Ticket per vehicle, in the same order; null where no slot was available
+     */
+    public List<Ticket> generateTickets(List<Vehicle> vehicles, List<ParkingFloor> floors) {
+        EntryGateMetrics metrics = this.metrics;
+        long started = metrics != null ? System.nanoTime() : 0;
+        List<ParkingSlot> allocatedSlots = slotAllocationStrategy.allocateParkingSlots(vehicles, floors, this);
+        if (metrics != null) {
+            metrics.recordBatchAllocation(System.nanoTime() - started);
+        }
+        List<Ticket> tickets = new ArrayList<>(vehicles.size());
         
-        // Park the vehicle in the allocated slot
-        if (allocatedSlot.parkVehicle(vehicle)) {
-            // Generate and return the ticket
+        for (int i = 0; i < vehicles.size(); i++) {
+            Vehicle vehicle = vehicles.get(i);
+            ParkingSlot allocatedSlot = allocatedSlots.get(i);
+            
+            if (allocatedSlot == null) {
+                tickets.add(null);
+                if (metrics != null) {
+                    metrics.rejected();
+                }
+                if (eventSink.isEnabled()) {
+                    eventSink.publish(ParkingEvent.parkingRejected(vehicle.getVehicleNo(), entryGateId,
+                            "no suitable parking slot available"));
+                }
+                continue;
+            }
+            
             Ticket ticket = new Ticket(vehicle, allocatedSlot, this.entryGateId);
-            System.out.println("Vehicle " + vehicle.getVehicleNo() + " parked in slot " + 
-                             allocatedSlot.getSlotId() + " on floor " + allocatedSlot.getFloorNumber());
-            return ticket;
-        } else {
-            System.out.println("Failed to park vehicle: " + vehicle.getVehicleNo());
-            return null;
+            tickets.add(ticket);
+            if (metrics != null) {
+                metrics.ticketIssued();
+            }
+            if (eventSink.isEnabled()) {
+                eventSink.publish(ParkingEvent.vehicleParked(ticket));
+            }
         }
+        
+        return tickets;
     }
     
     /**
      * Check if parking lot has capacity for the vehicle type
+     * Reads the floors' free-slot bitmaps instead of running an allocation, so it is
+     * cheap enough for signage; a strategy that holds slots back (such as best-fit's
+     * spill limit) may still turn the vehicle away.
+     * 
      * @param vehicle The vehicle to check capacity for
      * @param floors List of parking floors
      * @return true if capacity is available
      */
     public boolean hasCapacity(Vehicle vehicle, List<ParkingFloor> floors) {
-        return slotAllocationStrategy.allocateParkingSlot(vehicle, floors, this.floor) != null;
+        for (ParkingFloor parkingFloor : floors) {
+            if (parkingFloor.hasCapacity(vehicle)) {
+                return true;
+            }
+        }
+        return false;
     }
     
     @Override
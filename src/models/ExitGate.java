@@ -1,16 +1,39 @@
 package models;
 
+import events.NoOpEventSink;
+import events.ParkingEvent;
+import interfaces.EventSink;
+import interfaces.PaymentProvider;
 import interfaces.PricingStrategy;
+import metrics.ExitGateMetrics;
+import metrics.MetricsRegistry;
 import enums.Payment;
+import payments.InstantPaymentProvider;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
 
 /**
  * Represents an exit gate in the parking lot
  * Follows Single Responsibility Principle - handles vehicle exit operations only
  */
 public class ExitGate {
+    private static final CompletableFuture<Boolean> PAID = CompletableFuture.completedFuture(true);
+    private static final CompletableFuture<Boolean> NOT_PAID = CompletableFuture.completedFuture(false);
+    
     private String exitGateId;
     private int floor;
     private PricingStrategy pricingStrategy;
+    private EventSink eventSink = NoOpEventSink.INSTANCE;
+    private MetricsRegistry metricsRegistry;
+    private ExitGateMetrics metrics; // null unless a metrics registry is attached
+    private PaymentProvider paymentProvider = InstantPaymentProvider.INSTANCE;
+    private long paymentTimeoutMillis = 2000;
+    private int maxPaymentAttempts = 3;
+    private long retryBackoffMillis = 100; // doubled after every failed attempt
     
     public ExitGate(String exitGateId, int floor, PricingStrategy pricingStrategy) {
         this.exitGateId = exitGateId;
@@ -31,9 +54,26 @@ public class ExitGate {
         return pricingStrategy;
     }
     
+    public PaymentProvider getPaymentProvider() {
+        return paymentProvider;
+    }
+    
+    public long getPaymentTimeoutMillis() {
+        return paymentTimeoutMillis;
+    }
+    
+    public int getMaxPaymentAttempts() {
+        return maxPaymentAttempts;
+    }
+    
+    public long getRetryBackoffMillis() {
+        return retryBackoffMillis;
+    }
+    
     // Setters
     public void setExitGateId(String exitGateId) {
         this.exitGateId = exitGateId;
+        resolveMetrics();
     }
     
     public void setFloor(int floor) {
@@ -42,6 +82,53 @@ public class ExitGate {
     
     public void setPricingStrategy(PricingStrategy pricingStrategy) {
         this.pricingStrategy = pricingStrategy;
+        resolveMetrics();
+    }
+    
+    public void setEventSink(EventSink eventSink) {
+        this.eventSink = eventSink;
+    }
+    
+    /**
+     * @param paymentProvider Provider to charge bills through, or null to settle them on the spot
+     */
+    public void setPaymentProvider(PaymentProvider paymentProvider) {
+        this.paymentProvider = paymentProvider != null ? paymentProvider : InstantPaymentProvider.INSTANCE;
+    }
+    
+    /**
+     * @param paymentTimeoutMillis How long one payment attempt may take before it is retried
+     */
+    public void setPaymentTimeoutMillis(long paymentTimeoutMillis) {
+        this.paymentTimeoutMillis = paymentTimeoutMillis;
+    }
+    
+    /**
+     * @param maxPaymentAttempts Payment attempts per bill, including the first
+     */
+    public void setMaxPaymentAttempts(int maxPaymentAttempts) {
+        if (maxPaymentAttempts < 1) {
+            throw new IllegalArgumentException("At least one payment attempt is needed");
+        }
+        this.maxPaymentAttempts = maxPaymentAttempts;
+    }
+    
+    public void setRetryBackoffMillis(long retryBackoffMillis) {
+        this.retryBackoffMillis = retryBackoffMillis;
+    }
+    
+    /**
+     * Record exit counts, billing and payment latency into a registry
+     * @param metricsRegistry The registry, or null to stop recording
+     */
+    public void setMetricsRegistry(MetricsRegistry metricsRegistry) {
+        this.metricsRegistry = metricsRegistry;
+        resolveMetrics();
+    }
+    
+    private void resolveMetrics() {
+        metrics = metricsRegistry == null ? null : new ExitGateMetrics(metricsRegistry, exitGateId,
+                pricingStrategy.getClass().getSimpleName());
     }
     
     /**
@@ -57,55 +144,54 @@ public class ExitGate {
         }
         
         // Calculate the total amount using pricing strategy
+        ExitGateMetrics metrics = this.metrics;
+        long started = metrics != null ? System.nanoTime() : 0;
         double totalAmount = pricingStrategy.calculatePrice(ticket);
+        if (metrics != null) {
+            metrics.recordBilling(System.nanoTime() - started);
+        }
         
         // Create and return the bill
         Bill bill = new Bill(ticket, totalAmount, this.exitGateId);
         
-        System.out.println("Bill generated for vehicle " + ticket.getVehicle().getVehicleNo() + 
-                         " - Amount: $" + String.format("%.2f", totalAmount));
+        if (eventSink.isEnabled()) {
+            eventSink.publish(ParkingEvent.billGenerated(bill));
+        }
         
         return bill;
     }
     
     /**
      * Process vehicle exit after payment
+     * Charges the bill through the payment provider if it is not paid yet, waiting for the
+     * answer, then frees the slot.
+     * 
      * @param bill The bill to process
      * @param paymentMethod The payment method used
      * @return true if exit is successful
      */
     public boolean processExit(Bill bill, Payment paymentMethod) {
         if (bill == null) {
-            System.out.println("Invalid bill");
+            if (metrics != null) {
+                metrics.rejected();
+            }
+            if (eventSink.isEnabled()) {
+                eventSink.publish(ParkingEvent.exitRejected(null, exitGateId, "invalid bill"));
+            }
             return false;
         }
         
-        if (bill.isPaid()) {
-            // Remove vehicle from parking slot
-            ParkingSlot slot = bill.getTicket().getParkingSlot();
-            Vehicle exitingVehicle = slot.removeVehicle();
-            
-            if (exitingVehicle != null) {
-                System.out.println("Vehicle " + exitingVehicle.getVehicleNo() + 
-                                 " successfully exited from slot " + slot.getSlotId());
-                return true;
-            } else {
-                System.out.println("Error: Vehicle not found in the specified slot");
-                return false;
-            }
-        } else {
-            // Process payment first
-            if (bill.processPayment(paymentMethod)) {
-                return processExit(bill, paymentMethod);
-            } else {
-                System.out.println("Payment failed");
-                return false;
-            }
+        // Process payment first
+        if (!bill.isPaid() && !payAsync(bill, paymentMethod, 1, null).join()) {
+            return false;
         }
+        return releaseSlot(bill);
     }
     
     /**
      * Complete checkout process - generate bill and process payment
+     * Blocks until the payment provider answers; use checkoutAsync to overlap checkouts.
+     * 
      * @param ticket The parking ticket
      * @param paymentMethod The payment method
      * @return true if checkout is successful
@@ -115,11 +201,150 @@ public class ExitGate {
             Bill bill = generateBill(ticket);
             return processExit(bill, paymentMethod);
         } catch (Exception e) {
-            System.out.println("Checkout failed: " + e.getMessage());
+            checkoutFailed(ticket, e);
             return false;
         }
     }
     
+    /**
+     * Checkout as a pipeline: price, then pay, then free the slot
+     * Pricing runs on the caller's thread; the remaining stages run when the payment
+     * provider answers, so the gate can start other checkouts meanwhile. A payment attempt
+     * that fails or takes longer than the payment timeout is retried with exponential backoff.
+     * 
+     * @param ticket The parking ticket
+     * @param paymentMethod The payment method
+     * @return Completes with true once the slot is free, or false if pricing, payment or the release failed
+     */
+    public CompletableFuture<Boolean> checkoutAsync(Ticket ticket, Payment paymentMethod) {
+        Bill bill;
+        try {
+            bill = generateBill(ticket);
+        } catch (Exception e) {
+            checkoutFailed(ticket, e);
+            return CompletableFuture.completedFuture(false);
+        }
+        
+        return payAsync(bill, paymentMethod, 1, null)
+                .thenApply(paid -> paid && releaseSlot(bill))
+                .exceptionally(failure -> {
+                    checkoutFailed(ticket, failure);
+                    return false;
+                });
+    }
+    
+    /**
+     * Charge a bill, retrying transient failures and timeouts
+     * A timeout only stops waiting: the charge may still go through, so the retry waits on
+     * that same authorization again instead of starting a second one.
+     * 
+     * @param earlier The provider's authorization from an attempt that timed out, or null
+     * @return Completes with true once paid, false if declined or out of attempts; never exceptionally
+     */
+    private CompletableFuture<Boolean> payAsync(Bill bill, Payment paymentMethod, int attempt,
+                                                CompletableFuture<Boolean> earlier) {
+        if (bill.isPaid()) {
+            return PAID;
+        }
+        
+        ExitGateMetrics metrics = this.metrics;
+        long started = metrics != null ? System.nanoTime() : 0;
+        CompletableFuture<Boolean> charge = earlier != null && !earlier.isCompletedExceptionally()
+                ? earlier : authorize(bill, paymentMethod);
+        // Time out a copy so the provider's own future is left alone
+        CompletableFuture<Boolean> authorization = charge.isDone()
+                ? charge : charge.copy().orTimeout(paymentTimeoutMillis, TimeUnit.MILLISECONDS);
+        
+        return authorization.handle((approved, failure) -> {
+            if (metrics != null) {
+                metrics.recordPayment(System.nanoTime() - started);
+            }
+            if (failure == null) {
+                if (Boolean.TRUE.equals(approved)) {
+                    bill.processPayment(paymentMethod);
+                    return PAID;
+                }
+                paymentFailed(bill, "declined");
+                return NOT_PAID;
+            }
+            
+            Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                    ? failure.getCause() : failure;
+            boolean timedOut = cause instanceof TimeoutException;
+            if (timedOut && metrics != null) {
+                metrics.paymentTimedOut();
+            }
+            if (attempt >= maxPaymentAttempts) {
+                paymentFailed(bill, (timedOut ? "timed out" : cause.getMessage()) + " after " + attempt + " attempts");
+                return NOT_PAID;
+            }
+            if (metrics != null) {
+                metrics.paymentRetried();
+            }
+            long backoff = retryBackoffMillis << (attempt - 1);
+            Executor retryLater = CompletableFuture.delayedExecutor(backoff, TimeUnit.MILLISECONDS);
+            return CompletableFuture.supplyAsync(() -> attempt + 1, retryLater)
+                    .thenCompose(next -> payAsync(bill, paymentMethod, next, timedOut ? charge : null));
+        }).thenCompose(Function.identity());
+    }
+    
+    private CompletableFuture<Boolean> authorize(Bill bill, Payment paymentMethod) {
+        try {
+            return paymentProvider.authorize(bill, paymentMethod);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+    
+    /**
+     * Free the slot of a paid bill
+     * @return true if the vehicle was still in its slot
+     */
+    private boolean releaseSlot(Bill bill) {
+        ExitGateMetrics metrics = this.metrics;
+        ParkingSlot slot = bill.getTicket().getParkingSlot();
+        Vehicle exitingVehicle = slot.removeVehicle();
+        
+        if (exitingVehicle != null) {
+            if (metrics != null) {
+                metrics.vehicleExited();
+            }
+            if (eventSink.isEnabled()) {
+                eventSink.publish(ParkingEvent.slotFreed(slot, exitingVehicle.getVehicleNo(), exitGateId));
+            }
+            return true;
+        }
+        
+        if (metrics != null) {
+            metrics.rejected();
+        }
+        if (eventSink.isEnabled()) {
+            eventSink.publish(ParkingEvent.exitRejected(bill.getTicket().getVehicle().getVehicleNo(),
+                    exitGateId, "vehicle not found in slot " + slot.getSlotId()));
+        }
+        return false;
+    }
+    
+    private void paymentFailed(Bill bill, String reason) {
+        if (metrics != null) {
+            metrics.paymentFailed();
+        }
+        if (eventSink.isEnabled()) {
+            eventSink.publish(ParkingEvent.paymentFailed(bill, reason));
+        }
+    }
+    
+    private void checkoutFailed(Ticket ticket, Throwable failure) {
+        if (metrics != null) {
+            metrics.rejected();
+        }
+        if (eventSink.isEnabled()) {
+            eventSink.publish(ParkingEvent.exitRejected(
+                    ticket != null ? ticket.getVehicle().getVehicleNo() : null,
+                    exitGateId, "checkout failed: " + failure.getMessage()));
+        }
+    }
+    
     @Override
     public String toString() {
         return "ExitGate{" +
@@ -0,0 +1,224 @@
+package models;
+
+import enums.SlotStatus;
+import enums.SlotType;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Every slot of the lot ranked by walking distance from one entry gate
+ *
+ * Walking distance is measured along aisles (Manhattan distance) on the gate's floor to
+ * the ramp, FLOOR_CHANGE_METERS per floor climbed or descended, and from the ramp to the
+ * slot on its own floor. So the walk to a slot on another floor is a fixed offset for the
+ * floor plus the slot's distance from that floor's ramp, and the index is just one
+ * SlotRanking per floor - from the gate on its own floor, from the ramp elsewhere - with
+ * the floor's offset. Rankings are owned and kept current by the floors and shared by
+ * every gate using the same origin, so a slot transition costs the same however many
+ * gates the lot has. Finding the nearest free slot visits floors by offset and stops at
+ * the first floor whose offset is already beyond the best candidate.
+ */
+public class GateDistanceIndex {
+    /** Walking cost of changing floor via the ramp */
+    public static final double FLOOR_CHANGE_METERS = 40.0;
+    
+    private final List<ParkingFloor> floors;
+    private final SlotRanking[] rankings;
+    private final double[] offsets;
+    private final int[] byOffset; // floor positions, nearest floor first
+    
+    /**
+     * Rank the slots of the given floors for a gate
+     * 
+     * @param gate The entry gate
+     * @param floors All floors of the lot
+     */
+    public GateDistanceIndex(EntryGate gate, List<ParkingFloor> floors) {
+        this.floors = new ArrayList<>(floors);
+        this.rankings = new SlotRanking[floors.size()];
+        this.offsets = new double[floors.size()];
+        
+        ParkingFloor gateFloor = null;
+        for (ParkingFloor floor : floors) {
+            if (floor.getFloorId() == gate.getFloor()) {
+                gateFloor = floor;
+            }
+        }
+        double gateRampX = gateFloor == null ? 0 : gateFloor.getRampX();
+        double gateRampY = gateFloor == null ? 0 : gateFloor.getRampY();
+        double toRamp = Math.abs(gate.getX() - gateRampX) + Math.abs(gate.getY() - gateRampY);
+        
+        List<Integer> positions = new ArrayList<>();
+        for (int f = 0; f < this.floors.size(); f++) {
+            ParkingFloor floor = this.floors.get(f);
+            if (floor.getFloorId() == gate.getFloor()) {
+                rankings[f] = floor.acquireRanking(gate.getX(), gate.getY());
+            } else {
+                rankings[f] = floor.acquireRanking(floor.getRampX(), floor.getRampY());
+                offsets[f] = toRamp + Math.abs(floor.getFloorId() - gate.getFloor()) * FLOOR_CHANGE_METERS;
+            }
+            positions.add(f);
+        }
+        positions.sort((a, b) -> Double.compare(offsets[a], offsets[b]));
+        this.byOffset = positions.stream().mapToInt(Integer::intValue).toArray();
+    }
+    
+    /**
+     * Whether this index was built for exactly these floors in their current layout
+     * @param floors The lot's floors
+     * @return true if the index is still valid
+     */
+    public boolean covers(List<ParkingFloor> floors) {
+        if (floors.size() != this.floors.size()) {
+            return false;
+        }
+        for (int f = 0; f < rankings.length; f++) {
+            ParkingFloor floor = floors.get(f);
+            if (floor != this.floors.get(f) || floor.getLayoutVersion() != rankings[f].getLayoutVersion()) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Find the free slot that can take the vehicle with the shortest walk from the gate
+     * The slot is not claimed; the caller parks into it and retries if another gate wins.
+     * 
+     * @param vehicle The vehicle to find a slot for
+     * @return The nearest compatible free slot, or null if none is free
+     */
+    public ParkingSlot findNearestFreeSlot(Vehicle vehicle) {
+        ParkingSlot nearest = null;
+        double nearestDistance = Double.MAX_VALUE;
+        for (int f : byOffset) {
+            double offset = offsets[f];
+            if (offset >= nearestDistance) {
+                break; // every slot on this and later floors is at least this far
+            }
+            SlotRanking ranking = rankings[f];
+            ParkingSlot slot = ranking.findNearestFreeSlot(vehicle, nearestDistance - offset);
+            if (slot != null) {
+                nearest = slot;
+                nearestDistance = offset + ranking.distanceOf(slot);
+            }
+        }
+        return nearest;
+    }
+    
+    /**
+     * Walk the free slots that can take the vehicle, nearest first, for a batch of like vehicles
+     * Each (floor, slot type, charging) run of free ranks is already in distance order, so the
+     * cursor merges those runs and moves each one forward as its slot is handed out: a batch
+     * visits every free slot at most once, however many vehicles it holds. Slots freed behind
+     * the cursor are not seen again until the next batch.
+     * 
+     * @param vehicle A vehicle of the batch; every vehicle served must share its type and charging need
+     * @return A cursor over this index's current free slots
+     */
+    public FreeSlotCursor freeSlotsNearestFirst(Vehicle vehicle) {
+        return new FreeSlotCursor(vehicle);
+    }
+    
+    /**
+     * Walking distance from the gate, or -1 for a slot not in this index
+     */
+    public double getWalkingDistance(ParkingSlot slot) {
+        for (int f = 0; f < rankings.length; f++) {
+            if (rankings[f].contains(slot)) {
+                return offsets[f] + rankings[f].distanceOf(slot);
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Hand the rankings back to their floors; call when the index is replaced
+     */
+    public void close() {
+        for (int f = 0; f < rankings.length; f++) {
+            floors.get(f).releaseRanking(rankings[f]);
+        }
+    }
+    
+    /**
+     * Nearest-first walk over the free slots of every floor; not thread-safe
+     * Slots are not claimed; the caller parks into each one and moves on if another gate won it.
+     */
+    public final class FreeSlotCursor {
+        private final SlotRanking[] streamRankings; // one stream per (floor, slot type, charging), nearest floor first
+        private final double[] streamOffsets;
+        private final int[] streamTypes;
+        private final boolean[] streamCharging;
+        private final int[] heads; // rank of the stream's next free slot, or -1 once exhausted
+        private final double[] headDistances;
+        
+        private FreeSlotCursor(Vehicle vehicle) {
+            List<Integer> types = new ArrayList<>();
+            for (SlotType slotType : SlotType.values()) {
+                if (slotType.canFit(vehicle.getVehicleType())) {
+                    types.add(slotType.ordinal());
+                }
+            }
+            boolean chargingOnly = vehicle.requiresCharging();
+            int streams = byOffset.length * types.size() * (chargingOnly ? 1 : 2);
+            this.streamRankings = new SlotRanking[streams];
+            this.streamOffsets = new double[streams];
+            this.streamTypes = new int[streams];
+            this.streamCharging = new boolean[streams];
+            this.heads = new int[streams];
+            this.headDistances = new double[streams];
+            
+            int s = 0;
+            for (int f : byOffset) {
+                for (int type : types) {
+                    for (int charging = chargingOnly ? 1 : 0; charging < 2; charging++) {
+                        streamRankings[s] = rankings[f];
+                        streamOffsets[s] = offsets[f];
+                        streamTypes[s] = type;
+                        streamCharging[s] = charging == 1;
+                        advance(s, 0);
+                        s++;
+                    }
+                }
+            }
+        }
+        
+        /**
+         * @return The nearest free slot not yet handed out, or null if there is none
+         */
+        public ParkingSlot next() {
+            int nearest = -1;
+            double nearestDistance = Double.MAX_VALUE;
+            for (int s = 0; s < heads.length; s++) {
+                if (streamOffsets[s] >= nearestDistance) {
+                    break; // streams are in floor offset order
+                }
+                if (heads[s] >= 0 && headDistances[s] < nearestDistance) {
+                    nearest = s;
+                    nearestDistance = headDistances[s];
+                }
+            }
+            if (nearest < 0) {
+                return null;
+            }
+            ParkingSlot slot = streamRankings[nearest].slotAt(streamTypes[nearest], heads[nearest]);
+            advance(nearest, heads[nearest] + 1);
+            return slot;
+        }
+        
+        private void advance(int s, int from) {
+            SlotRanking ranking = streamRankings[s];
+            int type = streamTypes[s];
+            int rank = ranking.nextFreeRank(type, streamCharging[s], from);
+            // A bit can lag a claim by another gate for a moment; skip such slots
+            while (rank >= 0 && ranking.slotAt(type, rank).getSlotStatus() != SlotStatus.EMPTY) {
+                rank = ranking.nextFreeRank(type, streamCharging[s], rank + 1);
+            }
+            heads[s] = rank;
+            if (rank >= 0) {
+                headDistances[s] = streamOffsets[s] + ranking.distanceAt(type, rank);
+            }
+        }
+    }
+}
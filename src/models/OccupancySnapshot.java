@@ -0,0 +1,204 @@
+package models;
+
+import enums.SlotType;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable reading of a lot's occupancy, for status boards, signage and dashboards
+ *
+ * Every count is read once from the floors' occupancy counters when the snapshot is built,
+ * and the lot-wide totals are summed from those same reads, so a board rendered from one
+ * snapshot never shows totals that disagree with its rows. ParkingLot publishes snapshots
+ * by swapping a reference; readers keep and render them without touching live slot state.
+ */
+public final class OccupancySnapshot {
+    private static final SlotType[] SLOT_TYPES = SlotType.values();
+
+    static final OccupancySnapshot EMPTY = new OccupancySnapshot(0, 0, List.of(), 0, 0, 0);
+
+    private final long version;
+    private final long takenAtMillis;
+    private final List<FloorOccupancy> floors;
+    private final int activeTickets;
+    private final int entryGates;
+    private final int exitGates;
+    private final int totalSlots;
+    private final int availableSlots;
+    private final int occupiedSlots;
+
+    private OccupancySnapshot(long version, long takenAtMillis, List<FloorOccupancy> floors,
+                              int activeTickets, int entryGates, int exitGates) {
+        this.version = version;
+        this.takenAtMillis = takenAtMillis;
+        this.floors = floors;
+        this.activeTickets = activeTickets;
+        this.entryGates = entryGates;
+        this.exitGates = exitGates;
+        int total = 0;
+        int available = 0;
+        int occupied = 0;
+        for (FloorOccupancy floor : floors) {
+            total += floor.getTotalSlots();
+            available += floor.getAvailableSlots();
+            occupied += floor.getOccupiedSlots();
+        }
+        this.totalSlots = total;
+        this.availableSlots = available;
+        this.occupiedSlots = occupied;
+    }
+
+    /**
+     * Read the floors' counters into a new snapshot
+     */
+    static OccupancySnapshot capture(long version, long nowMillis, List<ParkingFloor> floors,
+                                     int activeTickets, int entryGates, int exitGates) {
+        List<FloorOccupancy> floorOccupancy = new ArrayList<>(floors.size());
+        for (ParkingFloor floor : floors) {
+            floorOccupancy.add(new FloorOccupancy(floor));
+        }
+        return new OccupancySnapshot(version, nowMillis, Collections.unmodifiableList(floorOccupancy),
+                activeTickets, entryGates, exitGates);
+    }
+
+    /**
+     * Publication number; a later snapshot of the same lot has a higher version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * When the counters were read, in epoch millis (0 before the first publication)
+     */
+    public long getTakenAtMillis() {
+        return takenAtMillis;
+    }
+
+    /**
+     * Floors in the order they were added to the lot
+     */
+    public List<FloorOccupancy> getFloors() {
+        return floors;
+    }
+
+    public int getActiveTickets() {
+        return activeTickets;
+    }
+
+    public int getEntryGates() {
+        return entryGates;
+    }
+
+    public int getExitGates() {
+        return exitGates;
+    }
+
+    public int getTotalSlots() {
+        return totalSlots;
+    }
+
+    public int getAvailableSlots() {
+        return availableSlots;
+    }
+
+    public int getOccupiedSlots() {
+        return occupiedSlots;
+    }
+
+    /**
+     * Share of slots that are occupied, in percent (0 for a lot without slots)
+     */
+    public double getOccupancyRate() {
+        return totalSlots == 0 ? 0 : occupiedSlots * 100.0 / totalSlots;
+    }
+
+    /**
+     * Free slots of a type across all floors
+     */
+    public int getAvailableSlots(SlotType slotType) {
+        int available = 0;
+        for (FloorOccupancy floor : floors) {
+            available += floor.getAvailableSlots(slotType);
+        }
+        return available;
+    }
+
+    /**
+     * Free slots of a type with EV charging across all floors
+     */
+    public int getAvailableChargingSlots(SlotType slotType) {
+        int available = 0;
+        for (FloorOccupancy floor : floors) {
+            available += floor.getAvailableChargingSlots(slotType);
+        }
+        return available;
+    }
+
+    /**
+     * Occupancy of one floor, per slot type
+     */
+    public static final class FloorOccupancy {
+        private final int floorId;
+        private final int[] total = new int[SLOT_TYPES.length];
+        private final int[] available = new int[SLOT_TYPES.length];
+        private final int[] availableCharging = new int[SLOT_TYPES.length];
+        private final int[] occupied = new int[SLOT_TYPES.length];
+
+        FloorOccupancy(ParkingFloor floor) {
+            this.floorId = floor.getFloorId();
+            for (SlotType slotType : SLOT_TYPES) {
+                int type = slotType.ordinal();
+                total[type] = floor.getTotalSlots(slotType);
+                availableCharging[type] = floor.getAvailableSlotsCount(slotType, true);
+                available[type] = floor.getAvailableSlotsCount(slotType, false) + availableCharging[type];
+                occupied[type] = floor.getOccupiedSlotsCount(slotType);
+            }
+        }
+
+        public int getFloorId() {
+            return floorId;
+        }
+
+        public int getTotalSlots(SlotType slotType) {
+            return total[slotType.ordinal()];
+        }
+
+        public int getAvailableSlots(SlotType slotType) {
+            return available[slotType.ordinal()];
+        }
+
+        public int getAvailableChargingSlots(SlotType slotType) {
+            return availableCharging[slotType.ordinal()];
+        }
+
+        public int getOccupiedSlots(SlotType slotType) {
+            return occupied[slotType.ordinal()];
+        }
+
+        public int getTotalSlots() {
+            return sum(total);
+        }
+
+        public int getAvailableSlots() {
+            return sum(available);
+        }
+
+        public int getAvailableChargingSlots() {
+            return sum(availableCharging);
+        }
+
+        public int getOccupiedSlots() {
+            return sum(occupied);
+        }
+
+        private static int sum(int[] counts) {
+            int sum = 0;
+            for (int count : counts) {
+                sum += count;
+            }
+            return sum;
+        }
+    }
+}
@@ -3,40 +3,197 @@ package models;
 import enums.SlotType;
 import enums.SlotStatus;
 import enums.VehicleType;
+import interfaces.SlotStateListener;
+import interfaces.SlotStateStore;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Map;
+import java.util.NavigableSet;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Represents a parking floor in the parking lot
  * Follows Single Responsibility Principle - manages floor operations and slot collections
  */
 public class ParkingFloor {
+    private static final SlotType[] SLOT_TYPES = SlotType.values();
+    private static final Comparator<ParkingSlot> BY_SLOT_NUMBER =
+            Comparator.comparingInt(ParkingSlot::getSlotNumber).thenComparing(ParkingSlot::getSlotId);
+    
     private int floorId;
     private List<ParkingSlot> parkingSlots;
     private Map<SlotType, List<ParkingSlot>> slotsByType;
+    private Map<Integer, ParkingSlot> slotsByNumber;
+    // Free slots bucketed by (SlotType, charging), each bucket ordered by slot number
+    private List<NavigableSet<ParkingSlot>> freeSlotIndex;
+    // Occupancy counters per (SlotType, charging) bucket, updated on every slot transition
+    private final LongAdder[] availableCounts = new LongAdder[SLOT_TYPES.length * 2];
+    private final LongAdder[] occupiedCounts = new LongAdder[SLOT_TYPES.length * 2];
+    // Slots per bucket; charging flags are flipped from any thread while gates read these
+    private final AtomicIntegerArray slotCounts = new AtomicIntegerArray(SLOT_TYPES.length * 2);
+    private SlotStateStore slotStore; // optional off-heap mirror of slot state
+    private final SlotColumns columns = new SlotColumns(); // columnar copy of slot state for scans
+    private final List<SlotStateListener> slotStateListeners = new CopyOnWriteArrayList<>();
+    // Walking-distance orders shared by the entry gates, one per origin; replaced under the layout lock
+    private volatile SlotRanking[] rankings = new SlotRanking[0];
+    // Guards the slot lists and maps when slots are added; parking and exits never take it
+    private final Object layoutLock = new Object();
+    private double rampX; // where the inter-floor ramp meets this floor, in metres
+    private double rampY;
+    private volatile int layoutVersion;
     
     public ParkingFloor(int floorId) {
         this.floorId = floorId;
         this.parkingSlots = new ArrayList<>();
         this.slotsByType = new HashMap<>();
+        this.slotsByNumber = new ConcurrentHashMap<>();
+        this.freeSlotIndex = new ArrayList<>();
         initializeSlotsByType();
     }
     
+    /**
+     * Create a floor whose slot state is mirrored in a SlotStateStore
+     * Slots the store already holds for this floor are rebuilt with their IDs, charging
+     * flags and maintenance status, so a restarted floor keeps its layout; occupants come
+     * back through journal recovery. Every later state change is written through to the store.
+     * 
+     * @param floorId The floor number
+     * @param slotStore Store holding the slot records
+     */
+    public ParkingFloor(int floorId, SlotStateStore slotStore) {
+        this(floorId);
+        int records = slotStore.size();
+        for (int index = 0; index < records; index++) {
+            if (slotStore.floorOf(index) == floorId) {
+                ParkingSlot slot = slotStore.restore(index);
+                slot.setStoreIndex(index);
+                addParkingSlot(slot);
+            }
+        }
+        this.slotStore = slotStore;
+    }
+    
     private void initializeSlotsByType() {
-        for (SlotType slotType : SlotType.values()) {
+        for (SlotType slotType : SLOT_TYPES) {
             slotsByType.put(slotType, new ArrayList<>());
+            freeSlotIndex.add(new ConcurrentSkipListSet<>(BY_SLOT_NUMBER)); // without charging
+            freeSlotIndex.add(new ConcurrentSkipListSet<>(BY_SLOT_NUMBER)); // with charging
+        }
+        for (int bucket = 0; bucket < availableCounts.length; bucket++) {
+            availableCounts[bucket] = new LongAdder();
+            occupiedCounts[bucket] = new LongAdder();
         }
     }
     
+    private static int bucketOf(SlotType slotType, boolean chargingAvailable) {
+        return slotType.ordinal() * 2 + (chargingAvailable ? 1 : 0);
+    }
+    
     // Getters
     public int getFloorId() {
         return floorId;
     }
     
     public List<ParkingSlot> getParkingSlots() {
-        return new ArrayList<>(parkingSlots); // Return copy to maintain encapsulation
+        synchronized (layoutLock) {
+            return new ArrayList<>(parkingSlots); // Return copy to maintain encapsulation
+        }
+    }
+    
+    /**
+     * Columnar copy of the slots' state, for scans over the whole floor
+     */
+    public SlotColumns getSlotColumns() {
+        return columns;
+    }
+    
+    public double getRampX() {
+        return rampX;
+    }
+    
+    public double getRampY() {
+        return rampY;
+    }
+    
+    /**
+     * Set where the ramp to the other floors meets this floor
+     * Entry gates rebuild their distance order the next time they allocate.
+     * 
+     * @param rampX Ramp x coordinate in metres
+     * @param rampY Ramp y coordinate in metres
+     */
+    public void setRampPosition(double rampX, double rampY) {
+        this.rampX = rampX;
+        this.rampY = rampY;
+        layoutVersion++;
+    }
+    
+    /**
+     * Changes whenever slots are added or the ramp moves, so cached distance orders can tell they are stale
+     */
+    public int getLayoutVersion() {
+        return layoutVersion;
+    }
+    
+    public void addSlotStateListener(SlotStateListener listener) {
+        slotStateListeners.add(listener);
+    }
+    
+    public void removeSlotStateListener(SlotStateListener listener) {
+        slotStateListeners.remove(listener);
+    }
+    
+    /**
+     * Get this floor's slots ranked by walking distance from a point, sharing the ranking
+     * with every other user of the same point in the current layout
+     * Each acquired ranking must be handed back through releaseRanking.
+     * 
+     * @param originX X coordinate in metres
+     * @param originY Y coordinate in metres
+     * @return Ranking kept current by this floor until released by all its users
+     */
+    SlotRanking acquireRanking(double originX, double originY) {
+        synchronized (layoutLock) {
+            for (SlotRanking ranking : rankings) {
+                if (ranking.isFrom(originX, originY) && ranking.getLayoutVersion() == layoutVersion) {
+                    ranking.acquire();
+                    return ranking;
+                }
+            }
+            SlotRanking ranking = new SlotRanking(parkingSlots, originX, originY, layoutVersion);
+            SlotRanking[] published = Arrays.copyOf(rankings, rankings.length + 1);
+            published[rankings.length] = ranking;
+            rankings = published;
+            // Published first, so transitions during seeding reach it; seeding re-checks each slot
+            ranking.seed();
+            ranking.acquire();
+            return ranking;
+        }
+    }
+    
+    /**
+     * Hand back a ranking; the floor stops updating it once its last user is gone
+     */
+    void releaseRanking(SlotRanking ranking) {
+        synchronized (layoutLock) {
+            if (ranking.release() > 0) {
+                return;
+            }
+            List<SlotRanking> remaining = new ArrayList<>(Arrays.asList(rankings));
+            remaining.remove(ranking);
+            rankings = remaining.toArray(new SlotRanking[0]);
+        }
     }
     
     /**
@@ -48,8 +205,239 @@ public class ParkingFloor {
             throw new IllegalArgumentException("Slot floor number must match this floor ID");
         }
         
+        synchronized (layoutLock) {
+            addParkingSlotLocked(slot);
+        }
+    }
+    
+    private void addParkingSlotLocked(ParkingSlot slot) {
         parkingSlots.add(slot);
         slotsByType.get(slot.getSlotType()).add(slot);
+        slotsByNumber.put(slot.getSlotNumber(), slot);
+        int bucket = bucketOf(slot.getSlotType(), slot.isChargingAvailable());
+        slotCounts.incrementAndGet(bucket);
+        adjustCount(bucket, slot.getSlotStatus(), 1);
+        if (slot.getSlotStatus() == SlotStatus.EMPTY) {
+            freeSlotIndex.get(bucket).add(slot);
+        }
+        if (slotStore != null && slot.getStoreIndex() < 0) {
+            slot.setStoreIndex(slotStore.allocate(slot));
+        }
+        slot.setColumnIndex(columns.add(slot));
+        slot.attachTo(this);
+        layoutVersion++;
+        for (SlotStateListener listener : slotStateListeners) {
+            listener.onSlotAdded(slot);
+        }
+    }
+    
+    /**
+     * Keep the occupancy counters and free-slot index in sync with a slot's status or charging flag
+     * Called by ParkingSlot whenever its state changes. Status and charging flag share one
+     * atomic word, so the caller reports the exact pair it replaced and the pair it installed,
+     * and the counters move by exactly that transition: concurrent transitions of the same
+     * slot always add up. Gates on other threads may change the same slot concurrently, so
+     * the index is reconciled against the slot's current state and re-checked until no
+     * change slipped in between.
+     * 
+     * @param slot The slot that changed
+     * @param previousStatus Status the caller replaced
+     * @param newStatus Status the caller installed
+     * @param previousCharging Charging flag the caller replaced
+     * @param newCharging Charging flag the caller installed
+     */
+    void onSlotStateChanged(ParkingSlot slot, SlotStatus previousStatus, SlotStatus newStatus,
+                            boolean previousCharging, boolean newCharging) {
+        SlotType slotType = slot.getSlotType();
+        if (previousCharging != newCharging) {
+            slotCounts.decrementAndGet(bucketOf(slotType, previousCharging));
+            slotCounts.incrementAndGet(bucketOf(slotType, newCharging));
+        }
+        adjustCount(bucketOf(slotType, previousCharging), previousStatus, -1);
+        adjustCount(bucketOf(slotType, newCharging), newStatus, 1);
+        
+        SlotStatus status;
+        boolean charging;
+        Vehicle occupant;
+        // Bucket the slot may be indexed in; a flip racing this loop can move it between passes
+        boolean indexedCharging = previousCharging;
+        
+        do {
+            status = slot.getSlotStatus();
+            charging = slot.isChargingAvailable();
+            occupant = slot.getCurrentVehicle();
+            if (indexedCharging != charging) {
+                freeSlotIndex.get(bucketOf(slotType, indexedCharging)).remove(slot);
+            }
+            
+            NavigableSet<ParkingSlot> bucket = freeSlotIndex.get(bucketOf(slotType, charging));
+            if (status == SlotStatus.EMPTY) {
+                bucket.add(slot);
+            } else {
+                bucket.remove(slot);
+            }
+            
+            columns.update(slot.getColumnIndex(), status, charging);
+            for (SlotRanking ranking : rankings) {
+                ranking.update(slot, indexedCharging, charging, status == SlotStatus.EMPTY);
+            }
+            if (slotStore != null) {
+                slotStore.save(slot.getStoreIndex(), slot);
+            }
+            for (SlotStateListener listener : slotStateListeners) {
+                listener.onSlotStateChanged(slot, indexedCharging, charging, status == SlotStatus.EMPTY);
+            }
+            indexedCharging = charging;
+        } while (status != slot.getSlotStatus() || charging != slot.isChargingAvailable()
+                || occupant != slot.getCurrentVehicle());
+    }
+    
+    private void adjustCount(int bucket, SlotStatus status, int delta) {
+        if (status == SlotStatus.EMPTY) {
+            availableCounts[bucket].add(delta);
+        } else if (status == SlotStatus.FILLED) {
+            occupiedCounts[bucket].add(delta);
+        }
+    }
+    
+    private static int sum(LongAdder[] counts, int bucket) {
+        return (int) counts[bucket].sum();
+    }
+    
+    /**
+     * Find the lowest-numbered free slot that can take the vehicle
+     * Peeks the head of each compatible bucket, so cost does not grow with floor size
+     * 
+     * @param vehicle The vehicle to find a slot for
+     * @return The nearest compatible free slot, or null if none is free
+     */
+    public ParkingSlot findNearestAvailableSlot(Vehicle vehicle) {
+        ParkingSlot nearest = null;
+        boolean chargingOnly = vehicle.requiresCharging();
+        
+        for (SlotType slotType : SLOT_TYPES) {
+            if (!slotType.canFit(vehicle.getVehicleType())) {
+                continue;
+            }
+            nearest = nearer(nearest, freeSlotIndex.get(bucketOf(slotType, true)));
+            if (!chargingOnly) {
+                nearest = nearer(nearest, freeSlotIndex.get(bucketOf(slotType, false)));
+            }
+        }
+        
+        return nearest;
+    }
+
+    /**
+     * Find the lowest-numbered free slot of one type that can take the vehicle
+     * Peeks only that type's buckets; used by size-class allocation
+     *
+     * @param vehicle The vehicle to find a slot for
+     * @param slotType The slot type to look in
+     * @return The nearest free slot of the type, or null if none is free or the vehicle does not fit it
+     */
+    public ParkingSlot findNearestAvailableSlot(Vehicle vehicle, SlotType slotType) {
+        if (!slotType.canFit(vehicle.getVehicleType())) {
+            return null;
+        }
+        ParkingSlot nearest = nearer(null, freeSlotIndex.get(bucketOf(slotType, true)));
+        if (!vehicle.requiresCharging()) {
+            nearest = nearer(nearest, freeSlotIndex.get(bucketOf(slotType, false)));
+        }
+        return nearest;
+    }
+
+    /**
+     * Iterate the free slots that can take the vehicle, lowest slot number first
+     * Merges the compatible buckets of the free index on the fly without copying them;
+     * slots claimed concurrently are skipped. Used for batch allocation.
+     * 
+     * @param vehicle The vehicle to find slots for
+     * @return Iterator over compatible free slots in slot-number order
+     */
+    public Iterator<ParkingSlot> availableSlotIterator(Vehicle vehicle) {
+        List<Iterator<ParkingSlot>> buckets = new ArrayList<>();
+        for (SlotType slotType : SLOT_TYPES) {
+            if (slotType.canFit(vehicle.getVehicleType())) {
+                buckets.add(freeSlotIndex.get(bucketOf(slotType, true)).iterator());
+                if (!vehicle.requiresCharging()) {
+                    buckets.add(freeSlotIndex.get(bucketOf(slotType, false)).iterator());
+                }
+            }
+        }
+        return new MergedSlotIterator(buckets);
+    }
+    
+    /**
+     * K-way merge of bucket iterators ordered by slot number
+     */
+    private static class MergedSlotIterator implements Iterator<ParkingSlot> {
+        private final List<Iterator<ParkingSlot>> sources;
+        private final ParkingSlot[] heads;
+        private ParkingSlot next;
+        
+        MergedSlotIterator(List<Iterator<ParkingSlot>> sources) {
+            this.sources = sources;
+            this.heads = new ParkingSlot[sources.size()];
+            for (int i = 0; i < heads.length; i++) {
+                heads[i] = advance(i);
+            }
+            this.next = pick();
+        }
+        
+        private ParkingSlot advance(int source) {
+            Iterator<ParkingSlot> iterator = sources.get(source);
+            while (iterator.hasNext()) {
+                ParkingSlot slot = iterator.next();
+                if (slot.getSlotStatus() == SlotStatus.EMPTY) {
+                    return slot;
+                }
+            }
+            return null;
+        }
+        
+        private ParkingSlot pick() {
+            int best = -1;
+            for (int i = 0; i < heads.length; i++) {
+                if (heads[i] != null && (best < 0 || BY_SLOT_NUMBER.compare(heads[i], heads[best]) < 0)) {
+                    best = i;
+                }
+            }
+            if (best < 0) {
+                return null;
+            }
+            ParkingSlot picked = heads[best];
+            heads[best] = advance(best);
+            return picked;
+        }
+        
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+        
+        @Override
+        public ParkingSlot next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            ParkingSlot current = next;
+            next = pick();
+            return current;
+        }
+    }
+    
+    private static ParkingSlot nearer(ParkingSlot current, NavigableSet<ParkingSlot> bucket) {
+        // A slot claimed by another gate can linger briefly at the head; skip past it
+        for (ParkingSlot head : bucket) {
+            if (current != null && BY_SLOT_NUMBER.compare(head, current) >= 0) {
+                return current;
+            }
+            if (head.getSlotStatus() == SlotStatus.EMPTY) {
+                return head;
+            }
+        }
+        return current;
     }
     
     /**
@@ -60,15 +448,9 @@ public class ParkingFloor {
      * @return List of available compatible slots
      */
     public List<ParkingSlot> getAvailableSlots(VehicleType vehicleType) {
-        List<ParkingSlot> availableSlots = new ArrayList<>();
-        
-        for (ParkingSlot slot : parkingSlots) {
-            if (slot.getSlotStatus() == SlotStatus.EMPTY && 
-                slot.getSlotType().canFit(vehicleType)) {
-                availableSlots.add(slot);
-            }
-        }
-        
+        // Already in slot order when slots were added by number; the sort then only checks it
+        List<ParkingSlot> availableSlots = columns.freeSlots(vehicleType, false);
+        availableSlots.sort(BY_SLOT_NUMBER);
         return availableSlots;
     }
     
@@ -78,14 +460,8 @@ public class ParkingFloor {
      * @return List of available compatible slots
      */
     public List<ParkingSlot> getAvailableSlots(Vehicle vehicle) {
-        List<ParkingSlot> availableSlots = new ArrayList<>();
-        
-        for (ParkingSlot slot : parkingSlots) {
-            if (slot.canAccommodate(vehicle)) {
-                availableSlots.add(slot);
-            }
-        }
-        
+        List<ParkingSlot> availableSlots = columns.freeSlots(vehicle);
+        availableSlots.sort(BY_SLOT_NUMBER);
         return availableSlots;
     }
     
@@ -95,7 +471,18 @@ public class ParkingFloor {
      * @return List of slots of the specified type
      */
     public List<ParkingSlot> getSlotsByType(SlotType slotType) {
-        return new ArrayList<>(slotsByType.get(slotType));
+        synchronized (layoutLock) {
+            return new ArrayList<>(slotsByType.get(slotType));
+        }
+    }
+    
+    /**
+     * Get a slot by its number on this floor
+     * @param slotNumber The slot number
+     * @return The slot, or null if this floor has no such slot
+     */
+    public ParkingSlot getSlotByNumber(int slotNumber) {
+        return slotsByNumber.get(slotNumber);
     }
     
     /**
@@ -104,9 +491,38 @@ public class ParkingFloor {
      * @return Number of available slots
      */
     public int getAvailableSlotsCount(SlotType slotType) {
-        return (int) slotsByType.get(slotType).stream()
-                .filter(slot -> slot.getSlotStatus() == SlotStatus.EMPTY)
-                .count();
+        return getAvailableSlotsCount(slotType, false) + getAvailableSlotsCount(slotType, true);
+    }
+    
+    /**
+     * Get count of available slots by type and charging capability
+     * @param slotType The type of slot
+     * @param chargingAvailable Whether to count charging or non-charging slots
+     * @return Number of available slots
+     */
+    public int getAvailableSlotsCount(SlotType slotType, boolean chargingAvailable) {
+        return sum(availableCounts, bucketOf(slotType, chargingAvailable));
+    }
+    
+    /**
+     * Get count of occupied slots by type
+     * @param slotType The type of slot
+     * @return Number of occupied slots
+     */
+    public int getOccupiedSlotsCount(SlotType slotType) {
+        return sum(occupiedCounts, bucketOf(slotType, false)) + sum(occupiedCounts, bucketOf(slotType, true));
+    }
+    
+    /**
+     * Get count of available slots with EV charging
+     * @return Number of available charging slots
+     */
+    public int getAvailableChargingSlotsCount() {
+        int available = 0;
+        for (SlotType slotType : SLOT_TYPES) {
+            available += sum(availableCounts, bucketOf(slotType, true));
+        }
+        return available;
     }
     
     /**
@@ -114,9 +530,11 @@ public class ParkingFloor {
      * @return Total number of available slots
      */
     public int getTotalAvailableSlots() {
-        return (int) parkingSlots.stream()
-                .filter(slot -> slot.getSlotStatus() == SlotStatus.EMPTY)
-                .count();
+        int available = 0;
+        for (int bucket = 0; bucket < availableCounts.length; bucket++) {
+            available += sum(availableCounts, bucket);
+        }
+        return available;
     }
     
     /**
@@ -124,9 +542,30 @@ public class ParkingFloor {
      * @return Total number of occupied slots
      */
     public int getTotalOccupiedSlots() {
-        return (int) parkingSlots.stream()
-                .filter(slot -> slot.getSlotStatus() == SlotStatus.FILLED)
-                .count();
+        int occupied = 0;
+        for (int bucket = 0; bucket < occupiedCounts.length; bucket++) {
+            occupied += sum(occupiedCounts, bucket);
+        }
+        return occupied;
+    }
+    
+    /**
+     * Get total number of slots on this floor, whatever their status
+     * @return Total number of slots
+     */
+    public int getTotalSlots() {
+        synchronized (layoutLock) {
+            return parkingSlots.size();
+        }
+    }
+    
+    /**
+     * Get total number of slots of a type on this floor
+     * @param slotType The type of slot
+     * @return Number of slots of that type
+     */
+    public int getTotalSlots(SlotType slotType) {
+        return slotCounts.get(bucketOf(slotType, false)) + slotCounts.get(bucketOf(slotType, true));
     }
     
     /**
@@ -135,7 +574,7 @@ public class ParkingFloor {
      * @return true if capacity is available
      */
     public boolean hasCapacity(VehicleType vehicleType) {
-        return !getAvailableSlots(vehicleType).isEmpty();
+        return columns.hasFree(vehicleType, false);
     }
     
     /**
@@ -144,7 +583,7 @@ public class ParkingFloor {
      * @return true if capacity is available
      */
     public boolean hasCapacity(Vehicle vehicle) {
-        return !getAvailableSlots(vehicle).isEmpty();
+        return columns.hasFree(vehicle);
     }
     
     /**
@@ -152,19 +591,19 @@ public class ParkingFloor {
      */
     public void printSlots() {
         System.out.println("=== Floor " + floorId + " Status ===");
-        System.out.println("Total Slots: " + parkingSlots.size());
+        System.out.println("Total Slots: " + getTotalSlots());
         System.out.println("Available: " + getTotalAvailableSlots());
         System.out.println("Occupied: " + getTotalOccupiedSlots());
         
         System.out.println("\nSlots by Type:");
         for (SlotType type : SlotType.values()) {
             int available = getAvailableSlotsCount(type);
-            int total = slotsByType.get(type).size();
+            int total = getTotalSlots(type);
             System.out.println(type + ": " + available + "/" + total + " available");
         }
         
         System.out.println("\nSlot Details:");
-        for (ParkingSlot slot : parkingSlots) {
+        for (ParkingSlot slot : getParkingSlots()) {
             System.out.println("  " + slot);
         }
         System.out.println("================================");
@@ -179,32 +618,58 @@ public class ParkingFloor {
      */
     public void initializeSlots(int smallSlots, int mediumSlots, int largeSlots, 
                                double chargingSlotsPercentage) {
+        initializeSlots(smallSlots, mediumSlots, largeSlots, chargingSlotsPercentage,
+                ThreadLocalRandom.current().nextLong());
+    }
+    
+    /**
+     * Initialize floor with default slot configuration, placing the charging slots reproducibly
+     * @param smallSlots Number of small slots
+     * @param mediumSlots Number of medium slots
+     * @param largeSlots Number of large slots
+     * @param chargingSlotsPercentage Percentage of slots with charging capability
+     * @param seed Seed choosing which slots have charging; the same seed gives the same layout
+     */
+    public void initializeSlots(int smallSlots, int mediumSlots, int largeSlots,
+                                double chargingSlotsPercentage, long seed) {
+        synchronized (layoutLock) {
+            initializeSlotsLocked(smallSlots, mediumSlots, largeSlots, chargingSlotsPercentage,
+                    new SplittableRandom(seed));
+        }
+    }
+    
+    private void initializeSlotsLocked(int smallSlots, int mediumSlots, int largeSlots,
+                                       double chargingSlotsPercentage, SplittableRandom random) {
+        if (!parkingSlots.isEmpty()) {
+            // Floor was rebuilt from its slot store - keep the persisted layout
+            return;
+        }
         int slotNumber = 1;
         
         // Add small slots
         for (int i = 0; i < smallSlots; i++) {
-            boolean hasCharging = Math.random() < (chargingSlotsPercentage / 100.0);
+            boolean hasCharging = random.nextDouble() < (chargingSlotsPercentage / 100.0);
             String slotId = "F" + floorId + "S" + slotNumber;
             ParkingSlot slot = new ParkingSlot(slotId, SlotType.SMALL, hasCharging, floorId, slotNumber);
-            addParkingSlot(slot);
+            addParkingSlotLocked(slot);
             slotNumber++;
         }
         
         // Add medium slots
         for (int i = 0; i < mediumSlots; i++) {
-            boolean hasCharging = Math.random() < (chargingSlotsPercentage / 100.0);
+            boolean hasCharging = random.nextDouble() < (chargingSlotsPercentage / 100.0);
             String slotId = "F" + floorId + "M" + slotNumber;
             ParkingSlot slot = new ParkingSlot(slotId, SlotType.MEDIUM, hasCharging, floorId, slotNumber);
-            addParkingSlot(slot);
+            addParkingSlotLocked(slot);
             slotNumber++;
         }
         
         // Add large slots
         for (int i = 0; i < largeSlots; i++) {
-            boolean hasCharging = Math.random() < (chargingSlotsPercentage / 100.0);
+            boolean hasCharging = random.nextDouble() < (chargingSlotsPercentage / 100.0);
             String slotId = "F" + floorId + "L" + slotNumber;
             ParkingSlot slot = new ParkingSlot(slotId, SlotType.LARGE, hasCharging, floorId, slotNumber);
-            addParkingSlot(slot);
+            addParkingSlotLocked(slot);
             slotNumber++;
         }
     }
@@ -213,7 +678,7 @@ public class ParkingFloor {
     public String toString() {
         return "ParkingFloor{" +
                 "floorId=" + floorId +
-                ", totalSlots=" + parkingSlots.size() +
+                ", totalSlots=" + getTotalSlots() +
                 ", availableSlots=" + getTotalAvailableSlots() +
                 ", occupiedSlots=" + getTotalOccupiedSlots() +
                 '}';
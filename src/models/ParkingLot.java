@@ -1,46 +1,107 @@
 package models;
 
+import events.NoOpEventSink;
+import events.ParkingEvent;
+import interfaces.EventSink;
 import interfaces.SlotAllocationStrategy;
+import interfaces.PaymentProvider;
 import interfaces.PricingStrategy;
 import enums.Payment;
+import enums.SlotType;
+import metrics.MetricsRegistry;
+import persistence.TicketJournal;
+import registry.GateRegistry;
+import registry.TicketRegistry;
+import reservations.ReservationBook;
+import timers.TicketTimers;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Main ParkingLot class that orchestrates the entire parking system
  * Follows Single Responsibility Principle - manages overall parking lot operations
  * Follows Dependency Inversion Principle - depends on abstractions (interfaces)
+ * 
+ * parkVehicle and exitVehicle may be called from many gate threads at once:
+ * slots are claimed with a CAS on their status and tickets live in a striped TicketRegistry.
+ * Floors and gates are held in a copy-on-write GateRegistry, so gate threads look them up
+ * without locking or copying while floors or gates are added; there is no lot-wide lock.
+ * 
+ * Status queries read an immutable OccupancySnapshot instead of the live counters. Readers
+ * only ever read the published reference. Any slot change marks the snapshot stale; a gate
+ * that parks or releases a vehicle rebuilds it if it is older than the snapshot interval,
+ * unless another thread is already doing so, and otherwise a shared background refresher
+ * publishes it once the interval is up. Polling boards therefore never wait, never rebuild
+ * and never contend with gates, and snapshots are rebuilt at most once per interval however
+ * busy the lot is or however often it is polled.
  */
 public class ParkingLot {
-    private List<ParkingFloor> floors;
-    private List<EntryGate> entryGates;
-    private List<ExitGate> exitGates;
+    public static final long DEFAULT_SNAPSHOT_INTERVAL_MILLIS = 100;
+    // Publishes snapshots that are stale once their interval is up; shared by all lots
+    private static final ScheduledExecutorService SNAPSHOT_REFRESHER =
+            Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "occupancy-snapshot-refresher");
+                thread.setDaemon(true);
+                return thread;
+            });
+    
+    private GateRegistry gateRegistry; // floors and gates, copy-on-write
     private SlotAllocationStrategy slotAllocationStrategy;
     private PricingStrategy pricingStrategy;
-    private Map<String, Ticket> activeTickets; // vehicleNo -> Ticket mapping
+    private TicketRegistry activeTickets; // vehicleNo -> Ticket mapping
+    private EventSink eventSink = NoOpEventSink.INSTANCE;
+    private TicketJournal journal; // optional write-ahead journal of park/exit events
+    private MetricsRegistry metricsRegistry; // optional gate and occupancy metrics
+    private PaymentProvider paymentProvider; // null keeps each exit gate's own provider
+    private ReservationBook reservationBook; // optional pre-booked slots
+    private TicketTimers ticketTimers; // optional overstay and unpaid-bill timers
+    private volatile OccupancySnapshot occupancySnapshot = OccupancySnapshot.EMPTY;
+    private volatile boolean occupancyChanged; // a slot or ticket changed since the snapshot was taken
+    private volatile long snapshotIntervalMillis = DEFAULT_SNAPSHOT_INTERVAL_MILLIS;
+    private final ReentrantLock snapshotLock = new ReentrantLock(); // held while a snapshot is built
+    private final AtomicBoolean refreshScheduled = new AtomicBoolean(); // a refresher run is pending
     
     public ParkingLot(SlotAllocationStrategy slotAllocationStrategy, PricingStrategy pricingStrategy) {
-        this.floors = new ArrayList<>();
-        this.entryGates = new ArrayList<>();
-        this.exitGates = new ArrayList<>();
+        this.gateRegistry = new GateRegistry();
         this.slotAllocationStrategy = slotAllocationStrategy;
         this.pricingStrategy = pricingStrategy;
-        this.activeTickets = new HashMap<>();
+        this.activeTickets = new TicketRegistry();
     }
     
     // Getters
+    /**
+     * @return Unmodifiable view of the floors as of this call; later additions do not show up in it
+     */
     public List<ParkingFloor> getFloors() {
-        return new ArrayList<>(floors);
+        return gateRegistry.getFloors();
     }
     
+    /**
+     * @return Unmodifiable view of the entry gates as of this call, indexed by gate handle
+     */
     public List<EntryGate> getEntryGates() {
-        return new ArrayList<>(entryGates);
+        return gateRegistry.getEntryGates();
     }
     
+    /**
+     * @return Unmodifiable view of the exit gates as of this call, indexed by gate handle
+     */
     public List<ExitGate> getExitGates() {
-        return new ArrayList<>(exitGates);
+        return gateRegistry.getExitGates();
+    }
+    
+    public GateRegistry getGateRegistry() {
+        return gateRegistry;
     }
     
     public SlotAllocationStrategy getSlotAllocationStrategy() {
@@ -51,29 +112,191 @@ public class ParkingLot {
         return pricingStrategy;
     }
     
+    public EventSink getEventSink() {
+        return eventSink;
+    }
+    
+    public TicketJournal getJournal() {
+        return journal;
+    }
+    
+    public PaymentProvider getPaymentProvider() {
+        return paymentProvider;
+    }
+    
+    public MetricsRegistry getMetricsRegistry() {
+        return metricsRegistry;
+    }
+    
+    public ReservationBook getReservationBook() {
+        return reservationBook;
+    }
+    
+    public TicketTimers getTicketTimers() {
+        return ticketTimers;
+    }
+    
+    public long getSnapshotIntervalMillis() {
+        return snapshotIntervalMillis;
+    }
+    
+    /**
+     * Latest published occupancy snapshot
+     * Only reads a reference, however often it is called; the snapshot lags the lot by at
+     * most about one snapshot interval.
+     * 
+     * @return Immutable occupancy of the lot
+     */
+    public OccupancySnapshot getOccupancySnapshot() {
+        return occupancySnapshot;
+    }
+    
+    /**
+     * Rebuild and publish the occupancy snapshot now, waiting for one in progress
+     * @return The new snapshot
+     */
+    public OccupancySnapshot refreshOccupancySnapshot() {
+        snapshotLock.lock();
+        try {
+            return publishSnapshot();
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+    
+    /**
+     * Get a read-only view of the active tickets (used for journal snapshots)
+     * Each iteration walks a copy taken when it starts
+     * @return Active tickets
+     */
+    public Collection<Ticket> getActiveTickets() {
+        return Collections.unmodifiableCollection(activeTickets.values());
+    }
+    
     // Setters
     public void setSlotAllocationStrategy(SlotAllocationStrategy slotAllocationStrategy) {
         this.slotAllocationStrategy = slotAllocationStrategy;
         // Update all entry gates with new strategy
-        for (EntryGate gate : entryGates) {
+        for (EntryGate gate : gateRegistry.getEntryGates()) {
             gate.setSlotAllocationStrategy(slotAllocationStrategy);
         }
     }
     
+    /**
+     * Set the minimum age of a snapshot before a change makes gates or the refresher rebuild it
+     * @param snapshotIntervalMillis 0 rebuilds on every change
+     */
+    public void setSnapshotIntervalMillis(long snapshotIntervalMillis) {
+        if (snapshotIntervalMillis < 0) {
+            throw new IllegalArgumentException("Snapshot interval cannot be negative");
+        }
+        this.snapshotIntervalMillis = snapshotIntervalMillis;
+    }
+    
     public void setPricingStrategy(PricingStrategy pricingStrategy) {
         this.pricingStrategy = pricingStrategy;
         // Update all exit gates with new strategy
-        for (ExitGate gate : exitGates) {
+        for (ExitGate gate : gateRegistry.getExitGates()) {
             gate.setPricingStrategy(pricingStrategy);
         }
     }
     
+    public void setPaymentProvider(PaymentProvider paymentProvider) {
+        this.paymentProvider = paymentProvider;
+        // Update all exit gates with new provider
+        for (ExitGate gate : gateRegistry.getExitGates()) {
+            gate.setPaymentProvider(paymentProvider);
+        }
+    }
+    
+    /**
+     * Journal every park and exit from now on
+     * Recover existing state with TicketJournal.recover before attaching the journal
+     * 
+     * @param journal The journal to write to, or null to stop journaling
+     */
+    public void setJournal(TicketJournal journal) {
+        this.journal = journal;
+    }
+    
+    /**
+     * Park vehicles with a reservation in the slot held for them
+     * Without a book, admission never looks for reservations.
+     * 
+     * @param reservationBook Reservations over this lot's slots, or null
+     */
+    public void setReservationBook(ReservationBook reservationBook) {
+        this.reservationBook = reservationBook;
+    }
+    
+    /**
+     * Arm overstay, maximum-stay and payment-overdue timers for tickets issued from now on
+     * The timers publish their events through the lot's event sink.
+     * 
+     * @param ticketTimers The timers, or null to stop arming them
+     */
+    public void setTicketTimers(TicketTimers ticketTimers) {
+        this.ticketTimers = ticketTimers;
+        if (ticketTimers != null) {
+            ticketTimers.setEventSink(eventSink);
+        }
+    }
+    
+    /**
+     * Record per-gate counters and latencies plus occupancy gauges into a registry
+     * Gates and floors added later are instrumented as they are added.
+     * 
+     * @param metricsRegistry The registry, or null to stop recording gate metrics
+     */
+    public void setMetricsRegistry(MetricsRegistry metricsRegistry) {
+        this.metricsRegistry = metricsRegistry;
+        for (EntryGate gate : gateRegistry.getEntryGates()) {
+            gate.setMetricsRegistry(metricsRegistry);
+        }
+        for (ExitGate gate : gateRegistry.getExitGates()) {
+            gate.setMetricsRegistry(metricsRegistry);
+        }
+        if (metricsRegistry != null) {
+            metricsRegistry.gauge("parking_active_tickets", () -> activeTickets.size());
+            for (ParkingFloor floor : gateRegistry.getFloors()) {
+                registerFloorGauges(floor);
+            }
+        }
+    }
+    
+    private void registerFloorGauges(ParkingFloor floor) {
+        String floorId = String.valueOf(floor.getFloorId());
+        metricsRegistry.gauge("parking_slots_occupied", floor::getTotalOccupiedSlots, "floor", floorId);
+        metricsRegistry.gauge("parking_slots_available", floor::getTotalAvailableSlots, "floor", floorId);
+        metricsRegistry.gauge("parking_slots_total", floor::getTotalSlots, "floor", floorId);
+    }
+    
+    public void setEventSink(EventSink eventSink) {
+        this.eventSink = eventSink;
+        // Gates publish through the lot's sink
+        for (EntryGate gate : gateRegistry.getEntryGates()) {
+            gate.setEventSink(eventSink);
+        }
+        for (ExitGate gate : gateRegistry.getExitGates()) {
+            gate.setEventSink(eventSink);
+        }
+        if (ticketTimers != null) {
+            ticketTimers.setEventSink(eventSink);
+        }
+    }
+    
     /**
      * Add a parking floor to the parking lot
      * @param floor The parking floor to add
      */
     public void addFloor(ParkingFloor floor) {
-        floors.add(floor);
+        gateRegistry.addFloor(floor);
+        if (metricsRegistry != null) {
+            registerFloorGauges(floor);
+        }
+        // Reservations, maintenance and charging changes reach the floor without going through the lot
+        floor.addSlotStateListener((slot, previousCharging, charging, free) -> markOccupancyChanged());
+        refreshOccupancySnapshot();
         System.out.println("Floor " + floor.getFloorId() + " added to parking lot");
     }
     
@@ -82,7 +305,12 @@ public class ParkingLot {
      * @param entryGate The entry gate to add
      */
     public void addEntryGate(EntryGate entryGate) {
-        entryGates.add(entryGate);
+        entryGate.setEventSink(eventSink);
+        if (metricsRegistry != null) {
+            entryGate.setMetricsRegistry(metricsRegistry);
+        }
+        gateRegistry.addEntryGate(entryGate);
+        refreshOccupancySnapshot();
         System.out.println("Entry gate " + entryGate.getEntryGateId() + " added");
     }
     
@@ -91,7 +319,15 @@ public class ParkingLot {
      * @param exitGate The exit gate to add
      */
     public void addExitGate(ExitGate exitGate) {
-        exitGates.add(exitGate);
+        exitGate.setEventSink(eventSink);
+        if (paymentProvider != null) {
+            exitGate.setPaymentProvider(paymentProvider);
+        }
+        if (metricsRegistry != null) {
+            exitGate.setMetricsRegistry(metricsRegistry);
+        }
+        gateRegistry.addExitGate(exitGate);
+        refreshOccupancySnapshot();
         System.out.println("Exit gate " + exitGate.getExitGateId() + " added");
     }
     
@@ -105,28 +341,129 @@ public class ParkingLot {
         // Find the entry gate
         EntryGate entryGate = findEntryGate(entryGateId);
         if (entryGate == null) {
-            System.out.println("Entry gate not found: " + entryGateId);
+            if (eventSink.isEnabled()) {
+                eventSink.publish(ParkingEvent.parkingRejected(vehicle.getVehicleNo(), entryGateId,
+                        "entry gate not found"));
+            }
             return null;
         }
         
         // Check if vehicle is already parked
         if (activeTickets.containsKey(vehicle.getVehicleNo())) {
-            System.out.println("Vehicle " + vehicle.getVehicleNo() + " is already parked");
+            if (eventSink.isEnabled()) {
+                eventSink.publish(ParkingEvent.parkingRejected(vehicle.getVehicleNo(), entryGateId,
+                        "vehicle is already parked"));
+            }
             return null;
         }
         
-        // Generate ticket using entry gate
-        Ticket ticket = entryGate.generateTicket(vehicle, floors);
+        // Generate ticket using entry gate, in the vehicle's reserved slot if it has one
+        Ticket ticket = admitReserved(vehicle, entryGate);
+        if (ticket == null) {
+            ticket = entryGate.generateTicket(vehicle, gateRegistry.getFloors());
+        }
+        
+        return ticket == null ? null : register(ticket, entryGateId);
+    }
+    
+    /**
+     * Park a burst of vehicles through one entry gate (stadium or concert arrivals)
+     * The gate is looked up once and slots are handed out nearest-first in a single
+     * pass over the free indexes.
+     * 
+     * @param vehicles Vehicles in arrival order
+     * @param entryGateId The ID of the entry gate
+     * @return Ticket per vehicle, in the same order; null for vehicles that could not be parked
+     */
+    public List<Ticket> parkVehicles(List<Vehicle> vehicles, String entryGateId) {
+        List<Ticket> tickets = new ArrayList<>(Collections.nCopies(vehicles.size(), (Ticket) null));
+        
+        EntryGate entryGate = findEntryGate(entryGateId);
+        if (entryGate == null) {
+            if (eventSink.isEnabled()) {
+                for (Vehicle vehicle : vehicles) {
+                    eventSink.publish(ParkingEvent.parkingRejected(vehicle.getVehicleNo(), entryGateId,
+                            "entry gate not found"));
+                }
+            }
+            return tickets;
+        }
+        
+        // Drop vehicles that are already parked or appear twice in the batch
+        List<Vehicle> admitted = new ArrayList<>(vehicles.size());
+        List<Integer> positions = new ArrayList<>(vehicles.size());
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < vehicles.size(); i++) {
+            Vehicle vehicle = vehicles.get(i);
+            if (activeTickets.containsKey(vehicle.getVehicleNo()) || !seen.add(vehicle.getVehicleNo())) {
+                if (eventSink.isEnabled()) {
+                    eventSink.publish(ParkingEvent.parkingRejected(vehicle.getVehicleNo(), entryGateId,
+                            "vehicle is already parked"));
+                }
+                continue;
+            }
+            Ticket reserved = admitReserved(vehicle, entryGate);
+            if (reserved != null) {
+                tickets.set(i, register(reserved, entryGateId));
+                continue;
+            }
+            admitted.add(vehicle);
+            positions.add(i);
+        }
         
-        if (ticket != null) {
-            // Store active ticket
-            activeTickets.put(vehicle.getVehicleNo(), ticket);
-            System.out.println("Ticket generated: " + ticket.getTicketId());
+        List<Ticket> issued = entryGate.generateTickets(admitted, gateRegistry.getFloors());
+        for (int i = 0; i < issued.size(); i++) {
+            Ticket ticket = issued.get(i);
+            if (ticket == null) {
+                continue;
+            }
+            tickets.set(positions.get(i), register(ticket, entryGateId));
         }
         
+        return tickets;
+    }
+    
+    /**
+     * Record an issued ticket, or free its slot if the same vehicle was parked meanwhile
+     * @return The ticket, or null if it was dropped
+     */
+    private Ticket register(Ticket ticket, String entryGateId) {
+        String vehicleNo = ticket.getVehicle().getVehicleNo();
+        // Timers are armed before the ticket is visible, so an immediate exit always disarms them
+        if (ticketTimers != null) {
+            ticketTimers.ticketIssued(ticket);
+        }
+        // A concurrent entry of the same vehicle loses and frees its slot
+        if (activeTickets.putIfAbsent(vehicleNo, ticket) != null) {
+            if (ticketTimers != null) {
+                ticketTimers.ticketClosed(ticket);
+            }
+            ticket.getParkingSlot().removeVehicle();
+            if (eventSink.isEnabled()) {
+                eventSink.publish(ParkingEvent.parkingRejected(vehicleNo, entryGateId, "vehicle is already parked"));
+            }
+            return null;
+        }
+        // Journal after the map update so a snapshot never misses an already-journaled park
+        if (journal != null) {
+            journal.recordPark(ticket);
+        }
+        occupancyChanged();
         return ticket;
     }
     
+    /**
+     * Park a vehicle in the slot its reservation holds
+     * @return The ticket, or null if there is no reservation book or no usable reservation
+     */
+    private Ticket admitReserved(Vehicle vehicle, EntryGate entryGate) {
+        if (reservationBook == null) {
+            return null;
+        }
+        ParkingSlot reservedSlot = reservationBook.claim(vehicle);
+        return reservedSlot == null ? null : entryGate.issueReservedTicket(vehicle, reservedSlot);
+    }
+    
     /**
      * Process vehicle exit using a specific exit gate
      * @param vehicleNo The vehicle number
@@ -138,27 +475,207 @@ public class ParkingLot {
         // Find the exit gate
         ExitGate exitGate = findExitGate(exitGateId);
         if (exitGate == null) {
-            System.out.println("Exit gate not found: " + exitGateId);
+            if (eventSink.isEnabled()) {
+                eventSink.publish(ParkingEvent.exitRejected(vehicleNo, exitGateId, "exit gate not found"));
+            }
             return false;
         }
         
-        // Find the active ticket
-        Ticket ticket = activeTickets.get(vehicleNo);
+        Ticket ticket = claimForCheckout(vehicleNo, exitGateId);
         if (ticket == null) {
-            System.out.println("No active ticket found for vehicle: " + vehicleNo);
             return false;
         }
         
         // Process checkout
         boolean success = exitGate.checkout(ticket, paymentMethod);
+        closeTicket(ticket, exitGateId, success);
+        return success;
+    }
+    
+    /**
+     * Process vehicle exit without waiting for the payment provider
+     * The gate prices the stay right away; payment, slot release and ticket close follow
+     * when the provider answers, so one gate can have many checkouts in flight.
+     * 
+     * @param vehicleNo The vehicle number
+     * @param exitGateId The ID of the exit gate
+     * @param paymentMethod The payment method
+     * @return Completes with true once the vehicle has exited
+     */
+    public CompletableFuture<Boolean> exitVehicleAsync(String vehicleNo, String exitGateId, Payment paymentMethod) {
+        ExitGate exitGate = findExitGate(exitGateId);
+        if (exitGate == null) {
+            if (eventSink.isEnabled()) {
+                eventSink.publish(ParkingEvent.exitRejected(vehicleNo, exitGateId, "exit gate not found"));
+            }
+            return CompletableFuture.completedFuture(false);
+        }
+        
+        // Claimed for the whole checkout, so a second exit attempt is rejected while payment is pending
+        Ticket ticket = claimForCheckout(vehicleNo, exitGateId);
+        if (ticket == null) {
+            return CompletableFuture.completedFuture(false);
+        }
         
+        return exitGate.checkoutAsync(ticket, paymentMethod).thenApply(success -> {
+            closeTicket(ticket, exitGateId, success);
+            return success;
+        });
+    }
+    
+    /**
+     * Mark the vehicle's active ticket as checking out
+     * The ticket stays registered until the payment succeeds, so journal snapshots keep it
+     * and the same plate cannot be admitted again while the payment is pending.
+     * 
+     * @return The ticket, or null if there is none or another exit is already settling it
+     */
+    private Ticket claimForCheckout(String vehicleNo, String exitGateId) {
+        Ticket ticket = activeTickets.get(vehicleNo);
+        if (ticket != null && ticket.beginCheckout()) {
+            return ticket;
+        }
+        if (eventSink.isEnabled()) {
+            eventSink.publish(ParkingEvent.exitRejected(vehicleNo, exitGateId,
+                    ticket == null ? "no active ticket found" : "checkout already in progress"));
+        }
+        return null;
+    }
+    
+    /**
+     * Last step of an exit: unregister and journal it, or release the claim if the vehicle is still parked
+     */
+    private void closeTicket(Ticket ticket, String exitGateId, boolean success) {
+        String vehicleNo = ticket.getVehicle().getVehicleNo();
         if (success) {
-            // Remove from active tickets
+            if (ticketTimers != null) {
+                ticketTimers.ticketClosed(ticket);
+            }
+            // Unregistered before the exit is journaled, so a snapshot never resurrects a journaled exit
             activeTickets.remove(vehicleNo);
-            System.out.println("Vehicle " + vehicleNo + " successfully exited");
+            if (journal != null) {
+                journal.recordExit(vehicleNo);
+            }
+            if (eventSink.isEnabled()) {
+                eventSink.publish(ParkingEvent.vehicleExited(vehicleNo, exitGateId));
+            }
+        } else {
+            // Vehicle is still parked and its ticket still registered; the bill is now due within the grace period
+            ticket.abortCheckout();
+            if (ticketTimers != null) {
+                ticketTimers.paymentFailed(ticket);
+            }
         }
-        
-        return success;
+        occupancyChanged();
+    }
+    
+    /**
+     * Mark the snapshot stale and make sure the refresher will publish it
+     */
+    private void markOccupancyChanged() {
+        if (!occupancyChanged) { // skip the write, and the cache line it would steal, when already marked
+            occupancyChanged = true;
+        }
+        if (!refreshScheduled.get()) {
+            scheduleRefresh();
+        }
+    }
+    
+    /**
+     * Mark the snapshot stale after a park or exit and rebuild it if it is due
+     */
+    private void occupancyChanged() {
+        markOccupancyChanged();
+        if (System.currentTimeMillis() - occupancySnapshot.getTakenAtMillis() >= snapshotIntervalMillis) {
+            tryPublishSnapshot();
+        }
+    }
+    
+    /**
+     * Have the refresher publish a stale snapshot when its interval is up; one run pending at a time
+     */
+    private void scheduleRefresh() {
+        if (!refreshScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        long delay = occupancySnapshot.getTakenAtMillis() + snapshotIntervalMillis - System.currentTimeMillis();
+        SNAPSHOT_REFRESHER.schedule(() -> {
+            refreshScheduled.set(false);
+            try {
+                if (occupancyChanged) {
+                    tryPublishSnapshot();
+                }
+            } catch (RuntimeException e) {
+                System.err.println("Occupancy snapshot refresh failed: " + e);
+            }
+            // Changed again while publishing, or another thread held the lock: go round once more
+            if (occupancyChanged) {
+                scheduleRefresh();
+            }
+        }, Math.max(0, delay), TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Rebuild the snapshot unless another thread is already rebuilding it
+     * @return The newest published snapshot
+     */
+    private OccupancySnapshot tryPublishSnapshot() {
+        if (!snapshotLock.tryLock()) {
+            return occupancySnapshot;
+        }
+        try {
+            return publishSnapshot();
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+    
+    /**
+     * Read the counters into a new snapshot and swap it in; the caller holds snapshotLock
+     */
+    private OccupancySnapshot publishSnapshot() {
+        // Cleared before reading, so a change made while the counters are read marks the new snapshot stale
+        occupancyChanged = false;
+        OccupancySnapshot snapshot = OccupancySnapshot.capture(occupancySnapshot.getVersion() + 1,
+                System.currentTimeMillis(), gateRegistry.getFloors(), activeTickets.size(),
+                gateRegistry.getEntryGates().size(), gateRegistry.getExitGates().size());
+        occupancySnapshot = snapshot;
+        return snapshot;
+    }
+    
+    /**
+     * Re-register a ticket recovered from the journal
+     * The vehicle is parked back into the ticket's slot; nothing is journaled.
+     * 
+     * @param ticket The recovered ticket
+     * @return true if the slot could be re-occupied and the ticket registered
+     */
+    public boolean restoreTicket(Ticket ticket) {
+        ParkingSlot slot = ticket.getParkingSlot();
+        if (!slot.parkVehicle(ticket.getVehicle())) {
+            return false;
+        }
+        if (ticketTimers != null) {
+            ticketTimers.ticketIssued(ticket);
+        }
+        if (activeTickets.putIfAbsent(ticket.getVehicle().getVehicleNo(), ticket) != null) {
+            if (ticketTimers != null) {
+                ticketTimers.ticketClosed(ticket);
+            }
+            slot.removeVehicle();
+            return false;
+        }
+        occupancyChanged();
+        return true;
+    }
+    
+    /**
+     * Find a floor by its ID
+     * @param floorId The floor ID
+     * @return The floor or null if not found
+     */
+    public ParkingFloor getFloor(int floorId) {
+        return gateRegistry.getFloor(floorId);
     }
     
     /**
@@ -167,10 +684,7 @@ public class ParkingLot {
      * @return The entry gate or null if not found
      */
     private EntryGate findEntryGate(String entryGateId) {
-        return entryGates.stream()
-                .filter(gate -> gate.getEntryGateId().equals(entryGateId))
-                .findFirst()
-                .orElse(null);
+        return gateRegistry.getEntryGate(entryGateId);
     }
     
     /**
@@ -179,34 +693,31 @@ public class ParkingLot {
      * @return The exit gate or null if not found
      */
     private ExitGate findExitGate(String exitGateId) {
-        return exitGates.stream()
-                .filter(gate -> gate.getExitGateId().equals(exitGateId))
-                .findFirst()
-                .orElse(null);
+        return gateRegistry.getExitGate(exitGateId);
     }
     
     /**
      * Get parking lot capacity statistics
+     * Rendered from the occupancy snapshot, so the totals always match the floor rows
      * @return Capacity information as string
      */
     public String getCapacityInfo() {
-        int totalSlots = floors.stream().mapToInt(floor -> floor.getParkingSlots().size()).sum();
-        int availableSlots = floors.stream().mapToInt(ParkingFloor::getTotalAvailableSlots).sum();
-        int occupiedSlots = floors.stream().mapToInt(ParkingFloor::getTotalOccupiedSlots).sum();
-        
+        return capacityInfo(getOccupancySnapshot());
+    }
+    
+    private static String capacityInfo(OccupancySnapshot snapshot) {
         StringBuilder info = new StringBuilder();
         info.append("=== Parking Lot Capacity ===\n");
-        info.append("Total Slots: ").append(totalSlots).append("\n");
-        info.append("Available Slots: ").append(availableSlots).append("\n");
-        info.append("Occupied Slots: ").append(occupiedSlots).append("\n");
-        info.append("Occupancy Rate: ").append(String.format("%.1f%%", 
-                (occupiedSlots * 100.0) / totalSlots)).append("\n");
+        info.append("Total Slots: ").append(snapshot.getTotalSlots()).append("\n");
+        info.append("Available Slots: ").append(snapshot.getAvailableSlots()).append("\n");
+        info.append("Occupied Slots: ").append(snapshot.getOccupiedSlots()).append("\n");
+        info.append("Occupancy Rate: ").append(String.format("%.1f%%", snapshot.getOccupancyRate())).append("\n");
         
         info.append("\nFloor-wise Details:\n");
-        for (ParkingFloor floor : floors) {
+        for (OccupancySnapshot.FloorOccupancy floor : snapshot.getFloors()) {
             info.append("Floor ").append(floor.getFloorId()).append(": ")
-                .append(floor.getTotalAvailableSlots()).append("/")
-                .append(floor.getParkingSlots().size()).append(" available\n");
+                .append(floor.getAvailableSlots()).append("/")
+                .append(floor.getTotalSlots()).append(" available\n");
         }
         
         return info.toString();
@@ -214,16 +725,29 @@ public class ParkingLot {
     
     /**
      * Print detailed status of all floors
+     * Everything printed comes from one occupancy snapshot; use ParkingFloor.printSlots()
+     * for the state of individual slots.
      */
     public void printDetailedStatus() {
-        System.out.println(getCapacityInfo());
-        System.out.println("Active Tickets: " + activeTickets.size());
-        System.out.println("Entry Gates: " + entryGates.size());
-        System.out.println("Exit Gates: " + exitGates.size());
+        OccupancySnapshot snapshot = getOccupancySnapshot();
+        System.out.println(capacityInfo(snapshot));
+        System.out.println("Active Tickets: " + snapshot.getActiveTickets());
+        System.out.println("Entry Gates: " + snapshot.getEntryGates());
+        System.out.println("Exit Gates: " + snapshot.getExitGates());
         
         System.out.println("\n=== Floor Details ===");
-        for (ParkingFloor floor : floors) {
-            floor.printSlots();
+        for (OccupancySnapshot.FloorOccupancy floor : snapshot.getFloors()) {
+            System.out.println("=== Floor " + floor.getFloorId() + " Status ===");
+            System.out.println("Total Slots: " + floor.getTotalSlots());
+            System.out.println("Available: " + floor.getAvailableSlots());
+            System.out.println("Occupied: " + floor.getOccupiedSlots());
+            
+            System.out.println("\nSlots by Type:");
+            for (SlotType type : SlotType.values()) {
+                System.out.println(type + ": " + floor.getAvailableSlots(type) + "/" + floor.getTotalSlots(type)
+                        + " available (" + floor.getAvailableChargingSlots(type) + " with EV charging)");
+            }
+            System.out.println("================================");
         }
     }
     
@@ -232,7 +756,12 @@ public class ParkingLot {
      * @return true if no slots are available
      */
     public boolean isFull() {
-        return floors.stream().noneMatch(floor -> floor.getTotalAvailableSlots() > 0);
+        for (ParkingFloor floor : gateRegistry.getFloors()) {
+            if (floor.getTotalAvailableSlots() > 0) {
+                return false;
+            }
+        }
+        return true;
     }
     
     /**
@@ -2,25 +2,41 @@ package models;
 
 import enums.SlotType;
 import enums.SlotStatus;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class ParkingSlot {
+    // Default layout: rows of bays along aisles, starting next to the ramp at (0, 0)
+    private static final int BAYS_PER_ROW = 20;
+    private static final double BAY_WIDTH_METERS = 2.5;
+    private static final double ROW_PITCH_METERS = 8.0;
+    private static final SlotStatus[] STATUSES = SlotStatus.values();
+    private static final int STATUS_MASK = 0x3;
+    private static final int CHARGING_BIT = 0x4;
+    
     private String slotId;
     private SlotType slotType;
-    private SlotStatus slotStatus;
-    private boolean chargingAvailable;
-    private Vehicle currentVehicle;
+    // Status ordinal plus CHARGING_BIT, in one word so a status change and a charging flip
+    // never interleave; EMPTY -> FILLED is claimed with a CAS so concurrent gates cannot double-book
+    private final AtomicInteger state;
+    private volatile Vehicle currentVehicle;
     private int floorNumber;
     private int slotNumber;
+    private double x; // position on the floor in metres
+    private double y;
+    private ParkingFloor parkingFloor; // floor whose free-slot index tracks this slot
+    private int storeIndex = -1; // record in the floor's SlotStateStore, if it has one
+    private int columnIndex = -1; // position in the floor's SlotColumns
     
     public ParkingSlot(String slotId, SlotType slotType, boolean chargingAvailable, 
                       int floorNumber, int slotNumber) {
         this.slotId = slotId;
         this.slotType = slotType;
-        this.slotStatus = SlotStatus.EMPTY;
-        this.chargingAvailable = chargingAvailable;
+        this.state = new AtomicInteger(withCharging(SlotStatus.EMPTY.ordinal(), chargingAvailable));
         this.currentVehicle = null;
         this.floorNumber = floorNumber;
         this.slotNumber = slotNumber;
+        this.x = ((slotNumber - 1) % BAYS_PER_ROW + 0.5) * BAY_WIDTH_METERS;
+        this.y = ((slotNumber - 1) / BAYS_PER_ROW + 1) * ROW_PITCH_METERS;
     }
     
     // Getters
@@ -33,11 +49,11 @@ public class ParkingSlot {
     }
     
     public SlotStatus getSlotStatus() {
-        return slotStatus;
+        return statusOf(state.get());
     }
     
     public boolean isChargingAvailable() {
-        return chargingAvailable;
+        return chargingOf(state.get());
     }
     
     public Vehicle getCurrentVehicle() {
@@ -52,37 +68,74 @@ public class ParkingSlot {
         return slotNumber;
     }
     
+    public double getX() {
+        return x;
+    }
+    
+    public double getY() {
+        return y;
+    }
+    
     // Setters
     public void setSlotStatus(SlotStatus slotStatus) {
-        this.slotStatus = slotStatus;
+        int previous;
+        do {
+            previous = state.get();
+        } while (!state.compareAndSet(previous, (previous & CHARGING_BIT) | slotStatus.ordinal()));
+        notifyFloor(previous, (previous & CHARGING_BIT) | slotStatus.ordinal());
     }
     
     public void setChargingAvailable(boolean chargingAvailable) {
-        this.chargingAvailable = chargingAvailable;
+        int previous;
+        do {
+            previous = state.get();
+        } while (!state.compareAndSet(previous, withCharging(previous, chargingAvailable)));
+        notifyFloor(previous, withCharging(previous, chargingAvailable));
     }
     
     public void setCurrentVehicle(Vehicle currentVehicle) {
         this.currentVehicle = currentVehicle;
     }
     
+    /**
+     * Place the slot on its floor plan; call before entry gates start allocating
+     * @param x X coordinate in metres
+     * @param y Y coordinate in metres
+     */
+    public void setPosition(double x, double y) {
+        this.x = x;
+        this.y = y;
+    }
+    
     /**
      * Check if this slot can accommodate the given vehicle
      * @param vehicle The vehicle to check compatibility for
      * @return true if vehicle can be parked in this slot
      */
     public boolean canAccommodate(Vehicle vehicle) {
+        int current = state.get();
         // Slot must be empty
-        if (this.slotStatus != SlotStatus.EMPTY) {
+        if (statusOf(current) != SlotStatus.EMPTY) {
             return false;
         }
         
+        return fits(vehicle, chargingOf(current));
+    }
+    
+    /**
+     * Check size and charging compatibility, ignoring whether the slot is free
+     * @param vehicle The vehicle to check
+     * @param chargingAvailable The charging flag of the state being checked
+     * @return true if the vehicle could use this slot once it is empty
+     */
+    private boolean fits(Vehicle vehicle, boolean chargingAvailable) {
         // Check size compatibility
         if (!this.slotType.canFit(vehicle.getVehicleType())) {
             return false;
         }
         
         // Check charging requirement
-        if (vehicle.requiresCharging() && !this.chargingAvailable) {
+        if (vehicle.requiresCharging() && !chargingAvailable) {
             return false;
         }
         
@@ -91,16 +144,40 @@ public class ParkingSlot {
     
     /**
      * Park a vehicle in this slot
+     * Safe to call from several gate threads - only one caller wins the EMPTY -> FILLED transition
+     * 
      * @param vehicle The vehicle to park
      * @return true if successfully parked, false otherwise
      */
     public boolean parkVehicle(Vehicle vehicle) {
-        if (canAccommodate(vehicle)) {
-            this.currentVehicle = vehicle;
-            this.slotStatus = SlotStatus.FILLED;
-            return true;
-        }
-        return false;
+        return occupy(SlotStatus.EMPTY, vehicle);
+    }
+    
+    /**
+     * Hold this empty slot for a reservation, hiding it from walk-in allocation
+     * @return true if the slot was empty and is now RESERVED
+     */
+    public boolean hold() {
+        return transition(SlotStatus.EMPTY, SlotStatus.RESERVED);
+    }
+    
+    /**
+     * Give a held slot back to walk-in allocation
+     * @return true if the slot was RESERVED and is now empty
+     */
+    public boolean releaseHold() {
+        return transition(SlotStatus.RESERVED, SlotStatus.EMPTY);
+    }
+    
+    /**
+     * Park the reservation holder in this held slot
+     * Only one caller wins the RESERVED -> FILLED transition
+     * 
+     * @param vehicle The vehicle the slot was held for
+     * @return true if successfully parked, false otherwise
+     */
+    public boolean parkReserved(Vehicle vehicle) {
+        return occupy(SlotStatus.RESERVED, vehicle);
     }
     
     /**
@@ -109,13 +186,106 @@ public class ParkingSlot {
      */
     public Vehicle removeVehicle() {
         Vehicle vehicle = this.currentVehicle;
+        // Clear the occupant before publishing EMPTY so the next parker's vehicle is never wiped
         this.currentVehicle = null;
-        this.slotStatus = SlotStatus.EMPTY;
+        int previous;
+        do {
+            previous = state.get();
+        } while (!state.compareAndSet(previous, (previous & CHARGING_BIT) | SlotStatus.EMPTY.ordinal()));
+        if (statusOf(previous) != SlotStatus.EMPTY) {
+            notifyFloor(previous, (previous & CHARGING_BIT) | SlotStatus.EMPTY.ordinal());
+        }
         return vehicle;
     }
     
+    /**
+     * Move from one status to another, keeping the charging flag
+     * @return true if this caller made the transition
+     */
+    private boolean transition(SlotStatus from, SlotStatus to) {
+        int current;
+        do {
+            current = state.get();
+            if (statusOf(current) != from) {
+                return false;
+            }
+        } while (!state.compareAndSet(current, (current & CHARGING_BIT) | to.ordinal()));
+        notifyFloor(current, (current & CHARGING_BIT) | to.ordinal());
+        return true;
+    }
+    
+    /**
+     * Move from a free or held status to FILLED if the vehicle fits the state being replaced
+     * @return true if this caller parked the vehicle
+     */
+    private boolean occupy(SlotStatus from, Vehicle vehicle) {
+        int current;
+        do {
+            current = state.get();
+            if (statusOf(current) != from || !fits(vehicle, chargingOf(current))) {
+                return false;
+            }
+        } while (!state.compareAndSet(current, (current & CHARGING_BIT) | SlotStatus.FILLED.ordinal()));
+        this.currentVehicle = vehicle;
+        notifyFloor(current, (current & CHARGING_BIT) | SlotStatus.FILLED.ordinal());
+        return true;
+    }
+    
+    private static SlotStatus statusOf(int state) {
+        return STATUSES[state & STATUS_MASK];
+    }
+    
+    private static boolean chargingOf(int state) {
+        return (state & CHARGING_BIT) != 0;
+    }
+    
+    private static int withCharging(int state, boolean chargingAvailable) {
+        return chargingAvailable ? state | CHARGING_BIT : state & ~CHARGING_BIT;
+    }
+    
+    /**
+     * Attach this slot to the floor that indexes it
+     * @param parkingFloor The owning floor
+     */
+    void attachTo(ParkingFloor parkingFloor) {
+        this.parkingFloor = parkingFloor;
+    }
+    
+    int getStoreIndex() {
+        return storeIndex;
+    }
+    
+    void setStoreIndex(int storeIndex) {
+        this.storeIndex = storeIndex;
+    }
+    
+    /**
+     * Position of this slot in its floor's SlotColumns, dense from 0 in the order slots were added
+     * Observers of slot state can key per-slot data by it instead of hashing the slot.
+     */
+    public int getColumnIndex() {
+        return columnIndex;
+    }
+    
+    void setColumnIndex(int columnIndex) {
+        this.columnIndex = columnIndex;
+    }
+    
+    /**
+     * Let the owning floor keep its free-slot index and occupancy counters in sync after a state change
+     * @param previous State word this thread replaced
+     * @param installed State word this thread installed in the same atomic step
+     */
+    private void notifyFloor(int previous, int installed) {
+        if (parkingFloor != null) {
+            parkingFloor.onSlotStateChanged(this, statusOf(previous), statusOf(installed),
+                    chargingOf(previous), chargingOf(installed));
+        }
+    }
+    
     /**
      * Calculate distance from entry gate (simplified as floor difference + slot number)
+     * Gate-aware allocation uses real walking distance instead - see GateDistanceIndex
      * @param entryFloor The floor number of the entry gate
      * @return Distance metric for nearest slot calculation
      */
@@ -128,8 +298,8 @@ public class ParkingSlot {
         return "ParkingSlot{" +
                 "slotId='" + slotId + '\'' +
                 ", slotType=" + slotType +
-                ", slotStatus=" + slotStatus +
-                ", chargingAvailable=" + chargingAvailable +
+                ", slotStatus=" + statusOf(state.get()) +
+                ", chargingAvailable=" + chargingOf(state.get()) +
                 ", floorNumber=" + floorNumber +
                 ", slotNumber=" + slotNumber +
                 ", currentVehicle=" + (currentVehicle != null ? currentVehicle.getVehicleNo() : "None") +
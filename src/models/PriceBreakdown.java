@@ -0,0 +1,98 @@
+package models;
+
+import enums.SlotType;
+import enums.VehicleType;
+
+/**
+ * Itemised price of one stay, in fixed-point cents
+ * Mutable so a caller can keep one instance and have the pricing engine refill it
+ * on every exit instead of allocating a new result.
+ */
+public class PriceBreakdown {
+    private VehicleType vehicleType;
+    private SlotType slotType;
+    private boolean charging;
+    private boolean peak;
+    private int billableHours;
+    private long parkingCents;
+    private long chargingCents;
+    private long discountCents;
+    private long totalCents;
+    
+    /**
+     * Overwrite every field
+     */
+    public PriceBreakdown set(VehicleType vehicleType, SlotType slotType, boolean charging, boolean peak,
+                              int billableHours, long parkingCents, long chargingCents, long discountCents,
+                              long totalCents) {
+        this.vehicleType = vehicleType;
+        this.slotType = slotType;
+        this.charging = charging;
+        this.peak = peak;
+        this.billableHours = billableHours;
+        this.parkingCents = parkingCents;
+        this.chargingCents = chargingCents;
+        this.discountCents = discountCents;
+        this.totalCents = totalCents;
+        return this;
+    }
+    
+    // Getters
+    public VehicleType getVehicleType() {
+        return vehicleType;
+    }
+    
+    public SlotType getSlotType() {
+        return slotType;
+    }
+    
+    public boolean isCharging() {
+        return charging;
+    }
+    
+    public boolean isPeak() {
+        return peak;
+    }
+    
+    public int getBillableHours() {
+        return billableHours;
+    }
+    
+    public long getParkingCents() {
+        return parkingCents;
+    }
+    
+    public long getChargingCents() {
+        return chargingCents;
+    }
+    
+    public long getDiscountCents() {
+        return discountCents;
+    }
+    
+    public long getTotalCents() {
+        return totalCents;
+    }
+    
+    /**
+     * @return Total in currency units, for Bill and display
+     */
+    public double getTotalAmount() {
+        return totalCents / 100.0;
+    }
+    
+    @Override
+    public String toString() {
+        return "PriceBreakdown{" +
+                "vehicleType=" + vehicleType +
+                ", slotType=" + slotType +
+                ", charging=" + charging +
+                ", peak=" + peak +
+                ", billableHours=" + billableHours +
+                ", parkingCents=" + parkingCents +
+                ", chargingCents=" + chargingCents +
+                ", discountCents=" + discountCents +
+                ", totalCents=" + totalCents +
+                '}';
+    }
+}
@@ -0,0 +1,325 @@
+package models;
+
+import enums.SlotStatus;
+import enums.SlotType;
+import enums.VehicleType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Columnar copy of a floor's slot state for whole-floor scans
+ *
+ * Slots are numbered densely in the order they were added to the floor. Status and type
+ * are kept in parallel byte arrays and the charging flag in a bitset of 64 slots per word.
+ * Free slots are marked in one bitmap per (SlotType, charging) bucket, the same buckets the
+ * floor counts in, so a search for slots that fit a vehicle ORs the compatible buckets'
+ * words and takes the lowest set bit, and counting is a bitCount per word - no pointers to
+ * ParkingSlot are followed. Free bits are also counted per bucket, for the floor and for
+ * each chunk, so asking whether anything fits answers for a full floor in a read or two
+ * and skips full chunks without looking at their words. Storage grows in fixed chunks
+ * that are never copied, so a slot's entries stay put while gates update them.
+ *
+ * The floor writes every slot transition through on the thread that made it; a scan may
+ * see a slot a moment before or after a concurrent change, exactly like iterating the
+ * slots themselves. Scans are for reports, bulk re-allocation and maintenance sweeps -
+ * claiming a slot still goes through its CAS.
+ */
+public class SlotColumns {
+    private static final SlotStatus[] STATUSES = SlotStatus.values();
+    private static final SlotType[] SLOT_TYPES = SlotType.values();
+    private static final int CHUNK_BITS = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS; // slots per chunk
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int WORDS_PER_CHUNK = CHUNK_SIZE / Long.SIZE;
+    private static final int BUCKETS = SLOT_TYPES.length * 2;
+    // Buckets a vehicle type can use, indexed by [VehicleType ordinal][charging required]
+    private static final int[][] FITTING_BUCKETS = new int[VehicleType.values().length][2];
+
+    static {
+        for (VehicleType vehicleType : VehicleType.values()) {
+            FITTING_BUCKETS[vehicleType.ordinal()][0] = fittingBuckets(vehicleType, false);
+            FITTING_BUCKETS[vehicleType.ordinal()][1] = fittingBuckets(vehicleType, true);
+        }
+    }
+
+    private volatile Chunk[] chunks = new Chunk[0];
+    private volatile int size;
+    private final AtomicIntegerArray freeTotals = new AtomicIntegerArray(BUCKETS); // set bits per bucket
+
+    /**
+     * @return Number of slots
+     */
+    public int size() {
+        return size;
+    }
+
+    public ParkingSlot slotAt(int index) {
+        return chunk(index).slots[index & CHUNK_MASK];
+    }
+
+    public SlotStatus statusAt(int index) {
+        return STATUSES[chunk(index).status[index & CHUNK_MASK]];
+    }
+
+    public SlotType typeAt(int index) {
+        return SLOT_TYPES[chunk(index).type[index & CHUNK_MASK]];
+    }
+
+    public boolean isChargingAt(int index) {
+        return bit(chunk(index).charging, index);
+    }
+
+    public boolean isFreeAt(int index) {
+        Chunk chunk = chunk(index);
+        int type = chunk.type[index & CHUNK_MASK];
+        return bit(chunk.free[bucketOf(type, false)], index) || bit(chunk.free[bucketOf(type, true)], index);
+    }
+
+    /**
+     * Whether any free slot can take the vehicle
+     */
+    public boolean hasFree(Vehicle vehicle) {
+        return hasFree(vehicle.getVehicleType(), vehicle.requiresCharging());
+    }
+
+    /**
+     * Whether any free slot fits a vehicle type
+     * @param chargingOnly Only consider slots with EV charging
+     */
+    public boolean hasFree(VehicleType vehicleType, boolean chargingOnly) {
+        int buckets = FITTING_BUCKETS[vehicleType.ordinal()][chargingOnly ? 1 : 0];
+        if (!anyCounted(freeTotals, buckets)) {
+            return false;
+        }
+        for (Chunk chunk : chunks) {
+            if (anyCounted(chunk.freeCounts, buckets)) {
+                for (int word = 0; word < WORDS_PER_CHUNK; word++) {
+                    if (chunk.candidates(word, buckets) != 0) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Index of the first free slot at or after fromIndex that can take the vehicle
+     * @return The index, or -1 if there is none
+     */
+    public int nextFree(Vehicle vehicle, int fromIndex) {
+        return nextFree(vehicle.getVehicleType(), vehicle.requiresCharging(), fromIndex);
+    }
+
+    /**
+     * Index of the first free slot at or after fromIndex that fits a vehicle type
+     * @param chargingOnly Only count slots with EV charging
+     * @return The index, or -1 if there is none
+     */
+    public int nextFree(VehicleType vehicleType, boolean chargingOnly, int fromIndex) {
+        int buckets = FITTING_BUCKETS[vehicleType.ordinal()][chargingOnly ? 1 : 0];
+        int end = size;
+        Chunk[] current = chunks;
+        for (int index = Math.max(fromIndex, 0); index < end; ) {
+            Chunk chunk = current[index >>> CHUNK_BITS];
+            if (!anyCounted(chunk.freeCounts, buckets)) {
+                index = (index & ~CHUNK_MASK) + CHUNK_SIZE;
+                continue;
+            }
+            int word = (index & CHUNK_MASK) >>> 6;
+            long bits = chunk.candidates(word, buckets) & (-1L << index);
+            if (bits != 0) {
+                int found = (index & ~63) + Long.numberOfTrailingZeros(bits);
+                return found < end ? found : -1;
+            }
+            index = (index & ~63) + Long.SIZE;
+        }
+        return -1;
+    }
+
+    /**
+     * Number of free slots that can take the vehicle
+     */
+    public int countFree(Vehicle vehicle) {
+        return countFree(vehicle.getVehicleType(), vehicle.requiresCharging());
+    }
+
+    /**
+     * Number of free slots that fit a vehicle type
+     * @param chargingOnly Only count slots with EV charging
+     */
+    public int countFree(VehicleType vehicleType, boolean chargingOnly) {
+        int buckets = FITTING_BUCKETS[vehicleType.ordinal()][chargingOnly ? 1 : 0];
+        int count = 0;
+        for (Chunk chunk : chunks) {
+            if (anyCounted(chunk.freeCounts, buckets)) {
+                for (int word = 0; word < WORDS_PER_CHUNK; word++) {
+                    count += Long.bitCount(chunk.candidates(word, buckets));
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Free slots that can take the vehicle, in index order
+     */
+    public List<ParkingSlot> freeSlots(Vehicle vehicle) {
+        return freeSlots(vehicle.getVehicleType(), vehicle.requiresCharging());
+    }
+
+    /**
+     * Free slots that fit a vehicle type, in index order
+     * @param chargingOnly Only include slots with EV charging
+     */
+    public List<ParkingSlot> freeSlots(VehicleType vehicleType, boolean chargingOnly) {
+        List<ParkingSlot> found = new ArrayList<>();
+        for (int index = nextFree(vehicleType, chargingOnly, 0); index >= 0;
+                index = nextFree(vehicleType, chargingOnly, index + 1)) {
+            found.add(slotAt(index));
+        }
+        return found;
+    }
+
+    /**
+     * Number of slots per status, indexed by SlotStatus ordinal
+     */
+    public int[] countByStatus() {
+        int[] counts = new int[STATUSES.length];
+        int end = size;
+        Chunk[] current = chunks;
+        for (int index = 0; index < end; index++) {
+            counts[current[index >>> CHUNK_BITS].status[index & CHUNK_MASK]]++;
+        }
+        return counts;
+    }
+
+    /**
+     * Append a slot; called by the floor under its layout lock
+     * @return The slot's index
+     */
+    int add(ParkingSlot slot) {
+        int index = size;
+        if ((index >>> CHUNK_BITS) == chunks.length) {
+            Chunk[] grown = new Chunk[chunks.length + 1];
+            System.arraycopy(chunks, 0, grown, 0, chunks.length);
+            grown[chunks.length] = new Chunk();
+            chunks = grown;
+        }
+        Chunk chunk = chunk(index);
+        chunk.slots[index & CHUNK_MASK] = slot;
+        chunk.type[index & CHUNK_MASK] = (byte) slot.getSlotType().ordinal();
+        update(index, slot.getSlotStatus(), slot.isChargingAvailable());
+        size = index + 1; // publishes the slot's entries to scans
+        return index;
+    }
+
+    /**
+     * Record a slot's current status and charging flag
+     */
+    void update(int index, SlotStatus status, boolean charging) {
+        Chunk chunk = chunk(index);
+        int type = chunk.type[index & CHUNK_MASK];
+        chunk.status[index & CHUNK_MASK] = (byte) status.ordinal();
+        setBit(chunk.charging, index, charging);
+        // A slot is marked free in at most one of its type's two buckets
+        setFree(chunk, bucketOf(type, !charging), index, false);
+        setFree(chunk, bucketOf(type, charging), index, status == SlotStatus.EMPTY);
+    }
+
+    private void setFree(Chunk chunk, int bucket, int index, boolean free) {
+        if (setBit(chunk.free[bucket], index, free)) {
+            chunk.freeCounts.addAndGet(bucket, free ? 1 : -1);
+            freeTotals.addAndGet(bucket, free ? 1 : -1);
+        }
+    }
+
+    /**
+     * Whether any bucket in the mask has a non-zero count
+     * Counts run a moment behind the bits they count; callers that need the slot read the words.
+     */
+    private static boolean anyCounted(AtomicIntegerArray counts, int buckets) {
+        for (int left = buckets; left != 0; left &= left - 1) {
+            if (counts.get(Integer.numberOfTrailingZeros(left)) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Chunk chunk(int index) {
+        return chunks[index >>> CHUNK_BITS];
+    }
+
+    private static int bucketOf(int type, boolean charging) {
+        return type * 2 + (charging ? 1 : 0);
+    }
+
+    /**
+     * Buckets whose free slots can take a vehicle type, as a bitmask of bucket numbers
+     */
+    private static int fittingBuckets(VehicleType vehicleType, boolean chargingOnly) {
+        int mask = 0;
+        for (SlotType slotType : SLOT_TYPES) {
+            if (slotType.canFit(vehicleType)) {
+                mask |= 1 << bucketOf(slotType.ordinal(), true);
+                if (!chargingOnly) {
+                    mask |= 1 << bucketOf(slotType.ordinal(), false);
+                }
+            }
+        }
+        return mask;
+    }
+
+    private static boolean bit(AtomicLongArray words, int index) {
+        return (words.get((index & CHUNK_MASK) >>> 6) & (1L << index)) != 0;
+    }
+
+    /**
+     * @return Whether the bit changed
+     */
+    private static boolean setBit(AtomicLongArray words, int index, boolean value) {
+        int word = (index & CHUNK_MASK) >>> 6;
+        long mask = 1L << index;
+        // Other slots of the word are updated by other gates, so change only this bit
+        long current;
+        do {
+            current = words.get(word);
+            if (((current & mask) != 0) == value) {
+                return false;
+            }
+        } while (!words.compareAndSet(word, current, current ^ mask));
+        return true;
+    }
+
+    /**
+     * CHUNK_SIZE consecutive slots
+     */
+    private static final class Chunk {
+        final ParkingSlot[] slots = new ParkingSlot[CHUNK_SIZE];
+        final byte[] status = new byte[CHUNK_SIZE];
+        final byte[] type = new byte[CHUNK_SIZE];
+        final AtomicLongArray charging = new AtomicLongArray(WORDS_PER_CHUNK);
+        final AtomicLongArray[] free = new AtomicLongArray[BUCKETS];
+        final AtomicIntegerArray freeCounts = new AtomicIntegerArray(BUCKETS); // set bits per bucket
+
+        Chunk() {
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                free[bucket] = new AtomicLongArray(WORDS_PER_CHUNK);
+            }
+        }
+
+        /**
+         * Free slots of one word in any bucket of the mask
+         */
+        long candidates(int word, int buckets) {
+            long bits = 0;
+            for (int left = buckets; left != 0; left &= left - 1) {
+                bits |= free[Integer.numberOfTrailingZeros(left)].get(word);
+            }
+            return bits;
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package models;
+
+import enums.SlotStatus;
+import enums.SlotType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * One floor's slots ranked by walking distance (Manhattan, along aisles) from a point
+ *
+ * Rankings belong to their floor and are shared: every gate on the floor at the same spot,
+ * and every gate elsewhere that reaches the floor by its ramp, uses the same one. Ranks are
+ * looked up by the slot's column index, and a two-level bitmap per (slot type, charging)
+ * marks which ranks are free. The floor updates its rankings from its own state-change
+ * hook, so a park or exit costs one bitmap update per ranking on that floor however many
+ * gates the lot has.
+ */
+final class SlotRanking {
+    private static final SlotType[] SLOT_TYPES = SlotType.values();
+
+    private final double originX;
+    private final double originY;
+    private final int layoutVersion;
+    private final ParkingSlot[][] order = new ParkingSlot[SLOT_TYPES.length][];
+    private final double[][] distances = new double[SLOT_TYPES.length][];
+    private final RankBitmap[] freeRanks = new RankBitmap[SLOT_TYPES.length * 2];
+    private final int[] rankOfColumn; // rank within the slot's type, by column index
+    private int users; // guarded by the floor's layout lock
+
+    /**
+     * Rank slots; the floor calls this under its layout lock and then seeds the bitmaps
+     */
+    SlotRanking(List<ParkingSlot> slots, double originX, double originY, int layoutVersion) {
+        this.originX = originX;
+        this.originY = originY;
+        this.layoutVersion = layoutVersion;
+
+        List<List<ParkingSlot>> slotsByType = new ArrayList<>();
+        for (int i = 0; i < SLOT_TYPES.length; i++) {
+            slotsByType.add(new ArrayList<>());
+        }
+        int columns = 0;
+        for (ParkingSlot slot : slots) {
+            slotsByType.get(slot.getSlotType().ordinal()).add(slot);
+            columns = Math.max(columns, slot.getColumnIndex() + 1);
+        }
+        this.rankOfColumn = new int[columns];
+
+        for (SlotType slotType : SLOT_TYPES) {
+            int type = slotType.ordinal();
+            ParkingSlot[] ranked = slotsByType.get(type).toArray(new ParkingSlot[0]);
+            // Stable, so equally distant slots keep their floor order
+            Arrays.sort(ranked, (a, b) -> Double.compare(distanceTo(a), distanceTo(b)));
+            order[type] = ranked;
+            distances[type] = new double[ranked.length];
+            freeRanks[type * 2] = new RankBitmap(ranked.length);
+            freeRanks[type * 2 + 1] = new RankBitmap(ranked.length);
+            for (int rank = 0; rank < ranked.length; rank++) {
+                distances[type][rank] = distanceTo(ranked[rank]);
+                rankOfColumn[ranked[rank].getColumnIndex()] = rank;
+            }
+        }
+    }
+
+    private double distanceTo(ParkingSlot slot) {
+        return Math.abs(originX - slot.getX()) + Math.abs(originY - slot.getY());
+    }
+
+    /**
+     * Mark every slot's current state; the ranking must already receive updates
+     */
+    void seed() {
+        for (ParkingSlot[] ranked : order) {
+            for (ParkingSlot slot : ranked) {
+                SlotStatus status;
+                boolean charging;
+                do {
+                    status = slot.getSlotStatus();
+                    charging = slot.isChargingAvailable();
+                    update(slot, !charging, charging, status == SlotStatus.EMPTY);
+                } while (status != slot.getSlotStatus() || charging != slot.isChargingAvailable());
+            }
+        }
+    }
+
+    boolean isFrom(double x, double y) {
+        return originX == x && originY == y;
+    }
+
+    int getLayoutVersion() {
+        return layoutVersion;
+    }
+
+    int acquire() {
+        return ++users;
+    }
+
+    int release() {
+        return --users;
+    }
+
+    /**
+     * Whether the slot was ranked here
+     */
+    boolean contains(ParkingSlot slot) {
+        int column = slot.getColumnIndex();
+        if (column < 0 || column >= rankOfColumn.length) {
+            return false;
+        }
+        ParkingSlot[] ranked = order[slot.getSlotType().ordinal()];
+        int rank = rankOfColumn[column];
+        return rank < ranked.length && ranked[rank] == slot;
+    }
+
+    /**
+     * Distance from the origin of a slot this ranking contains
+     */
+    double distanceOf(ParkingSlot slot) {
+        return distances[slot.getSlotType().ordinal()][rankOfColumn[slot.getColumnIndex()]];
+    }
+
+    /**
+     * @return The first rank at or after from marked free for the slot type and charging flag, or -1
+     */
+    int nextFreeRank(int type, boolean charging, int from) {
+        return freeRanks[type * 2 + (charging ? 1 : 0)].next(from);
+    }
+
+    ParkingSlot slotAt(int type, int rank) {
+        return order[type][rank];
+    }
+
+    double distanceAt(int type, int rank) {
+        return distances[type][rank];
+    }
+
+    /**
+     * Find the nearest free slot that can take the vehicle, if it is nearer than bound
+     * The slot is not claimed; the caller parks into it and retries if another gate wins.
+     *
+     * @return The slot, or null if there is none nearer than bound
+     */
+    ParkingSlot findNearestFreeSlot(Vehicle vehicle, double bound) {
+        ParkingSlot nearest = null;
+        double nearestDistance = bound;
+        boolean chargingOnly = vehicle.requiresCharging();
+
+        for (SlotType slotType : SLOT_TYPES) {
+            if (!slotType.canFit(vehicle.getVehicleType())) {
+                continue;
+            }
+            int type = slotType.ordinal();
+            for (int charging = chargingOnly ? 1 : 0; charging < 2; charging++) {
+                RankBitmap bits = freeRanks[type * 2 + charging];
+                int rank = bits.next(0);
+                // A bit can lag a claim by another gate for a moment; skip such slots
+                while (rank >= 0 && distances[type][rank] < nearestDistance) {
+                    ParkingSlot slot = order[type][rank];
+                    if (slot.getSlotStatus() == SlotStatus.EMPTY) {
+                        nearest = slot;
+                        nearestDistance = distances[type][rank];
+                        break;
+                    }
+                    rank = bits.next(rank + 1);
+                }
+            }
+        }
+        return nearest;
+    }
+
+    /**
+     * Track a slot's state change; called by the floor on the thread that made it
+     */
+    void update(ParkingSlot slot, boolean previousCharging, boolean charging, boolean free) {
+        if (!contains(slot)) {
+            return; // added after this ranking was built; gates rebuild on the layout change
+        }
+        int type = slot.getSlotType().ordinal();
+        int rank = rankOfColumn[slot.getColumnIndex()];
+        if (previousCharging != charging) {
+            freeRanks[type * 2 + (previousCharging ? 1 : 0)].clear(rank);
+        }
+        RankBitmap bits = freeRanks[type * 2 + (charging ? 1 : 0)];
+        if (free) {
+            bits.set(rank);
+        } else {
+            bits.clear(rank);
+        }
+    }
+
+    /**
+     * Concurrent bitmap of free ranks with a summary word per 64 words, so a search
+     * skips long runs of occupied slots 4096 ranks at a time
+     */
+    private static class RankBitmap {
+        private final AtomicLongArray words;
+        private final AtomicLongArray summary; // bit set => word may be non-zero
+
+        RankBitmap(int ranks) {
+            int wordCount = (ranks + 63) >>> 6;
+            this.words = new AtomicLongArray(wordCount);
+            this.summary = new AtomicLongArray((wordCount + 63) >>> 6);
+        }
+
+        void set(int rank) {
+            int word = rank >>> 6;
+            words.accumulateAndGet(word, 1L << (rank & 63), (value, bit) -> value | bit);
+            summary.accumulateAndGet(word >>> 6, 1L << (word & 63), (value, bit) -> value | bit);
+        }
+
+        void clear(int rank) {
+            int word = rank >>> 6;
+            long remaining = words.accumulateAndGet(word, 1L << (rank & 63), (value, bit) -> value & ~bit);
+            if (remaining == 0) {
+                summary.accumulateAndGet(word >>> 6, 1L << (word & 63), (value, bit) -> value & ~bit);
+                // A concurrent set may have landed after the word was seen empty
+                if (words.get(word) != 0) {
+                    summary.accumulateAndGet(word >>> 6, 1L << (word & 63), (value, bit) -> value | bit);
+                }
+            }
+        }
+
+        /**
+         * @return The first set rank at or after from, or -1
+         */
+        int next(int from) {
+            int word = from >>> 6;
+            if (word >= words.length()) {
+                return -1;
+            }
+            long value = words.get(word) & (-1L << (from & 63));
+            while (value == 0) {
+                word = nextCandidateWord(word + 1);
+                if (word < 0) {
+                    return -1;
+                }
+                value = words.get(word);
+            }
+            return (word << 6) + Long.numberOfTrailingZeros(value);
+        }
+
+        private int nextCandidateWord(int from) {
+            int block = from >>> 6;
+            if (from >= words.length()) {
+                return -1;
+            }
+            long value = summary.get(block) & (-1L << (from & 63));
+            while (value == 0) {
+                if (++block == summary.length()) {
+                    return -1;
+                }
+                value = summary.get(block);
+            }
+            return (block << 6) + Long.numberOfTrailingZeros(value);
+        }
+    }
+}
@@ -1,29 +1,72 @@
 package models;
 
+import registry.TicketIdGenerator;
 import java.time.LocalDateTime;
-import java.util.UUID;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Represents a parking ticket issued at entry
  * Follows Single Responsibility Principle - manages ticket information only
  */
 public class Ticket {
-    private UUID ticketId;
+    private long ticketId;
     private Vehicle vehicle;
     private ParkingSlot parkingSlot;
     private LocalDateTime entryTime;
+    private long entryEpochMillis; // same instant as entryTime, for arithmetic without allocation
     private String entryGateId;
+    private final AtomicBoolean checkingOut = new AtomicBoolean(); // an exit gate is settling this ticket
     
     public Ticket(Vehicle vehicle, ParkingSlot parkingSlot, String entryGateId) {
-        this.ticketId = UUID.randomUUID();
+        this.ticketId = TicketIdGenerator.getDefault().nextId();
         this.vehicle = vehicle;
         this.parkingSlot = parkingSlot;
-        this.entryTime = LocalDateTime.now();
+        this.entryEpochMillis = System.currentTimeMillis();
+        this.entryTime = toLocalDateTime(entryEpochMillis);
+        this.entryGateId = entryGateId;
+    }
+    
+    /**
+     * Rebuild a ticket that was issued before a restart
+     * @param ticketId The original ticket ID
+     * @param vehicle The parked vehicle
+     * @param parkingSlot The slot the vehicle occupies
+     * @param entryTime The original entry time
+     * @param entryGateId The gate that issued the ticket
+     */
+    public Ticket(long ticketId, Vehicle vehicle, ParkingSlot parkingSlot, LocalDateTime entryTime,
+                  String entryGateId) {
+        this.ticketId = ticketId;
+        this.vehicle = vehicle;
+        this.parkingSlot = parkingSlot;
+        this.entryTime = entryTime;
+        this.entryEpochMillis = toEpochMillis(entryTime);
+        this.entryGateId = entryGateId;
+    }
+    
+    /**
+     * Rebuild a ticket from its journaled entry instant
+     * Keeps the exact instant, where going through a local time could shift it across a DST change.
+     *
+     * @param ticketId The original ticket ID
+     * @param vehicle The parked vehicle
+     * @param parkingSlot The slot the vehicle occupies
+     * @param entryEpochMillis The original entry time in epoch milliseconds
+     * @param entryGateId The gate that issued the ticket
+     */
+    public Ticket(long ticketId, Vehicle vehicle, ParkingSlot parkingSlot, long entryEpochMillis,
+                  String entryGateId) {
+        this.ticketId = ticketId;
+        this.vehicle = vehicle;
+        this.parkingSlot = parkingSlot;
+        this.entryEpochMillis = entryEpochMillis;
+        this.entryTime = toLocalDateTime(entryEpochMillis);
         this.entryGateId = entryGateId;
     }
     
     // Getters
-    public UUID getTicketId() {
+    public long getTicketId() {
         return ticketId;
     }
     
@@ -39,6 +82,10 @@ public class Ticket {
         return entryTime;
     }
     
+    public long getEntryEpochMillis() {
+        return entryEpochMillis;
+    }
+    
     public String getEntryGateId() {
         return entryGateId;
     }
@@ -54,18 +101,42 @@ public class Ticket {
     
     public void setEntryTime(LocalDateTime entryTime) {
         this.entryTime = entryTime;
+        this.entryEpochMillis = toEpochMillis(entryTime);
     }
     
     public void setEntryGateId(String entryGateId) {
         this.entryGateId = entryGateId;
     }
     
+    /**
+     * Whether an exit gate is settling this ticket right now
+     * The ticket stays active until the payment succeeds.
+     */
+    public boolean isCheckingOut() {
+        return checkingOut.get();
+    }
+    
+    /**
+     * Claim the ticket for one checkout
+     * @return false if another checkout of it is already in progress
+     */
+    boolean beginCheckout() {
+        return checkingOut.compareAndSet(false, true);
+    }
+    
+    /**
+     * Give the ticket back after a checkout whose payment failed
+     */
+    void abortCheckout() {
+        checkingOut.set(false);
+    }
+    
     /**
      * Get the parking duration in hours
      * @return Duration in hours from entry time to now
      */
     public long getParkingDurationInHours() {
-        return java.time.Duration.between(entryTime, LocalDateTime.now()).toHours();
+        return (System.currentTimeMillis() - entryEpochMillis) / 3_600_000L;
     }
     
     /**
@@ -73,7 +144,15 @@ public class Ticket {
      * @return Duration in minutes from entry time to now
      */
     public long getParkingDurationInMinutes() {
-        return java.time.Duration.between(entryTime, LocalDateTime.now()).toMinutes();
+        return (System.currentTimeMillis() - entryEpochMillis) / 60_000L;
+    }
+    
+    private static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+    
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(java.time.Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
     }
     
     @Override
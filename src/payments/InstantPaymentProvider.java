@@ -0,0 +1,25 @@
+package payments;
+
+import enums.Payment;
+import interfaces.PaymentProvider;
+import models.Bill;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Default provider: settles every bill on the spot, as the pay machine always has
+ * Nothing is charged anywhere, so authorizing a bill again just answers the same approval;
+ * the answer is already complete, so a gate never times it out or retries it.
+ */
+public final class InstantPaymentProvider implements PaymentProvider {
+    public static final InstantPaymentProvider INSTANCE = new InstantPaymentProvider();
+    
+    private static final CompletableFuture<Boolean> APPROVED = CompletableFuture.completedFuture(true);
+    
+    private InstantPaymentProvider() {
+    }
+    
+    @Override
+    public CompletableFuture<Boolean> authorize(Bill bill, Payment paymentMethod) {
+        return APPROVED;
+    }
+}
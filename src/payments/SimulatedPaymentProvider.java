@@ -0,0 +1,110 @@
+package payments;
+
+import enums.Payment;
+import interfaces.PaymentProvider;
+import models.Bill;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local stand-in for a remote payment gateway
+ * Answers after a latency of latencyMillis +/- 50%, fails a share of requests with a
+ * transient error and declines another share. Responses come from one timer thread, so
+ * thousands of payments can be in flight without a thread each.
+ *
+ * Like a real gateway it keys charges by bill ID: authorizing a bill that is still in
+ * flight, or was approved or declined within the last RETENTION_MILLIS, returns the same
+ * answer instead of charging again. Only a bill whose attempt failed is charged anew.
+ */
+public class SimulatedPaymentProvider implements PaymentProvider, AutoCloseable {
+    /** How long a settled charge is remembered, well past any gate's retries */
+    public static final long RETENTION_MILLIS = 10 * 60_000L;
+
+    private final long latencyMillis;
+    private final double failureRate;
+    private final double declineRate;
+    private final ScheduledExecutorService timer;
+    private final Map<Long, CompletableFuture<Boolean>> charges = new ConcurrentHashMap<>(); // by bill ID
+
+    /**
+     * @param latencyMillis Mean response time
+     * @param failureRate Share of requests failing with a transient error (0-1)
+     * @param declineRate Share of requests declined (0-1)
+     */
+    public SimulatedPaymentProvider(long latencyMillis, double failureRate, double declineRate) {
+        if (latencyMillis < 0 || failureRate < 0 || declineRate < 0 || failureRate + declineRate > 1) {
+            throw new IllegalArgumentException("Invalid payment simulation settings");
+        }
+        this.latencyMillis = latencyMillis;
+        this.failureRate = failureRate;
+        this.declineRate = declineRate;
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "simulated-payment-gateway");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        this.timer = executor;
+    }
+
+    /**
+     * Parse "latencyMillis[:failureRate[:declineRate]]", e.g. "250:0.05"
+     */
+    public static SimulatedPaymentProvider parse(String spec) {
+        String[] parts = spec.split(":");
+        return new SimulatedPaymentProvider(Long.parseLong(parts[0]),
+                parts.length > 1 ? Double.parseDouble(parts[1]) : 0.0,
+                parts.length > 2 ? Double.parseDouble(parts[2]) : 0.0);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> authorize(Bill bill, Payment paymentMethod) {
+        long billId = bill.getBillId();
+        CompletableFuture<Boolean> charge = new CompletableFuture<>();
+        CompletableFuture<Boolean> earlier = charges.putIfAbsent(billId, charge);
+        while (earlier != null) {
+            if (!earlier.isCompletedExceptionally()) {
+                return earlier;
+            }
+            // The earlier attempt failed without charging, so this one may go ahead
+            if (charges.replace(billId, earlier, charge)) {
+                break;
+            }
+            earlier = charges.putIfAbsent(billId, charge);
+        }
+        charge.whenComplete((approved, failure) -> {
+            if (failure == null) {
+                timer.schedule(() -> charges.remove(billId, charge), RETENTION_MILLIS, TimeUnit.MILLISECONDS);
+            } else {
+                charges.remove(billId, charge);
+            }
+        });
+        respond(charge);
+        return charge;
+    }
+
+    private void respond(CompletableFuture<Boolean> response) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long delay = latencyMillis == 0 ? 0 : latencyMillis / 2 + random.nextLong(latencyMillis + 1);
+        double outcome = random.nextDouble();
+
+        timer.schedule(() -> {
+            if (outcome < failureRate) {
+                response.completeExceptionally(new IOException("Payment gateway unavailable"));
+            } else {
+                response.complete(outcome >= failureRate + declineRate);
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        timer.shutdownNow();
+    }
+}
@@ -0,0 +1,191 @@
+package persistence;
+
+import enums.SlotStatus;
+import enums.SlotType;
+import interfaces.SlotStateStore;
+import models.ParkingSlot;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Persistence mirror of every slot's layout and state in a memory-mapped file
+ *
+ * Each slot has one fixed 48-byte record, written through on every state change. The mirror
+ * does not replace the heap state: the floor still keeps a ParkingSlot per bay, so a million
+ * bays cost 48 MB of page cache on top of the heap. What it buys is a restart that needs no
+ * layout configuration: a ParkingFloor built over the mirror gets back its slots with their
+ * stored IDs, types, charging flags and maintenance status.
+ *
+ * Occupants are not restored. A vehicle is only known to the lot through its ticket, and
+ * tickets live in the TicketJournal, so FILLED slots come back EMPTY and journal recovery
+ * parks each ticketed vehicle back into its slot. Reservation holds come back EMPTY as well;
+ * the reservation book takes them again.
+ *
+ * Record layout:
+ *   [0]  int state - slot type (2 bits), charging (1), status (2)
+ *   [4]  int floor number
+ *   [8]  int slot number
+ *   [12] int slot ID length
+ *   [16] 32 bytes of slot ID (UTF-8)
+ */
+public class MappedSlotMirror implements SlotStateStore, AutoCloseable {
+    private static final int MAGIC = 0x504B5354; // "PKST"
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 16;
+    private static final int RECORD_SIZE = 48;
+    private static final int ID_LENGTH_OFFSET = 12;
+    private static final int ID_OFFSET = 16;
+    public static final int MAX_SLOT_ID_BYTES = 32;
+    private static final VarHandle INT_VIEW =
+            MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+
+    private static final SlotType[] SLOT_TYPES = SlotType.values();
+    private static final SlotStatus[] SLOT_STATUSES = SlotStatus.values();
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private int count;
+
+    private MappedSlotMirror(FileChannel channel, MappedByteBuffer buffer, int capacity, int count) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.capacity = capacity;
+        this.count = count;
+    }
+
+    /**
+     * Open an existing mirror, or create one able to hold capacity slots
+     *
+     * @param file Backing file
+     * @param capacity Number of slot records to size a new file for (ignored for existing files)
+     * @return The mapped mirror
+     */
+    public static MappedSlotMirror open(Path file, int capacity) throws IOException {
+        boolean exists = Files.exists(file) && Files.size(file) >= HEADER_SIZE;
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        if (exists) {
+            long size = channel.size();
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || buffer.getInt(12) != RECORD_SIZE) {
+                channel.close();
+                throw new IOException("Not a slot mirror: " + file);
+            }
+            int existingCapacity = (int) ((size - HEADER_SIZE) / RECORD_SIZE);
+            return new MappedSlotMirror(channel, buffer, existingCapacity, buffer.getInt(8));
+        }
+
+        long size = HEADER_SIZE + (long) RECORD_SIZE * capacity;
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putInt(8, 0);
+        buffer.putInt(12, RECORD_SIZE);
+        return new MappedSlotMirror(channel, buffer, capacity, 0);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the slot ID is longer than MAX_SLOT_ID_BYTES
+     */
+    @Override
+    public synchronized int allocate(ParkingSlot slot) {
+        byte[] slotId = slot.getSlotId().getBytes(StandardCharsets.UTF_8);
+        if (slotId.length > MAX_SLOT_ID_BYTES) {
+            throw new IllegalArgumentException("Slot ID " + slot.getSlotId() + " is longer than "
+                    + MAX_SLOT_ID_BYTES + " bytes");
+        }
+        if (count >= capacity) {
+            throw new IllegalStateException("Slot mirror is full (" + capacity + " records)");
+        }
+        int index = count;
+        int offset = offsetOf(index);
+        buffer.putInt(offset + 4, slot.getFloorNumber());
+        buffer.putInt(offset + 8, slot.getSlotNumber());
+        buffer.putInt(offset + ID_LENGTH_OFFSET, slotId.length);
+        buffer.put(offset + ID_OFFSET, slotId);
+        save(index, slot);
+        count = index + 1;
+        buffer.putInt(8, count);
+        return index;
+    }
+
+    /**
+     * Write the slot's state word; a single int store, so it neither allocates nor locks
+     */
+    @Override
+    public void save(int index, ParkingSlot slot) {
+        int state = slot.getSlotType().ordinal()
+                | (slot.isChargingAvailable() ? 1 : 0) << 2
+                | slot.getSlotStatus().ordinal() << 3;
+        INT_VIEW.setRelease(buffer, offsetOf(index), state);
+    }
+
+    @Override
+    public synchronized int size() {
+        return count;
+    }
+
+    @Override
+    public int floorOf(int index) {
+        return buffer.getInt(offsetOf(index) + 4);
+    }
+
+    /**
+     * Rebuild the slot with its stored ID, type, charging flag and maintenance status
+     * Occupied and held slots come back EMPTY; see the class comment.
+     */
+    @Override
+    public ParkingSlot restore(int index) {
+        int offset = offsetOf(index);
+        int state = (int) INT_VIEW.getAcquire(buffer, offset);
+        int floor = buffer.getInt(offset + 4);
+        int slotNumber = buffer.getInt(offset + 8);
+        byte[] slotId = new byte[buffer.getInt(offset + ID_LENGTH_OFFSET)];
+        buffer.get(offset + ID_OFFSET, slotId);
+        SlotType slotType = SLOT_TYPES[state & 0x3];
+        boolean charging = (state >> 2 & 0x1) == 1;
+        SlotStatus status = SLOT_STATUSES[state >> 3 & 0x3];
+
+        ParkingSlot slot = new ParkingSlot(new String(slotId, StandardCharsets.UTF_8), slotType, charging,
+                floor, slotNumber);
+        if (status == SlotStatus.MAINTENANCE) {
+            slot.setSlotStatus(status);
+        }
+        return slot;
+    }
+
+    private int offsetOf(int index) {
+        if (index < 0 || index >= capacity) {
+            throw new IndexOutOfBoundsException("Slot record " + index + " outside mirror of " + capacity);
+        }
+        return HEADER_SIZE + index * RECORD_SIZE;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Force dirty pages to disk; the OS writes them back eventually anyway
+     */
+    public void force() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+}
@@ -0,0 +1,814 @@
+package persistence;
+
+import enums.FuelType;
+import enums.VehicleType;
+import models.ParkingFloor;
+import models.ParkingLot;
+import models.ParkingSlot;
+import models.Ticket;
+import models.Vehicle;
+import registry.PlateKeys;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only binary journal of park and exit events, with snapshots and crash recovery
+ *
+ * Records are encoded straight into an in-memory commit buffer and written by a background
+ * flusher (group commit): every flush writes all records appended since the previous one,
+ * and every fsyncEveryFlushes-th flush forces them to disk. A park or exit reserves its bytes
+ * in the buffer with one atomic add and encodes the record there, so it neither allocates
+ * nor takes a journal-wide lock. With waitForCommit enabled, park/exit calls block until
+ * the flush that carries their record is done.
+ *
+ * A snapshot rolls the journal to a new segment, writes every active ticket and deletes the
+ * segments it supersedes. Recovery loads the snapshot and replays the segments after it.
+ *
+ * Layout of a record: [int payloadLength][int crc32][payload]
+ * PARK payload: type, ticketId, entry millis, floor, slot number, vehicle type, fuel type, plate, gate
+ * EXIT payload: type, plate
+ */
+public class TicketJournal implements AutoCloseable {
+    private static final byte PARK = 1;
+    private static final byte EXIT = 2;
+    private static final int PARK_FIXED_LENGTH = 1 + 8 + 8 + 4 + 4 + 1 + 1; // up to the plate
+    private static final int RECORD_HEADER_LENGTH = 8;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int SNAPSHOT_MAGIC = 0x504B534E; // "PKSN"
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String SNAPSHOT_FILE = "snapshot.bin";
+    private static final VehicleType[] VEHICLE_TYPES = VehicleType.values();
+    private static final FuelType[] FUEL_TYPES = FuelType.values();
+    private static final ThreadLocal<CRC32> CHECKSUMS = ThreadLocal.withInitial(CRC32::new);
+
+    private final Path directory;
+    private final int fsyncEveryFlushes;
+    private final long flushIntervalMillis;
+    private final boolean waitForCommit;
+    private final Object ioLock = new Object();
+    private final Thread flusher;
+    private Thread snapshotter;
+
+    private volatile CommitBuffer activeBuffer = new CommitBuffer(ByteBuffer.allocate(BUFFER_SIZE), 0);
+    private final Queue<CommitBuffer> sealedBuffers = new ConcurrentLinkedQueue<>(); // in journal order
+    private final AtomicReference<ByteBuffer> spareBuffer = new AtomicReference<>(); // flushed, ready for reuse
+    private volatile long committedOffset; // journal bytes written by finished flushes
+    private volatile boolean open = true;
+
+    // Guarded by ioLock
+    private int segmentNumber;
+    private FileChannel channel;
+    private int flushesSinceSync;
+
+    /**
+     * Open a journal in the given directory, starting a fresh segment after any existing ones
+     *
+     * @param directory Directory holding segments and the snapshot
+     * @param fsyncEveryFlushes Force to disk every N flushes (1 = every flush, 0 = leave it to the OS)
+     * @param flushIntervalMillis Maximum time a record waits in memory before being written
+     * @param waitForCommit Whether park/exit wait until their record has been flushed
+     */
+    public TicketJournal(Path directory, int fsyncEveryFlushes, long flushIntervalMillis,
+                         boolean waitForCommit) throws IOException {
+        if (fsyncEveryFlushes < 0 || flushIntervalMillis <= 0) {
+            throw new IllegalArgumentException("Invalid journal flush settings");
+        }
+        this.directory = Files.createDirectories(directory);
+        this.fsyncEveryFlushes = fsyncEveryFlushes;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.waitForCommit = waitForCommit;
+        this.segmentNumber = highestSegment(directory) + 1;
+        this.channel = openSegment(segmentNumber);
+        this.flusher = new Thread(this::flushLoop, "ticket-journal-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * One group-commit buffer
+     * Writers reserve space by adding their record length to reserved and encode the record
+     * at the offset they got; written counts the bytes already encoded. The reservation that
+     * first crosses the capacity seals the buffer at its own offset and installs the next
+     * buffer; reservations after it land past the end and retry on that one.
+     */
+    private static final class CommitBuffer {
+        final ByteBuffer bytes;
+        final int capacity;
+        final long startOffset; // journal offset of the first byte, for commit waits
+        final AtomicLong reserved = new AtomicLong();
+        final AtomicInteger written = new AtomicInteger();
+        volatile int sealedAt = -1;
+
+        CommitBuffer(ByteBuffer bytes, long startOffset) {
+            this.bytes = bytes;
+            this.capacity = bytes.capacity();
+            this.startOffset = startOffset;
+        }
+    }
+
+    /**
+     * Journal a park event
+     * @param ticket The ticket just issued
+     */
+    public void recordPark(Ticket ticket) {
+        ensureOpen();
+        // Read everything before reserving: a reserved record must always be completed
+        ParkingSlot slot = ticket.getParkingSlot();
+        Vehicle vehicle = ticket.getVehicle();
+        long ticketId = ticket.getTicketId();
+        long entryMillis = ticket.getEntryEpochMillis();
+        int floor = slot.getFloorNumber();
+        int slotNumber = slot.getSlotNumber();
+        byte vehicleType = (byte) vehicle.getVehicleType().ordinal();
+        byte fuelType = (byte) vehicle.getFuelType().ordinal();
+        String plate = vehicle.getVehicleNo();
+        String gate = ticket.getEntryGateId();
+        int plateLength = utf8Length(plate);
+        int gateLength = utf8Length(gate);
+        int payloadLength = PARK_FIXED_LENGTH + 2 + plateLength + 2 + gateLength;
+
+        CommitBuffer buffer;
+        int at;
+        do {
+            buffer = activeBuffer;
+            at = reserve(buffer, RECORD_HEADER_LENGTH + payloadLength);
+        } while (at < 0);
+        ByteBuffer bytes = buffer.bytes;
+        int position = at + RECORD_HEADER_LENGTH;
+        bytes.put(position, PARK);
+        bytes.putLong(position + 1, ticketId);
+        bytes.putLong(position + 9, entryMillis);
+        bytes.putInt(position + 17, floor);
+        bytes.putInt(position + 21, slotNumber);
+        bytes.put(position + 25, vehicleType);
+        bytes.put(position + 26, fuelType);
+        position = putString(bytes, position + PARK_FIXED_LENGTH, plate, plateLength);
+        putString(bytes, position, gate, gateLength);
+        awaitCommitIfRequired(complete(buffer, at, payloadLength));
+    }
+
+    /**
+     * Journal an exit event
+     * @param vehicleNo The vehicle that left
+     */
+    public void recordExit(String vehicleNo) {
+        ensureOpen();
+        int plateLength = utf8Length(vehicleNo);
+        int payloadLength = 1 + 2 + plateLength;
+
+        CommitBuffer buffer;
+        int at;
+        do {
+            buffer = activeBuffer;
+            at = reserve(buffer, RECORD_HEADER_LENGTH + payloadLength);
+        } while (at < 0);
+        buffer.bytes.put(at + RECORD_HEADER_LENGTH, EXIT);
+        putString(buffer.bytes, at + RECORD_HEADER_LENGTH + 1, vehicleNo, plateLength);
+        awaitCommitIfRequired(complete(buffer, at, payloadLength));
+    }
+
+    /**
+     * Reserve space for a record in a commit buffer
+     * @return Offset of the record in the buffer, or -1 if the buffer is full and the caller
+     *         should retry on the active one
+     */
+    private int reserve(CommitBuffer buffer, int recordLength) {
+        long start = buffer.reserved.getAndAdd(recordLength);
+        if (start + recordLength <= buffer.capacity) {
+            return (int) start;
+        }
+        if (start <= buffer.capacity) {
+            seal(buffer, (int) start, recordLength);
+        } else {
+            Thread.yield(); // another thread is sealing it
+        }
+        return -1;
+    }
+
+    /**
+     * Close a full buffer at the given length and make a fresh one active
+     * Queued before the new buffer is published, so buffers are flushed in journal order.
+     */
+    private void seal(CommitBuffer buffer, int end, int nextRecordLength) {
+        buffer.sealedAt = end;
+        ByteBuffer bytes = spareBuffer.getAndSet(null);
+        if (bytes == null || bytes.capacity() < nextRecordLength) {
+            bytes = ByteBuffer.allocate(Math.max(BUFFER_SIZE, nextRecordLength));
+        }
+        sealedBuffers.add(buffer);
+        activeBuffer = new CommitBuffer(bytes, buffer.startOffset + end);
+    }
+
+    /**
+     * Fill in the header of an encoded record and hand it to the flusher
+     * @return Journal offset just past the record, to wait for its commit
+     */
+    private static long complete(CommitBuffer buffer, int at, int payloadLength) {
+        CRC32 crc = CHECKSUMS.get();
+        crc.reset();
+        crc.update(buffer.bytes.array(), at + RECORD_HEADER_LENGTH, payloadLength);
+        buffer.bytes.putInt(at, payloadLength);
+        buffer.bytes.putInt(at + 4, (int) crc.getValue());
+        buffer.written.addAndGet(RECORD_HEADER_LENGTH + payloadLength);
+        return buffer.startOffset + at + RECORD_HEADER_LENGTH + payloadLength;
+    }
+
+    /**
+     * Number of bytes String.getBytes(UTF_8) would produce, without producing them
+     */
+    private static int utf8Length(String value) {
+        int length = value.length();
+        int bytes = length;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                continue;
+            }
+            if (c < 0x800) {
+                bytes += 1;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                bytes += 2; // 4 bytes for the pair
+                i++;
+            } else if (!Character.isSurrogate(c)) {
+                bytes += 2;
+            } // an unpaired surrogate is written as '?'
+        }
+        return bytes;
+    }
+
+    /**
+     * Write a length-prefixed UTF-8 string at an absolute index, as String.getBytes(UTF_8) encodes it
+     * @return Index just past the string
+     */
+    private static int putString(ByteBuffer buffer, int index, String value, int encodedLength) {
+        buffer.putShort(index, (short) encodedLength);
+        index += 2;
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                buffer.put(index++, (byte) c);
+            } else if (c < 0x800) {
+                buffer.put(index++, (byte) (0xC0 | c >> 6));
+                buffer.put(index++, (byte) (0x80 | c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer.put(index++, (byte) (0xF0 | codePoint >> 18));
+                buffer.put(index++, (byte) (0x80 | codePoint >> 12 & 0x3F));
+                buffer.put(index++, (byte) (0x80 | codePoint >> 6 & 0x3F));
+                buffer.put(index++, (byte) (0x80 | codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                buffer.put(index++, (byte) '?');
+            } else {
+                buffer.put(index++, (byte) (0xE0 | c >> 12));
+                buffer.put(index++, (byte) (0x80 | c >> 6 & 0x3F));
+                buffer.put(index++, (byte) (0x80 | c & 0x3F));
+            }
+        }
+        return index;
+    }
+
+    private void awaitCommitIfRequired(long offset) {
+        if (!waitForCommit || committedOffset >= offset) {
+            return;
+        }
+        synchronized (this) {
+            while (committedOffset < offset && open) {
+                try {
+                    wait(flushIntervalMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void flushLoop() {
+        while (open) {
+            try {
+                Thread.sleep(flushIntervalMillis);
+                flush();
+            } catch (InterruptedException e) {
+                return;
+            } catch (IOException e) {
+                System.err.println("Journal flush failed: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Write every buffered record to the current segment (one group commit)
+     */
+    public void flush() throws IOException {
+        synchronized (ioLock) {
+            CommitBuffer current = activeBuffer;
+            if (current.reserved.get() > 0) {
+                // Reserve the rest of the buffer so every later record goes to the next one
+                long start = current.reserved.getAndAdd(current.capacity + 1);
+                if (start <= current.capacity) {
+                    seal(current, (int) start, 0);
+                } else {
+                    while (activeBuffer == current) {
+                        Thread.yield(); // a writer is sealing it
+                    }
+                }
+            }
+
+            CommitBuffer sealed = sealedBuffers.poll();
+            if (sealed == null) {
+                return;
+            }
+            long committed = committedOffset;
+            for (; sealed != null; sealed = sealedBuffers.poll()) {
+                int end = sealed.sealedAt;
+                while (sealed.written.get() < end) {
+                    Thread.yield(); // records still being encoded
+                }
+                ByteBuffer toWrite = sealed.bytes;
+                toWrite.limit(end).position(0);
+                while (toWrite.hasRemaining()) {
+                    channel.write(toWrite);
+                }
+                committed = sealed.startOffset + end;
+                if (toWrite.capacity() == BUFFER_SIZE) {
+                    toWrite.clear();
+                    spareBuffer.set(toWrite);
+                }
+            }
+            if (fsyncEveryFlushes > 0 && ++flushesSinceSync >= fsyncEveryFlushes) {
+                channel.force(false);
+                flushesSinceSync = 0;
+            }
+
+            committedOffset = committed;
+            if (waitForCommit) {
+                synchronized (this) {
+                    notifyAll();
+                }
+            }
+        }
+    }
+
+    /**
+     * Write a snapshot of the active tickets and drop the segments it replaces
+     * The lot registers a ticket before journaling its park, keeps it registered while its
+     * checkout is pending, and unregisters it before journaling its exit. So every record
+     * in a dropped segment is already reflected in the ticket collection when it is read.
+     *
+     * @param activeTickets Live view of the lot's active tickets
+     */
+    public void writeSnapshot(Collection<Ticket> activeTickets) throws IOException {
+        int firstLiveSegment;
+        synchronized (ioLock) {
+            flush();
+            channel.force(false);
+            channel.close();
+            segmentNumber++;
+            channel = openSegment(segmentNumber);
+            firstLiveSegment = segmentNumber;
+        }
+
+        ByteBuffer records = ByteBuffer.allocate(64 * 1024);
+        int count = 0;
+        for (Ticket ticket : activeTickets) {
+            records = ensureCapacity(records, 256 + ticket.getVehicle().getVehicleNo().length() * 4
+                    + ticket.getEntryGateId().length() * 4);
+            writeParkPayload(records, ticket);
+            count++;
+        }
+        records.flip();
+
+        Path temporary = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(12);
+            header.putInt(SNAPSHOT_MAGIC).putInt(firstLiveSegment).putInt(count).flip();
+            out.write(header);
+            while (records.hasRemaining()) {
+                out.write(records);
+            }
+            out.force(true);
+        }
+        Files.move(temporary, directory.resolve(SNAPSHOT_FILE),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        for (int segment : listSegments(directory)) {
+            if (segment < firstLiveSegment) {
+                Files.deleteIfExists(segmentPath(directory, segment));
+            }
+        }
+    }
+
+    /**
+     * Take a snapshot on a fixed schedule
+     * @param activeTickets Supplies the live ticket view at snapshot time
+     * @param intervalMillis Time between snapshots
+     */
+    public synchronized void startPeriodicSnapshots(Supplier<Collection<Ticket>> activeTickets, long intervalMillis) {
+        if (snapshotter != null) {
+            throw new IllegalStateException("Periodic snapshots already running");
+        }
+        snapshotter = new Thread(() -> {
+            while (open) {
+                try {
+                    Thread.sleep(intervalMillis);
+                    writeSnapshot(activeTickets.get());
+                } catch (InterruptedException e) {
+                    return;
+                } catch (IOException e) {
+                    System.err.println("Journal snapshot failed: " + e.getMessage());
+                }
+            }
+        }, "ticket-journal-snapshotter");
+        snapshotter.setDaemon(true);
+        snapshotter.start();
+    }
+
+    private static void writeParkPayload(ByteBuffer buffer, Ticket ticket) {
+        String plate = ticket.getVehicle().getVehicleNo();
+        String gate = ticket.getEntryGateId();
+        int plateLength = utf8Length(plate);
+        int gateLength = utf8Length(gate);
+        buffer.putInt(PARK_FIXED_LENGTH + 2 + plateLength + 2 + gateLength);
+        buffer.put(PARK);
+        buffer.putLong(ticket.getTicketId());
+        buffer.putLong(ticket.getEntryEpochMillis());
+        buffer.putInt(ticket.getParkingSlot().getFloorNumber());
+        buffer.putInt(ticket.getParkingSlot().getSlotNumber());
+        buffer.put((byte) ticket.getVehicle().getVehicleType().ordinal());
+        buffer.put((byte) ticket.getVehicle().getFuelType().ordinal());
+        int end = putString(buffer, buffer.position(), plate, plateLength);
+        buffer.position(putString(buffer, end, gate, gateLength));
+    }
+
+    private static ByteBuffer ensureCapacity(ByteBuffer buffer, int needed) {
+        if (buffer.remaining() >= needed) {
+            return buffer;
+        }
+        ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + needed));
+        buffer.flip();
+        larger.put(buffer);
+        return larger;
+    }
+
+    private void ensureOpen() {
+        if (!open) {
+            throw new IllegalStateException("Journal is closed");
+        }
+    }
+
+    private FileChannel openSegment(int segment) throws IOException {
+        return FileChannel.open(segmentPath(directory, segment), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        synchronized (this) {
+            open = false;
+            notifyAll();
+        }
+        flusher.interrupt();
+        if (snapshotter != null) {
+            snapshotter.interrupt();
+        }
+        synchronized (ioLock) {
+            channel.force(true);
+            channel.close();
+        }
+    }
+
+    // ---------------------------------------------------------------- recovery
+
+    /**
+     * Outcome of a recovery run
+     */
+    public static class RecoveryResult {
+        private final int restoredTickets;
+        private final int unrestorableTickets;
+        private final long replayedRecords;
+        private final long elapsedMillis;
+
+        RecoveryResult(int restoredTickets, int unrestorableTickets, long replayedRecords, long elapsedMillis) {
+            this.restoredTickets = restoredTickets;
+            this.unrestorableTickets = unrestorableTickets;
+            this.replayedRecords = replayedRecords;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public int getRestoredTickets() {
+            return restoredTickets;
+        }
+
+        public int getUnrestorableTickets() {
+            return unrestorableTickets;
+        }
+
+        public long getReplayedRecords() {
+            return replayedRecords;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        @Override
+        public String toString() {
+            return "RecoveryResult{" +
+                    "restoredTickets=" + restoredTickets +
+                    ", unrestorableTickets=" + unrestorableTickets +
+                    ", replayedRecords=" + replayedRecords +
+                    ", elapsedMillis=" + elapsedMillis +
+                    '}';
+        }
+    }
+
+    /**
+     * Where the latest park record of each plate still parked sits in the mapped journal files
+     * Plates are packed by PlateKeys into a linear-probing table of longs, so replaying a park
+     * or an exit decodes no strings and allocates nothing; plates PlateKeys cannot pack go to
+     * a HashMap. A location is the file's index in the upper half and the park payload's
+     * offset in the lower half.
+     */
+    private static final class ParkLocations {
+        private long[] keys = new long[1 << 12]; // 0 marks an empty slot
+        private long[] locations = new long[1 << 12];
+        private int count;
+        private final Map<String, Long> unpacked = new HashMap<>();
+
+        /**
+         * @param plateIndex Index of the plate's length prefix in the file
+         */
+        void put(ByteBuffer file, int plateIndex, long location) {
+            long key = PlateKeys.encode(file, plateIndex + 2, file.getShort(plateIndex) & 0xFFFF);
+            if (key == PlateKeys.NOT_ENCODABLE) {
+                unpacked.put(readString(file, plateIndex), location);
+                return;
+            }
+            int mask = keys.length - 1;
+            int index = indexOf(key, mask);
+            while (keys[index] != 0 && keys[index] != key) {
+                index = (index + 1) & mask;
+            }
+            boolean added = keys[index] == 0;
+            keys[index] = key;
+            locations[index] = location;
+            if (added && ++count * 2 > keys.length) {
+                resize(keys.length * 2);
+            }
+        }
+
+        void remove(ByteBuffer file, int plateIndex) {
+            long key = PlateKeys.encode(file, plateIndex + 2, file.getShort(plateIndex) & 0xFFFF);
+            if (key == PlateKeys.NOT_ENCODABLE) {
+                unpacked.remove(readString(file, plateIndex));
+                return;
+            }
+            int mask = keys.length - 1;
+            int index = indexOf(key, mask);
+            while (keys[index] != key) {
+                if (keys[index] == 0) {
+                    return;
+                }
+                index = (index + 1) & mask;
+            }
+            // Backward-shift deletion keeps probe chains intact without tombstones
+            int gap = index;
+            int next = index;
+            while (true) {
+                next = (next + 1) & mask;
+                long candidate = keys[next];
+                if (candidate == 0) {
+                    break;
+                }
+                int home = indexOf(candidate, mask);
+                if (((next - home) & mask) >= ((next - gap) & mask)) {
+                    keys[gap] = candidate;
+                    locations[gap] = locations[next];
+                    gap = next;
+                }
+            }
+            keys[gap] = 0;
+            count--;
+        }
+
+        /**
+         * @return Every location held, in no particular order
+         */
+        long[] locations() {
+            long[] all = new long[count + unpacked.size()];
+            int next = 0;
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != 0) {
+                    all[next++] = locations[i];
+                }
+            }
+            for (long location : unpacked.values()) {
+                all[next++] = location;
+            }
+            return all;
+        }
+
+        private void resize(int capacity) {
+            long[] oldKeys = keys;
+            long[] oldLocations = locations;
+            keys = new long[capacity];
+            locations = new long[capacity];
+            int mask = capacity - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    int index = indexOf(oldKeys[i], mask);
+                    while (keys[index] != 0) {
+                        index = (index + 1) & mask;
+                    }
+                    keys[index] = oldKeys[i];
+                    locations[index] = oldLocations[i];
+                }
+            }
+        }
+
+        private static int indexOf(long key, int mask) {
+            return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+        }
+    }
+
+    /**
+     * Rebuild slot occupancy and active tickets of a freshly configured lot
+     * Call before attaching a new journal to the lot. A torn record at the end of a
+     * segment (crash mid-write) ends the replay of that segment. Replay only tracks where
+     * each plate's latest park record is; tickets are decoded for the plates still parked.
+     *
+     * @param directory Journal directory
+     * @param parkingLot Lot with its floors and slots configured but no vehicles parked
+     * @return What was restored
+     */
+    public static RecoveryResult recover(Path directory, ParkingLot parkingLot) throws IOException {
+        long started = System.nanoTime();
+        List<ByteBuffer> files = new ArrayList<>();
+        ParkLocations active = new ParkLocations();
+        long replayed = 0;
+        int firstSegment = 0;
+
+        Path snapshot = directory.resolve(SNAPSHOT_FILE);
+        if (Files.exists(snapshot)) {
+            ByteBuffer buffer = map(snapshot);
+            files.add(buffer);
+            if (buffer.getInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("Not a ticket journal snapshot: " + snapshot);
+            }
+            firstSegment = buffer.getInt();
+            int count = buffer.getInt();
+            for (int i = 0; i < count; i++) {
+                int length = buffer.getInt();
+                int payloadStart = buffer.position();
+                active.put(buffer, payloadStart + PARK_FIXED_LENGTH, payloadStart);
+                buffer.position(payloadStart + length);
+            }
+        }
+
+        for (int segment : listSegments(directory)) {
+            if (segment >= firstSegment) {
+                files.add(map(segmentPath(directory, segment)));
+                replayed += replaySegment(files.get(files.size() - 1), files.size() - 1, active);
+            }
+        }
+
+        int restored = 0;
+        int unrestorable = 0;
+        for (long location : active.locations()) {
+            ByteBuffer file = files.get((int) (location >>> 32));
+            int at = (int) location;
+            ParkingFloor floor = parkingLot.getFloor(file.getInt(at + 17));
+            ParkingSlot slot = floor == null ? null : floor.getSlotByNumber(file.getInt(at + 21));
+            if (slot == null) {
+                unrestorable++;
+                continue;
+            }
+            int plateIndex = at + PARK_FIXED_LENGTH;
+            Vehicle vehicle = new Vehicle(readString(file, plateIndex), VEHICLE_TYPES[file.get(at + 25)],
+                    FUEL_TYPES[file.get(at + 26)]);
+            String entryGateId = readString(file, plateIndex + 2 + (file.getShort(plateIndex) & 0xFFFF));
+            Ticket ticket = new Ticket(file.getLong(at + 1), vehicle, slot, file.getLong(at + 9), entryGateId);
+            if (parkingLot.restoreTicket(ticket)) {
+                restored++;
+            } else {
+                unrestorable++;
+            }
+        }
+
+        return new RecoveryResult(restored, unrestorable, replayed,
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private static long replaySegment(ByteBuffer buffer, int fileIndex, ParkLocations active) {
+        CRC32 checksum = new CRC32();
+        long records = 0;
+
+        while (buffer.remaining() >= RECORD_HEADER_LENGTH) {
+            int length = buffer.getInt();
+            int expectedCrc = buffer.getInt();
+            if (length <= 0 || length > buffer.remaining()) {
+                break; // torn tail
+            }
+            int payloadStart = buffer.position();
+            int limit = buffer.limit();
+            checksum.reset();
+            buffer.limit(payloadStart + length);
+            checksum.update(buffer);
+            buffer.limit(limit);
+            if ((int) checksum.getValue() != expectedCrc) {
+                break; // torn tail
+            }
+
+            byte type = buffer.get(payloadStart);
+            if (type == PARK) {
+                active.put(buffer, payloadStart + PARK_FIXED_LENGTH, (long) fileIndex << 32 | payloadStart);
+            } else if (type == EXIT) {
+                active.remove(buffer, payloadStart + 1);
+            }
+            buffer.position(payloadStart + length);
+            records++;
+        }
+        return records;
+    }
+
+    /**
+     * Decode a length-prefixed UTF-8 string at an absolute index
+     */
+    private static String readString(ByteBuffer buffer, int index) {
+        int length = buffer.getShort(index) & 0xFFFF;
+        if (buffer.hasArray()) {
+            return new String(buffer.array(), buffer.arrayOffset() + index + 2, length, StandardCharsets.UTF_8);
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(index + 2, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static ByteBuffer map(Path file) throws IOException {
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+            return buffer;
+        }
+    }
+
+    private static Path segmentPath(Path directory, int segment) {
+        return directory.resolve(String.format("%s%08d%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX));
+    }
+
+    private static List<Integer> listSegments(Path directory) throws IOException {
+        List<Integer> segments = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return segments;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    segments.add(Integer.parseInt(name.substring(SEGMENT_PREFIX.length(),
+                            name.length() - SEGMENT_SUFFIX.length())));
+                } catch (NumberFormatException e) {
+                    // Not one of ours
+                }
+            }
+        }
+        segments.sort(null);
+        return segments;
+    }
+
+    private static int highestSegment(Path directory) {
+        try {
+            List<Integer> segments = listSegments(directory);
+            return segments.isEmpty() ? 0 : segments.get(segments.size() - 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package registry;
+
+import models.EntryGate;
+import models.ExitGate;
+import models.ParkingFloor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Floors and gates of a lot, indexed for the per-request path
+ *
+ * Everything lives in one immutable Layout published through a volatile reference; adding
+ * a floor or gate copies the layout and swaps it in. Readers therefore get unmodifiable
+ * lists they can keep and iterate without copying, and look gates up by ID in one hash
+ * probe - no streams, no lambdas, no locks. Each gate also gets a dense integer handle, its
+ * position in getEntryGates() or getExitGates(), for callers that resolve a gate once and
+ * then address it by index. Gate IDs must be unique.
+ */
+public class GateRegistry {
+    private volatile Layout layout = Layout.EMPTY;
+
+    public List<ParkingFloor> getFloors() {
+        return layout.floors;
+    }
+
+    public List<EntryGate> getEntryGates() {
+        return layout.entryGates;
+    }
+
+    public List<ExitGate> getExitGates() {
+        return layout.exitGates;
+    }
+
+    /**
+     * @return The floor with this ID, or null
+     */
+    public ParkingFloor getFloor(int floorId) {
+        return layout.floorsById.get(floorId);
+    }
+
+    /**
+     * @return The entry gate with this ID, or null
+     */
+    public EntryGate getEntryGate(String entryGateId) {
+        Layout current = layout;
+        Integer handle = entryGateId == null ? null : current.entryHandles.get(entryGateId);
+        return handle == null ? null : current.entryGates.get(handle);
+    }
+
+    /**
+     * @return The exit gate with this ID, or null
+     */
+    public ExitGate getExitGate(String exitGateId) {
+        Layout current = layout;
+        Integer handle = exitGateId == null ? null : current.exitHandles.get(exitGateId);
+        return handle == null ? null : current.exitGates.get(handle);
+    }
+
+    /**
+     * @return Handle of the entry gate with this ID, or -1 if there is none
+     */
+    public int getEntryGateHandle(String entryGateId) {
+        Integer handle = entryGateId == null ? null : layout.entryHandles.get(entryGateId);
+        return handle == null ? -1 : handle;
+    }
+
+    /**
+     * @return Handle of the exit gate with this ID, or -1 if there is none
+     */
+    public int getExitGateHandle(String exitGateId) {
+        Integer handle = exitGateId == null ? null : layout.exitHandles.get(exitGateId);
+        return handle == null ? -1 : handle;
+    }
+
+    /**
+     * @return The entry gate with this handle, or null if it is out of range
+     */
+    public EntryGate getEntryGate(int handle) {
+        List<EntryGate> gates = layout.entryGates;
+        return handle < 0 || handle >= gates.size() ? null : gates.get(handle);
+    }
+
+    /**
+     * @return The exit gate with this handle, or null if it is out of range
+     */
+    public ExitGate getExitGate(int handle) {
+        List<ExitGate> gates = layout.exitGates;
+        return handle < 0 || handle >= gates.size() ? null : gates.get(handle);
+    }
+
+    public synchronized void addFloor(ParkingFloor floor) {
+        Layout current = layout;
+        List<ParkingFloor> floors = new ArrayList<>(current.floors);
+        floors.add(floor);
+        Map<Integer, ParkingFloor> floorsById = new HashMap<>(current.floorsById);
+        floorsById.putIfAbsent(floor.getFloorId(), floor); // the first floor with an ID wins, as before
+        layout = new Layout(floors, floorsById, current.entryGates, current.entryHandles,
+                current.exitGates, current.exitHandles);
+    }
+
+    /**
+     * @return The new gate's handle
+     * @throws IllegalArgumentException if an entry gate with the same ID exists
+     */
+    public synchronized int addEntryGate(EntryGate entryGate) {
+        Layout current = layout;
+        if (current.entryHandles.containsKey(entryGate.getEntryGateId())) {
+            throw new IllegalArgumentException("Entry gate " + entryGate.getEntryGateId() + " already exists");
+        }
+        int handle = current.entryGates.size();
+        List<EntryGate> gates = new ArrayList<>(current.entryGates);
+        gates.add(entryGate);
+        Map<String, Integer> handles = new HashMap<>(current.entryHandles);
+        handles.put(entryGate.getEntryGateId(), handle);
+        layout = new Layout(current.floors, current.floorsById, gates, handles,
+                current.exitGates, current.exitHandles);
+        return handle;
+    }
+
+    /**
+     * @return The new gate's handle
+     * @throws IllegalArgumentException if an exit gate with the same ID exists
+     */
+    public synchronized int addExitGate(ExitGate exitGate) {
+        Layout current = layout;
+        if (current.exitHandles.containsKey(exitGate.getExitGateId())) {
+            throw new IllegalArgumentException("Exit gate " + exitGate.getExitGateId() + " already exists");
+        }
+        int handle = current.exitGates.size();
+        List<ExitGate> gates = new ArrayList<>(current.exitGates);
+        gates.add(exitGate);
+        Map<String, Integer> handles = new HashMap<>(current.exitHandles);
+        handles.put(exitGate.getExitGateId(), handle);
+        layout = new Layout(current.floors, current.floorsById, current.entryGates, current.entryHandles,
+                gates, handles);
+        return handle;
+    }
+
+    /**
+     * One immutable version of the lot's floors and gates
+     */
+    private static final class Layout {
+        static final Layout EMPTY = new Layout(List.of(), Map.of(), List.of(), Map.of(), List.of(), Map.of());
+
+        final List<ParkingFloor> floors;
+        final Map<Integer, ParkingFloor> floorsById;
+        final List<EntryGate> entryGates;
+        final Map<String, Integer> entryHandles;
+        final List<ExitGate> exitGates;
+        final Map<String, Integer> exitHandles;
+
+        Layout(List<ParkingFloor> floors, Map<Integer, ParkingFloor> floorsById,
+               List<EntryGate> entryGates, Map<String, Integer> entryHandles,
+               List<ExitGate> exitGates, Map<String, Integer> exitHandles) {
+            // copyOf keeps parts that are already immutable, so unchanged parts are shared
+            this.floors = List.copyOf(floors);
+            this.floorsById = Map.copyOf(floorsById);
+            this.entryGates = List.copyOf(entryGates);
+            this.entryHandles = Map.copyOf(entryHandles);
+            this.exitGates = List.copyOf(exitGates);
+            this.exitHandles = Map.copyOf(exitHandles);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package registry;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Packs licence plates into long keys
+ *
+ * Plates of 1-12 characters drawn from A-Z and 0-9 are written as base-37 numbers with
+ * digits 1..36, so every such plate gets its own key and no key is ever 0. Anything
+ * else (lowercase, punctuation, longer plates) is not encodable and callers fall back
+ * to keying by the String itself.
+ */
+public final class PlateKeys {
+    /** Returned for plates that cannot be packed into a long */
+    public static final long NOT_ENCODABLE = 0L;
+
+    private static final int MAX_LENGTH = 12; // 37^12 < 2^63
+    private static final int RADIX = 37;
+
+    private PlateKeys() {
+    }
+
+    /**
+     * Encode a plate without allocating
+     * @param vehicleNo The plate
+     * @return Positive key, or NOT_ENCODABLE
+     */
+    public static long encode(String vehicleNo) {
+        int length = vehicleNo.length();
+        if (length == 0 || length > MAX_LENGTH) {
+            return NOT_ENCODABLE;
+        }
+        long key = 0;
+        for (int i = 0; i < length; i++) {
+            int digit = digitOf(vehicleNo.charAt(i));
+            if (digit == 0) {
+                return NOT_ENCODABLE;
+            }
+            key = key * RADIX + digit;
+        }
+        return key;
+    }
+
+    /**
+     * Encode a plate stored as UTF-8 bytes, such as in a journal record, without decoding it
+     * Packable plates are plain ASCII, so any byte outside A-Z and 0-9 makes it not encodable.
+     *
+     * @param buffer Buffer holding the plate
+     * @param index Absolute index of the plate's first byte
+     * @param length Number of bytes in the plate
+     * @return Positive key, the same encode(String) gives for the plate, or NOT_ENCODABLE
+     */
+    public static long encode(ByteBuffer buffer, int index, int length) {
+        if (length == 0 || length > MAX_LENGTH) {
+            return NOT_ENCODABLE;
+        }
+        long key = 0;
+        for (int i = 0; i < length; i++) {
+            int digit = digitOf((char) (buffer.get(index + i) & 0xFF));
+            if (digit == 0) {
+                return NOT_ENCODABLE;
+            }
+            key = key * RADIX + digit;
+        }
+        return key;
+    }
+
+    /**
+     * Turn a key produced by encode back into the plate
+     * @param key A key returned by encode
+     * @return The plate
+     */
+    public static String decode(long key) {
+        if (key <= 0) {
+            throw new IllegalArgumentException("Not a plate key: " + key);
+        }
+        char[] chars = new char[MAX_LENGTH];
+        int position = MAX_LENGTH;
+        while (key > 0) {
+            int digit = (int) (key % RADIX);
+            chars[--position] = digit <= 26 ? (char) ('A' + digit - 1) : (char) ('0' + digit - 27);
+            key /= RADIX;
+        }
+        return new String(chars, position, MAX_LENGTH - position);
+    }
+
+    private static int digitOf(char c) {
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A' + 1;
+        }
+        if (c >= '0' && c <= '9') {
+            return c - '0' + 27;
+        }
+        return 0;
+    }
+}
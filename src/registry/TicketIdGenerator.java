@@ -0,0 +1,74 @@
+package registry;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Snowflake-style generator of strictly increasing long IDs
+ *
+ * Layout: 41 bits of milliseconds since 2024-01-01 UTC, 10 bits of node ID, 12 bits of
+ * sequence. IDs are unique per node and sortable by issue time. A burst of more than 4096
+ * IDs within one millisecond borrows the next millisecond instead of waiting, and a clock
+ * that steps backwards never produces a smaller ID. Unlike UUID.randomUUID() this never
+ * touches SecureRandom, so it cannot block on entropy.
+ */
+public class TicketIdGenerator {
+    public static final long EPOCH_MILLIS = 1704067200000L; // 2024-01-01T00:00:00Z
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final int TIMESTAMP_SHIFT = NODE_BITS + SEQUENCE_BITS;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    private static final TicketIdGenerator DEFAULT =
+            new TicketIdGenerator(Integer.getInteger("parking.nodeId", 0));
+
+    private final long nodeBits;
+    private final AtomicLong lastId = new AtomicLong();
+
+    /**
+     * @param nodeId ID of this parking lot instance, 0..1023
+     */
+    public TicketIdGenerator(int nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node ID must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+    }
+
+    /**
+     * Shared generator; its node ID comes from the parking.nodeId system property
+     */
+    public static TicketIdGenerator getDefault() {
+        return DEFAULT;
+    }
+
+    public long nextId() {
+        long earliest = ((System.currentTimeMillis() - EPOCH_MILLIS) << TIMESTAMP_SHIFT) | nodeBits;
+        while (true) {
+            long last = lastId.get();
+            long next;
+            if (earliest > last) {
+                next = earliest;
+            } else if ((last & SEQUENCE_MASK) == SEQUENCE_MASK) {
+                next = (((last >>> TIMESTAMP_SHIFT) + 1) << TIMESTAMP_SHIFT) | nodeBits;
+            } else {
+                next = last + 1;
+            }
+            if (lastId.compareAndSet(last, next)) {
+                return next;
+            }
+        }
+    }
+
+    /**
+     * @param id An ID from any node
+     * @return Epoch milliseconds at which it was issued
+     */
+    public static long timestampOf(long id) {
+        return (id >>> TIMESTAMP_SHIFT) + EPOCH_MILLIS;
+    }
+
+    public static int nodeOf(long id) {
+        return (int) ((id >>> SEQUENCE_BITS) & MAX_NODE_ID);
+    }
+}
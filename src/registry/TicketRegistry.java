@@ -0,0 +1,295 @@
+package registry;
+
+import models.Ticket;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Active tickets keyed by plate, stored in open-addressing tables of primitive long keys
+ *
+ * Plates are packed into longs by PlateKeys, so lookups compare longs instead of hashing
+ * and comparing Strings, and no key objects are boxed or allocated. The key space is split
+ * across independently locked stripes; reads are optimistic and only take the stripe's read
+ * lock if a writer got in the way. Plates PlateKeys cannot encode go to a regular
+ * ConcurrentHashMap.
+ */
+public class TicketRegistry {
+    private static final int STRIPE_BITS = 6;
+    private static final int STRIPES = 1 << STRIPE_BITS;
+    private static final int INITIAL_STRIPE_CAPACITY = 16;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final Map<String, Ticket> fallback = new ConcurrentHashMap<>();
+
+    public TicketRegistry() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * @param vehicleNo The plate
+     * @return The active ticket or null
+     */
+    public Ticket get(String vehicleNo) {
+        long key = PlateKeys.encode(vehicleNo);
+        if (key == PlateKeys.NOT_ENCODABLE) {
+            return fallback.get(vehicleNo);
+        }
+        return get(key);
+    }
+
+    /**
+     * @param plateKey A key from PlateKeys.encode
+     * @return The active ticket or null
+     */
+    public Ticket get(long plateKey) {
+        long hash = mix(plateKey);
+        return stripeOf(hash).get(plateKey, (int) hash);
+    }
+
+    public boolean containsKey(String vehicleNo) {
+        return get(vehicleNo) != null;
+    }
+
+    /**
+     * Register a ticket unless the plate already has one
+     * @param vehicleNo The plate
+     * @param ticket The new ticket
+     * @return The ticket already registered for the plate, or null if this one was added
+     */
+    public Ticket putIfAbsent(String vehicleNo, Ticket ticket) {
+        long key = PlateKeys.encode(vehicleNo);
+        if (key == PlateKeys.NOT_ENCODABLE) {
+            return fallback.putIfAbsent(vehicleNo, ticket);
+        }
+        long hash = mix(key);
+        return stripeOf(hash).putIfAbsent(key, (int) hash, ticket);
+    }
+
+    /**
+     * @param vehicleNo The plate
+     * @return The removed ticket, or null if the plate had none
+     */
+    public Ticket remove(String vehicleNo) {
+        long key = PlateKeys.encode(vehicleNo);
+        if (key == PlateKeys.NOT_ENCODABLE) {
+            return fallback.remove(vehicleNo);
+        }
+        long hash = mix(key);
+        return stripeOf(hash).remove(key, (int) hash);
+    }
+
+    public int size() {
+        int size = fallback.size();
+        for (Stripe stripe : stripes) {
+            size += stripe.count;
+        }
+        return size;
+    }
+
+    /**
+     * Copy of every registered ticket, taken stripe by stripe
+     * @return Active tickets
+     */
+    public List<Ticket> snapshot() {
+        List<Ticket> tickets = new ArrayList<>(size() + 16);
+        for (Stripe stripe : stripes) {
+            stripe.copyTo(tickets);
+        }
+        tickets.addAll(fallback.values());
+        return tickets;
+    }
+
+    /**
+     * Read-only view whose iterators walk a snapshot taken when iteration starts
+     * @return Active tickets
+     */
+    public Collection<Ticket> values() {
+        return new AbstractCollection<Ticket>() {
+            @Override
+            public Iterator<Ticket> iterator() {
+                return snapshot().iterator();
+            }
+
+            @Override
+            public int size() {
+                return TicketRegistry.this.size();
+            }
+        };
+    }
+
+    private Stripe stripeOf(long hash) {
+        return stripes[(int) (hash >>> (64 - STRIPE_BITS))];
+    }
+
+    /**
+     * MurmurHash3 finalizer: top bits pick the stripe, low bits the home slot
+     */
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    /**
+     * Keys and values of one stripe, swapped as a unit on resize so optimistic
+     * readers always see arrays of the same length
+     */
+    private static class Table {
+        final long[] keys;
+        final Ticket[] values;
+
+        Table(int capacity) {
+            this.keys = new long[capacity];
+            this.values = new Ticket[capacity];
+        }
+    }
+
+    /**
+     * Linear-probing table; key 0 marks an empty slot (PlateKeys never produces it)
+     */
+    private static class Stripe {
+        private final StampedLock lock = new StampedLock();
+        private Table table = new Table(INITIAL_STRIPE_CAPACITY);
+        private volatile int count;
+
+        Ticket get(long key, int hash) {
+            long stamp = lock.tryOptimisticRead();
+            Ticket found = find(table, key, hash);
+            if (lock.validate(stamp)) {
+                return found;
+            }
+            stamp = lock.readLock();
+            try {
+                return find(table, key, hash);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        private static Ticket find(Table table, long key, int hash) {
+            long[] keys = table.keys;
+            int mask = keys.length - 1;
+            int index = hash & mask;
+            // Bounded so a read racing a writer cannot spin; validate() discards its result
+            for (int probes = 0; probes <= mask; probes++) {
+                long candidate = keys[index];
+                if (candidate == key) {
+                    return table.values[index];
+                }
+                if (candidate == 0) {
+                    return null;
+                }
+                index = (index + 1) & mask;
+            }
+            return null;
+        }
+
+        Ticket putIfAbsent(long key, int hash, Ticket ticket) {
+            long stamp = lock.writeLock();
+            try {
+                Table current = table;
+                int mask = current.keys.length - 1;
+                int index = hash & mask;
+                while (current.keys[index] != 0) {
+                    if (current.keys[index] == key) {
+                        return current.values[index];
+                    }
+                    index = (index + 1) & mask;
+                }
+                current.values[index] = ticket;
+                current.keys[index] = key;
+                count = count + 1;
+                if (count * 2 > current.keys.length) {
+                    resize(current.keys.length * 2);
+                }
+                return null;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        Ticket remove(long key, int hash) {
+            long stamp = lock.writeLock();
+            try {
+                Table current = table;
+                long[] keys = current.keys;
+                Ticket[] values = current.values;
+                int mask = keys.length - 1;
+                int index = hash & mask;
+                while (keys[index] != key) {
+                    if (keys[index] == 0) {
+                        return null;
+                    }
+                    index = (index + 1) & mask;
+                }
+                Ticket removed = values[index];
+
+                // Backward-shift deletion keeps probe chains intact without tombstones
+                int gap = index;
+                int next = index;
+                while (true) {
+                    next = (next + 1) & mask;
+                    long candidate = keys[next];
+                    if (candidate == 0) {
+                        break;
+                    }
+                    int home = (int) mix(candidate) & mask;
+                    if (((next - home) & mask) >= ((next - gap) & mask)) {
+                        keys[gap] = candidate;
+                        values[gap] = values[next];
+                        gap = next;
+                    }
+                }
+                keys[gap] = 0;
+                values[gap] = null;
+                count = count - 1;
+                return removed;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        void copyTo(List<Ticket> tickets) {
+            long stamp = lock.readLock();
+            try {
+                for (Ticket ticket : table.values) {
+                    if (ticket != null) {
+                        tickets.add(ticket);
+                    }
+                }
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        private void resize(int capacity) {
+            Table old = table;
+            Table resized = new Table(capacity);
+            int mask = capacity - 1;
+            for (int i = 0; i < old.keys.length; i++) {
+                long key = old.keys[i];
+                if (key != 0) {
+                    int index = (int) mix(key) & mask;
+                    while (resized.keys[index] != 0) {
+                        index = (index + 1) & mask;
+                    }
+                    resized.keys[index] = key;
+                    resized.values[index] = old.values[i];
+                }
+            }
+            table = resized;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package reservations;
+
+import enums.ReservationStatus;
+import enums.SlotType;
+import models.ParkingSlot;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A slot booked for one vehicle over the window [startMillis, endMillis)
+ * The slot may be swapped for an equivalent one if a walk-in is still parked in it
+ * when the hold starts.
+ */
+public final class Reservation {
+    private final long reservationId;
+    private final String vehicleNo;
+    private final SlotType slotType;
+    private final boolean chargingRequired;
+    private final long startMillis;
+    private final long endMillis;
+    private volatile ParkingSlot parkingSlot;
+    private final AtomicReference<ReservationStatus> status = new AtomicReference<>(ReservationStatus.BOOKED);
+
+    Reservation(long reservationId, String vehicleNo, SlotType slotType, boolean chargingRequired,
+                long startMillis, long endMillis) {
+        this.reservationId = reservationId;
+        this.vehicleNo = vehicleNo;
+        this.slotType = slotType;
+        this.chargingRequired = chargingRequired;
+        this.startMillis = startMillis;
+        this.endMillis = endMillis;
+    }
+
+    public long getReservationId() {
+        return reservationId;
+    }
+
+    public String getVehicleNo() {
+        return vehicleNo;
+    }
+
+    public SlotType getSlotType() {
+        return slotType;
+    }
+
+    public boolean isChargingRequired() {
+        return chargingRequired;
+    }
+
+    public long getStartMillis() {
+        return startMillis;
+    }
+
+    public long getEndMillis() {
+        return endMillis;
+    }
+
+    public ParkingSlot getParkingSlot() {
+        return parkingSlot;
+    }
+
+    public ReservationStatus getStatus() {
+        return status.get();
+    }
+
+    /**
+     * @return true while the vehicle may still turn up and claim its slot
+     */
+    public boolean isOpen() {
+        ReservationStatus current = status.get();
+        return current == ReservationStatus.BOOKED || current == ReservationStatus.HELD;
+    }
+
+    void setParkingSlot(ParkingSlot parkingSlot) {
+        this.parkingSlot = parkingSlot;
+    }
+
+    boolean transition(ReservationStatus from, ReservationStatus to) {
+        return status.compareAndSet(from, to);
+    }
+
+    /**
+     * Close an open reservation
+     * @return The status it was closed from, or null if it was no longer open
+     */
+    ReservationStatus close(ReservationStatus to) {
+        while (true) {
+            ReservationStatus current = status.get();
+            if (current != ReservationStatus.BOOKED && current != ReservationStatus.HELD) {
+                return null;
+            }
+            if (status.compareAndSet(current, to)) {
+                return current;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        ParkingSlot slot = parkingSlot;
+        return "Reservation{" +
+                "reservationId=" + reservationId +
+                ", vehicleNo='" + vehicleNo + '\'' +
+                ", slotType=" + slotType +
+                ", chargingRequired=" + chargingRequired +
+                ", startMillis=" + startMillis +
+                ", endMillis=" + endMillis +
+                ", slot=" + (slot != null ? slot.getSlotId() : "None") +
+                ", status=" + status.get() +
+                '}';
+    }
+}
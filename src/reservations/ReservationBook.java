@@ -0,0 +1,368 @@
+package reservations;
+
+import enums.ReservationStatus;
+import enums.SlotType;
+import models.ParkingFloor;
+import models.ParkingLot;
+import models.ParkingSlot;
+import models.SlotColumns;
+import models.Vehicle;
+import registry.TicketIdGenerator;
+import timers.HierarchicalTimingWheel;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pre-booking of slots for future arrival windows
+ *
+ * Every slot has a SlotCalendar of booked windows, so booking checks conflicts in O(log n)
+ * per slot tried. Bookings do not touch the free-slot indexes: walk-ins may keep using a
+ * booked slot until holdAheadMillis before the window starts. At that point a sweep marks
+ * the slot RESERVED, which takes it out of every floor index, so allocation strategies skip
+ * it at no cost to admission. If a walk-in is still parked there, the reservation moves to
+ * another slot of the same kind that is free now and free for the whole window.
+ *
+ * A held slot is given back when the vehicle has not arrived graceMillis after the window
+ * starts. Admission only pays for one map lookup per arriving vehicle, however many
+ * reservations are booked. Each vehicle can have one open reservation at a time.
+ *
+ * Holds, no-shows and window ends are timers on a HierarchicalTimingWheel with one-second
+ * ticks whose clock starts when the book is created, so they act at most a second late.
+ */
+public class ReservationBook implements AutoCloseable {
+    public static final long DEFAULT_HOLD_AHEAD_MILLIS = 15 * 60_000L;
+    public static final long DEFAULT_GRACE_MILLIS = 15 * 60_000L;
+    private static final long REHOLD_MILLIS = 60_000L; // retry interval when no slot could be held
+    private static final long TICK_MILLIS = 1000L;
+
+    private final ParkingLot parkingLot;
+    private final long holdAheadMillis;
+    private final long graceMillis;
+    private final TicketIdGenerator idGenerator;
+    private final Map<ParkingSlot, SlotCalendar> calendars = new ConcurrentHashMap<>();
+    private final Map<String, Reservation> openByVehicle = new ConcurrentHashMap<>();
+    private final Map<Long, Reservation> reservations = new ConcurrentHashMap<>();
+    private final HierarchicalTimingWheel timeline;
+    private final AtomicInteger cursor = new AtomicInteger(); // spreads bookings over the slots
+    private ScheduledExecutorService sweeper;
+
+    public ReservationBook(ParkingLot parkingLot) {
+        this(parkingLot, DEFAULT_HOLD_AHEAD_MILLIS, DEFAULT_GRACE_MILLIS);
+    }
+
+    /**
+     * @param parkingLot Lot whose slots are booked
+     * @param holdAheadMillis How long before a window starts its slot is taken away from walk-ins
+     * @param graceMillis How long after a window starts a no-show keeps its slot
+     */
+    public ReservationBook(ParkingLot parkingLot, long holdAheadMillis, long graceMillis) {
+        if (holdAheadMillis < 0 || graceMillis < 0) {
+            throw new IllegalArgumentException("Hold-ahead and grace periods cannot be negative");
+        }
+        this.parkingLot = parkingLot;
+        this.holdAheadMillis = holdAheadMillis;
+        this.graceMillis = graceMillis;
+        this.idGenerator = TicketIdGenerator.getDefault();
+        this.timeline = new HierarchicalTimingWheel(TICK_MILLIS, System.currentTimeMillis());
+    }
+
+    public long getHoldAheadMillis() {
+        return holdAheadMillis;
+    }
+
+    public long getGraceMillis() {
+        return graceMillis;
+    }
+
+    /**
+     * Book a slot of a type for a future window
+     * A vehicle that does not need charging gets a plain slot if one is free, so charging
+     * bays stay available for electric vehicles.
+     *
+     * @param vehicleNo The vehicle the slot is for
+     * @param slotType The slot type to book
+     * @param chargingRequired Whether the slot must have EV charging
+     * @param startMillis Start of the window (epoch millis)
+     * @param endMillis End of the window, exclusive
+     * @return The reservation, or null if every matching slot is booked during the window
+     */
+    public Reservation book(String vehicleNo, SlotType slotType, boolean chargingRequired,
+                            long startMillis, long endMillis) {
+        if (endMillis <= startMillis) {
+            throw new IllegalArgumentException("Reservation must end after it starts");
+        }
+        Reservation reservation = new Reservation(idGenerator.nextId(), vehicleNo, slotType, chargingRequired,
+                startMillis, endMillis);
+        if (openByVehicle.putIfAbsent(vehicleNo, reservation) != null) {
+            throw new IllegalStateException("Vehicle " + vehicleNo + " already has an open reservation");
+        }
+
+        ParkingSlot slot = bookAny(reservation, false);
+        if (slot == null) {
+            openByVehicle.remove(vehicleNo, reservation);
+            return null;
+        }
+        reservation.setParkingSlot(slot);
+        reservations.put(reservation.getReservationId(), reservation);
+        scheduleHold(reservation, startMillis - holdAheadMillis);
+        timeline.schedule(startMillis + graceMillis, () -> expire(reservation));
+        timeline.schedule(endMillis, () -> {
+            expire(reservation);
+            forget(reservation);
+        });
+        return reservation;
+    }
+
+    /**
+     * Cancel an open reservation, giving back its slot if it was already held
+     * @return true if the reservation was open
+     */
+    public boolean cancel(long reservationId) {
+        Reservation reservation = reservations.get(reservationId);
+        if (reservation == null) {
+            return false;
+        }
+        synchronized (reservation) {
+            ReservationStatus previous = reservation.close(ReservationStatus.CANCELLED);
+            if (previous == null) {
+                return false;
+            }
+            if (previous == ReservationStatus.HELD) {
+                reservation.getParkingSlot().releaseHold();
+            }
+            forget(reservation);
+            return true;
+        }
+    }
+
+    public Reservation getReservation(long reservationId) {
+        return reservations.get(reservationId);
+    }
+
+    /**
+     * @return The vehicle's open reservation, or null
+     */
+    public Reservation getOpenReservation(String vehicleNo) {
+        return openByVehicle.get(vehicleNo);
+    }
+
+    /**
+     * @return Reservations still waiting for their vehicle
+     */
+    public int getOpenCount() {
+        return openByVehicle.size();
+    }
+
+    /**
+     * Number of slots currently set aside for an arrival
+     */
+    public int getHeldCount() {
+        int held = 0;
+        for (Reservation reservation : openByVehicle.values()) {
+            if (reservation.getStatus() == ReservationStatus.HELD) {
+                held++;
+            }
+        }
+        return held;
+    }
+
+    /**
+     * Park an arriving vehicle in its reserved slot
+     * Called by the lot on admission. Only a vehicle arriving between holdAheadMillis before
+     * its window and graceMillis after the window starts can claim; outside that window the
+     * reservation is left as it is and the vehicle is allocated a slot the usual way. The
+     * reservation is FULFILLED once the vehicle is parked in the slot. If it cannot be (wrong
+     * vehicle size, or a walk-in still holds a slot that was not held yet), the vehicle is
+     * being parked elsewhere, so the reservation is cancelled and its hold given back.
+     *
+     * @param vehicle The arriving vehicle
+     * @return The slot the vehicle was parked in, or null to allocate one the usual way
+     */
+    public ParkingSlot claim(Vehicle vehicle) {
+        Reservation reservation = openByVehicle.get(vehicle.getVehicleNo());
+        if (reservation == null || reservation.getParkingSlot() == null) {
+            return null; // none, or still being booked
+        }
+        long now = System.currentTimeMillis();
+        if (now < reservation.getStartMillis() - holdAheadMillis || now >= reservation.getStartMillis() + graceMillis) {
+            return null;
+        }
+        // Holds, cancellations and expiries of this reservation wait until the vehicle is parked
+        synchronized (reservation) {
+            ReservationStatus current = reservation.getStatus();
+            if (current != ReservationStatus.BOOKED && current != ReservationStatus.HELD) {
+                return null;
+            }
+            ParkingSlot slot = reservation.getParkingSlot();
+            boolean parked = current == ReservationStatus.HELD ? slot.parkReserved(vehicle) : slot.parkVehicle(vehicle);
+            reservation.close(parked ? ReservationStatus.FULFILLED : ReservationStatus.CANCELLED);
+            openByVehicle.remove(vehicle.getVehicleNo(), reservation);
+            if (parked) {
+                return slot; // the calendar keeps the window until it ends
+            }
+            if (current == ReservationStatus.HELD) {
+                slot.releaseHold();
+            }
+            forget(reservation);
+            return null;
+        }
+    }
+
+    /**
+     * Sweep the reservation timeline every intervalMillis on a background thread
+     */
+    public synchronized void start(long intervalMillis) {
+        if (sweeper != null) {
+            throw new IllegalStateException("Reservation sweeper already running");
+        }
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "reservation-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleAtFixedRate(() -> sweep(System.currentTimeMillis()),
+                0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+            sweeper = null;
+        }
+    }
+
+    /**
+     * Hold slots for windows about to start, and release no-shows and finished windows
+     * Runs on the sweeper thread; call it directly to drive the book with a simulated clock
+     * that starts at the book's creation time.
+     *
+     * @param nowMillis Current time (epoch millis)
+     * @return Number of timeline entries processed
+     */
+    public int sweep(long nowMillis) {
+        return timeline.advanceTo(nowMillis);
+    }
+
+    /**
+     * @return Holds, no-shows and window ends still to process
+     */
+    public int getPendingTimers() {
+        return timeline.size();
+    }
+
+    /**
+     * Try to hold the reservation's slot at atMillis, retrying while the grace period lasts
+     */
+    private void scheduleHold(Reservation reservation, long atMillis) {
+        timeline.schedule(atMillis, () -> {
+            long now = Math.max(atMillis, System.currentTimeMillis());
+            if (!hold(reservation) && now < reservation.getStartMillis() + graceMillis) {
+                scheduleHold(reservation, now + REHOLD_MILLIS);
+            }
+        });
+    }
+
+    /**
+     * Set the booked slot aside, or move the reservation to a slot that can be set aside now
+     * @return false if the reservation is still open but no slot could be held
+     */
+    private boolean hold(Reservation reservation) {
+        synchronized (reservation) {
+            return holdLocked(reservation);
+        }
+    }
+
+    private boolean holdLocked(Reservation reservation) {
+        if (reservation.getStatus() != ReservationStatus.BOOKED) {
+            return true;
+        }
+        ParkingSlot booked = reservation.getParkingSlot();
+        if (booked.hold()) {
+            if (!reservation.transition(ReservationStatus.BOOKED, ReservationStatus.HELD)) {
+                booked.releaseHold(); // cancelled or claimed meanwhile
+            }
+            return true;
+        }
+        ParkingSlot moved = bookAny(reservation, true);
+        if (moved == null) {
+            return false;
+        }
+        calendarOf(booked).remove(reservation);
+        reservation.setParkingSlot(moved);
+        if (!reservation.transition(ReservationStatus.BOOKED, ReservationStatus.HELD)) {
+            moved.releaseHold();
+            calendarOf(moved).remove(reservation);
+        }
+        return true;
+    }
+
+    private void expire(Reservation reservation) {
+        synchronized (reservation) {
+            ReservationStatus previous = reservation.close(ReservationStatus.EXPIRED);
+            if (previous == null) {
+                return;
+            }
+            if (previous == ReservationStatus.HELD) {
+                reservation.getParkingSlot().releaseHold();
+            }
+            forget(reservation);
+        }
+    }
+
+    private void forget(Reservation reservation) {
+        calendarOf(reservation.getParkingSlot()).remove(reservation);
+        openByVehicle.remove(reservation.getVehicleNo(), reservation);
+        if (!reservation.isOpen()) {
+            reservations.remove(reservation.getReservationId());
+        }
+    }
+
+    /**
+     * Book the reservation's window on the first matching slot whose calendar is free
+     * Plain slots are tried first unless charging is required, then charging bays. Slots
+     * are read straight from each floor's columns, and each search starts at a different
+     * floor and column, so bookings spread out instead of piling onto the first slots of
+     * the lot.
+     *
+     * @param holdNow Also require the slot to be empty right now, and hold it
+     * @return The slot booked (and held), or null
+     */
+    private ParkingSlot bookAny(Reservation reservation, boolean holdNow) {
+        int start = cursor.getAndIncrement();
+        List<ParkingFloor> floors = parkingLot.getFloors();
+        SlotType slotType = reservation.getSlotType();
+        for (int pass = reservation.isChargingRequired() ? 1 : 0; pass < 2; pass++) {
+            boolean charging = pass == 1;
+            for (int f = 0; f < floors.size(); f++) {
+                SlotColumns columns = floors.get(Math.floorMod(start + f, floors.size())).getSlotColumns();
+                int size = columns.size();
+                for (int i = 0; i < size; i++) {
+                    int index = Math.floorMod(start + i, size);
+                    if (columns.typeAt(index) != slotType || columns.isChargingAt(index) != charging
+                            || holdNow && !columns.isFreeAt(index)) {
+                        continue;
+                    }
+                    ParkingSlot slot = columns.slotAt(index);
+                    if (slot == reservation.getParkingSlot() || !calendarOf(slot).book(reservation)) {
+                        continue;
+                    }
+                    if (!holdNow || slot.hold()) {
+                        return slot;
+                    }
+                    calendarOf(slot).remove(reservation);
+                }
+            }
+        }
+        return null;
+    }
+
+    private SlotCalendar calendarOf(ParkingSlot slot) {
+        return calendars.computeIfAbsent(slot, key -> new SlotCalendar());
+    }
+}
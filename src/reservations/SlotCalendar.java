@@ -0,0 +1,42 @@
+package reservations;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Bookings of one slot, as non-overlapping [start, end) windows keyed by start time
+ * Because the windows never overlap, only the last booking starting before a window's end
+ * can collide with it, so a conflict check is one O(log n) tree lookup.
+ */
+class SlotCalendar {
+    private final TreeMap<Long, Reservation> bookings = new TreeMap<>();
+
+    /**
+     * Book the reservation's window if nothing else overlaps it
+     * @return true if the window was free and is now booked
+     */
+    synchronized boolean book(Reservation reservation) {
+        if (!isFreeLocked(reservation.getStartMillis(), reservation.getEndMillis())) {
+            return false;
+        }
+        bookings.put(reservation.getStartMillis(), reservation);
+        return true;
+    }
+
+    synchronized boolean isFree(long startMillis, long endMillis) {
+        return isFreeLocked(startMillis, endMillis);
+    }
+
+    synchronized void remove(Reservation reservation) {
+        bookings.remove(reservation.getStartMillis(), reservation);
+    }
+
+    synchronized int size() {
+        return bookings.size();
+    }
+
+    private boolean isFreeLocked(long startMillis, long endMillis) {
+        Map.Entry<Long, Reservation> before = bookings.lowerEntry(endMillis);
+        return before == null || before.getValue().getEndMillis() <= startMillis;
+    }
+}
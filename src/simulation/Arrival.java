@@ -0,0 +1,43 @@
+package simulation;
+
+import models.Vehicle;
+
+/**
+ * One simulated vehicle: when it arrives, how long it stays and which gates it uses
+ * Times are simulated milliseconds from the start of the run.
+ */
+public class Arrival {
+    private final long arrivalMillis;
+    private final Vehicle vehicle;
+    private final long dwellMillis;
+    private final String entryGateId; // null = let the generator pick
+    private final String exitGateId;  // null = let the generator pick
+
+    public Arrival(long arrivalMillis, Vehicle vehicle, long dwellMillis, String entryGateId, String exitGateId) {
+        this.arrivalMillis = arrivalMillis;
+        this.vehicle = vehicle;
+        this.dwellMillis = dwellMillis;
+        this.entryGateId = entryGateId;
+        this.exitGateId = exitGateId;
+    }
+
+    public long getArrivalMillis() {
+        return arrivalMillis;
+    }
+
+    public Vehicle getVehicle() {
+        return vehicle;
+    }
+
+    public long getDwellMillis() {
+        return dwellMillis;
+    }
+
+    public String getEntryGateId() {
+        return entryGateId;
+    }
+
+    public String getExitGateId() {
+        return exitGateId;
+    }
+}
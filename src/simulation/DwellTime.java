@@ -0,0 +1,94 @@
+package simulation;
+
+import java.util.SplittableRandom;
+
+/**
+ * Distribution of how long vehicles stay, in simulated milliseconds
+ *
+ * Spec strings (times in seconds):
+ *   fixed:3600            every vehicle stays an hour
+ *   uniform:600:7200      uniformly between 10 minutes and 2 hours
+ *   exp:3600              exponential with a one-hour mean
+ *   lognormal:3600:0.8    log-normal with a one-hour median and sigma 0.8
+ */
+public class DwellTime {
+    private enum Kind { FIXED, UNIFORM, EXPONENTIAL, LOGNORMAL }
+
+    private final Kind kind;
+    private final double first;
+    private final double second;
+
+    private DwellTime(Kind kind, double first, double second) {
+        this.kind = kind;
+        this.first = first;
+        this.second = second;
+    }
+
+    public static DwellTime fixed(double seconds) {
+        return new DwellTime(Kind.FIXED, seconds * 1000, 0);
+    }
+
+    public static DwellTime uniform(double minSeconds, double maxSeconds) {
+        return new DwellTime(Kind.UNIFORM, minSeconds * 1000, maxSeconds * 1000);
+    }
+
+    public static DwellTime exponential(double meanSeconds) {
+        return new DwellTime(Kind.EXPONENTIAL, meanSeconds * 1000, 0);
+    }
+
+    public static DwellTime logNormal(double medianSeconds, double sigma) {
+        return new DwellTime(Kind.LOGNORMAL, Math.log(medianSeconds * 1000), sigma);
+    }
+
+    /**
+     * Parse a spec such as "exp:3600" (see class comment)
+     */
+    public static DwellTime parse(String spec) {
+        String[] parts = spec.split(":");
+        try {
+            switch (parts[0]) {
+                case "fixed":
+                    return fixed(Double.parseDouble(parts[1]));
+                case "uniform":
+                    return uniform(Double.parseDouble(parts[1]), Double.parseDouble(parts[2]));
+                case "exp":
+                    return exponential(Double.parseDouble(parts[1]));
+                case "lognormal":
+                    return logNormal(Double.parseDouble(parts[1]), Double.parseDouble(parts[2]));
+                default:
+                    break;
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            // fall through to the error below
+        }
+        throw new IllegalArgumentException("Invalid dwell time spec: " + spec);
+    }
+
+    /**
+     * @param random Source of randomness
+     * @return A dwell time in simulated milliseconds
+     */
+    public long sampleMillis(SplittableRandom random) {
+        switch (kind) {
+            case FIXED:
+                return (long) first;
+            case UNIFORM:
+                return (long) (first + random.nextDouble() * (second - first));
+            case EXPONENTIAL:
+                return (long) (-first * Math.log(1.0 - random.nextDouble()));
+            case LOGNORMAL:
+                return (long) Math.exp(first + second * gaussian(random));
+            default:
+                throw new IllegalStateException("Unknown kind " + kind);
+        }
+    }
+
+    /**
+     * Standard normal sample (Box-Muller); SplittableRandom has no nextGaussian on Java 17
+     */
+    private static double gaussian(SplittableRandom random) {
+        double u = 1.0 - random.nextDouble();
+        double v = random.nextDouble();
+        return Math.sqrt(-2.0 * Math.log(u)) * Math.cos(2 * Math.PI * v);
+    }
+}
@@ -0,0 +1,420 @@
+package simulation;
+
+import enums.Payment;
+import interfaces.ArrivalProcess;
+import interfaces.SlotAllocationStrategy;
+import metrics.LatencyHistogram;
+import metrics.MetricsRegistry;
+import metrics.PrometheusExporter;
+import models.EntryGate;
+import models.ExitGate;
+import models.ParkingFloor;
+import models.ParkingLot;
+import models.Ticket;
+import models.Vehicle;
+import payments.SimulatedPaymentProvider;
+import strategies.BestFitSlotStrategy;
+import strategies.DynamicPricing;
+import strategies.FloorFirstSlotStrategy;
+import strategies.NearestSlotStrategy;
+import strategies.SurgePricing;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Headless load generator: drives a ParkingLot with simulated arrivals in (scaled) real time
+ *
+ * Every arriving vehicle gets its own virtual thread that parks, sleeps through its dwell
+ * time and exits, spreading over all entry and exit gates. Virtual threads are looked up
+ * reflectively, so on a JDK without them (before 21) the generator falls back to a pool of
+ * platform threads that schedules each exit instead of sleeping through it.
+ *
+ * timeScale compresses the clock: with timeScale 60 one simulated minute passes per second.
+ * The defaults keep a 2000-slot lot around 75% full.
+ *
+ * Usage: java Main --simulate [options], or java simulation.LoadGenerator [options]
+ *   --arrivals=poisson | trace:FILE   --rate=1 (arrivals per simulated second)
+ *   --vehicles=5000  --dwell=lognormal:1500:0.5 (see DwellTime)  --ev=0.2  --seed=42
+ *   --timeScale=1000  --floors=4  --slots=500  --entryGates=4  --exitGates=2
+ *   --strategy=nearest|floorFirst|bestFit  --executor=virtual|platform  --poolSize=64
+ *   --payment=instant | stub:LATENCY_MS[:FAILURE_RATE[:DECLINE_RATE]]  --paymentTimeout=2000 (ms per attempt)
+ *   --pricing=dynamic|surge  --surgeInterval=1000 (ms between surge multiplier refreshes)
+ *   --metricsPort=9404 (serve /metrics on localhost while running)
+ *   --metricsFile=parking.prom  --metricsInterval=1000 (ms between file rewrites)
+ */
+public class LoadGenerator {
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    private final ParkingLot parkingLot;
+    private final ArrivalProcess arrivals;
+    private final double timeScale;
+    private boolean useVirtualThreads = true;
+    private int platformPoolSize = Math.max(4, Runtime.getRuntime().availableProcessors() * 4);
+
+    private final LongAdder arrivalCount = new LongAdder();
+    private final LongAdder parked = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder exited = new LongAdder();
+    private final LongAdder failedExits = new LongAdder();
+    private final AtomicInteger occupancy = new AtomicInteger();
+    private final LongAccumulator peakOccupancy = new LongAccumulator(Math::max, 0);
+    private final LatencyHistogram parkLatency = new LatencyHistogram();
+    private final LatencyHistogram exitLatency = new LatencyHistogram();
+    private final AtomicLong outstanding = new AtomicLong();
+    private final CountDownLatch finished = new CountDownLatch(1);
+
+    /**
+     * @param parkingLot Lot with floors and gates configured
+     * @param arrivals Arrival process to replay
+     * @param timeScale Simulated seconds per wall-clock second
+     */
+    public LoadGenerator(ParkingLot parkingLot, ArrivalProcess arrivals, double timeScale) {
+        if (timeScale <= 0) {
+            throw new IllegalArgumentException("Time scale must be positive");
+        }
+        this.parkingLot = parkingLot;
+        this.arrivals = arrivals;
+        this.timeScale = timeScale;
+    }
+
+    public void setUseVirtualThreads(boolean useVirtualThreads) {
+        this.useVirtualThreads = useVirtualThreads;
+    }
+
+    public void setPlatformPoolSize(int platformPoolSize) {
+        this.platformPoolSize = platformPoolSize;
+    }
+
+    /**
+     * Replay every arrival and wait until all vehicles that parked have exited
+     * @return Throughput, latency and rejection figures of the run
+     */
+    public SimulationReport run() throws InterruptedException {
+        List<EntryGate> entryGates = parkingLot.getEntryGates();
+        List<ExitGate> exitGates = parkingLot.getExitGates();
+        if (entryGates.isEmpty() || exitGates.isEmpty()) {
+            throw new IllegalStateException("The lot needs at least one entry and one exit gate");
+        }
+
+        ExecutorService virtualThreads = useVirtualThreads ? newVirtualThreadExecutor() : null;
+        ScheduledThreadPoolExecutor platformPool = null;
+        if (virtualThreads == null) {
+            platformPool = new ScheduledThreadPoolExecutor(platformPoolSize, runnable -> {
+                Thread thread = new Thread(runnable, "simulated-vehicle");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        String executionMode = virtualThreads != null
+                ? "one virtual thread per vehicle"
+                : "platform pool of " + platformPoolSize + " threads (virtual threads unavailable)";
+
+        long startNanos = System.nanoTime();
+        long maxLagNanos = 0;
+        long index = 0;
+        outstanding.set(1); // the dispatcher itself
+        Arrival arrival;
+        while ((arrival = arrivals.next()) != null) {
+            long arrivalNanos = startNanos + toWallNanos(arrival.getArrivalMillis());
+            long lag = sleepUntil(arrivalNanos);
+            maxLagNanos = Math.max(maxLagNanos, lag);
+
+            String entryGateId = arrival.getEntryGateId() != null ? arrival.getEntryGateId()
+                    : entryGates.get((int) (index % entryGates.size())).getEntryGateId();
+            String exitGateId = arrival.getExitGateId() != null ? arrival.getExitGateId()
+                    : exitGates.get((int) (index % exitGates.size())).getExitGateId();
+            long exitNanos = arrivalNanos + toWallNanos(arrival.getDwellMillis());
+            index++;
+            arrivalCount.increment();
+            outstanding.incrementAndGet();
+
+            Vehicle vehicle = arrival.getVehicle();
+            if (virtualThreads != null) {
+                virtualThreads.execute(() -> {
+                    try {
+                                if (park(vehicle, entryGateId)) {
+                            sleepUntil(exitNanos);
+                            exit(vehicle, exitGateId).join();
+                        }
+                    } finally {
+                        vehicleDone();
+                    }
+                });
+            } else {
+                ScheduledThreadPoolExecutor pool = platformPool;
+                pool.execute(() -> {
+                    boolean scheduled = false;
+                    try {
+                        if (park(vehicle, entryGateId)) {
+                            // The pool thread moves on while the exit waits for payment
+                            pool.schedule(() -> exit(vehicle, exitGateId).whenComplete(
+                                    (success, failure) -> vehicleDone()),
+                                    Math.max(0, exitNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+                            scheduled = true;
+                        }
+                    } finally {
+                        if (!scheduled) {
+                            vehicleDone();
+                        }
+                    }
+                });
+            }
+        }
+        vehicleDone();
+        finished.await();
+        long elapsedMillis = (System.nanoTime() - startNanos) / NANOS_PER_MILLI;
+
+        if (virtualThreads != null) {
+            virtualThreads.shutdown();
+        } else {
+            platformPool.shutdown();
+        }
+
+        return new SimulationReport(executionMode, arrivalCount.sum(), parked.sum(), rejected.sum(),
+                exited.sum(), failedExits.sum(), (int) peakOccupancy.get(), elapsedMillis,
+                maxLagNanos / NANOS_PER_MILLI, parkLatency, exitLatency);
+    }
+
+    private boolean park(Vehicle vehicle, String entryGateId) {
+        long started = System.nanoTime();
+        Ticket ticket = parkingLot.parkVehicle(vehicle, entryGateId);
+        parkLatency.record(System.nanoTime() - started);
+        if (ticket == null) {
+            rejected.increment();
+            return false;
+        }
+        parked.increment();
+        peakOccupancy.accumulate(occupancy.incrementAndGet());
+        return true;
+    }
+
+    /**
+     * @return Completes once the exit, including payment, is done
+     */
+    private CompletableFuture<Boolean> exit(Vehicle vehicle, String exitGateId) {
+        long started = System.nanoTime();
+        return parkingLot.exitVehicleAsync(vehicle.getVehicleNo(), exitGateId, Payment.CARD)
+                .whenComplete((success, failure) -> {
+                    exitLatency.record(System.nanoTime() - started);
+                    if (Boolean.TRUE.equals(success)) {
+                        exited.increment();
+                        occupancy.decrementAndGet();
+                    } else {
+                        failedExits.increment();
+                    }
+                });
+    }
+
+    private void vehicleDone() {
+        if (outstanding.decrementAndGet() == 0) {
+            finished.countDown();
+        }
+    }
+
+    private long toWallNanos(long simulatedMillis) {
+        return (long) (simulatedMillis * NANOS_PER_MILLI / timeScale);
+    }
+
+    /**
+     * Sleep until a System.nanoTime() deadline
+     * @return How late the deadline already was, in nanoseconds (0 if it was in the future)
+     */
+    private static long sleepUntil(long deadlineNanos) {
+        long remaining = deadlineNanos - System.nanoTime();
+        if (remaining <= 0) {
+            return -remaining;
+        }
+        while (remaining > 0) {
+            LockSupport.parkNanos(remaining);
+            remaining = deadlineNanos - System.nanoTime();
+        }
+        return 0;
+    }
+
+    /**
+     * Executors.newVirtualThreadPerTaskExecutor() where the JDK has it (21+), otherwise null
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) java.util.concurrent.Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        } catch (InvocationTargetException e) {
+            // Preview feature not enabled on this JDK
+            return null;
+        }
+    }
+
+    /**
+     * Build a lot of floorCount floors with slotsPerFloor slots each (40% small, 40% medium, 20% large)
+     * Entry gates are spread across the floors; exit gates are on the ground floor.
+     */
+    public static ParkingLot buildLot(int floorCount, int slotsPerFloor, int entryGateCount, int exitGateCount,
+                                      SlotAllocationStrategy allocationStrategy) {
+        return buildLot(floorCount, slotsPerFloor, entryGateCount, exitGateCount, allocationStrategy,
+                ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Build the same lot as above with its charging slots placed reproducibly for a seed
+     */
+    public static ParkingLot buildLot(int floorCount, int slotsPerFloor, int entryGateCount, int exitGateCount,
+                                      SlotAllocationStrategy allocationStrategy, long seed) {
+        DynamicPricing pricing = new DynamicPricing();
+        ParkingLot parkingLot = new ParkingLot(allocationStrategy, pricing);
+        int small = slotsPerFloor * 2 / 5;
+        int medium = slotsPerFloor * 2 / 5;
+        int large = slotsPerFloor - small - medium;
+        for (int i = 0; i < floorCount; i++) {
+            ParkingFloor floor = new ParkingFloor(i);
+            floor.initializeSlots(small, medium, large, 25.0, seed + i);
+            parkingLot.addFloor(floor);
+        }
+        for (int i = 0; i < entryGateCount; i++) {
+            parkingLot.addEntryGate(new EntryGate(String.format("ENTRY_%02d", i + 1), i % floorCount,
+                    allocationStrategy));
+        }
+        for (int i = 0; i < exitGateCount; i++) {
+            parkingLot.addExitGate(new ExitGate(String.format("EXIT_%02d", i + 1), 0, pricing));
+        }
+        return parkingLot;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            int split = arg.indexOf('=');
+            if (!arg.startsWith("--") || split < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            options.put(arg.substring(2, split), arg.substring(split + 1));
+        }
+
+        String strategyName = options.getOrDefault("strategy", "nearest");
+        SlotAllocationStrategy strategy;
+        if (strategyName.equals("nearest")) {
+            strategy = new NearestSlotStrategy();
+        } else if (strategyName.equals("floorFirst")) {
+            strategy = new FloorFirstSlotStrategy();
+        } else if (strategyName.equals("bestFit")) {
+            strategy = new BestFitSlotStrategy();
+        } else {
+            throw new IllegalArgumentException("Unknown strategy: " + strategyName);
+        }
+
+        // Setup chatter would drown the report
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        ParkingLot parkingLot;
+        try {
+            parkingLot = buildLot(
+                    Integer.parseInt(options.getOrDefault("floors", "4")),
+                    Integer.parseInt(options.getOrDefault("slots", "500")),
+                    Integer.parseInt(options.getOrDefault("entryGates", "4")),
+                    Integer.parseInt(options.getOrDefault("exitGates", "2")),
+                    strategy);
+        } finally {
+            System.setOut(console);
+        }
+
+        String arrivalSpec = options.getOrDefault("arrivals", "poisson");
+        ArrivalProcess arrivals;
+        TraceArrivals trace = null;
+        if (arrivalSpec.startsWith("trace:")) {
+            trace = new TraceArrivals(Paths.get(arrivalSpec.substring("trace:".length())));
+            arrivals = trace;
+        } else if (arrivalSpec.equals("poisson")) {
+            arrivals = new PoissonArrivals(
+                    Double.parseDouble(options.getOrDefault("rate", "1")),
+                    Long.parseLong(options.getOrDefault("vehicles", "5000")),
+                    DwellTime.parse(options.getOrDefault("dwell", "lognormal:1500:0.5")),
+                    Double.parseDouble(options.getOrDefault("ev", "0.2")),
+                    Long.parseLong(options.getOrDefault("seed", "42")));
+        } else {
+            throw new IllegalArgumentException("Unknown arrival process: " + arrivalSpec);
+        }
+
+        LoadGenerator generator = new LoadGenerator(parkingLot, arrivals,
+                Double.parseDouble(options.getOrDefault("timeScale", "1000")));
+        generator.setUseVirtualThreads(!options.getOrDefault("executor", "virtual").equals("platform"));
+        if (options.containsKey("poolSize")) {
+            generator.setPlatformPoolSize(Integer.parseInt(options.get("poolSize")));
+        }
+
+        String paymentSpec = options.getOrDefault("payment", "instant");
+        SimulatedPaymentProvider paymentProvider = null;
+        if (paymentSpec.startsWith("stub:")) {
+            paymentProvider = SimulatedPaymentProvider.parse(paymentSpec.substring("stub:".length()));
+            parkingLot.setPaymentProvider(paymentProvider);
+        } else if (!paymentSpec.equals("instant")) {
+            throw new IllegalArgumentException("Unknown payment provider: " + paymentSpec);
+        }
+        if (options.containsKey("paymentTimeout")) {
+            for (ExitGate gate : parkingLot.getExitGates()) {
+                gate.setPaymentTimeoutMillis(Long.parseLong(options.get("paymentTimeout")));
+            }
+        }
+
+        String pricingName = options.getOrDefault("pricing", "dynamic");
+        SurgePricing surgePricing = null;
+        if (pricingName.equals("surge")) {
+            surgePricing = new SurgePricing(parkingLot.getPricingStrategy(), parkingLot);
+            parkingLot.setPricingStrategy(surgePricing);
+            surgePricing.start(Long.parseLong(options.getOrDefault("surgeInterval", "1000")));
+        } else if (!pricingName.equals("dynamic")) {
+            throw new IllegalArgumentException("Unknown pricing strategy: " + pricingName);
+        }
+
+        PrometheusExporter exporter = null;
+        if (options.containsKey("metricsPort") || options.containsKey("metricsFile")) {
+            MetricsRegistry metricsRegistry = new MetricsRegistry();
+            parkingLot.setMetricsRegistry(metricsRegistry);
+            exporter = new PrometheusExporter(metricsRegistry);
+            if (options.containsKey("metricsPort")) {
+                int port = exporter.serve(Integer.parseInt(options.get("metricsPort")));
+                System.out.println("Metrics at http://localhost:" + port + "/metrics");
+            }
+            if (options.containsKey("metricsFile")) {
+                exporter.writePeriodically(Paths.get(options.get("metricsFile")),
+                        Long.parseLong(options.getOrDefault("metricsInterval", "1000")));
+            }
+        }
+
+        System.out.println("Simulating " + arrivalSpec + " arrivals at " + generator.timeScale + "x ...");
+        try {
+            System.out.println(generator.run());
+        } finally {
+            if (trace != null) {
+                trace.close();
+            }
+            if (exporter != null) {
+                exporter.close();
+            }
+            if (paymentProvider != null) {
+                paymentProvider.close();
+            }
+            if (surgePricing != null) {
+                surgePricing.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package simulation;
+
+import enums.FuelType;
+import enums.VehicleType;
+import interfaces.ArrivalProcess;
+import models.Vehicle;
+
+import java.util.SplittableRandom;
+
+/**
+ * Poisson arrival process: exponentially distributed gaps at a fixed mean rate
+ * Vehicle types follow a weighted mix and a share of them are electric; every
+ * vehicle gets a unique plate. Runs are reproducible for a given seed.
+ */
+public class PoissonArrivals implements ArrivalProcess {
+    private static final VehicleType[] DEFAULT_MIX = {
+            VehicleType.CAR, VehicleType.BIKE, VehicleType.CAR, VehicleType.AUTO, VehicleType.BUS
+    };
+
+    private final double meanGapMillis;
+    private final long count;
+    private final DwellTime dwellTime;
+    private final double electricShare;
+    private final VehicleType[] mix;
+    private final SplittableRandom random;
+    private double clockMillis;
+    private long produced;
+
+    /**
+     * @param ratePerSecond Mean arrivals per simulated second
+     * @param count Number of vehicles to produce
+     * @param dwellTime How long each vehicle stays
+     * @param electricShare Fraction of vehicles that need charging (0..1)
+     * @param seed Random seed
+     */
+    public PoissonArrivals(double ratePerSecond, long count, DwellTime dwellTime, double electricShare, long seed) {
+        this(ratePerSecond, count, dwellTime, electricShare, DEFAULT_MIX, seed);
+    }
+
+    /**
+     * @param mix Vehicle types to draw from uniformly; repeat a type to weight it
+     */
+    public PoissonArrivals(double ratePerSecond, long count, DwellTime dwellTime, double electricShare,
+                           VehicleType[] mix, long seed) {
+        if (ratePerSecond <= 0 || count < 0 || mix.length == 0) {
+            throw new IllegalArgumentException("Invalid Poisson arrival settings");
+        }
+        this.meanGapMillis = 1000.0 / ratePerSecond;
+        this.count = count;
+        this.dwellTime = dwellTime;
+        this.electricShare = electricShare;
+        this.mix = mix.clone();
+        this.random = new SplittableRandom(seed);
+    }
+
+    @Override
+    public Arrival next() {
+        if (produced >= count) {
+            return null;
+        }
+        clockMillis += -meanGapMillis * Math.log(1.0 - random.nextDouble());
+        VehicleType type = mix[random.nextInt(mix.length)];
+        FuelType fuel = random.nextDouble() < electricShare ? FuelType.ELECTRIC : FuelType.PETROL;
+        Vehicle vehicle = new Vehicle("L" + produced, type, fuel);
+        produced++;
+        return new Arrival((long) clockMillis, vehicle, dwellTime.sampleMillis(random), null, null);
+    }
+}
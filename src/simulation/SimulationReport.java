@@ -0,0 +1,113 @@
+package simulation;
+
+import metrics.LatencyHistogram;
+
+/**
+ * Outcome of one load-generator run
+ */
+public class SimulationReport {
+    private final String executionMode;
+    private final long arrivals;
+    private final long parked;
+    private final long rejected;
+    private final long exited;
+    private final long failedExits;
+    private final int peakOccupancy;
+    private final long elapsedMillis;
+    private final long maxDispatchLagMillis;
+    private final LatencyHistogram parkLatency;
+    private final LatencyHistogram exitLatency;
+
+    SimulationReport(String executionMode, long arrivals, long parked, long rejected, long exited, long failedExits,
+                     int peakOccupancy, long elapsedMillis, long maxDispatchLagMillis,
+                     LatencyHistogram parkLatency, LatencyHistogram exitLatency) {
+        this.executionMode = executionMode;
+        this.arrivals = arrivals;
+        this.parked = parked;
+        this.rejected = rejected;
+        this.exited = exited;
+        this.failedExits = failedExits;
+        this.peakOccupancy = peakOccupancy;
+        this.elapsedMillis = elapsedMillis;
+        this.maxDispatchLagMillis = maxDispatchLagMillis;
+        this.parkLatency = parkLatency;
+        this.exitLatency = exitLatency;
+    }
+
+    public long getArrivals() {
+        return arrivals;
+    }
+
+    public long getParked() {
+        return parked;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public long getExited() {
+        return exited;
+    }
+
+    public long getFailedExits() {
+        return failedExits;
+    }
+
+    public int getPeakOccupancy() {
+        return peakOccupancy;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * How late the generator dispatched an arrival at worst; large values mean it could not keep up
+     */
+    public long getMaxDispatchLagMillis() {
+        return maxDispatchLagMillis;
+    }
+
+    public LatencyHistogram getParkLatency() {
+        return parkLatency;
+    }
+
+    public LatencyHistogram getExitLatency() {
+        return exitLatency;
+    }
+
+    public double getRejectionRate() {
+        return arrivals == 0 ? 0 : (double) rejected / arrivals;
+    }
+
+    /**
+     * Completed park and exit operations per wall-clock second
+     */
+    public double getThroughput() {
+        return elapsedMillis == 0 ? 0 : (parked + exited) * 1000.0 / elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        report.append("=== SIMULATION REPORT ===\n");
+        report.append("Execution: ").append(executionMode).append("\n");
+        report.append(String.format("Arrivals: %d  Parked: %d  Rejected: %d (%.2f%%)%n",
+                arrivals, parked, rejected, getRejectionRate() * 100));
+        report.append(String.format("Exited: %d  Failed exits: %d  Peak occupancy: %d%n",
+                exited, failedExits, peakOccupancy));
+        report.append(String.format("Wall time: %.2f s  Throughput: %.0f ops/s  Max dispatch lag: %d ms%n",
+                elapsedMillis / 1000.0, getThroughput(), maxDispatchLagMillis));
+        report.append(latencyLine("Park", parkLatency)).append("\n");
+        report.append(latencyLine("Exit", exitLatency));
+        return report.toString();
+    }
+
+    private static String latencyLine(String name, LatencyHistogram latency) {
+        return String.format("%s latency (us): p50=%.1f p99=%.1f p999=%.1f max=%.1f mean=%.1f (n=%d)",
+                name, latency.getPercentile(50) / 1000.0, latency.getPercentile(99) / 1000.0,
+                latency.getPercentile(99.9) / 1000.0, latency.getMax() / 1000.0,
+                latency.getMean() / 1000.0, latency.getCount());
+    }
+}
@@ -0,0 +1,73 @@
+package simulation;
+
+import enums.FuelType;
+import enums.VehicleType;
+import interfaces.ArrivalProcess;
+import models.Vehicle;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Replays recorded arrivals from a CSV file, streaming it line by line
+ *
+ * Line format (times in seconds from the start of the trace, '#' starts a comment):
+ *   arrival,plate,vehicleType,fuelType,dwell[,entryGateId[,exitGateId]]
+ * for example
+ *   12.5,KA01AB1234,CAR,PETROL,5400,ENTRY_01
+ * Lines must be in increasing arrival order.
+ */
+public class TraceArrivals implements ArrivalProcess, AutoCloseable {
+    private final Path file;
+    private final BufferedReader reader;
+    private int lineNumber;
+
+    public TraceArrivals(Path file) throws IOException {
+        this.file = file;
+        this.reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public Arrival next() {
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    return parse(line);
+                }
+            }
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read trace " + file, e);
+        }
+    }
+
+    private Arrival parse(String line) {
+        String[] fields = line.split(",");
+        if (fields.length < 5) {
+            throw new IllegalArgumentException(file + ":" + lineNumber + ": expected at least 5 fields");
+        }
+        try {
+            long arrivalMillis = (long) (Double.parseDouble(fields[0].trim()) * 1000);
+            Vehicle vehicle = new Vehicle(fields[1].trim(), VehicleType.valueOf(fields[2].trim()),
+                    FuelType.valueOf(fields[3].trim()));
+            long dwellMillis = (long) (Double.parseDouble(fields[4].trim()) * 1000);
+            String entryGateId = fields.length > 5 && !fields[5].isBlank() ? fields[5].trim() : null;
+            String exitGateId = fields.length > 6 && !fields[6].isBlank() ? fields[6].trim() : null;
+            return new Arrival(arrivalMillis, vehicle, dwellMillis, entryGateId, exitGateId);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(file + ":" + lineNumber + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,229 @@
+package strategies;
+
+import enums.SlotStatus;
+import enums.SlotType;
+import interfaces.SlotAllocationStrategy;
+import interfaces.SlotStateListener;
+import models.ParkingFloor;
+import models.ParkingSlot;
+import models.Vehicle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Size-class allocation: every vehicle goes to the tightest slot type it fits
+ *
+ * Each floor already keeps its free slots bucketed by slot type, so a size class is
+ * searched by peeking the head of that class's buckets on each floor - the nearest free
+ * slot of the class, at a cost that does not grow with the number of slots. Only when the
+ * tightest class is full across the lot does a vehicle spill up, into the next larger class
+ * only and only while that class is less than spillOccupancy full. Bikes never take LARGE
+ * bays, instead of taking whatever slot happens to be nearest.
+ *
+ * By default a vehicle may spill until the larger class is full. FragmentationCheck shows
+ * that admits the most vehicles per hour: any lower spillOccupancy leaves bays idle that
+ * the vehicles turned away could have used. A lower value still suits a lot that would
+ * rather keep LARGE bays free for buses than admit more cars.
+ */
+public class BestFitSlotStrategy implements SlotAllocationStrategy {
+    public static final double DEFAULT_SPILL_OCCUPANCY = 1.0;
+    private static final SlotType[] SIZE_CLASSES = SlotType.values(); // smallest first
+
+    private final double spillOccupancy;
+    private volatile SizeClassCounters counters;
+
+    public BestFitSlotStrategy() {
+        this(DEFAULT_SPILL_OCCUPANCY);
+    }
+
+    /**
+     * @param spillOccupancy Occupancy (0-1) of a larger slot type from which smaller vehicles
+     *                       may no longer spill into it; 1 lets them spill until it is full
+     */
+    public BestFitSlotStrategy(double spillOccupancy) {
+        if (spillOccupancy < 0 || spillOccupancy > 1) {
+            throw new IllegalArgumentException("Spill occupancy must be between 0 and 1");
+        }
+        this.spillOccupancy = spillOccupancy;
+    }
+
+    public double getSpillOccupancy() {
+        return spillOccupancy;
+    }
+
+    @Override
+    public ParkingSlot allocateParkingSlot(Vehicle vehicle, List<ParkingFloor> floors, int entryFloor) {
+        if (vehicle == null || floors == null || floors.isEmpty()) {
+            return null;
+        }
+
+        int tightest = 0;
+        while (tightest < SIZE_CLASSES.length && !SIZE_CLASSES[tightest].canFit(vehicle.getVehicleType())) {
+            tightest++;
+        }
+        if (tightest == SIZE_CLASSES.length) {
+            return null;
+        }
+        ParkingSlot slot = nearestOfType(vehicle, SIZE_CLASSES[tightest], floors, entryFloor);
+        if (slot != null || tightest + 1 == SIZE_CLASSES.length) {
+            return slot;
+        }
+        // Spill one class up only, so a bike never takes a LARGE bay a bus could use
+        SlotType spillClass = SIZE_CLASSES[tightest + 1];
+        if (occupancy(floors, spillClass) >= spillOccupancy) {
+            return null;
+        }
+        return nearestOfType(vehicle, spillClass, floors, entryFloor);
+    }
+
+    /**
+     * Nearest free slot of one type across the floors
+     */
+    private static ParkingSlot nearestOfType(Vehicle vehicle, SlotType slotType, List<ParkingFloor> floors,
+                                             int entryFloor) {
+        ParkingSlot bestSlot = null;
+        int shortestDistance = Integer.MAX_VALUE;
+        for (ParkingFloor floor : floors) {
+            // Every slot on a floor k levels away is at least k * 100 + 1 away
+            if (Math.abs(floor.getFloorId() - entryFloor) * 100 >= shortestDistance) {
+                continue;
+            }
+            ParkingSlot slot = floor.findNearestAvailableSlot(vehicle, slotType);
+            if (slot != null && slot.getDistanceFromEntry(entryFloor) < shortestDistance) {
+                shortestDistance = slot.getDistanceFromEntry(entryFloor);
+                bestSlot = slot;
+            }
+        }
+        return bestSlot;
+    }
+
+    /**
+     * Share of a slot type's slots across the lot that are not free, from the lot-wide counters
+     */
+    private double occupancy(List<ParkingFloor> floors, SlotType slotType) {
+        return counters(floors).occupancy(slotType);
+    }
+
+    /**
+     * Lot-wide counters for these floors, rebuilt only when the floors or their slots change
+     * The lot hands out the same floor list until its layout changes, so the identity check
+     * is the common case; other callers pay one pass over the floors.
+     */
+    private SizeClassCounters counters(List<ParkingFloor> floors) {
+        SizeClassCounters current = counters;
+        if (current != null && current.lastFloors == floors && !current.stale) {
+            return current;
+        }
+        synchronized (this) {
+            current = counters;
+            if (current != null && !current.stale && current.floors.equals(floors)) {
+                current.lastFloors = floors;
+                return current;
+            }
+            if (current != null) {
+                current.close();
+            }
+            current = new SizeClassCounters(floors);
+            counters = current;
+            return current;
+        }
+    }
+
+    /**
+     * Free and total slots per size class across a set of floors
+     * Kept current by one SlotStateListener per floor. A slot may be reported more than
+     * once, so each floor's listener keeps a free bit per slot, keyed by its column index,
+     * and only a report that flips the bit moves the count. Adding a slot marks the counters
+     * stale and the next allocation rebuilds them.
+     */
+    private static class SizeClassCounters {
+        final List<ParkingFloor> floors;
+        volatile List<ParkingFloor> lastFloors; // list instance last asked for, for the identity check
+        private final List<FloorListener> listeners;
+        private final int[] total;
+        private final AtomicIntegerArray free;
+        volatile boolean stale;
+
+        SizeClassCounters(List<ParkingFloor> floors) {
+            this.floors = List.copyOf(floors);
+            this.lastFloors = floors;
+            this.listeners = new ArrayList<>(floors.size());
+            this.total = new int[SIZE_CLASSES.length];
+            this.free = new AtomicIntegerArray(SIZE_CLASSES.length);
+
+            // Listen first, then seed, re-checking each slot in case it changed while being seeded
+            List<List<ParkingSlot>> slotsByFloor = new ArrayList<>(floors.size());
+            for (ParkingFloor floor : floors) {
+                FloorListener listener = new FloorListener(floor.getTotalSlots());
+                floor.addSlotStateListener(listener);
+                listeners.add(listener);
+                slotsByFloor.add(floor.getParkingSlots());
+            }
+            for (int f = 0; f < floors.size(); f++) {
+                FloorListener listener = listeners.get(f);
+                for (ParkingSlot slot : slotsByFloor.get(f)) {
+                    total[slot.getSlotType().ordinal()]++;
+                    SlotStatus status;
+                    do {
+                        status = slot.getSlotStatus();
+                        listener.track(slot, status == SlotStatus.EMPTY);
+                    } while (status != slot.getSlotStatus());
+                }
+            }
+        }
+
+        double occupancy(SlotType slotType) {
+            int slots = total[slotType.ordinal()];
+            return slots == 0 ? 1.0 : 1.0 - (double) free.get(slotType.ordinal()) / slots;
+        }
+
+        void close() {
+            for (int f = 0; f < floors.size(); f++) {
+                floors.get(f).removeSlotStateListener(listeners.get(f));
+            }
+        }
+
+        private class FloorListener implements SlotStateListener {
+            private final AtomicLongArray freeBits;
+            private final int slots;
+
+            FloorListener(int slots) {
+                this.slots = slots;
+                this.freeBits = new AtomicLongArray((slots + 63) >>> 6);
+            }
+
+            void track(ParkingSlot slot, boolean isFree) {
+                int column = slot.getColumnIndex();
+                if (column >= slots) {
+                    return; // added after the counters were built; they are stale already
+                }
+                long bit = 1L << (column & 63);
+                long word;
+                do {
+                    word = freeBits.get(column >>> 6);
+                    if (((word & bit) != 0) == isFree) {
+                        return; // repeated report
+                    }
+                } while (!freeBits.compareAndSet(column >>> 6, word, word ^ bit));
+                if (isFree) {
+                    free.incrementAndGet(slot.getSlotType().ordinal());
+                } else {
+                    free.decrementAndGet(slot.getSlotType().ordinal());
+                }
+            }
+
+            @Override
+            public void onSlotStateChanged(ParkingSlot slot, boolean previousCharging, boolean charging,
+                                           boolean isFree) {
+                track(slot, isFree);
+            }
+
+            @Override
+            public void onSlotAdded(ParkingSlot slot) {
+                stale = true;
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package strategies;
 
 import interfaces.PricingStrategy;
+import models.PriceBreakdown;
 import models.Ticket;
 import enums.SlotType;
 import enums.VehicleType;
@@ -24,36 +25,67 @@ public class DynamicPricing implements PricingStrategy {
     // Minimum charge (even for short duration)
     private static final double MINIMUM_CHARGE = 1.0;
     
+    // Every (vehicle, slot, charging, peak, hours) price, compiled once from the rules below
+    private final TariffTable tariff = new TariffTable(new DynamicFormula());
+    
     @Override
     public double calculatePrice(Ticket ticket) {
+        return calculatePriceCents(ticket) / 100.0;
+    }
+    
+    @Override
+    public long calculatePriceCents(Ticket ticket) {
         if (ticket == null) {
-            return 0.0;
+            return 0;
         }
-        
-        long durationMinutes = ticket.getParkingDurationInMinutes();
-        double durationHours = Math.max(1.0, Math.ceil(durationMinutes / 60.0));
-        
-        double baseRate = getBaseRateByVehicleType(ticket.getVehicle().getVehicleType());
-        
-        double slotMultiplier = getSlotTypeMultiplier(ticket.getParkingSlot().getSlotType());
-        
-        double baseCost = baseRate * slotMultiplier * durationHours;
-        
-        double peakMultiplier = isPeakHour(ticket.getEntryTime().getHour()) ? PEAK_HOUR_MULTIPLIER : 1.0;
-        baseCost *= peakMultiplier;
-        
-        double chargingCost = 0.0;
-        if (ticket.getVehicle().requiresCharging() && ticket.getParkingSlot().isChargingAvailable()) {
-            chargingCost = EV_CHARGING_RATE * durationHours;
+        return tariff.totalCents(ticket, System.currentTimeMillis());
+    }
+    
+    /**
+     * Itemise the price of a ticket into a caller-owned breakdown (no allocation)
+     * @param ticket The parking ticket
+     * @param out Breakdown to fill
+     * @return out
+     */
+    public PriceBreakdown calculateBreakdown(Ticket ticket, PriceBreakdown out) {
+        return tariff.price(ticket, System.currentTimeMillis(), out);
+    }
+    
+    /**
+     * Bill stays entering in the given hours at the peak rate instead of 9:00-18:59
+     * Typically fed from OccupancyHistory.peakHours once a day of history has been recorded.
+     * 
+     * @param peakHours Peak flag per hour of day, indexed 0-23
+     */
+    public void setPeakHours(boolean[] peakHours) {
+        tariff.setPeakHours(peakHours);
+    }
+    
+    /**
+     * The pricing rules; only evaluated while the tariff table is built
+     */
+    private class DynamicFormula implements TariffTable.Formula {
+        @Override
+        public void price(VehicleType vehicleType, SlotType slotType, boolean charging, boolean peak,
+                          int billableHours, PriceBreakdown out) {
+            double baseCost = getBaseRateByVehicleType(vehicleType) * getSlotTypeMultiplier(slotType) * billableHours;
+            baseCost *= peak ? PEAK_HOUR_MULTIPLIER : 1.0;
+            
+            double chargingCost = charging ? EV_CHARGING_RATE * billableHours : 0.0;
+            
+            double discountMultiplier = getLongTermDiscountMultiplier(billableHours);
+            double totalCost = Math.max((baseCost + chargingCost) * discountMultiplier, MINIMUM_CHARGE);
+            
+            out.set(vehicleType, slotType, charging, peak, billableHours,
+                    TariffTable.toCents(baseCost), TariffTable.toCents(chargingCost),
+                    TariffTable.toCents((baseCost + chargingCost) * (1 - discountMultiplier)),
+                    TariffTable.toCents(totalCost));
         }
         
-        double discountMultiplier = getLongTermDiscountMultiplier(durationHours);
-        
-        double totalCost = (baseCost + chargingCost) * discountMultiplier;
-        
-        totalCost = Math.max(totalCost, MINIMUM_CHARGE);
-        
-        return Math.round(totalCost * 100.0) / 100.0; 
+        @Override
+        public boolean isPeakHour(int entryHour) {
+            return DynamicPricing.this.isPeakHour(entryHour);
+        }
     }
     
     
@@ -108,25 +140,11 @@ public class DynamicPricing implements PricingStrategy {
             return "Invalid ticket";
         }
         
-        long durationMinutes = ticket.getParkingDurationInMinutes();
-        double durationHours = Math.max(1.0, Math.ceil(durationMinutes / 60.0));
-        
-        double baseRate = getBaseRateByVehicleType(ticket.getVehicle().getVehicleType());
-        double slotMultiplier = getSlotTypeMultiplier(ticket.getParkingSlot().getSlotType());
-        double baseCost = baseRate * slotMultiplier * durationHours;
-        
-        boolean isPeak = isPeakHour(ticket.getEntryTime().getHour());
-        double peakMultiplier = isPeak ? PEAK_HOUR_MULTIPLIER : 1.0;
-        baseCost *= peakMultiplier;
-        
-        double chargingCost = 0.0;
-        if (ticket.getVehicle().requiresCharging() && ticket.getParkingSlot().isChargingAvailable()) {
-            chargingCost = EV_CHARGING_RATE * durationHours;
-        }
-        
+        PriceBreakdown price = calculateBreakdown(ticket, new PriceBreakdown());
+        double durationHours = price.getBillableHours();
+        double baseRate = getBaseRateByVehicleType(price.getVehicleType());
+        double slotMultiplier = getSlotTypeMultiplier(price.getSlotType());
         double discountMultiplier = getLongTermDiscountMultiplier(durationHours);
-        double totalCost = (baseCost + chargingCost) * discountMultiplier;
-        totalCost = Math.max(totalCost, MINIMUM_CHARGE);
         
         StringBuilder breakdown = new StringBuilder();
         breakdown.append("=== PRICING BREAKDOWN ===\n");
@@ -135,17 +153,17 @@ public class DynamicPricing implements PricingStrategy {
         breakdown.append("Base Rate: $").append(String.format("%.2f/hour", baseRate)).append("\n");
         breakdown.append("Slot Type: ").append(ticket.getParkingSlot().getSlotType())
                 .append(" (x").append(slotMultiplier).append(")\n");
-        if (isPeak) {
+        if (price.isPeak()) {
             breakdown.append("Peak Hour Multiplier: x").append(PEAK_HOUR_MULTIPLIER).append("\n");
         }
-        breakdown.append("Parking Cost: $").append(String.format("%.2f", baseCost)).append("\n");
-        if (chargingCost > 0) {
-            breakdown.append("EV Charging: $").append(String.format("%.2f", chargingCost)).append("\n");
+        breakdown.append("Parking Cost: $").append(String.format("%.2f", price.getParkingCents() / 100.0)).append("\n");
+        if (price.getChargingCents() > 0) {
+            breakdown.append("EV Charging: $").append(String.format("%.2f", price.getChargingCents() / 100.0)).append("\n");
         }
         if (discountMultiplier < 1.0) {
             breakdown.append("Long-term Discount: ").append(String.format("%.0f%%", (1 - discountMultiplier) * 100)).append("\n");
         }
-        breakdown.append("TOTAL: $").append(String.format("%.2f", totalCost));
+        breakdown.append("TOTAL: $").append(String.format("%.2f", price.getTotalAmount()));
         
         return breakdown.toString();
     }
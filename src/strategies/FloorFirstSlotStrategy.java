@@ -0,0 +1,55 @@
+package strategies;
+
+import interfaces.SlotAllocationStrategy;
+import models.ParkingFloor;
+import models.ParkingSlot;
+import models.Vehicle;
+import java.util.List;
+
+/**
+ * Allocates on the entry gate's own floor first and fans out to other floors only when it is full
+ * Every floor keeps its own lock-free free-slot index, so gates on different floors touch
+ * disjoint data as long as their floors have room - they never contend with each other.
+ * When the gate's floor is full, the nearest floor (by level) with room is used, lower
+ * floors winning ties.
+ */
+public class FloorFirstSlotStrategy implements SlotAllocationStrategy {
+    
+    @Override
+    public ParkingSlot allocateParkingSlot(Vehicle vehicle, List<ParkingFloor> floors, int entryFloor) {
+        if (vehicle == null || floors == null || floors.isEmpty()) {
+            return null;
+        }
+        
+        // Own floor first
+        for (ParkingFloor floor : floors) {
+            if (floor.getFloorId() == entryFloor) {
+                ParkingSlot slot = floor.findNearestAvailableSlot(vehicle);
+                if (slot != null) {
+                    return slot;
+                }
+                break;
+            }
+        }
+        
+        // Fan out: closest level with room, never looking at levels farther than the best so far
+        ParkingSlot bestSlot = null;
+        int bestSpan = Integer.MAX_VALUE;
+        int bestFloorId = Integer.MAX_VALUE;
+        for (ParkingFloor floor : floors) {
+            int floorId = floor.getFloorId();
+            int span = Math.abs(floorId - entryFloor);
+            if (span == 0 || span > bestSpan || (span == bestSpan && floorId > bestFloorId)) {
+                continue;
+            }
+            ParkingSlot slot = floor.findNearestAvailableSlot(vehicle);
+            if (slot != null) {
+                bestSlot = slot;
+                bestSpan = span;
+                bestFloorId = floorId;
+            }
+        }
+        
+        return bestSlot;
+    }
+}
@@ -1,12 +1,17 @@
 package strategies;
 
+import enums.VehicleType;
 import interfaces.SlotAllocationStrategy;
+import models.EntryGate;
+import models.GateDistanceIndex;
 import models.ParkingFloor;
 import models.ParkingSlot;
 import models.Vehicle;
+import java.util.ArrayList;
 import java.util.List;
 
 public class NearestSlotStrategy implements SlotAllocationStrategy {
+    private static final int VEHICLE_TYPES = VehicleType.values().length;
     
     @Override
     public ParkingSlot allocateParkingSlot(Vehicle vehicle, List<ParkingFloor> floors, int entryFloor) {
@@ -17,26 +22,75 @@ public class NearestSlotStrategy implements SlotAllocationStrategy {
         ParkingSlot bestSlot = null;
         int shortestDistance = Integer.MAX_VALUE;
         
-        // Find the closest available slot
+        // Each floor's free index yields its nearest compatible slot directly
         for (ParkingFloor floor : floors) {
-            List<ParkingSlot> availableSlots = floor.getAvailableSlots(vehicle);
+            // Every slot on a floor k levels away is at least k * 100 + 1 away
+            if (Math.abs(floor.getFloorId() - entryFloor) * 100 >= shortestDistance) {
+                continue;
+            }
+            ParkingSlot slot = floor.findNearestAvailableSlot(vehicle);
+            if (slot == null) {
+                continue;
+            }
             
-            for (ParkingSlot slot : availableSlots) {
-                int distance = slot.getDistanceFromEntry(entryFloor);
-                
-                if (distance < shortestDistance) {
-                    shortestDistance = distance;
-                    bestSlot = slot;
-                }
+            int distance = slot.getDistanceFromEntry(entryFloor);
+            if (distance < shortestDistance) {
+                shortestDistance = distance;
+                bestSlot = slot;
             }
         }
         
-        if (bestSlot != null) {
-            System.out.println("Nearest slot found: " + bestSlot.getSlotId() + 
-                             " on floor " + bestSlot.getFloorNumber() + 
-                             " (Distance: " + shortestDistance + ")");
-        }
-        
         return bestSlot;
     }
+    
+    /**
+     * Nearest by real walking distance from the gate, using the gate's precomputed slot order
+     */
+    @Override
+    public ParkingSlot allocateParkingSlot(Vehicle vehicle, List<ParkingFloor> floors, EntryGate entryGate) {
+        if (vehicle == null || floors == null || floors.isEmpty()) {
+            return null;
+        }
+        return entryGate.getDistanceIndex(floors).findNearestFreeSlot(vehicle);
+    }
+    
+    /**
+     * Serve a batch by real walking distance from the gate, in one pass over its free index
+     * Vehicles with the same size and charging needs share one nearest-first cursor, so each
+     * free slot is visited at most once per group instead of once per vehicle, and vehicles
+     * get the slots single arrivals would have, in arrival order. Slots taken by another group
+     * or gate are skipped by the CAS in parkVehicle, at most MAX_ALLOCATION_ATTEMPTS per vehicle.
+     */
+    @Override
+    public List<ParkingSlot> allocateParkingSlots(List<Vehicle> vehicles, List<ParkingFloor> floors,
+                                                 EntryGate entryGate) {
+        List<ParkingSlot> allocated = new ArrayList<>(vehicles.size());
+        GateDistanceIndex index = floors == null || floors.isEmpty() ? null : entryGate.getDistanceIndex(floors);
+        GateDistanceIndex.FreeSlotCursor[] cursors = new GateDistanceIndex.FreeSlotCursor[VEHICLE_TYPES * 2];
+        for (Vehicle vehicle : vehicles) {
+            if (index == null) {
+                allocated.add(null);
+                continue;
+            }
+            int group = vehicle.getVehicleType().ordinal() * 2 + (vehicle.requiresCharging() ? 1 : 0);
+            GateDistanceIndex.FreeSlotCursor cursor = cursors[group];
+            if (cursor == null) {
+                cursor = index.freeSlotsNearestFirst(vehicle);
+                cursors[group] = cursor;
+            }
+            
+            ParkingSlot parked = null;
+            for (int attempt = 0; attempt < EntryGate.MAX_ALLOCATION_ATTEMPTS && parked == null; attempt++) {
+                ParkingSlot slot = cursor.next();
+                if (slot == null) {
+                    break;
+                }
+                if (slot.parkVehicle(vehicle)) {
+                    parked = slot;
+                }
+            }
+            allocated.add(parked);
+        }
+        return allocated;
+    }
 }
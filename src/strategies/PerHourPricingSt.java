@@ -1,7 +1,9 @@
 package strategies;
 
 import interfaces.PricingStrategy;
+import models.PriceBreakdown;
 import models.Ticket;
+import enums.SlotType;
 import enums.VehicleType;
 
 public class PerHourPricingSt implements PricingStrategy {
@@ -15,27 +17,41 @@ public class PerHourPricingSt implements PricingStrategy {
     
     private static final double MINIMUM_HOURS = 1.0;
     
+    // Prices for stays of up to TariffTable.DEFAULT_TABLE_HOURS, compiled once
+    private final TariffTable tariff = new TariffTable(this::priceStay);
+    
     @Override
     public double calculatePrice(Ticket ticket) {
+        return calculatePriceCents(ticket) / 100.0;
+    }
+    
+    @Override
+    public long calculatePriceCents(Ticket ticket) {
         if (ticket == null) {
-            return 0.0;
+            return 0;
         }
-        
-        long durationMinutes = ticket.getParkingDurationInMinutes();
-        double durationHours = Math.max(MINIMUM_HOURS, Math.ceil(durationMinutes / 60.0));
-        
-        double hourlyRate = getHourlyRate(ticket.getVehicle().getVehicleType());
-        
-        double parkingCost = hourlyRate * durationHours;
-        
-        double chargingFee = 0.0;
-        if (ticket.getVehicle().requiresCharging() && ticket.getParkingSlot().isChargingAvailable()) {
-            chargingFee = EV_CHARGING_FEE;
-        }
-        
-        double totalCost = parkingCost + chargingFee;
-        
-        return Math.round(totalCost * 100.0) / 100.0; 
+        return tariff.totalCents(ticket, System.currentTimeMillis());
+    }
+    
+    /**
+     * Itemise the price of a ticket into a caller-owned breakdown (no allocation)
+     * @param ticket The parking ticket
+     * @param out Breakdown to fill
+     * @return out
+     */
+    public PriceBreakdown calculateBreakdown(Ticket ticket, PriceBreakdown out) {
+        return tariff.price(ticket, System.currentTimeMillis(), out);
+    }
+    
+    /**
+     * The pricing rules; only evaluated while the tariff table is built (no peak pricing)
+     */
+    private void priceStay(VehicleType vehicleType, SlotType slotType, boolean charging, boolean peak,
+                           int billableHours, PriceBreakdown out) {
+        double parkingCost = getHourlyRate(vehicleType) * billableHours;
+        double chargingFee = charging ? EV_CHARGING_FEE : 0.0;
+        out.set(vehicleType, slotType, charging, peak, billableHours, TariffTable.toCents(parkingCost),
+                TariffTable.toCents(chargingFee), 0, TariffTable.toCents(parkingCost + chargingFee));
     }
     
     /**
@@ -68,17 +84,12 @@ public class PerHourPricingSt implements PricingStrategy {
             return "Invalid ticket";
         }
         
-        long durationMinutes = ticket.getParkingDurationInMinutes();
-        double durationHours = Math.max(MINIMUM_HOURS, Math.ceil(durationMinutes / 60.0));
+        PriceBreakdown price = calculateBreakdown(ticket, new PriceBreakdown());
+        double durationHours = price.getBillableHours();
         double hourlyRate = getHourlyRate(ticket.getVehicle().getVehicleType());
-        double parkingCost = hourlyRate * durationHours;
-        
-        double chargingFee = 0.0;
-        if (ticket.getVehicle().requiresCharging() && ticket.getParkingSlot().isChargingAvailable()) {
-            chargingFee = EV_CHARGING_FEE;
-        }
-        
-        double totalCost = parkingCost + chargingFee;
+        double parkingCost = price.getParkingCents() / 100.0;
+        double chargingFee = price.getChargingCents() / 100.0;
+        double totalCost = price.getTotalAmount();
         
         StringBuilder breakdown = new StringBuilder();
         breakdown.append("=== SIMPLE PRICING BREAKDOWN ===\n");
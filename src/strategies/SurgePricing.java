@@ -0,0 +1,203 @@
+package strategies;
+
+import interfaces.PricingStrategy;
+import models.ParkingFloor;
+import models.ParkingLot;
+import models.Ticket;
+import enums.SlotType;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Occupancy-aware surge pricing on top of another pricing strategy
+ *
+ * The base price is scaled by a multiplier that rises once a floor's slots of the ticket's
+ * type are more than surgeThreshold full, up to maxMultiplier when they are all taken.
+ * Multipliers are recomputed from the floors' occupancy counters by refresh() - on a
+ * background schedule after start() - and published as an immutable table behind a volatile
+ * reference. Pricing an exit is a base price lookup and one array read; it never scans
+ * the lot. Multipliers move in steps of MULTIPLIER_STEP so prices do not jitter between
+ * refreshes.
+ */
+public class SurgePricing implements PricingStrategy, AutoCloseable {
+    public static final double DEFAULT_SURGE_THRESHOLD = 0.7;
+    public static final double DEFAULT_MAX_MULTIPLIER = 2.0;
+    public static final double MULTIPLIER_STEP = 0.25;
+    private static final SlotType[] SLOT_TYPES = SlotType.values();
+
+    private final PricingStrategy basePricing;
+    private final ParkingLot parkingLot;
+    private final double surgeThreshold;
+    private final double maxMultiplier;
+    private volatile Multipliers multipliers = Multipliers.NONE;
+    private ScheduledExecutorService refresher;
+
+    public SurgePricing(PricingStrategy basePricing, ParkingLot parkingLot) {
+        this(basePricing, parkingLot, DEFAULT_SURGE_THRESHOLD, DEFAULT_MAX_MULTIPLIER);
+    }
+
+    /**
+     * @param basePricing Strategy whose prices are scaled
+     * @param parkingLot Lot whose occupancy drives the multipliers
+     * @param surgeThreshold Occupancy (0-1) above which prices start rising
+     * @param maxMultiplier Multiplier when every slot of a type on a floor is taken
+     */
+    public SurgePricing(PricingStrategy basePricing, ParkingLot parkingLot, double surgeThreshold,
+                        double maxMultiplier) {
+        if (surgeThreshold < 0 || surgeThreshold >= 1) {
+            throw new IllegalArgumentException("Surge threshold must be at least 0 and below 1");
+        }
+        if (maxMultiplier < 1) {
+            throw new IllegalArgumentException("Maximum multiplier cannot be below 1");
+        }
+        this.basePricing = basePricing;
+        this.parkingLot = parkingLot;
+        this.surgeThreshold = surgeThreshold;
+        this.maxMultiplier = maxMultiplier;
+    }
+
+    public PricingStrategy getBasePricing() {
+        return basePricing;
+    }
+
+    @Override
+    public double calculatePrice(Ticket ticket) {
+        return calculatePriceCents(ticket) / 100.0;
+    }
+
+    @Override
+    public long calculatePriceCents(Ticket ticket) {
+        if (ticket == null) {
+            return 0;
+        }
+        double multiplier = multipliers.of(ticket.getParkingSlot().getFloorNumber(),
+                ticket.getParkingSlot().getSlotType());
+        return Math.round(basePricing.calculatePriceCents(ticket) * multiplier);
+    }
+
+    /**
+     * Current multiplier for a slot type on a floor
+     * @return 1.0 for floors not seen by the last refresh
+     */
+    public double getMultiplier(int floorId, SlotType slotType) {
+        return multipliers.of(floorId, slotType);
+    }
+
+    /**
+     * When the published multipliers were computed, in epoch millis (0 before the first refresh)
+     */
+    public long getRefreshedAtMillis() {
+        return multipliers.computedAtMillis;
+    }
+
+    /**
+     * Recompute every floor's multipliers from its occupancy counters and publish them
+     */
+    public void refresh() {
+        List<ParkingFloor> floors = parkingLot.getFloors();
+        if (floors.isEmpty()) {
+            multipliers = Multipliers.NONE;
+            return;
+        }
+        int[] floorIds = new int[floors.size()];
+        double[][] byFloor = new double[floors.size()][];
+        for (int position = 0; position < floorIds.length; position++) {
+            ParkingFloor floor = floors.get(position);
+            double[] byType = new double[SLOT_TYPES.length];
+            for (SlotType slotType : SLOT_TYPES) {
+                int total = floor.getTotalSlots(slotType);
+                byType[slotType.ordinal()] = total == 0 ? 1.0
+                        : multiplierFor((double) floor.getOccupiedSlotsCount(slotType) / total);
+            }
+            floorIds[position] = floor.getFloorId();
+            byFloor[position] = byType;
+        }
+        multipliers = new Multipliers(floorIds, byFloor, System.currentTimeMillis());
+    }
+
+    /**
+     * Multiplier for an occupancy: 1 up to the threshold, then rising linearly to the
+     * maximum, rounded down to a whole step
+     */
+    double multiplierFor(double occupancy) {
+        if (occupancy <= surgeThreshold) {
+            return 1.0;
+        }
+        double surge = (maxMultiplier - 1.0) * (occupancy - surgeThreshold) / (1.0 - surgeThreshold);
+        return Math.min(maxMultiplier, 1.0 + Math.floor(surge / MULTIPLIER_STEP) * MULTIPLIER_STEP);
+    }
+
+    /**
+     * Refresh the multipliers every intervalMillis on a background thread
+     */
+    public synchronized void start(long intervalMillis) {
+        if (refresher != null) {
+            throw new IllegalStateException("Surge refresher already running");
+        }
+        refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "surge-pricing-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refresher.scheduleAtFixedRate(() -> {
+            // An exception would cancel the schedule and freeze the multipliers; keep the old ones and retry
+            try {
+                refresh();
+            } catch (RuntimeException e) {
+                System.err.println("Surge pricing refresh failed: " + e);
+            }
+        }, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+            refresher = null;
+        }
+    }
+
+    /**
+     * Immutable multiplier table, indexed by the floor's position in the lot's floor list, then slot type
+     */
+    private static final class Multipliers {
+        static final Multipliers NONE = new Multipliers(new int[0], new double[0][], 0);
+
+        final int[] floorIds; // floor ID at each position
+        final double[][] byFloor;
+        final long computedAtMillis;
+
+        Multipliers(int[] floorIds, double[][] byFloor, long computedAtMillis) {
+            this.floorIds = floorIds;
+            this.byFloor = byFloor;
+            this.computedAtMillis = computedAtMillis;
+        }
+
+        double of(int floorId, SlotType slotType) {
+            int position = positionOf(floorId);
+            return position < 0 ? 1.0 : byFloor[position][slotType.ordinal()];
+        }
+
+        /**
+         * @return Position of the floor, or -1 if it was not seen
+         */
+        private int positionOf(int floorId) {
+            if (floorIds.length == 0) {
+                return -1;
+            }
+            // Floors are usually numbered consecutively in the order they were added
+            int guess = floorId - floorIds[0];
+            if (guess >= 0 && guess < floorIds.length && floorIds[guess] == floorId) {
+                return guess;
+            }
+            for (int position = 0; position < floorIds.length; position++) {
+                if (floorIds[position] == floorId) {
+                    return position;
+                }
+            }
+            return -1;
+        }
+    }
+}
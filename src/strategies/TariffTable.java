@@ -0,0 +1,180 @@
+package strategies;
+
+import enums.SlotType;
+import enums.VehicleType;
+import models.PriceBreakdown;
+import models.Ticket;
+
+/**
+ * Compiled tariff: every price a formula can produce, precomputed into one dense array
+ *
+ * The table is indexed by (vehicle type, slot type, charging, peak, billable hours) and holds
+ * parking, charging, discount and total cents for stays of up to maxTableHours. Pricing a
+ * ticket is then an index calculation and an array read on epoch-millis longs - no
+ * LocalDateTime.now(), Duration, switch or floating-point rounding at exit time. Longer stays
+ * evaluate the formula directly into a per-thread scratch breakdown, still without allocating.
+ */
+public class TariffTable {
+    
+    /**
+     * The pricing rules being compiled, evaluated once per table cell
+     */
+    public interface Formula {
+        /**
+         * Price one stay; amounts are in cents
+         */
+        void price(VehicleType vehicleType, SlotType slotType, boolean charging, boolean peak,
+                   int billableHours, PriceBreakdown out);
+        
+        /**
+         * @param entryHour Hour of day (0-23) the vehicle entered
+         * @return Whether the stay is billed at the peak rate
+         */
+        default boolean isPeakHour(int entryHour) {
+            return false;
+        }
+    }
+    
+    public static final int DEFAULT_TABLE_HOURS = 72;
+    private static final long MILLIS_PER_MINUTE = 60_000L;
+    private static final int FIELDS = 4; // parking, charging, discount, total
+    private static final VehicleType[] VEHICLE_TYPES = VehicleType.values();
+    private static final SlotType[] SLOT_TYPES = SlotType.values();
+    
+    private final Formula formula;
+    private final int maxTableHours;
+    private final long[] cells;
+    private volatile boolean[] peakByHour = new boolean[24]; // replaced whole, never written in place
+    private final ThreadLocal<PriceBreakdown> scratch = ThreadLocal.withInitial(PriceBreakdown::new);
+    
+    public TariffTable(Formula formula) {
+        this(formula, DEFAULT_TABLE_HOURS);
+    }
+    
+    /**
+     * @param formula Pricing rules
+     * @param maxTableHours Longest stay (in billable hours) served from the table
+     */
+    public TariffTable(Formula formula, int maxTableHours) {
+        if (maxTableHours < 1) {
+            throw new IllegalArgumentException("Table must cover at least one hour");
+        }
+        this.formula = formula;
+        this.maxTableHours = maxTableHours;
+        this.cells = new long[VEHICLE_TYPES.length * SLOT_TYPES.length * 4 * (maxTableHours + 1) * FIELDS];
+        
+        boolean[] peakHours = new boolean[24];
+        for (int hour = 0; hour < 24; hour++) {
+            peakHours[hour] = formula.isPeakHour(hour);
+        }
+        this.peakByHour = peakHours;
+        
+        PriceBreakdown cell = new PriceBreakdown();
+        for (VehicleType vehicleType : VEHICLE_TYPES) {
+            for (SlotType slotType : SLOT_TYPES) {
+                for (int flags = 0; flags < 4; flags++) {
+                    boolean charging = (flags & 2) != 0;
+                    boolean peak = (flags & 1) != 0;
+                    for (int hours = 1; hours <= maxTableHours; hours++) {
+                        formula.price(vehicleType, slotType, charging, peak, hours, cell);
+                        int base = indexOf(vehicleType, slotType, charging, peak, hours);
+                        cells[base] = cell.getParkingCents();
+                        cells[base + 1] = cell.getChargingCents();
+                        cells[base + 2] = cell.getDiscountCents();
+                        cells[base + 3] = cell.getTotalCents();
+                    }
+                }
+            }
+        }
+    }
+    
+    private int indexOf(VehicleType vehicleType, SlotType slotType, boolean charging, boolean peak, int hours) {
+        int combination = ((vehicleType.ordinal() * SLOT_TYPES.length + slotType.ordinal()) * 2
+                + (charging ? 1 : 0)) * 2 + (peak ? 1 : 0);
+        return (combination * (maxTableHours + 1) + hours) * FIELDS;
+    }
+    
+    /**
+     * Billable hours between two instants: started hours, at least one
+     */
+    public static int billableHours(long entryEpochMillis, long nowEpochMillis) {
+        long minutes = (nowEpochMillis - entryEpochMillis) / MILLIS_PER_MINUTE;
+        long hours = (minutes + 59) / 60;
+        return (int) Math.max(1, Math.min(hours, Integer.MAX_VALUE));
+    }
+    
+    public boolean isPeakHour(int entryHour) {
+        return peakByHour[entryHour];
+    }
+    
+    /**
+     * Replace the formula's peak hours, e.g. with hours learned from occupancy history
+     * Prices already in the table do not change; only which of them a ticket is billed at.
+     * 
+     * @param peakHours Peak flag per hour of day, indexed 0-23
+     */
+    public void setPeakHours(boolean[] peakHours) {
+        if (peakHours.length != 24) {
+            throw new IllegalArgumentException("Need a peak flag for each of the 24 hours");
+        }
+        this.peakByHour = peakHours.clone();
+    }
+    
+    /**
+     * Total price of a stay in cents
+     */
+    public long totalCents(VehicleType vehicleType, SlotType slotType, boolean charging, boolean peak,
+                           int billableHours) {
+        if (billableHours <= maxTableHours) {
+            return cells[indexOf(vehicleType, slotType, charging, peak, billableHours) + 3];
+        }
+        PriceBreakdown out = scratch.get();
+        formula.price(vehicleType, slotType, charging, peak, billableHours, out);
+        return out.getTotalCents();
+    }
+    
+    /**
+     * Fill a caller-owned breakdown with the itemised price of a stay
+     * @return out
+     */
+    public PriceBreakdown price(VehicleType vehicleType, SlotType slotType, boolean charging, boolean peak,
+                                int billableHours, PriceBreakdown out) {
+        if (billableHours > maxTableHours) {
+            formula.price(vehicleType, slotType, charging, peak, billableHours, out);
+            return out;
+        }
+        int base = indexOf(vehicleType, slotType, charging, peak, billableHours);
+        return out.set(vehicleType, slotType, charging, peak, billableHours,
+                cells[base], cells[base + 1], cells[base + 2], cells[base + 3]);
+    }
+    
+    /**
+     * Total price of a ticket in cents if it checks out at nowEpochMillis
+     */
+    public long totalCents(Ticket ticket, long nowEpochMillis) {
+        return totalCents(ticket.getVehicle().getVehicleType(), ticket.getParkingSlot().getSlotType(),
+                isCharging(ticket), peakByHour[ticket.getEntryTime().getHour()],
+                billableHours(ticket.getEntryEpochMillis(), nowEpochMillis));
+    }
+    
+    /**
+     * Itemised price of a ticket if it checks out at nowEpochMillis
+     * @return out
+     */
+    public PriceBreakdown price(Ticket ticket, long nowEpochMillis, PriceBreakdown out) {
+        return price(ticket.getVehicle().getVehicleType(), ticket.getParkingSlot().getSlotType(),
+                isCharging(ticket), peakByHour[ticket.getEntryTime().getHour()],
+                billableHours(ticket.getEntryEpochMillis(), nowEpochMillis), out);
+    }
+    
+    private static boolean isCharging(Ticket ticket) {
+        return ticket.getVehicle().requiresCharging() && ticket.getParkingSlot().isChargingAvailable();
+    }
+    
+    /**
+     * Round a formula's floating-point amount to cents (used while compiling the table)
+     */
+    public static long toCents(double amount) {
+        return Math.round(amount * 100.0);
+    }
+}
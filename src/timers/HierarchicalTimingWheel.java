@@ -0,0 +1,247 @@
+package timers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hashed hierarchical timing wheel for very many long-lived timers
+ *
+ * Time is cut into ticks of tickMillis. Level 0 has one bucket per tick for the next
+ * 64 ticks; each higher level has 64 buckets each 64 times wider than the level below.
+ * A task goes into the bucket of the lowest level whose span reaches its deadline. When a
+ * level-0 rotation completes, the next bucket of level 1 is cascaded - its tasks are
+ * re-inserted one level down - and so on upwards, the way the classic Unix kernel timer
+ * wheel works. Scheduling and cancelling are O(1) and a pending task costs one small node,
+ * instead of a heap entry and a future per task in a ScheduledExecutorService.
+ *
+ * The clock is advanced explicitly with advanceTo, or every tick by a background thread
+ * after start(). Due tasks run on the advancing thread, outside the wheel's lock, so they
+ * may schedule or cancel other tasks. A task never runs before its deadline and runs at
+ * most one tick after it once the clock reaches it.
+ */
+public class HierarchicalTimingWheel implements AutoCloseable {
+    private static final int BITS_PER_LEVEL = 6;
+    private static final int BUCKETS = 1 << BITS_PER_LEVEL;
+    private static final int MASK = BUCKETS - 1;
+    private static final int LEVELS = 5; // 2^30 ticks: 34 years of one-second ticks
+    private static final long MAX_DELTA = (1L << (BITS_PER_LEVEL * LEVELS)) - 1;
+
+    private final long tickMillis;
+    private final Timeout[][] buckets = new Timeout[LEVELS][BUCKETS]; // sentinels of circular lists
+    private final Timeout overdue; // sentinel of tasks scheduled for a tick already processed
+    private long currentTick; // next tick to process
+    private int pending;
+    private ScheduledExecutorService ticker;
+
+    /**
+     * @param tickMillis Resolution of the wheel
+     * @param startMillis Current time (epoch millis); the wheel's clock starts here
+     */
+    public HierarchicalTimingWheel(long tickMillis, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+        for (int level = 0; level < LEVELS; level++) {
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                buckets[level][bucket] = newSentinel();
+            }
+        }
+        this.overdue = newSentinel();
+    }
+
+    private Timeout newSentinel() {
+        Timeout sentinel = new Timeout(this, 0, 0, null);
+        sentinel.previous = sentinel;
+        sentinel.next = sentinel;
+        return sentinel;
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    /**
+     * Run a task once the clock passes a deadline
+     * A deadline whose tick has already passed runs on the next advance.
+     *
+     * @param deadlineMillis When to run (epoch millis)
+     * @param task What to run
+     * @return Handle to cancel the task
+     */
+    public Timeout schedule(long deadlineMillis, Runnable task) {
+        // Round up so a task never runs before its deadline
+        long expirationTick = Math.floorDiv(deadlineMillis, tickMillis)
+                + (Math.floorMod(deadlineMillis, tickMillis) == 0 ? 0 : 1);
+        Timeout timeout = new Timeout(this, deadlineMillis, expirationTick, task);
+        synchronized (this) {
+            insert(timeout);
+            pending++;
+        }
+        return timeout;
+    }
+
+    synchronized boolean cancel(Timeout timeout) {
+        if (timeout.state != Timeout.PENDING) {
+            return false;
+        }
+        unlink(timeout);
+        timeout.state = Timeout.CANCELLED;
+        pending--;
+        return true;
+    }
+
+    synchronized boolean isPending(Timeout timeout) {
+        return timeout.state == Timeout.PENDING;
+    }
+
+    /**
+     * @return Tasks scheduled and not yet run or cancelled
+     */
+    public synchronized int size() {
+        return pending;
+    }
+
+    /**
+     * Advance the clock, running every task whose deadline has passed
+     * @param nowMillis Current time (epoch millis); earlier times are ignored
+     * @return Number of tasks run
+     */
+    public int advanceTo(long nowMillis) {
+        long targetTick = Math.floorDiv(nowMillis, tickMillis);
+        int ran = 0;
+        while (true) {
+            List<Runnable> due;
+            synchronized (this) {
+                if (overdue.next != overdue) {
+                    due = drain(overdue);
+                } else if (currentTick > targetTick) {
+                    return ran;
+                } else if (pending == 0) {
+                    currentTick = targetTick + 1; // nothing to cascade or run on the way
+                    return ran;
+                } else {
+                    due = processTick();
+                }
+            }
+            for (Runnable task : due) {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    // One failing task must not stop the others
+                }
+                ran++;
+            }
+        }
+    }
+
+    /**
+     * Cascade the buckets that start at currentTick, then take the tasks due in it
+     */
+    private List<Runnable> processTick() {
+        int index = (int) (currentTick & MASK);
+        if (index == 0) {
+            for (int level = 1; level < LEVELS; level++) {
+                int levelIndex = (int) ((currentTick >>> (BITS_PER_LEVEL * level)) & MASK);
+                cascade(level, levelIndex);
+                if (levelIndex != 0) {
+                    break;
+                }
+            }
+        }
+
+        List<Runnable> due = drain(buckets[0][index]);
+        currentTick++;
+        return due;
+    }
+
+    /**
+     * Empty a bucket, marking its tasks fired
+     */
+    private List<Runnable> drain(Timeout sentinel) {
+        List<Runnable> due = sentinel.next == sentinel ? List.of() : new ArrayList<>();
+        for (Timeout timeout = sentinel.next; timeout != sentinel; ) {
+            Timeout next = timeout.next;
+            timeout.previous = null;
+            timeout.next = null;
+            timeout.state = Timeout.FIRED;
+            pending--;
+            due.add(timeout.task);
+            timeout = next;
+        }
+        sentinel.previous = sentinel;
+        sentinel.next = sentinel;
+        return due;
+    }
+
+    private void cascade(int level, int index) {
+        Timeout sentinel = buckets[level][index];
+        Timeout timeout = sentinel.next;
+        sentinel.previous = sentinel;
+        sentinel.next = sentinel;
+        while (timeout != sentinel) {
+            Timeout next = timeout.next;
+            insert(timeout);
+            timeout = next;
+        }
+    }
+
+    private void insert(Timeout timeout) {
+        long delta = timeout.expirationTick - currentTick;
+        Timeout sentinel;
+        if (delta < 0) {
+            sentinel = overdue; // its tick has passed: run on the next advance, whatever the time
+        } else {
+            long tick = timeout.expirationTick;
+            if (delta > MAX_DELTA) {
+                // Beyond the top level's span: park it at the far end and re-place it on cascade
+                delta = MAX_DELTA;
+                tick = currentTick + MAX_DELTA;
+            }
+            int level = 0;
+            while (delta >= (1L << (BITS_PER_LEVEL * (level + 1)))) {
+                level++;
+            }
+            sentinel = buckets[level][(int) ((tick >>> (BITS_PER_LEVEL * level)) & MASK)];
+        }
+        timeout.previous = sentinel.previous;
+        timeout.next = sentinel;
+        sentinel.previous.next = timeout;
+        sentinel.previous = timeout;
+    }
+
+    private static void unlink(Timeout timeout) {
+        timeout.previous.next = timeout.next;
+        timeout.next.previous = timeout.previous;
+        timeout.previous = null;
+        timeout.next = null;
+    }
+
+    /**
+     * Advance the wheel to the system clock every tick on a background thread
+     */
+    public synchronized void start() {
+        if (ticker != null) {
+            throw new IllegalStateException("Timing wheel already running");
+        }
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "timing-wheel");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(() -> advanceTo(System.currentTimeMillis()),
+                tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+            ticker = null;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package timers;
+
+import enums.EventType;
+import events.NoOpEventSink;
+import events.ParkingEvent;
+import interfaces.EventSink;
+import models.Ticket;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-ticket timers of a parking lot, kept on a HierarchicalTimingWheel
+ *
+ * Every issued ticket gets an overstay warning and a maximum-stay deadline, both measured
+ * from entry. A failed exit payment leaves the vehicle parked with an unpaid bill; unless it
+ * checks out within the payment grace period a payment-overdue event follows. Each timer
+ * publishes an event to the lot's event sink, where subscribers act on it (notify the
+ * driver, dispatch enforcement, ...). A successful exit cancels all of a ticket's timers.
+ * A period of 0 disables that timer.
+ */
+public class TicketTimers {
+    private final HierarchicalTimingWheel wheel;
+    private final long overstayWarningMillis;
+    private final long maxStayMillis;
+    private final long paymentGraceMillis;
+    private final Map<Ticket, Pending> pending = new ConcurrentHashMap<>();
+    private volatile EventSink eventSink = NoOpEventSink.INSTANCE;
+
+    /**
+     * @param wheel Wheel the timers run on; advance it or start() it
+     * @param overstayWarningMillis Stay after which a warning is published
+     * @param maxStayMillis Stay after which the maximum stay is exceeded
+     * @param paymentGraceMillis Time after a failed exit payment until the bill is overdue
+     */
+    public TicketTimers(HierarchicalTimingWheel wheel, long overstayWarningMillis, long maxStayMillis,
+                        long paymentGraceMillis) {
+        if (overstayWarningMillis < 0 || maxStayMillis < 0 || paymentGraceMillis < 0) {
+            throw new IllegalArgumentException("Timer periods cannot be negative");
+        }
+        this.wheel = wheel;
+        this.overstayWarningMillis = overstayWarningMillis;
+        this.maxStayMillis = maxStayMillis;
+        this.paymentGraceMillis = paymentGraceMillis;
+    }
+
+    public HierarchicalTimingWheel getWheel() {
+        return wheel;
+    }
+
+    public void setEventSink(EventSink eventSink) {
+        this.eventSink = eventSink;
+    }
+
+    /**
+     * @return Tickets with timers still armed
+     */
+    public int getTrackedTickets() {
+        return pending.size();
+    }
+
+    /**
+     * Arm the stay timers of a ticket
+     * Call before the ticket becomes visible to exits, so no exit can slip in between.
+     */
+    public void ticketIssued(Ticket ticket) {
+        Pending timers = new Pending();
+        pending.put(ticket, timers);
+        long entry = ticket.getEntryEpochMillis();
+        synchronized (timers) {
+            if (overstayWarningMillis > 0) {
+                timers.overstay = wheel.schedule(entry + overstayWarningMillis,
+                        () -> fire(ticket, timers, EventType.OVERSTAY_WARNING));
+            }
+            if (maxStayMillis > 0) {
+                timers.maxStay = wheel.schedule(entry + maxStayMillis,
+                        () -> fire(ticket, timers, EventType.MAX_STAY_EXCEEDED));
+            }
+        }
+    }
+
+    /**
+     * Start the grace period of an unpaid bill; later failures keep the first deadline
+     */
+    public void paymentFailed(Ticket ticket) {
+        Pending timers = pending.get(ticket);
+        if (timers == null || paymentGraceMillis == 0) {
+            return;
+        }
+        synchronized (timers) {
+            if (timers.paymentDue == null) {
+                timers.paymentDue = wheel.schedule(System.currentTimeMillis() + paymentGraceMillis,
+                        () -> fire(ticket, timers, EventType.PAYMENT_OVERDUE));
+            }
+        }
+    }
+
+    /**
+     * Disarm every timer of a ticket whose vehicle has left
+     */
+    public void ticketClosed(Ticket ticket) {
+        Pending timers = pending.remove(ticket);
+        if (timers == null) {
+            return;
+        }
+        synchronized (timers) {
+            cancel(timers.overstay);
+            cancel(timers.maxStay);
+            cancel(timers.paymentDue);
+        }
+    }
+
+    private void fire(Ticket ticket, Pending timers, EventType type) {
+        // The exit may have been processed while the wheel was collecting this task
+        EventSink sink = eventSink;
+        if (pending.get(ticket) == timers && sink.isEnabled()) {
+            sink.publish(ParkingEvent.ticketTimer(type, ticket));
+        }
+    }
+
+    private static void cancel(Timeout timeout) {
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+
+    /**
+     * Armed timers of one ticket, guarded by itself
+     */
+    private static final class Pending {
+        Timeout overstay;
+        Timeout maxStay;
+        Timeout paymentDue;
+    }
+}
@@ -0,0 +1,43 @@
+package timers;
+
+/**
+ * Handle of a task scheduled on a HierarchicalTimingWheel
+ * Doubles as the task's node in its wheel bucket, so cancelling is an O(1) unlink.
+ */
+public final class Timeout {
+    static final int PENDING = 0;
+    static final int FIRED = 1;
+    static final int CANCELLED = 2;
+
+    private final HierarchicalTimingWheel wheel;
+    private final long deadlineMillis;
+    final long expirationTick;
+    final Runnable task;
+    // Bucket links and state, guarded by the wheel
+    Timeout previous;
+    Timeout next;
+    int state = PENDING;
+
+    Timeout(HierarchicalTimingWheel wheel, long deadlineMillis, long expirationTick, Runnable task) {
+        this.wheel = wheel;
+        this.deadlineMillis = deadlineMillis;
+        this.expirationTick = expirationTick;
+        this.task = task;
+    }
+
+    public long getDeadlineMillis() {
+        return deadlineMillis;
+    }
+
+    /**
+     * Stop the task from running
+     * @return true if it was still pending
+     */
+    public boolean cancel() {
+        return wheel.cancel(this);
+    }
+
+    public boolean isPending() {
+        return wheel.isPending(this);
+    }
+}